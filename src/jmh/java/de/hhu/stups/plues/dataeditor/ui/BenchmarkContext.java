@@ -0,0 +1,191 @@
+package de.hhu.stups.plues.dataeditor.ui;
+
+import de.hhu.stups.plues.dataeditor.ui.database.DataService;
+import de.hhu.stups.plues.dataeditor.ui.database.DbService;
+import de.hhu.stups.plues.dataeditor.ui.database.events.LoadDbEvent;
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.concurrent.Task;
+import javafx.stage.Stage;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The application context of the editor used by the JMH benchmarks. The JavaFX toolkit is started
+ * headless using Monocle and the Spring context is created like {@link Main} does, so the
+ * benchmarks run against the real views and services without showing a stage.
+ */
+public final class BenchmarkContext implements AutoCloseable {
+
+  private static final long LOAD_TIMEOUT_MINUTES = 5;
+  private static final CountDownLatch toolkitStarted = new CountDownLatch(1);
+
+  private final ConfigurableApplicationContext springContext;
+  private final DbService dbService;
+  private final DataService dataService;
+
+  private BenchmarkContext(final ConfigurableApplicationContext springContext) {
+    this.springContext = springContext;
+    this.dbService = springContext.getBean(DbService.class);
+    this.dataService = springContext.getBean(DataService.class);
+  }
+
+  /**
+   * Start the JavaFX toolkit if necessary and create the application context. Waits until the
+   * database opened on start up has been loaded. The change watcher is disabled, the snapshot
+   * cache as well so that every load reads the tables.
+   */
+  public static BenchmarkContext start() throws InterruptedException {
+    startToolkit();
+    final BenchmarkContext context = new BenchmarkContext(SpringApplication.run(Main.class));
+    context.runOnFxThread(() -> {
+      context.dbService.changePollIntervalProperty().set(null);
+      context.dataService.snapshotCacheDirectoryProperty().set(null);
+      return null;
+    });
+    context.load(() -> { });
+    return context;
+  }
+
+  private static synchronized void startToolkit() throws InterruptedException {
+    if (toolkitStarted.getCount() > 0) {
+      System.setProperty("glass.platform", "Monocle");
+      System.setProperty("monocle.platform", "Headless");
+      System.setProperty("prism.order", "sw");
+      System.setProperty("prism.text", "t2k");
+      System.setProperty("java.awt.headless", "true");
+      final Thread launcher = new Thread(() -> Application.launch(ToolkitApplication.class),
+          "benchmark-toolkit");
+      launcher.setDaemon(true);
+      launcher.start();
+      toolkitStarted.await();
+    }
+  }
+
+  public <T> T getBean(final Class<T> type) {
+    return springContext.getBean(type);
+  }
+
+  public DataService getDataService() {
+    return dataService;
+  }
+
+  public DbService getDbService() {
+    return dbService;
+  }
+
+  /**
+   * Open the given database and wait until its data has been published.
+   */
+  public void loadDatabase(final File dbFile) {
+    load(() -> dbService.dbEventSource().push(new LoadDbEvent(dbFile)));
+  }
+
+  /**
+   * Run the given action on the JavaFX application thread and wait until the load task it has
+   * started, if any, has finished. The data of a finished load task has already been published.
+   */
+  public void load(final Runnable startLoad) {
+    final CountDownLatch loaded = new CountDownLatch(1);
+    final ChangeListener<Task<Void>> loadTaskListener = (observable, oldValue, newValue) -> {
+      if (newValue == null) {
+        loaded.countDown();
+      }
+    };
+    runOnFxThread(() -> {
+      startLoad.run();
+      if (dbService.dbTaskProperty().get() == null) {
+        loaded.countDown();
+      } else {
+        dbService.dbTaskProperty().addListener(loadTaskListener);
+      }
+      return null;
+    });
+    try {
+      if (!loaded.await(LOAD_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+        throw new IllegalStateException("The database has not been loaded in time");
+      }
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(exception);
+    } finally {
+      Platform.runLater(() -> dbService.dbTaskProperty().removeListener(loadTaskListener));
+    }
+  }
+
+  /**
+   * Run the given action on the JavaFX application thread and wait for its result.
+   */
+  public <T> T runOnFxThread(final Callable<T> action) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    Platform.runLater(() -> {
+      try {
+        result.complete(action.call());
+      } catch (final Exception | AssertionError exception) {
+        result.completeExceptionally(exception);
+      }
+    });
+    try {
+      return result.get(LOAD_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(exception);
+    } catch (final ExecutionException | TimeoutException exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  /**
+   * Get a copy of the published wrappers of the given entity type.
+   */
+  public List<EntityWrapper> getEntityWrappers(final EntityType entityType) {
+    switch (entityType) {
+      case COURSE:
+        return new ArrayList<>(dataService.getCourseWrappers().values());
+      case LEVEL:
+        return new ArrayList<>(dataService.getLevelWrappers().values());
+      case MODULE:
+        return new ArrayList<>(dataService.getModuleWrappers().values());
+      case ABSTRACT_UNIT:
+        return new ArrayList<>(dataService.getAbstractUnitWrappers().values());
+      case UNIT:
+        return new ArrayList<>(dataService.getUnitWrappers().values());
+      case GROUP:
+        return new ArrayList<>(dataService.getGroupWrappers().values());
+      case SESSION:
+        return new ArrayList<>(dataService.getSessionWrappers().values());
+      default:
+        return new ArrayList<>();
+    }
+  }
+
+  @Override
+  public void close() {
+    springContext.close();
+  }
+
+  /**
+   * Keeps the JavaFX toolkit running for the whole fork without showing its stage.
+   */
+  public static final class ToolkitApplication extends Application {
+
+    @Override
+    public void start(final Stage stage) {
+      Platform.setImplicitExit(false);
+      toolkitStarted.countDown();
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package de.hhu.stups.plues.dataeditor.ui.components.datavisualization;
+
+import de.hhu.stups.plues.dataeditor.ui.BenchmarkContext;
+import de.hhu.stups.plues.dataeditor.ui.database.BenchmarkDatabase;
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure showing the filtered list of an entity type in the {@link DataListView} on the JavaFX
+ * application thread. The lists are cached, so each invocation filters and sorts the wrappers of
+ * the type again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataListViewBenchmark {
+
+  @Param({"10", "50", "200"})
+  private int courses;
+
+  @Param({"MODULE", "SESSION"})
+  private EntityType entityType;
+
+  // no filter, a frequent word and no match at all
+  @Param({"", "programming", "xyz"})
+  private String query;
+
+  private BenchmarkContext context;
+  private DataListView dataListView;
+  private File dbFile;
+
+  /**
+   * Generate and open the database.
+   */
+  @Setup
+  public void setup() throws Exception {
+    dbFile = BenchmarkDatabase.generate(courses);
+    context = BenchmarkContext.start();
+    dataListView = context.getBean(DataListView.class);
+    context.loadDatabase(dbFile);
+  }
+
+  @Benchmark
+  public void loadFilteredData() {
+    context.runOnFxThread(() -> {
+      dataListView.loadFilteredData(entityType, query);
+      return null;
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    dbFile.delete();
+  }
+}
@@ -0,0 +1,83 @@
+package de.hhu.stups.plues.dataeditor.ui.components.datavisualization;
+
+import de.hhu.stups.plues.dataeditor.ui.BenchmarkContext;
+import de.hhu.stups.plues.dataeditor.ui.database.BenchmarkDatabase;
+import de.hhu.stups.plues.dataeditor.ui.database.DataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure building the tree of the {@link DataTreeView} for the loaded data, which runs off the
+ * JavaFX application thread during a load, and filtering the tree by a query on the JavaFX
+ * application thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataTreeViewBenchmark {
+
+  @Param({"10", "50", "200"})
+  private int courses;
+
+  private BenchmarkContext context;
+  private DataService dataService;
+  private DataTreeView dataTreeView;
+  private File dbFile;
+
+  /**
+   * Generate and open the database.
+   */
+  @Setup
+  public void setup() throws Exception {
+    dbFile = BenchmarkDatabase.generate(courses);
+    context = BenchmarkContext.start();
+    dataService = context.getDataService();
+    dataTreeView = context.getBean(DataTreeView.class);
+    context.loadDatabase(dbFile);
+  }
+
+  @Benchmark
+  public Runnable buildDataTree() {
+    return dataTreeView.buildDataTree(dataService.getEntitySnapshot());
+  }
+
+  /**
+   * Filter by the given query, only this benchmark depends on the query.
+   */
+  @Benchmark
+  public void filterDataTree(final Query query) {
+    context.runOnFxThread(() -> {
+      dataTreeView.filterDataTree(query.query);
+      return null;
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    dbFile.delete();
+  }
+
+  @State(Scope.Benchmark)
+  public static class Query {
+    // a frequent word, a single entity and no match at all
+    @Param({"programming", "p-m-42", "xyz"})
+    private String query;
+  }
+}
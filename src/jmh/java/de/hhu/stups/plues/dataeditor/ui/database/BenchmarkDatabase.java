@@ -0,0 +1,226 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generate databases of a given number of courses for the JMH benchmarks. The schema is copied
+ * from the database shipped with the editor, db.sqlite3 in the working directory. Each course has
+ * three levels with two sub levels, each sub level four modules with two abstract units and each
+ * abstract unit a unit with two groups of one session. Every fourth course is a minor of the
+ * majors before it. The titles are taken from a small vocabulary so that a query matches a share
+ * of the entities.
+ */
+public final class BenchmarkDatabase {
+
+  private static final String TEMPLATE = "db.sqlite3";
+  private static final String[] WORDS = {"Analysis", "Algebra", "Programming", "Databases",
+      "Networks", "Statistics", "Physics", "Chemistry", "Logic", "Compilers", "Graphics"};
+  private static final String[] DAYS = {"mon", "tue", "wed", "thu", "fri"};
+
+  private final Connection connection;
+  private final List<PreparedStatement> statements = new ArrayList<>();
+  private final PreparedStatement insertCourse;
+  private final PreparedStatement insertMinor;
+  private final PreparedStatement insertLevel;
+  private final PreparedStatement insertCourseLevel;
+  private final PreparedStatement insertModule;
+  private final PreparedStatement insertModuleLevel;
+  private final PreparedStatement insertAbstractUnit;
+  private final PreparedStatement insertModuleAbstractUnitType;
+  private final PreparedStatement insertModuleAbstractUnitSemester;
+  private final PreparedStatement insertUnit;
+  private final PreparedStatement insertUnitAbstractUnit;
+  private final PreparedStatement insertUnitSemester;
+  private final PreparedStatement insertGroup;
+  private final PreparedStatement insertSession;
+  private int levelId;
+  private int moduleId;
+  private int abstractUnitId;
+  private int unitId;
+  private int groupId;
+  private int sessionId;
+
+  private BenchmarkDatabase(final Connection connection) throws SQLException {
+    this.connection = connection;
+    insertCourse = prepare("INSERT INTO courses (id, key, degree, short_name, name, kzfa, po, "
+        + "credit_points) VALUES (?, ?, 'bk', ?, ?, ?, 2018, 120)");
+    insertMinor = prepare("INSERT INTO minors (course_id, minor_course_id) VALUES (?, ?)");
+    insertLevel = prepare("INSERT INTO levels (id, name, min_credit_points, max_credit_points, "
+        + "parent_id) VALUES (?, ?, 10, 40, ?)");
+    insertCourseLevel = prepare("INSERT INTO course_levels (course_id, level_id) VALUES (?, ?)");
+    insertModule = prepare("INSERT INTO modules (id, key, title, pordnr, elective_units, "
+        + "bundled) VALUES (?, ?, ?, ?, 0, 1)");
+    insertModuleLevel = prepare("INSERT INTO module_levels (module_id, level_id, course_id, "
+        + "name, mandatory, credit_points) VALUES (?, ?, ?, ?, 1, 10)");
+    insertAbstractUnit =
+        prepare("INSERT INTO abstract_units (id, key, title) VALUES (?, ?, ?)");
+    insertModuleAbstractUnitType = prepare("INSERT INTO modules_abstract_units_types "
+        + "(abstract_unit_id, module_id, type) VALUES (?, ?, 'm')");
+    insertModuleAbstractUnitSemester = prepare("INSERT INTO modules_abstract_units_semesters "
+        + "(abstract_unit_id, module_id, semester) VALUES (?, ?, ?)");
+    insertUnit = prepare("INSERT INTO units (id, unit_key, title) VALUES (?, ?, ?)");
+    insertUnitAbstractUnit =
+        prepare("INSERT INTO unit_abstract_unit (unit_id, abstract_unit_id) VALUES (?, ?)");
+    insertUnitSemester = prepare("INSERT INTO unit_semester (unit_id, semester) VALUES (?, ?)");
+    insertGroup = prepare("INSERT INTO groups (id, unit_id, half_semester) VALUES (?, ?, 0)");
+    insertSession = prepare("INSERT INTO sessions (id, group_id, day, time, duration, rhythm) "
+        + "VALUES (?, ?, ?, ?, 2, 0)");
+  }
+
+  /**
+   * Generate a temporary database of the given number of courses, it is deleted on exit.
+   */
+  public static File generate(final int courses) throws IOException, SQLException {
+    final File dbFile = File.createTempFile("plues-benchmark-" + courses + "-", ".sqlite3");
+    dbFile.deleteOnExit();
+    try (final Connection connection =
+             DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath())) {
+      connection.setAutoCommit(false);
+      copySchema(connection);
+      final BenchmarkDatabase benchmarkDatabase = new BenchmarkDatabase(connection);
+      benchmarkDatabase.fill(courses);
+      benchmarkDatabase.close();
+      connection.commit();
+    }
+    return dbFile;
+  }
+
+  private static void copySchema(final Connection connection) throws SQLException {
+    try (final Connection template = DriverManager.getConnection("jdbc:sqlite:" + TEMPLATE);
+         final Statement query = template.createStatement();
+         final ResultSet schema = query.executeQuery("SELECT sql FROM sqlite_master "
+             + "WHERE sql IS NOT NULL AND name NOT LIKE 'sqlite%' ORDER BY rowid");
+         final Statement statement = connection.createStatement()) {
+      while (schema.next()) {
+        statement.execute(schema.getString(1));
+      }
+    }
+  }
+
+  private PreparedStatement prepare(final String sql) throws SQLException {
+    final PreparedStatement statement = connection.prepareStatement(sql);
+    statements.add(statement);
+    return statement;
+  }
+
+  private void fill(final int courses) throws SQLException {
+    for (int courseId = 1; courseId <= courses; courseId++) {
+      final boolean minor = courseId % 4 == 0;
+      final String title = word(courseId) + " " + courseId;
+      insertCourse.setInt(1, courseId);
+      insertCourse.setString(2, "BK-C" + courseId + (minor ? "-N-2018" : "-H-2018"));
+      insertCourse.setString(3, "c" + courseId);
+      insertCourse.setString(4, (minor ? "Nebenfach " : "Bachelor ") + title);
+      insertCourse.setString(5, minor ? "N" : "H");
+      insertCourse.addBatch();
+      if (minor) {
+        for (int majorId = courseId - 3; majorId < courseId; majorId++) {
+          insertMinor.setInt(1, majorId);
+          insertMinor.setInt(2, courseId);
+          insertMinor.addBatch();
+        }
+      }
+      for (int level = 0; level < 3; level++) {
+        final int parentId = addLevel(null);
+        insertCourseLevel.setInt(1, courseId);
+        insertCourseLevel.setInt(2, parentId);
+        insertCourseLevel.addBatch();
+        for (int subLevel = 0; subLevel < 2; subLevel++) {
+          final int subLevelId = addLevel(parentId);
+          for (int module = 0; module < 4; module++) {
+            addModule(courseId, subLevelId);
+          }
+        }
+      }
+    }
+    for (final PreparedStatement statement : statements) {
+      statement.executeBatch();
+    }
+  }
+
+  private int addLevel(final Integer parentId) throws SQLException {
+    levelId++;
+    insertLevel.setInt(1, levelId);
+    insertLevel.setString(2, (parentId == null ? "Bereich " : "Wahlbereich ") + word(levelId));
+    insertLevel.setObject(3, parentId);
+    insertLevel.addBatch();
+    return levelId;
+  }
+
+  private void addModule(final int courseId, final int subLevelId) throws SQLException {
+    moduleId++;
+    final String title = word(moduleId) + " " + moduleId;
+    insertModule.setInt(1, moduleId);
+    insertModule.setString(2, "P-M-" + moduleId);
+    insertModule.setString(3, title);
+    insertModule.setInt(4, moduleId);
+    insertModule.addBatch();
+    insertModuleLevel.setInt(1, moduleId);
+    insertModuleLevel.setInt(2, subLevelId);
+    insertModuleLevel.setInt(3, courseId);
+    insertModuleLevel.setString(4, title);
+    insertModuleLevel.addBatch();
+    for (int abstractUnit = 0; abstractUnit < 2; abstractUnit++) {
+      addAbstractUnit();
+    }
+  }
+
+  private void addAbstractUnit() throws SQLException {
+    abstractUnitId++;
+    final int semester = 1 + abstractUnitId % 6;
+    insertAbstractUnit.setInt(1, abstractUnitId);
+    insertAbstractUnit.setString(2, "P-L-" + abstractUnitId);
+    insertAbstractUnit.setString(3, "Vorlesung " + word(abstractUnitId) + " " + abstractUnitId);
+    insertAbstractUnit.addBatch();
+    insertModuleAbstractUnitType.setInt(1, abstractUnitId);
+    insertModuleAbstractUnitType.setInt(2, moduleId);
+    insertModuleAbstractUnitType.addBatch();
+    insertModuleAbstractUnitSemester.setInt(1, abstractUnitId);
+    insertModuleAbstractUnitSemester.setInt(2, moduleId);
+    insertModuleAbstractUnitSemester.setInt(3, semester);
+    insertModuleAbstractUnitSemester.addBatch();
+
+    unitId++;
+    insertUnit.setInt(1, unitId);
+    insertUnit.setString(2, "U" + unitId);
+    insertUnit.setString(3, word(unitId) + " " + unitId);
+    insertUnit.addBatch();
+    insertUnitAbstractUnit.setInt(1, unitId);
+    insertUnitAbstractUnit.setInt(2, abstractUnitId);
+    insertUnitAbstractUnit.addBatch();
+    insertUnitSemester.setInt(1, unitId);
+    insertUnitSemester.setInt(2, semester);
+    insertUnitSemester.addBatch();
+    for (int group = 0; group < 2; group++) {
+      groupId++;
+      insertGroup.setInt(1, groupId);
+      insertGroup.setInt(2, unitId);
+      insertGroup.addBatch();
+      sessionId++;
+      insertSession.setInt(1, sessionId);
+      insertSession.setInt(2, groupId);
+      insertSession.setString(3, DAYS[sessionId % DAYS.length]);
+      insertSession.setInt(4, 1 + sessionId % 7);
+      insertSession.addBatch();
+    }
+  }
+
+  private static String word(final int id) {
+    return WORDS[id % WORDS.length];
+  }
+
+  private void close() throws SQLException {
+    for (final PreparedStatement statement : statements) {
+      statement.close();
+    }
+  }
+}
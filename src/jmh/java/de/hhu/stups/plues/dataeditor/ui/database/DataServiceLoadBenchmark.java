@@ -0,0 +1,68 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.BenchmarkContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the complete load of a generated database by {@link DataService#reloadData()}: the
+ * tables are read flat, the relations are wired nested, the tree is built and everything is
+ * published on the JavaFX application thread. The snapshot cache is disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataServiceLoadBenchmark {
+
+  @Param({"10", "50", "200"})
+  private int courses;
+
+  @Param({"SNAPSHOT", "REPOSITORY"})
+  private DataLoadMode loadMode;
+
+  private BenchmarkContext context;
+  private DataService dataService;
+  private File dbFile;
+
+  /**
+   * Generate the database and open it in the given load mode.
+   */
+  @Setup
+  public void setup() throws Exception {
+    dbFile = BenchmarkDatabase.generate(courses);
+    context = BenchmarkContext.start();
+    dataService = context.getDataService();
+    context.runOnFxThread(() -> {
+      dataService.loadModeProperty().set(loadMode);
+      return null;
+    });
+    context.loadDatabase(dbFile);
+  }
+
+  @Benchmark
+  public void loadData() {
+    context.load(dataService::reloadData);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    dbFile.delete();
+  }
+}
@@ -0,0 +1,82 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.BenchmarkContext;
+import de.hhu.stups.plues.dataeditor.ui.database.events.DataChangeEvent;
+import de.hhu.stups.plues.dataeditor.ui.database.events.DataChangeType;
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the persistence of a single {@link DataChangeType#STORE_ENTITY} event per entity type.
+ * The event is pushed on the JavaFX application thread like the edit views do and the benchmark
+ * waits for the write, so the cost includes the transaction, the synchronization of the join
+ * tables and the update of the views.
+ * The stored wrappers are taken in turn from all wrappers of the type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataServicePersistBenchmark {
+
+  @Param({"50"})
+  private int courses;
+
+  @Param({"COURSE", "LEVEL", "MODULE", "ABSTRACT_UNIT", "UNIT", "GROUP", "SESSION"})
+  private EntityType entityType;
+
+  private BenchmarkContext context;
+  private DataService dataService;
+  private File dbFile;
+  private List<EntityWrapper> entityWrappers;
+  private int next;
+
+  /**
+   * Generate and open the database.
+   */
+  @Setup
+  public void setup() throws Exception {
+    dbFile = BenchmarkDatabase.generate(courses);
+    context = BenchmarkContext.start();
+    dataService = context.getDataService();
+    context.loadDatabase(dbFile);
+    entityWrappers = context.getEntityWrappers(entityType);
+  }
+
+  @Benchmark
+  public void persistData() {
+    final EntityWrapper entityWrapper = entityWrappers.get(next);
+    next = (next + 1) % entityWrappers.size();
+    context.runOnFxThread(() -> {
+      dataService.dataChangeEventSource()
+          .push(new DataChangeEvent(DataChangeType.STORE_ENTITY, entityWrapper));
+      return null;
+    });
+    // the writes run in the order of their submission, so the event has been persisted by now
+    context.getDbService().submitWrite(() -> null).join();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    dbFile.delete();
+  }
+}
@@ -0,0 +1,101 @@
+package org.hibernate.usertype;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the hydration of a time stamp column by {@link SqliteDateTimeType} with the zoned
+ * formatter it has used before. The result set returns the same text for every column.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqliteDateTimeTypeBenchmark {
+
+  private static final String[] COLUMNS = {"updated_at"};
+
+  @Param({"2016-04-27 15:40:18", "2017-10-29 01:30:00"})
+  private String timeStamp;
+
+  private final SqliteDateTimeType type = new SqliteDateTimeType();
+  private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd kk:mm:ss");
+  private ResultSet resultSet;
+  private ResultSet nullResultSet;
+  private LocalDateTime localDateTime;
+
+  /**
+   * Create result sets returning the time stamp respectively SQL NULL.
+   */
+  @Setup
+  public void setup() throws SQLException {
+    resultSet = resultSetOf(timeStamp);
+    nullResultSet = resultSetOf(null);
+    localDateTime = (LocalDateTime) type.nullSafeGet(resultSet, COLUMNS, null, null);
+  }
+
+  /**
+   * The former implementation of {@link SqliteDateTimeType#nullSafeGet}.
+   */
+  @Benchmark
+  public LocalDateTime zonedFormatterGet() throws SQLException {
+    final String dateStr = resultSet.getString(COLUMNS[0]);
+    final DateTimeFormatter utcFormatter = formatter.withZone(ZoneId.of("UTC"));
+    return ZonedDateTime.parse(dateStr, utcFormatter)
+        .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+  }
+
+  @Benchmark
+  public Object nullSafeGet() throws SQLException {
+    return type.nullSafeGet(resultSet, COLUMNS, null, null);
+  }
+
+  @Benchmark
+  public Object nullSafeGetNull() throws SQLException {
+    return type.nullSafeGet(nullResultSet, COLUMNS, null, null);
+  }
+
+  /**
+   * The former conversion of {@link SqliteDateTimeType#nullSafeSet}.
+   */
+  @Benchmark
+  public String zonedFormatterFormat() {
+    return formatter.format(localDateTime.atZone(ZoneId.systemDefault())
+        .withZoneSameInstant(ZoneId.of("UTC")));
+  }
+
+  @Benchmark
+  public String format() {
+    return SqliteTimeStamps.format(SqliteTimeStamps.localToUtc(localDateTime));
+  }
+
+  private static ResultSet resultSetOf(final String value) {
+    return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+        new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+          if ("getString".equals(method.getName())) {
+            return value;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
@@ -0,0 +1,15 @@
+package de.hhu.stups.plues.dataeditor.exceptions;
+
+public class DataImportException extends RuntimeException {
+  public DataImportException(final String message) {
+    super(message);
+  }
+
+  public DataImportException(final Exception exception) {
+    super(exception.getMessage(), exception);
+  }
+
+  public DataImportException(final String message, final Exception exception) {
+    super(message, exception);
+  }
+}
@@ -0,0 +1,7 @@
+package de.hhu.stups.plues.dataeditor.exceptions;
+
+public class DataLoadException extends RuntimeException {
+  public DataLoadException(final Exception exception) {
+    super(exception.getMessage(), exception);
+  }
+}
@@ -0,0 +1,7 @@
+package de.hhu.stups.plues.dataeditor.exceptions;
+
+public class DataSaveException extends RuntimeException {
+  public DataSaveException(final Exception exception) {
+    super(exception.getMessage(), exception);
+  }
+}
@@ -1,5 +1,6 @@
 package de.hhu.stups.plues.dataeditor.injector;
 
+import de.hhu.stups.plues.dataeditor.ui.database.CurrentDataSource;
 import de.hhu.stups.plues.dataeditor.ui.database.DbService;
 import javafx.fxml.FXMLLoader;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -66,11 +67,11 @@ public class DataEditorModule {
   }
 
   /**
-   * Provide the DataSource.
+   * Provide the DataSource, which always uses the connection pool of the current database.
    */
   @Bean
   @Lazy
   public DataSource dataSource() {
-    return dbService.dataSourceProperty().get();
+    return new CurrentDataSource(dbService);
   }
 }
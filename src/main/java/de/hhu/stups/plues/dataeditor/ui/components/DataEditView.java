@@ -15,9 +15,12 @@ import de.hhu.stups.plues.dataeditor.ui.entities.ModuleWrapper;
 import de.hhu.stups.plues.dataeditor.ui.entities.SessionWrapper;
 import de.hhu.stups.plues.dataeditor.ui.entities.UnitWrapper;
 import de.hhu.stups.plues.dataeditor.ui.layout.Inflater;
+import de.jensd.fx.glyphs.fontawesome.FontAwesomeIcon;
+import de.jensd.fx.glyphs.fontawesome.FontAwesomeIconView;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
+import javafx.scene.control.Tooltip;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -64,11 +67,33 @@ public class DataEditView extends TabPane implements Initializable {
     if (dataChangeEvent.getDataChangeType().changeEntity()
           || dataChangeEvent.getDataChangeType().addEntity()) {
       addEntityTab(dataChangeEvent.getChangedEntity());
+    } else if (dataChangeEvent.getDataChangeType().refreshEntity()
+          || dataChangeEvent.getDataChangeType().removeEntity()) {
+      markChangedTabs(dataChangeEvent);
     }
   }
 
+  /**
+   * Warn in the open tabs of an entity that has been changed or deleted outside of the editor,
+   * its edit view shows the values of the database now.
+   */
+  private void markChangedTabs(final DataChangeEvent dataChangeEvent) {
+    final String warning = resources.getString(dataChangeEvent.getDataChangeType().removeEntity()
+          ? "removedExternally" : "changedExternally");
+    getTabs().stream()
+          .filter(tab -> tab.getUserData() == dataChangeEvent.getChangedEntity())
+          .forEach(tab -> {
+            final FontAwesomeIconView warningIcon =
+                  new FontAwesomeIconView(FontAwesomeIcon.EXCLAMATION_TRIANGLE);
+            warningIcon.setGlyphSize(12);
+            tab.setGraphic(warningIcon);
+            tab.setTooltip(new Tooltip(warning));
+          });
+  }
+
   private void addEntityTab(final EntityWrapper entityWrapper) {
     final Tab tab = new Tab();
+    tab.setUserData(entityWrapper);
     switch (entityWrapper.getEntityType()) {
       case COURSE:
         tab.setText(resources.getString("course"));
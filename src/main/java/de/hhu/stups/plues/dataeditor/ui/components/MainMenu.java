@@ -1,9 +1,15 @@
 package de.hhu.stups.plues.dataeditor.ui.components;
 
+import de.hhu.stups.plues.dataeditor.ui.database.DataService;
 import de.hhu.stups.plues.dataeditor.ui.database.DbService;
+import de.hhu.stups.plues.dataeditor.ui.database.SqliteProfile;
 import de.hhu.stups.plues.dataeditor.ui.database.events.LoadDbEvent;
+import de.hhu.stups.plues.dataeditor.ui.database.transfer.DataExporter;
+import de.hhu.stups.plues.dataeditor.ui.database.transfer.DataImporter;
+import de.hhu.stups.plues.dataeditor.ui.database.transfer.ExportFormat;
 import de.hhu.stups.plues.dataeditor.ui.layout.Inflater;
 import javafx.fxml.FXML;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
 import javafx.stage.FileChooser;
@@ -14,10 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.List;
 import java.util.ResourceBundle;
 
 
@@ -26,6 +29,9 @@ public class MainMenu extends MenuBar {
 
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private final DbService dbService;
+  private final DataService dataService;
+  private final DataExporter dataExporter;
+  private final DataImporter dataImporter;
 
   private ResourceBundle resources;
 
@@ -34,37 +40,88 @@ public class MainMenu extends MenuBar {
   private MenuItem menuItemOpenDb;
   @FXML
   @SuppressWarnings("unused")
+  private MenuItem menuItemOpenDbFast;
+  @FXML
+  @SuppressWarnings("unused")
+  private MenuItem menuItemRefreshDb;
+  @FXML
+  @SuppressWarnings("unused")
+  private MenuItem menuItemSaveDb;
+  @FXML
+  @SuppressWarnings("unused")
   private MenuItem menuItemSaveDbAs;
   @FXML
   @SuppressWarnings("unused")
   private MenuItem menuItemExportDb;
+  @FXML
+  @SuppressWarnings("unused")
+  private MenuItem menuItemImportDb;
+  @FXML
+  @SuppressWarnings("unused")
+  private CheckMenuItem menuItemWorkingCopy;
+  @FXML
+  @SuppressWarnings("unused")
+  private MenuItem menuItemDiscardChanges;
 
   /**
    * Injecting necessary Components into the MainMenu.
    * @param inflater for opening the fxml file.
    * @param dbService communication with database.
+   * @param dataService for refreshing the loaded data.
+   * @param dataExporter for exporting the database.
+   * @param dataImporter for importing data into the database.
    * @param resources for necessary text display.
    */
   @Autowired
   public MainMenu(final Inflater inflater,
                   final DbService dbService,
+                  final DataService dataService,
+                  final DataExporter dataExporter,
+                  final DataImporter dataImporter,
                   final ResourceBundle resources) {
     this.dbService = dbService;
+    this.dataService = dataService;
+    this.dataExporter = dataExporter;
+    this.dataImporter = dataImporter;
     this.resources = resources;
     inflater.inflate("components/main_menu", this, this, "main");
   }
 
+  /**
+   * Bind the menu items to the state of the {@link DbService}.
+   */
   public void initialize() {
+    menuItemWorkingCopy.selectedProperty().bindBidirectional(
+        dbService.workingCopyModeProperty());
+    menuItemSaveDb.disableProperty().bind(dbService.dbFileProperty().isNull()
+        .or(dbService.workingCopyModeProperty().not()));
+    menuItemDiscardChanges.disableProperty().bind(menuItemSaveDb.disableProperty());
+    menuItemRefreshDb.disableProperty().bind(dbService.dbFileProperty().isNull());
     menuItemSaveDbAs.disableProperty().bind(dbService.dbFileProperty().isNull());
     menuItemExportDb.disableProperty().bind(dbService.dbFileProperty().isNull());
+    menuItemImportDb.disableProperty().bind(dbService.dbFileProperty().isNull());
   }
 
   /**
-   * Open a .sqlite database.
+   * Open a .sqlite database using the default {@link SqliteProfile} of the {@link DbService}.
    */
   @FXML
   @SuppressWarnings("unused")
   private void openDb() {
+    openDb(null);
+  }
+
+  /**
+   * Open a .sqlite database using the {@link SqliteProfile#FAST} preset, which switches the
+   * database file to the write ahead log.
+   */
+  @FXML
+  @SuppressWarnings("unused")
+  private void openDbFast() {
+    openDb(SqliteProfile.FAST);
+  }
+
+  private void openDb(final SqliteProfile sqliteProfile) {
     final FileChooser fileChooser = new FileChooser();
     final FileChooser.ExtensionFilter extFilter =
         new FileChooser.ExtensionFilter("SQLite Database (*.sqlite3)", "*.sqlite3");
@@ -72,40 +129,90 @@ public class MainMenu extends MenuBar {
     fileChooser.setTitle(resources.getString("openDbTitle"));
     final File file = fileChooser.showOpenDialog(this.getScene().getWindow());
     if (file != null) {
-      dbService.dbEventSource().push(new LoadDbEvent(file));
+      dbService.dbEventSource().push(new LoadDbEvent(file, sqliteProfile));
     }
   }
 
   /**
-   * Show a file chooser dialog and save the .sqlite database using the obtained path.
+   * Take over the changes made to the opened database by other applications.
+   */
+  @FXML
+  @SuppressWarnings("unused")
+  private void refreshDb() {
+    dataService.refreshData();
+  }
+
+  /**
+   * Write the working copy back to the opened .sqlite database.
+   */
+  @FXML
+  @SuppressWarnings("unused")
+  private void saveDb() {
+    dbService.saveWorkingCopy().exceptionally(exception -> {
+      logger.error("Error saving the working copy", exception);
+      return null;
+    });
+  }
+
+  /**
+   * Discard the changes of the working copy since the last save.
+   */
+  @FXML
+  @SuppressWarnings("unused")
+  private void discardChanges() {
+    dbService.discardWorkingCopy();
+  }
+
+  /**
+   * Show a file chooser dialog and save a snapshot of the .sqlite database using the obtained path
+   * in the background.
    */
   @FXML
   @SuppressWarnings("unused")
   private void saveDbAs() {
-    final Path source = dbService.getDbFile().toPath();
     final FileChooser fileChooser = new FileChooser();
     final FileChooser.ExtensionFilter extFilter =
         new FileChooser.ExtensionFilter("SQLite Database (*.sqlite3)", "*.sqlite3");
     fileChooser.getExtensionFilters().add(extFilter);
-    fileChooser.setInitialFileName(source.getFileName().toString());
+    fileChooser.setInitialFileName(dbService.getDbFile().getName());
     final File file = fileChooser.showSaveDialog(this.getScene().getWindow());
     if (file != null) {
-      final Path destination = file.toPath();
-      try {
-        Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
-      } catch (final IOException exception) {
-        logger.error("Error saving .sqlite3 database to " + destination.toString(), exception);
-      }
+      dbService.saveAs(file);
     }
   }
 
   /**
-   * Export the database to raw .xml files.
+   * Export all tables of the database to a .xml or .json file in the background.
    */
   @FXML
   @SuppressWarnings("unused")
   private void exportDb() {
-    //TODO Eventuell später.
+    final FileChooser fileChooser = new FileChooser();
+    for (final ExportFormat format : ExportFormat.values()) {
+      fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+          format.name() + " (*." + format.getExtension() + ")", "*." + format.getExtension()));
+    }
+    fileChooser.setTitle(resources.getString("exportDbTitle"));
+    final File file = fileChooser.showSaveDialog(this.getScene().getWindow());
+    if (file != null) {
+      dataExporter.export(file, ExportFormat.ofFileName(file.getName()));
+    }
+  }
+
+  /**
+   * Import the tables of .xml, .json or .csv files into the database in the background.
+   */
+  @FXML
+  @SuppressWarnings("unused")
+  private void importDb() {
+    final FileChooser fileChooser = new FileChooser();
+    fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+        "XML, JSON, CSV (*.xml, *.json, *.csv)", "*.xml", "*.json", "*.csv"));
+    fileChooser.setTitle(resources.getString("importDbTitle"));
+    final List<File> files = fileChooser.showOpenMultipleDialog(this.getScene().getWindow());
+    if (files != null && !files.isEmpty()) {
+      dataImporter.importFiles(files);
+    }
   }
 
   /**
@@ -102,7 +102,8 @@ public class CourseEdit extends GridPane implements Initializable {
 
   private void updateData(final DataChangeEvent dataChangeEvent) {
     final EntityWrapper changedEntity = dataChangeEvent.getChangedEntity();
-    if (dataChangeEvent.getDataChangeType().equals(DataChangeType.DELETE_ENTITY)
+    if ((dataChangeEvent.getDataChangeType().deleteEntity()
+        || dataChangeEvent.getDataChangeType().removeEntity())
         && changedEntity.getEntityType().equals(EntityType.COURSE)) {
       final CourseWrapper changedCourseWrapper = (CourseWrapper) changedEntity;
       listViewMajorsOrMinors.getItems().remove(changedCourseWrapper);
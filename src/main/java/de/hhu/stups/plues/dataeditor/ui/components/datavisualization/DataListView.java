@@ -2,13 +2,19 @@ package de.hhu.stups.plues.dataeditor.ui.components.datavisualization;
 
 import de.hhu.stups.plues.dataeditor.ui.database.DataService;
 import de.hhu.stups.plues.dataeditor.ui.database.events.DataChangeEvent;
+import de.hhu.stups.plues.dataeditor.ui.entities.AbstractUnitWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.CourseWrapper;
 import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
 import de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.LevelWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.ModuleWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.UnitWrapper;
 import de.hhu.stups.plues.dataeditor.ui.layout.Inflater;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIcon;
 import de.jensd.fx.glyphs.fontawesome.utils.FontAwesomeIconFactory;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.ComboBox;
@@ -20,12 +26,16 @@ import javafx.scene.input.TransferMode;
 import javafx.scene.layout.VBox;
 import javafx.util.StringConverter;
 import org.controlsfx.control.textfield.CustomTextField;
-import org.fxmisc.easybind.EasyBind;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.net.URL;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -34,6 +44,7 @@ public class DataListView extends VBox implements Initializable {
   private final DataService dataService;
   private final ExtendedDataContextMenu dataContextMenu;
 
+  private final Map<EntityType, EntityWrapperList> entityWrapperLists;
   private ResourceBundle resources;
 
   @FXML
@@ -54,6 +65,7 @@ public class DataListView extends VBox implements Initializable {
                       final DataService dataService) {
     this.dataService = dataService;
     this.dataContextMenu = new ExtendedDataContextMenu(dataService, DataContextMenuType.FLAT);
+    this.entityWrapperLists = new EnumMap<>(EntityType.class);
     inflater.inflate("components/datavisualization/data_list_view", this, this, "data_view");
   }
 
@@ -87,21 +99,30 @@ public class DataListView extends VBox implements Initializable {
       clipboardContent.putString("");
       db.setContent(clipboardContent);
     });
-    EasyBind.subscribe(txtQuery.textProperty(), filter -> loadFilteredData(filter.toLowerCase()));
+    QueryFilter.<Runnable>subscribe(txtQuery.textProperty(), filter -> {
+      final EntityWrapperList entityWrapperList =
+          getEntityWrapperList(cbEntityType.getSelectionModel().getSelectedItem());
+      final List<EntityWrapper> entityWrappers = entityWrapperList.copyEntityWrappers();
+      return () -> {
+        final Set<EntityWrapper> matchingEntityWrappers = entityWrappers.stream()
+            .filter(entityWrapper -> matches(entityWrapper, filter.toLowerCase()))
+            .collect(Collectors.toSet());
+        final Set<EntityWrapper> filteredEntityWrappers = new HashSet<>(entityWrappers);
+        // wrappers added in the meantime are shown until the next query
+        return () -> entityWrapperList.setPredicate(filter.isEmpty() ? null : entityWrapper ->
+            matchingEntityWrappers.contains(entityWrapper)
+                || !filteredEntityWrappers.contains(entityWrapper));
+      };
+    }, Runnable::run);
   }
 
   private void updateDataList(final DataChangeEvent dataChangeEvent) {
     switch (dataChangeEvent.getDataChangeType()) {
       case RELOAD_DB:
-        Platform.runLater(() -> loadData(cbEntityType.getSelectionModel().getSelectedItem()));
-        break;
-      case INSERT_NEW_ENTITY:
-        if (cbEntityType.getValue() == dataChangeEvent.getChangedEntity().getEntityType()) {
-          listView.getItems().add(dataChangeEvent.getChangedEntity());
-        }
-        break;
-      case DELETE_ENTITY:
-        listView.getItems().remove(dataChangeEvent.getChangedEntity());
+        // recreate the lists instead of applying the whole database as single changes
+        entityWrapperLists.values().forEach(EntityWrapperList::dispose);
+        entityWrapperLists.clear();
+        loadData(cbEntityType.getSelectionModel().getSelectedItem());
         break;
       default:
         break;
@@ -125,80 +146,85 @@ public class DataListView extends VBox implements Initializable {
     cbEntityType.getSelectionModel().selectFirst();
   }
 
+  /**
+   * Show the cached list of the given entity type and apply the current filter to it.
+   */
   private void loadData(final EntityType entityType) {
-    listView.getItems().clear();
+    loadFilteredData(entityType, txtQuery.getText());
+  }
+
+  /**
+   * Show the cached list of the given entity type filtered by the given query, which may be null.
+   * Visible for benchmarks.
+   */
+  void loadFilteredData(final EntityType entityType, final String query) {
+    final EntityWrapperList entityWrapperList = getEntityWrapperList(entityType);
+    final String filter = query == null ? "" : query.toLowerCase();
+    entityWrapperList.setPredicate(filter.isEmpty() ? null
+        : entityWrapper -> matches(entityWrapper, filter));
+    listView.setItems(entityWrapperList.getSortedList());
+  }
+
+  private EntityWrapperList getEntityWrapperList(final EntityType entityType) {
+    return entityWrapperLists.computeIfAbsent(entityType,
+        type -> new EntityWrapperList(getEntityWrappers(type)));
+  }
+
+  private ObservableMap<Integer, ? extends EntityWrapper> getEntityWrappers(
+      final EntityType entityType) {
     switch (entityType) {
       case COURSE:
-        listView.getItems().addAll(dataService.getCourseWrappers().values());
-        break;
+        return dataService.getCourseWrappers();
       case LEVEL:
-        listView.getItems().addAll(dataService.getLevelWrappers().values());
-        break;
+        return dataService.getLevelWrappers();
       case MODULE:
-        listView.getItems().addAll(dataService.getModuleWrappers().values());
-        break;
+        return dataService.getModuleWrappers();
       case ABSTRACT_UNIT:
-        listView.getItems().addAll(dataService.getAbstractUnitWrappers().values());
-        break;
+        return dataService.getAbstractUnitWrappers();
       case UNIT:
-        listView.getItems().addAll(dataService.getUnitWrappers().values());
-        break;
+        return dataService.getUnitWrappers();
       case GROUP:
-        listView.getItems().addAll(dataService.getGroupWrappers().values());
-        break;
+        return dataService.getGroupWrappers();
       case SESSION:
-        listView.getItems().addAll(dataService.getSessionWrappers().values());
-        break;
+        return dataService.getSessionWrappers();
       default:
-        break;
+        return FXCollections.emptyObservableMap();
     }
   }
 
-  private void loadFilteredData(String filter) {
-    listView.getItems().clear();
-    switch (cbEntityType.getSelectionModel().getSelectedItem()) {
+  /**
+   * Check if the given wrapper matches the lower-cased filter. Only reads the wrapper and may be
+   * called off the JavaFX application thread.
+   */
+  private static boolean matches(final EntityWrapper entityWrapper, final String filter) {
+    if (filter.isEmpty()) {
+      return true;
+    }
+    switch (entityWrapper.getEntityType()) {
       case COURSE:
-        listView.setItems((dataService.getCourseWrappers().values().stream().filter(
-            courseWrapper -> courseWrapper.getLongName().toLowerCase().contains(filter)
-                || courseWrapper.getShortName().toLowerCase().contains(filter)
-                || courseWrapper.getKey().toLowerCase().contains(filter))).collect(
-            Collectors.toCollection(FXCollections::observableArrayList)));
-        break;
+        final CourseWrapper courseWrapper = (CourseWrapper) entityWrapper;
+        return courseWrapper.getLongName().toLowerCase().contains(filter)
+            || courseWrapper.getShortName().toLowerCase().contains(filter)
+            || courseWrapper.getKey().toLowerCase().contains(filter);
       case LEVEL:
-        listView.setItems((dataService.getLevelWrappers().values().stream().filter(
-            levelWrapper -> levelWrapper.getName().toLowerCase().contains(filter))).collect(
-            Collectors.toCollection(FXCollections::observableArrayList)));
-        break;
+        return ((LevelWrapper) entityWrapper).getName().toLowerCase().contains(filter);
       case MODULE:
-        listView.setItems((dataService.getModuleWrappers().values().stream().filter(
-            moduleWrapper -> moduleWrapper.getKey().toLowerCase().contains(filter)
-                || moduleWrapper.getTitle().toLowerCase().contains(filter))).collect(
-            Collectors.toCollection(FXCollections::observableArrayList)));
-        break;
+        final ModuleWrapper moduleWrapper = (ModuleWrapper) entityWrapper;
+        return moduleWrapper.getKey().toLowerCase().contains(filter)
+            || moduleWrapper.getTitle().toLowerCase().contains(filter);
       case ABSTRACT_UNIT:
-        listView.setItems((dataService.getAbstractUnitWrappers().values().stream().filter(
-            abstractUnitWrapper -> abstractUnitWrapper.getKey().toLowerCase().contains(filter)
-                || abstractUnitWrapper.getTitle().toLowerCase().contains(filter))).collect(
-            Collectors.toCollection(FXCollections::observableArrayList)));
-        break;
+        final AbstractUnitWrapper abstractUnitWrapper = (AbstractUnitWrapper) entityWrapper;
+        return abstractUnitWrapper.getKey().toLowerCase().contains(filter)
+            || abstractUnitWrapper.getTitle().toLowerCase().contains(filter);
       case UNIT:
-        listView.setItems((dataService.getUnitWrappers().values().stream().filter(
-            unitWrapper -> unitWrapper.getKey().toLowerCase().contains(filter)
-                || unitWrapper.getTitle().toLowerCase().contains(filter))).collect(
-            Collectors.toCollection(FXCollections::observableArrayList)));
-        break;
+        final UnitWrapper unitWrapper = (UnitWrapper) entityWrapper;
+        return unitWrapper.getKey().toLowerCase().contains(filter)
+            || unitWrapper.getTitle().toLowerCase().contains(filter);
       case GROUP:
-        listView.setItems((dataService.getGroupWrappers().values().stream().filter(
-            groupWrapper -> String.valueOf(groupWrapper.getId()).equals(filter))).collect(
-            Collectors.toCollection(FXCollections::observableArrayList)));
-        break;
       case SESSION:
-        listView.setItems((dataService.getSessionWrappers().values().stream().filter(
-            sessionWrapper -> String.valueOf(sessionWrapper.getId()).equals(filter))).collect(
-            Collectors.toCollection(FXCollections::observableArrayList)));
-        break;
+        return String.valueOf(entityWrapper.getId()).equals(filter);
       default:
-        break;
+        return false;
     }
   }
 }
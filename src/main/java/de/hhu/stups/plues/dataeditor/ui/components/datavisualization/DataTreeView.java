@@ -2,12 +2,12 @@ package de.hhu.stups.plues.dataeditor.ui.components.datavisualization;
 
 import de.hhu.stups.plues.dataeditor.ui.database.DataService;
 import de.hhu.stups.plues.dataeditor.ui.database.DbService;
+import de.hhu.stups.plues.dataeditor.ui.database.EntitySnapshot;
 import de.hhu.stups.plues.dataeditor.ui.database.events.DataChangeEvent;
 import de.hhu.stups.plues.dataeditor.ui.entities.AbstractUnit;
 import de.hhu.stups.plues.dataeditor.ui.entities.AbstractUnitWrapper;
 import de.hhu.stups.plues.dataeditor.ui.entities.Course;
 import de.hhu.stups.plues.dataeditor.ui.entities.CourseWrapper;
-import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
 import de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper;
 import de.hhu.stups.plues.dataeditor.ui.entities.Group;
 import de.hhu.stups.plues.dataeditor.ui.entities.GroupWrapper;
@@ -23,11 +23,12 @@ import de.hhu.stups.plues.dataeditor.ui.entities.UnitWrapper;
 import de.hhu.stups.plues.dataeditor.ui.layout.Inflater;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIcon;
 import de.jensd.fx.glyphs.fontawesome.utils.FontAwesomeIconFactory;
-import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeItem.TreeModificationEvent;
 import javafx.scene.control.TreeTableColumn;
 import javafx.scene.control.TreeTableView;
 import javafx.scene.input.ClipboardContent;
@@ -36,14 +37,16 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.input.TransferMode;
 import javafx.scene.layout.VBox;
 import org.controlsfx.control.textfield.CustomTextField;
-import org.fxmisc.easybind.EasyBind;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.function.Supplier;
 
 @Component
 public class DataTreeView extends VBox implements Initializable {
@@ -61,7 +64,11 @@ public class DataTreeView extends VBox implements Initializable {
   @FXML
   @SuppressWarnings("unused")
   private TreeTableColumn<EntityWrapper, String> treeTableColumnName;
+  private final Map<EntityWrapper, List<TreeItem<EntityWrapper>>> treeItemIndex;
+  private final EventHandler<TreeModificationEvent<EntityWrapper>> treeItemIndexUpdater;
   private TreeItem<EntityWrapper> treeTableRoot;
+  private TreeSearchIndex searchIndex;
+  private boolean treeTableRootPrepared;
 
   /**
    * Initialize the {@link DataService} and context menu provider.
@@ -71,14 +78,16 @@ public class DataTreeView extends VBox implements Initializable {
                       final DataService dataService) {
     this.dataService = dataService;
     this.dataContextMenu = new ExtendedDataContextMenu(dataService);
+    this.treeItemIndex = new IdentityHashMap<>();
+    this.treeItemIndexUpdater = this::updateTreeItemIndex;
     inflater.inflate("components/datavisualization/data_tree_view", this, this, "data_view");
   }
 
   @Override
   public void initialize(final URL location, final ResourceBundle resources) {
     this.resources = resources;
-    treeTableRoot = new TreeItem<>();
-    treeTableView.setRoot(treeTableRoot);
+    final TreeItem<EntityWrapper> emptyTreeTableRoot = new TreeItem<>();
+    setTreeTableRoot(emptyTreeTableRoot, new TreeSearchIndex(emptyTreeTableRoot));
     treeTableColumnName.setCellValueFactory(param -> {
       if (param.getValue() == null) {
         return new SimpleStringProperty("");
@@ -87,11 +96,13 @@ public class DataTreeView extends VBox implements Initializable {
     });
     txtQuery.setLeft(FontAwesomeIconFactory.get().createIcon(FontAwesomeIcon.SEARCH, "12"));
     dataService.dataChangeEventSource().subscribe(this::updateDataTree);
+    dataService.addViewModelBuilder(this::buildDataTree);
     treeTableView.prefWidthProperty().bind(widthProperty());
     txtQuery.prefWidthProperty().bind(widthProperty());
     setUpContextMenu();
     setUpDragAndDrop();
-    EasyBind.subscribe(txtQuery.textProperty(), this::filterDataTree);
+    QueryFilter.subscribe(txtQuery.textProperty(), dataService.dataChangeEventSource(),
+        filter -> getFilteredRoot(filter)::get, treeTableView::setRoot);
   }
 
   private void setUpContextMenu() {
@@ -123,173 +134,27 @@ public class DataTreeView extends VBox implements Initializable {
   }
 
   /**
-   * This method is called, when the text in the CustomTextField txtQuery is changed.
-   * It modifies the tree, so that only items containing the filter are shown.
+   * Modify the tree, so that only items containing the filter are shown. Changes of the text in
+   * the CustomTextField txtQuery and of the data are filtered in the background using the
+   * {@link QueryFilter} instead. Visible for benchmarks.
    * @param filter is the text from txtQuery used to search the tree.
    */
-  private void filterDataTree(String filter) {
-    if (filter == null || filter.length() == 0) {
-      treeTableView.setRoot(treeTableRoot);
-      return;
-    }
-    TreeItem<EntityWrapper> newTreeTableRoot = new TreeItem<>();
-    treeTableRoot.getChildren().forEach(treeItem ->
-          addFilteredCourse(filter.toLowerCase(), (CourseWrapper) treeItem.getValue(),
-                newTreeTableRoot, treeItem));
-    treeTableView.setRoot(newTreeTableRoot);
-  }
-
-  private boolean addFilteredCourse(final String filter, CourseWrapper courseWrapper,
-                                    final TreeItem<EntityWrapper> parentNode,
-                                    final TreeItem<EntityWrapper> currentNode) {
-    final SimpleBooleanProperty childAdded = new SimpleBooleanProperty(false);
-    final TreeItem<EntityWrapper> currentParentNode = new TreeItem<>(courseWrapper);
-    currentNode.getChildren().forEach(child -> {
-      if (child.getValue().getEntityType() == null) {
-        TreeItem<EntityWrapper> minorsSubRoot = new TreeItem<>(
-              new SubRootWrapper(resources.getString(MINORS)));
-        child.getChildren().forEach(minor ->
-              childAdded.set(addFilteredCourse(filter,
-                    ((CourseWrapper) minor.getValue()), minorsSubRoot, minor)
-                    || childAdded.get()));
-        if (childAdded.get()) {
-          currentParentNode.getChildren().add(minorsSubRoot);
-        }
-      } else {
-        childAdded.set(addFilteredLevel(filter,
-              ((LevelWrapper) child.getValue()), currentParentNode, child)
-              || childAdded.get());
-      }
-    });
-    if (childAdded.get()) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    if (courseWrapper.getLongName().toLowerCase().contains(filter)
-          || courseWrapper.getShortName().toLowerCase().contains(filter)
-          || courseWrapper.getKey().toLowerCase().contains(filter)) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    return false;
-  }
-
-  private boolean addFilteredLevel(final String filter, LevelWrapper levelWrapper,
-                                   final TreeItem<EntityWrapper> parentNode,
-                                   final TreeItem<EntityWrapper> currentNode) {
-    final SimpleBooleanProperty childAdded = new SimpleBooleanProperty(false);
-    final TreeItem<EntityWrapper> currentParentNode = new TreeItem<>(levelWrapper);
-    currentNode.getChildren().forEach(child -> {
-      if (child.getValue().getEntityType() == EntityType.LEVEL) {
-        childAdded.set(addFilteredLevel(filter,
-              ((LevelWrapper) child.getValue()), currentParentNode, child)
-              || childAdded.get());
-      } else {
-        childAdded.set(addFilteredModule(filter,
-              ((ModuleWrapper) child.getValue()), currentParentNode, child)
-              || childAdded.get());
-      }
-    });
-    if (childAdded.get()) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    if (levelWrapper.getName().toLowerCase().contains(filter)) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    return false;
-  }
-
-  private boolean addFilteredModule(final String filter, ModuleWrapper moduleWrapper,
-                                    final TreeItem<EntityWrapper> parentNode,
-                                    final TreeItem<EntityWrapper> currentNode) {
-    final SimpleBooleanProperty childAdded = new SimpleBooleanProperty(false);
-    final TreeItem<EntityWrapper> currentParentNode = new TreeItem<>(moduleWrapper);
-    currentNode.getChildren().forEach(child -> childAdded.set(addFilteredAbstractUnit(filter,
-          ((AbstractUnitWrapper) child.getValue()), currentParentNode, child)
-          || childAdded.get()));
-    if (childAdded.get()) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    if (moduleWrapper.getKey().toLowerCase().contains(filter)
-          || moduleWrapper.getTitle().toLowerCase().contains(filter)) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    return false;
-  }
-
-  private boolean addFilteredAbstractUnit(final String filter,
-                                          final AbstractUnitWrapper abstractUnitWrapper,
-                                          final TreeItem<EntityWrapper> parentNode,
-                                          final TreeItem<EntityWrapper> currentNode) {
-    final SimpleBooleanProperty childAdded = new SimpleBooleanProperty(false);
-    final TreeItem<EntityWrapper> currentParentNode = new TreeItem<>(abstractUnitWrapper);
-    currentNode.getChildren().forEach(child -> childAdded.set(addFilteredUnit(filter,
-          ((UnitWrapper) child.getValue()), currentParentNode, child)
-          || childAdded.get()));
-    if (childAdded.get()) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    if (abstractUnitWrapper.getKey().toLowerCase().contains(filter)
-          || abstractUnitWrapper.getTitle().toLowerCase().contains(filter)) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    return false;
-  }
-
-  private boolean addFilteredUnit(final String filter, UnitWrapper unitWrapper,
-                                  final TreeItem<EntityWrapper> parentNode,
-                                  final TreeItem<EntityWrapper> currentNode) {
-    final SimpleBooleanProperty childAdded = new SimpleBooleanProperty(false);
-    final TreeItem<EntityWrapper> currentParentNode = new TreeItem<>(unitWrapper);
-    currentNode.getChildren().forEach(child -> childAdded.set(addFilteredGroup(filter,
-          ((GroupWrapper) child.getValue()), currentParentNode, child)
-          || childAdded.get()));
-    if (childAdded.get()) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    if (unitWrapper.getKey().toLowerCase().contains(filter)
-          || unitWrapper.getTitle().toLowerCase().contains(filter)) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    return false;
-  }
-
-  private boolean addFilteredGroup(final String filter, GroupWrapper groupWrapper,
-                                   final TreeItem<EntityWrapper> parentNode,
-                                   final TreeItem<EntityWrapper> currentNode) {
-    final SimpleBooleanProperty childAdded = new SimpleBooleanProperty(false);
-    final TreeItem<EntityWrapper> currentParentNode = new TreeItem<>(groupWrapper);
-    currentNode.getChildren().forEach(child -> childAdded.set(addFilteredSession(filter,
-          ((SessionWrapper) child.getValue()), currentParentNode)
-          || childAdded.get()));
-    if (childAdded.get()) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    if (String.valueOf(groupWrapper.getId()).equals(filter)) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
-    }
-    return false;
+  void filterDataTree(String filter) {
+    treeTableView.setRoot(getFilteredRoot(filter).get());
   }
 
-  private boolean addFilteredSession(final String filter, final SessionWrapper sessionWrapper,
-                                     final TreeItem<EntityWrapper> parentNode) {
-    final TreeItem<EntityWrapper> currentParentNode = new TreeItem<>(sessionWrapper);
-
-    if (String.valueOf(sessionWrapper.getId()).equals(filter)) {
-      parentNode.getChildren().add(currentParentNode);
-      return true;
+  /**
+   * Capture the candidates of the filter from the {@link #searchIndex} on the JavaFX application
+   * thread. The returned supplier builds a copy of the tree containing only the items matching the
+   * filter and their ancestors, it does not touch the tree or the index and may be called off the
+   * JavaFX application thread.
+   */
+  private Supplier<TreeItem<EntityWrapper>> getFilteredRoot(final String filter) {
+    final TreeItem<EntityWrapper> root = treeTableRoot;
+    if (filter == null || filter.length() == 0) {
+      return () -> root;
     }
-    return false;
+    return searchIndex.prepareSearch(filter.toLowerCase())::createFilteredRoot;
   }
 
   /**
@@ -298,23 +163,27 @@ public class DataTreeView extends VBox implements Initializable {
   private void updateDataTree(final DataChangeEvent dataChangeEvent) {
     switch (dataChangeEvent.getDataChangeType()) {
       case RELOAD_DB:
-        treeTableRoot.getChildren().clear();
-        reloadData();
+        if (!treeTableRootPrepared) {
+          treeTableRoot.getChildren().clear();
+          reloadData(treeTableRoot, dataService.getEntitySnapshot());
+        }
+        treeTableRootPrepared = false;
         break;
       case STORE_ENTITY:
+      case REFRESH_ENTITY:
         updateSingleEntity(dataChangeEvent.getChangedEntity());
         break;
       case DELETE_ENTITY:
+      case REMOVE_ENTITY:
         deleteEntity(dataChangeEvent.getChangedEntity());
         break;
       default:
         break;
     }
-    filterDataTree(txtQuery.getText());
   }
 
   private void deleteEntity(EntityWrapper wrapper) {
-    List<TreeItem<EntityWrapper>> list = getTreeItemForEntityWrapperRecursive(wrapper);
+    List<TreeItem<EntityWrapper>> list = getTreeItems(wrapper);
     for (TreeItem<EntityWrapper> child : list) {
       if (child.getParent() != null && child.getParent().getChildren() != null) {
         child.getParent().getChildren().remove(child);
@@ -323,7 +192,7 @@ public class DataTreeView extends VBox implements Initializable {
   }
 
   private void updateSingleEntity(final EntityWrapper changedEntity) {
-    List<TreeItem<EntityWrapper>> current = getTreeItemForEntityWrapperRecursive(changedEntity);
+    List<TreeItem<EntityWrapper>> current = getTreeItems(changedEntity);
     if (current == null || current.isEmpty()) {
       insertNewEntity(changedEntity);
       return;
@@ -393,38 +262,38 @@ public class DataTreeView extends VBox implements Initializable {
     if (newEntity.getParent() == null) {
       CourseWrapper parentCourseWrapper = newEntity.getCourseWrapper();
       List<TreeItem<EntityWrapper>> courseTreeItemList =
-            getTreeItemForEntityWrapperRecursive(parentCourseWrapper);
+            getTreeItems(parentCourseWrapper);
       for (TreeItem<EntityWrapper> courseTreeItem : courseTreeItemList) {
         if (courseTreeItem.getParent() == treeTableRoot) {
-          addLevelToTreeItem(courseTreeItem, newEntity.getLevel());
+          addLevelToTreeItem(courseTreeItem, newEntity.getLevel(),
+                dataService.getEntitySnapshot());
         }
       }
     } else {
       List<TreeItem<EntityWrapper>> levelTreeItemList =
-            getTreeItemForEntityWrapperRecursive(newEntity.getParent());
+            getTreeItems(newEntity.getParent());
       for (TreeItem<EntityWrapper> levelTreeItem : levelTreeItemList) {
-        addLevelToTreeItem(levelTreeItem, newEntity.getLevel());
+        addLevelToTreeItem(levelTreeItem, newEntity.getLevel(), dataService.getEntitySnapshot());
       }
     }
   }
 
   private void insertNewModule(ModuleWrapper newEntity) {
     LevelWrapper lv = newEntity.getLevel();
-    TreeItem<EntityWrapper> moduleTreeItem = new TreeItem<>(newEntity);
     List<TreeItem<EntityWrapper>> levelTreeItemList =
-            getTreeItemForEntityWrapperRecursive(lv);
+            getTreeItems(lv);
     for (TreeItem<EntityWrapper> levelTreeItem : levelTreeItemList) {
-      addModuleToTreeItem(levelTreeItem, newEntity.getModule());
+      addModuleToTreeItem(levelTreeItem, newEntity.getModule(), dataService.getEntitySnapshot());
     }
-    addAbstractUnitsToModule(newEntity, moduleTreeItem);
   }
 
   private void insertNewAbstractUnit(AbstractUnitWrapper newEntity) {
     newEntity.getModules().forEach(mw -> {
       List<TreeItem<EntityWrapper>> mwTreeItemList =
-            getTreeItemForEntityWrapperRecursive(mw);
+            getTreeItems(mw);
       for (TreeItem<EntityWrapper> mwTreeItem : mwTreeItemList) {
-        addAbstractUnitToTreeItem(mwTreeItem, newEntity.getAbstractUnit());
+        addAbstractUnitToTreeItem(mwTreeItem, newEntity.getAbstractUnit(),
+              dataService.getEntitySnapshot());
       }
     });
   }
@@ -432,9 +301,9 @@ public class DataTreeView extends VBox implements Initializable {
   private void insertNewUnit(UnitWrapper newEntity) {
     newEntity.getAbstractUnits().forEach(auw -> {
       List<TreeItem<EntityWrapper>> auTreeItemList =
-            getTreeItemForEntityWrapperRecursive(auw);
+            getTreeItems(auw);
       for (TreeItem<EntityWrapper> auTreeItem : auTreeItemList) {
-        addUnitToTreeItem(auTreeItem, newEntity.getUnit());
+        addUnitToTreeItem(auTreeItem, newEntity.getUnit(), dataService.getEntitySnapshot());
       }
     });
   }
@@ -442,53 +311,102 @@ public class DataTreeView extends VBox implements Initializable {
   private void insertNewGroup(GroupWrapper newEntity) {
     UnitWrapper unitWrapper = newEntity.getUnit();
     List<TreeItem<EntityWrapper>> unitTreeItemList =
-          getTreeItemForEntityWrapperRecursive(unitWrapper);
+          getTreeItems(unitWrapper);
     for (TreeItem<EntityWrapper> unitTreeItem : unitTreeItemList) {
-      addGroupToTreeItem(unitTreeItem, newEntity.getGroup());
+      addGroupToTreeItem(unitTreeItem, newEntity.getGroup(), dataService.getEntitySnapshot());
     }
   }
 
   private void insertNewSession(SessionWrapper newEntity) {
-    GroupWrapper parent = new GroupWrapper(newEntity.getSession().getGroup());
+    GroupWrapper parent = dataService.getGroupWrappers().get(
+          newEntity.getSession().getGroup().getId());
     List<TreeItem<EntityWrapper>> parentTreeItemList =
-          getTreeItemForEntityWrapperRecursive(parent);
+          getTreeItems(parent);
     for (TreeItem<EntityWrapper> parentTreeItem : parentTreeItemList) {
-      addSessionToTreeItem(parentTreeItem, newEntity.getSession());
+      addSessionToTreeItem(parentTreeItem, newEntity.getSession(),
+            dataService.getEntitySnapshot());
     }
   }
 
-  private List<TreeItem<EntityWrapper>> getTreeItemForEntityWrapperRecursive(
-        final EntityWrapper entityWrapper) {
-    return getTreeItemForEntityWrapperRecursive(entityWrapper,
-          treeTableRoot.getChildren(), new ArrayList<>());
+  /**
+   * Get all tree items of the given wrapper from the {@link #treeItemIndex}. A copy is returned
+   * since the callers usually modify the tree while iterating the items.
+   */
+  private List<TreeItem<EntityWrapper>> getTreeItems(final EntityWrapper entityWrapper) {
+    final List<TreeItem<EntityWrapper>> treeItems = treeItemIndex.get(entityWrapper);
+    if (treeItems == null) {
+      return new ArrayList<>();
+    }
+    return new ArrayList<>(treeItems);
   }
 
-  private List<TreeItem<EntityWrapper>> getTreeItemForEntityWrapperRecursive(
-        final EntityWrapper entityWrapper,
-        final List<TreeItem<EntityWrapper>> nodes,
-        List<TreeItem<EntityWrapper>> result) {
+  /**
+   * Replace the root of the tree and rebuild the {@link #treeItemIndex} for it. The index and the
+   * {@link #searchIndex} are kept in sync afterwards using the children modification events
+   * bubbling up to the root.
+   */
+  private void setTreeTableRoot(final TreeItem<EntityWrapper> newTreeTableRoot,
+                                final TreeSearchIndex newSearchIndex) {
+    if (treeTableRoot != null) {
+      treeTableRoot.removeEventHandler(TreeItem.childrenModificationEvent(), treeItemIndexUpdater);
+    }
+    treeItemIndex.clear();
+    newTreeTableRoot.getChildren().forEach(this::addToTreeItemIndex);
+    newTreeTableRoot.addEventHandler(TreeItem.childrenModificationEvent(), treeItemIndexUpdater);
+    treeTableRoot = newTreeTableRoot;
+    searchIndex = newSearchIndex;
+    treeTableView.setRoot(treeTableRoot);
+  }
 
-    if (result == null) {
-      return new ArrayList<>();
+  private void updateTreeItemIndex(final TreeModificationEvent<EntityWrapper> event) {
+    if (event.wasRemoved()) {
+      event.getRemovedChildren().forEach(this::removeFromTreeItemIndex);
+      event.getRemovedChildren().forEach(searchIndex::remove);
+    }
+    if (event.wasAdded()) {
+      event.getAddedChildren().forEach(this::addToTreeItemIndex);
+      event.getAddedChildren().forEach(searchIndex::add);
     }
+  }
 
-    for (final TreeItem<EntityWrapper> node : nodes) {
-      if (node != null) {
-        if (node.getValue().equals(entityWrapper)) {
-          result.add(node);
-        }
-        result = getTreeItemForEntityWrapperRecursive(entityWrapper, node.getChildren(), result);
+  private void addToTreeItemIndex(final TreeItem<EntityWrapper> treeItem) {
+    treeItemIndex.computeIfAbsent(treeItem.getValue(), wrapper -> new ArrayList<>())
+          .add(treeItem);
+    treeItem.getChildren().forEach(this::addToTreeItemIndex);
+  }
 
+  private void removeFromTreeItemIndex(final TreeItem<EntityWrapper> treeItem) {
+    final List<TreeItem<EntityWrapper>> treeItems = treeItemIndex.get(treeItem.getValue());
+    if (treeItems != null) {
+      treeItems.remove(treeItem);
+      if (treeItems.isEmpty()) {
+        treeItemIndex.remove(treeItem.getValue());
       }
     }
-    return result;
+    treeItem.getChildren().forEach(this::removeFromTreeItemIndex);
+  }
+
+  /**
+   * Build the tree for a newly loaded database off the JavaFX application thread. The new root is
+   * installed when the {@link DataService} publishes the data. Visible for benchmarks.
+   */
+  Runnable buildDataTree(final EntitySnapshot snapshot) {
+    final TreeItem<EntityWrapper> newTreeTableRoot = new TreeItem<>();
+    reloadData(newTreeTableRoot, snapshot);
+    final TreeSearchIndex newSearchIndex = new TreeSearchIndex(newTreeTableRoot);
+    return () -> {
+      setTreeTableRoot(newTreeTableRoot, newSearchIndex);
+      treeTableRootPrepared = true;
+    };
   }
 
-  private void reloadData() {
-    dataService.courseWrappersProperty().values().stream().filter(
-        courseWrapper -> courseWrapper.getCourse().isMajor()).forEach(this::addCourseToTreeView);
-    dataService.courseWrappersProperty().values().stream().filter(
-        courseWrapper -> courseWrapper.getCourse().isMinor()).forEach(this::addCourseToTreeView);
+  private void reloadData(final TreeItem<EntityWrapper> root, final EntitySnapshot snapshot) {
+    snapshot.getCourses().values().stream().filter(
+        courseWrapper -> courseWrapper.getCourse().isMajor()).forEach(courseWrapper ->
+        addCourseToTreeItem(root, courseWrapper, snapshot));
+    snapshot.getCourses().values().stream().filter(
+        courseWrapper -> courseWrapper.getCourse().isMinor()).forEach(courseWrapper ->
+        addCourseToTreeItem(root, courseWrapper, snapshot));
   }
 
   private void addSimpleCourse(final CourseWrapper wrapper,
@@ -499,42 +417,35 @@ public class DataTreeView extends VBox implements Initializable {
 
   private void addSimpleLevel(LevelWrapper wrapper, TreeItem<EntityWrapper> bestChild) {
     if (wrapper.getParent() == null) {
-      List<TreeItem<EntityWrapper>> parentList = getTreeItemForEntityWrapperRecursive(
-            wrapper.getCourseWrapper());
-      for (TreeItem<EntityWrapper> parent : parentList) {
-        parent.getChildren().add(bestChild);
-      }
+      addToParents(getTreeItems(wrapper.getCourseWrapper()), bestChild);
     } else {
-      List<TreeItem<EntityWrapper>> parentList = getTreeItemForEntityWrapperRecursive(
-            wrapper.getParent());
-      for (TreeItem<EntityWrapper> parent : parentList) {
-        parent.getChildren().add(bestChild);
-      }
+      addToParents(getTreeItems(wrapper.getParent()), bestChild);
     }
   }
 
   private void addSimpleModule(ModuleWrapper moduleWrapper, TreeItem<EntityWrapper> bestChild) {
-    List<TreeItem<EntityWrapper>> parentList =
-          getTreeItemForEntityWrapperRecursive(dataService.getLevelWrappers().get(
-                moduleWrapper.getLevel().getId()));
-    for (TreeItem<EntityWrapper> parent : parentList) {
-      parent.getChildren().add(bestChild);
-    }
-
-    bestChild.getChildren().clear();
-
+    // the children are replaced while the item is detached, so that they are indexed once
     addAbstractUnitsToModule(moduleWrapper, bestChild);
+    addToParents(getTreeItems(dataService.getLevelWrappers().get(
+          moduleWrapper.getLevel().getId())), bestChild);
   }
 
+  /**
+   * Replace the abstract units shown below the given module tree item by the current ones. The
+   * items of abstract units that are still assigned are kept, the others are copied from an item
+   * of the same abstract unit elsewhere in the tree, if any.
+   */
   private void addAbstractUnitsToModule(ModuleWrapper moduleWrapper,
                                         TreeItem<EntityWrapper> moduleTreeItem) {
+    final Map<EntityWrapper, TreeItem<EntityWrapper>> previousTreeItems = new IdentityHashMap<>();
+    moduleTreeItem.getChildren().forEach(auTreeItem ->
+          previousTreeItems.put(auTreeItem.getValue(), auTreeItem));
+    moduleTreeItem.getChildren().clear();
     moduleWrapper.getAbstractUnits().forEach(auw -> {
-      TreeItem<EntityWrapper> auTreeItem =
-            getTreeItemWithMostChildren(auw);
-      if (auTreeItem != null) {
-        auTreeItem.getParent().getChildren().remove(auTreeItem);
-      } else {
-        auTreeItem = new TreeItem<>(auw);
+      TreeItem<EntityWrapper> auTreeItem = previousTreeItems.get(auw);
+      if (auTreeItem == null) {
+        final TreeItem<EntityWrapper> shownTreeItem = getTreeItemWithMostChildren(auw);
+        auTreeItem = shownTreeItem == null ? new TreeItem<>(auw) : copyTreeItem(shownTreeItem);
       }
       moduleTreeItem.getChildren().add(auTreeItem);
     });
@@ -542,45 +453,49 @@ public class DataTreeView extends VBox implements Initializable {
 
   private void addSimpleAbstractUnit(AbstractUnitWrapper abstractUnitWrapper,
                                      TreeItem<EntityWrapper> bestChild) {
-    abstractUnitWrapper.getModules().forEach(moduleWrapper -> {
-      List<TreeItem<EntityWrapper>> auparentList =
-            getTreeItemForEntityWrapperRecursive(moduleWrapper);
-      for (TreeItem<EntityWrapper> auparent : auparentList) {
-        auparent.getChildren().add(bestChild);
-      }
-    });
+    final List<TreeItem<EntityWrapper>> parentList = new ArrayList<>();
+    abstractUnitWrapper.getModules().forEach(moduleWrapper ->
+          parentList.addAll(getTreeItems(moduleWrapper)));
+    addToParents(parentList, bestChild);
   }
 
   private void addSimpleUnit(UnitWrapper unitWrapper, TreeItem<EntityWrapper> bestChild) {
-    unitWrapper.getAbstractUnits().forEach(abstractUnitWrapper -> {
-      List<TreeItem<EntityWrapper>> uparentList =
-            getTreeItemForEntityWrapperRecursive(abstractUnitWrapper);
-      for (TreeItem<EntityWrapper> uparent : uparentList) {
-        uparent.getChildren().add(bestChild);
-      }
-    });
+    final List<TreeItem<EntityWrapper>> parentList = new ArrayList<>();
+    unitWrapper.getAbstractUnits().forEach(abstractUnitWrapper ->
+          parentList.addAll(getTreeItems(abstractUnitWrapper)));
+    addToParents(parentList, bestChild);
   }
 
   private void addSimpleSession(SessionWrapper sessionWrapper, TreeItem<EntityWrapper> bestChild) {
-    List<TreeItem<EntityWrapper>> parentList = getTreeItemForEntityWrapperRecursive(
-          dataService.getGroupWrappers().get(
-                sessionWrapper.getGroup().getId()));
-    for (TreeItem<EntityWrapper> parent : parentList) {
-      parent.getChildren().add(bestChild);
-    }
+    addToParents(getTreeItems(dataService.getGroupWrappers().get(
+          sessionWrapper.getGroup().getId())), bestChild);
   }
 
   private void addSimpleGroup(GroupWrapper groupWrapper, TreeItem<EntityWrapper> bestChild) {
-    List<TreeItem<EntityWrapper>> parentList = getTreeItemForEntityWrapperRecursive(
-          dataService.getGroupWrappers().get(groupWrapper.getUnit().getId()));
-    for (TreeItem<EntityWrapper> parent : parentList) {
-      parent.getChildren().add(bestChild);
+    addToParents(getTreeItems(groupWrapper.getUnit()), bestChild);
+  }
+
+  /**
+   * Add the given tree item to the first of the given parents and a copy of it to each further
+   * parent. A tree item has a single parent, adding it to another parent would leave it behind in
+   * the children of the previous one.
+   */
+  private static void addToParents(final List<TreeItem<EntityWrapper>> parents,
+                                   final TreeItem<EntityWrapper> treeItem) {
+    for (int i = 0; i < parents.size(); i++) {
+      parents.get(i).getChildren().add(i == 0 ? treeItem : copyTreeItem(treeItem));
     }
   }
 
+  private static TreeItem<EntityWrapper> copyTreeItem(final TreeItem<EntityWrapper> treeItem) {
+    final TreeItem<EntityWrapper> copy = new TreeItem<>(treeItem.getValue());
+    treeItem.getChildren().forEach(child -> copy.getChildren().add(copyTreeItem(child)));
+    return copy;
+  }
+
 
   private TreeItem<EntityWrapper> getTreeItemWithMostChildren(EntityWrapper wrapper) {
-    List<TreeItem<EntityWrapper>> allTreeItems = getTreeItemForEntityWrapperRecursive(wrapper);
+    List<TreeItem<EntityWrapper>> allTreeItems = getTreeItems(wrapper);
     if (allTreeItems.isEmpty()) {
       return null;
     }
@@ -638,18 +553,24 @@ public class DataTreeView extends VBox implements Initializable {
   }
 
   private void addCourseToTreeView(final CourseWrapper courseWrapper) {
+    addCourseToTreeItem(treeTableRoot, courseWrapper, dataService.getEntitySnapshot());
+  }
+
+  private void addCourseToTreeItem(final TreeItem<EntityWrapper> root,
+                                   final CourseWrapper courseWrapper,
+                                   final EntitySnapshot snapshot) {
     final Course course = courseWrapper.getCourse();
     final TreeItem<EntityWrapper> treeItemCourse = new TreeItem<>(courseWrapper);
-    treeTableRoot.getChildren().add(treeItemCourse);
+    root.getChildren().add(treeItemCourse);
     if (course.isMajor()) {
       final TreeItem<EntityWrapper> minorsSubRoot =
             new TreeItem<>(new SubRootWrapper(resources.getString(MINORS)));
       treeItemCourse.getChildren().add(minorsSubRoot);
       course.getMinorCourses().forEach(minorCourse ->
-            minorsSubRoot.getChildren().add(new TreeItem<>(dataService.courseWrappersProperty()
+            minorsSubRoot.getChildren().add(new TreeItem<>(snapshot.getCourses()
                   .get(minorCourse.getId()))));
     }
-    course.getLevels().forEach(level -> addLevelToTreeItem(treeItemCourse, level));
+    course.getLevels().forEach(level -> addLevelToTreeItem(treeItemCourse, level, snapshot));
   }
 
   /**
@@ -657,52 +578,55 @@ public class DataTreeView extends VBox implements Initializable {
    * item.
    */
   private void addLevelToTreeItem(final TreeItem<EntityWrapper> treeItemParent,
-                                  final Level level) {
-    final LevelWrapper levelWrapper = dataService.getLevelWrappers().get(level.getId());
+                                  final Level level, final EntitySnapshot snapshot) {
+    final LevelWrapper levelWrapper = snapshot.getLevels().get(level.getId());
     final TreeItem<EntityWrapper> treeItemLevel = new TreeItem<>(levelWrapper);
     treeItemParent.getChildren().add(treeItemLevel);
-    level.getChildren().forEach(subLevel -> addLevelToTreeItem(treeItemLevel, subLevel));
-    level.getModules().forEach(module -> addModuleToTreeItem(treeItemLevel, module));
+    level.getChildren().forEach(subLevel ->
+          addLevelToTreeItem(treeItemLevel, subLevel, snapshot));
+    level.getModules().forEach(module -> addModuleToTreeItem(treeItemLevel, module, snapshot));
   }
 
   private void addModuleToTreeItem(final TreeItem<EntityWrapper> treeItemParent,
-                                   final Module module) {
+                                   final Module module, final EntitySnapshot snapshot) {
     final TreeItem<EntityWrapper> moduleTreeItem =
-          new TreeItem<>(dataService.getModuleWrappers().get(module.getId()));
+          new TreeItem<>(snapshot.getModules().get(module.getId()));
     treeItemParent.getChildren().add(moduleTreeItem);
     module.getAbstractUnits().forEach(abstractUnit ->
-          addAbstractUnitToTreeItem(moduleTreeItem, abstractUnit));
+          addAbstractUnitToTreeItem(moduleTreeItem, abstractUnit, snapshot));
   }
 
   private void addAbstractUnitToTreeItem(final TreeItem<EntityWrapper> treeItemParent,
-                                         final AbstractUnit abstractUnit) {
+                                         final AbstractUnit abstractUnit,
+                                         final EntitySnapshot snapshot) {
     final TreeItem<EntityWrapper> abstractUnitTreeItem =
-          new TreeItem<>(dataService.abstractUnitWrappersProperty().get(abstractUnit.getId()));
+          new TreeItem<>(snapshot.getAbstractUnits().get(abstractUnit.getId()));
     treeItemParent.getChildren().add(abstractUnitTreeItem);
-    abstractUnit.getUnits().forEach(unit -> addUnitToTreeItem(abstractUnitTreeItem, unit));
+    abstractUnit.getUnits().forEach(unit ->
+          addUnitToTreeItem(abstractUnitTreeItem, unit, snapshot));
   }
 
   private void addUnitToTreeItem(final TreeItem<EntityWrapper> treeItemParent,
-                                 final Unit unit) {
-    final TreeItem<EntityWrapper> unitTreeItem = new TreeItem<>(dataService.unitWrappersProperty()
+                                 final Unit unit, final EntitySnapshot snapshot) {
+    final TreeItem<EntityWrapper> unitTreeItem = new TreeItem<>(snapshot.getUnits()
           .get(unit.getId()));
     treeItemParent.getChildren().add(unitTreeItem);
-    unit.getGroups().forEach(group -> addGroupToTreeItem(unitTreeItem, group));
+    unit.getGroups().forEach(group -> addGroupToTreeItem(unitTreeItem, group, snapshot));
   }
 
   private void addGroupToTreeItem(final TreeItem<EntityWrapper> treeItemParent,
-                                  final Group group) {
+                                  final Group group, final EntitySnapshot snapshot) {
     final TreeItem<EntityWrapper> treeItemGroup = new TreeItem<>(
-          dataService.groupWrappersProperty().get(group.getId()));
+          snapshot.getGroups().get(group.getId()));
     treeItemParent.getChildren().add(treeItemGroup);
     group.getSessions().forEach(session ->
-          addSessionToTreeItem(treeItemGroup, session));
+          addSessionToTreeItem(treeItemGroup, session, snapshot));
 
   }
 
   private void addSessionToTreeItem(final TreeItem<EntityWrapper> treeItemParent,
-                                    final Session session) {
+                                    final Session session, final EntitySnapshot snapshot) {
     treeItemParent.getChildren().add(
-          new TreeItem<>(dataService.sessionWrappersProperty().get(session.getId())));
+          new TreeItem<>(snapshot.getSessions().get(session.getId())));
   }
 }
@@ -0,0 +1,94 @@
+package de.hhu.stups.plues.dataeditor.ui.components.datavisualization;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A live list of the wrappers of one entity type used by the {@link DataListView}. The list is
+ * bound to a map of the {@link de.hhu.stups.plues.dataeditor.ui.database.DataService} and sorted
+ * by id. Filtering only swaps the predicate of the underlying {@link FilteredList}. Changes of the
+ * map are collected and applied as one batch per pulse of the JavaFX application thread.
+ */
+class EntityWrapperList {
+
+  private final ObservableMap<Integer, ? extends EntityWrapper> entityWrappers;
+  private final MapChangeListener<Integer, EntityWrapper> entityWrappersListener;
+  private final ObservableList<EntityWrapper> sourceList;
+  private final FilteredList<EntityWrapper> filteredList;
+  private final SortedList<EntityWrapper> sortedList;
+  private final Set<EntityWrapper> pendingAdditions = new LinkedHashSet<>();
+  private final Set<EntityWrapper> pendingRemovals = new HashSet<>();
+  private boolean flushScheduled;
+  private boolean disposed;
+
+  EntityWrapperList(final ObservableMap<Integer, ? extends EntityWrapper> entityWrappers) {
+    this.entityWrappers = entityWrappers;
+    sourceList = FXCollections.observableArrayList(entityWrappers.values());
+    filteredList = new FilteredList<>(sourceList);
+    sortedList = new SortedList<>(filteredList, Comparator.comparingInt(EntityWrapper::getId));
+    entityWrappersListener = this::onChanged;
+    entityWrappers.addListener(entityWrappersListener);
+  }
+
+  SortedList<EntityWrapper> getSortedList() {
+    return sortedList;
+  }
+
+  /**
+   * Get a copy of all wrappers regardless of the current predicate.
+   */
+  List<EntityWrapper> copyEntityWrappers() {
+    return new ArrayList<>(sourceList);
+  }
+
+  void setPredicate(final Predicate<EntityWrapper> predicate) {
+    filteredList.setPredicate(predicate);
+  }
+
+  /**
+   * Stop listening to the map, e.g. since a new database has been loaded and the list is
+   * recreated from scratch.
+   */
+  void dispose() {
+    disposed = true;
+    entityWrappers.removeListener(entityWrappersListener);
+  }
+
+  private void onChanged(
+      final MapChangeListener.Change<? extends Integer, ? extends EntityWrapper> change) {
+    if (change.wasRemoved() && !pendingAdditions.remove(change.getValueRemoved())) {
+      pendingRemovals.add(change.getValueRemoved());
+    }
+    if (change.wasAdded() && !pendingRemovals.remove(change.getValueAdded())) {
+      pendingAdditions.add(change.getValueAdded());
+    }
+    if (!flushScheduled) {
+      flushScheduled = true;
+      Platform.runLater(this::flush);
+    }
+  }
+
+  private void flush() {
+    flushScheduled = false;
+    if (!disposed) {
+      sourceList.removeAll(pendingRemovals);
+      sourceList.addAll(pendingAdditions);
+    }
+    pendingRemovals.clear();
+    pendingAdditions.clear();
+  }
+}
@@ -0,0 +1,82 @@
+package de.hhu.stups.plues.dataeditor.ui.components.datavisualization;
+
+import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
+import org.reactfx.EventStream;
+import org.reactfx.EventStreams;
+import org.reactfx.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The query pipeline of the search fields in the data views. Keystrokes are debounced, the match
+ * is computed on a background thread and only the result of the latest query is published on the
+ * JavaFX application thread, a running filter task is cancelled as soon as a newer query arrives.
+ */
+final class QueryFilter {
+
+  private static final Duration DEBOUNCE_DURATION = Duration.ofMillis(150);
+  private static final Logger logger = LoggerFactory.getLogger(QueryFilter.class);
+  private static final ExecutorService filterExecutor =
+        Executors.newSingleThreadExecutor(runnable -> {
+          final Thread thread = new Thread(runnable, "query-filter");
+          thread.setDaemon(true);
+          return thread;
+        });
+
+  private QueryFilter() {
+  }
+
+  /**
+   * Subscribe to the given query property.
+   *
+   * @param queryProperty the text of the search field.
+   * @param filter called on the JavaFX application thread for each debounced query to capture
+   *     the state of the view, the returned callable computes the result in the background.
+   * @param publish called on the JavaFX application thread with the result of the latest query.
+   */
+  static <T> Subscription subscribe(final ObservableValue<String> queryProperty,
+                                    final Function<String, Callable<T>> filter,
+                                    final Consumer<T> publish) {
+    return subscribe(queryProperty, EventStreams.never(), filter, publish);
+  }
+
+  /**
+   * Subscribe to the given query property and filter the current query again after each burst of
+   * the given changes of the filtered data, which are debounced like the keystrokes.
+   */
+  static <T> Subscription subscribe(final ObservableValue<String> queryProperty,
+                                    final EventStream<?> changes,
+                                    final Function<String, Callable<T>> filter,
+                                    final Consumer<T> publish) {
+    return EventStreams.merge(EventStreams.valuesOf(queryProperty),
+          changes.map(change -> queryProperty.getValue()))
+          .successionEnds(DEBOUNCE_DURATION)
+          .mapToTask(query -> {
+            final Callable<T> callable = filter.apply(query == null ? "" : query);
+            final Task<T> task = new Task<T>() {
+              @Override
+              protected T call() throws Exception {
+                return callable.call();
+              }
+            };
+            filterExecutor.execute(task);
+            return task;
+          })
+          .awaitLatest()
+          .subscribe(result -> {
+            if (result.isSuccess()) {
+              publish.accept(result.get());
+            } else {
+              logger.error("Exception while filtering the data", result.getFailure());
+            }
+          });
+  }
+}
@@ -0,0 +1,260 @@
+package de.hhu.stups.plues.dataeditor.ui.components.datavisualization;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.AbstractUnitWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.CourseWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.LevelWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.ModuleWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.UnitWrapper;
+import javafx.scene.control.TreeItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A search index over the tree items of the {@link DataTreeView}. The searchable texts of each item
+ * are lower-cased once when the item is added and every trigram of them is stored in a posting
+ * list. A query only verifies the items of its rarest trigram and collects the ancestors of the
+ * matches. Groups and sessions are matched by their exact id like before.
+ *
+ * <p>The index is maintained on the JavaFX application thread. A {@link Search} copies the
+ * candidates of its query there, the matching and the filtered tree are computed off the thread
+ * from the immutable entries only. Each entry keeps the entry of its parent and the order in which
+ * it has been added, since the tree items are always appended and an item moved in the tree is
+ * removed and added again.
+ */
+class TreeSearchIndex {
+
+  private static final int GRAM_LENGTH = 3;
+
+  private final Map<TreeItem<EntityWrapper>, Entry> entries = new IdentityHashMap<>();
+  private final Map<Long, Set<Entry>> postings = new HashMap<>();
+  private final Map<String, Set<Entry>> exactKeys = new HashMap<>();
+  private long nextSequence;
+
+  /**
+   * Index all descendants of the given root.
+   */
+  TreeSearchIndex(final TreeItem<EntityWrapper> root) {
+    root.getChildren().forEach(this::add);
+  }
+
+  /**
+   * Add the given tree item and all of its descendants.
+   */
+  void add(final TreeItem<EntityWrapper> treeItem) {
+    if (entries.containsKey(treeItem)) {
+      removeEntry(treeItem);
+    }
+    final Entry entry = createEntry(treeItem, entries.get(treeItem.getParent()), nextSequence++);
+    if (entry != null) {
+      entries.put(treeItem, entry);
+      entry.getTrigrams().forEach(trigram ->
+            postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(entry));
+      if (entry.exactKey != null) {
+        exactKeys.computeIfAbsent(entry.exactKey, key -> new HashSet<>()).add(entry);
+      }
+    }
+    treeItem.getChildren().forEach(this::add);
+  }
+
+  /**
+   * Remove the given tree item and all of its descendants.
+   */
+  void remove(final TreeItem<EntityWrapper> treeItem) {
+    removeEntry(treeItem);
+    treeItem.getChildren().forEach(this::remove);
+  }
+
+  private void removeEntry(final TreeItem<EntityWrapper> treeItem) {
+    final Entry entry = entries.remove(treeItem);
+    if (entry != null) {
+      entry.getTrigrams().forEach(trigram -> removePosting(postings, trigram, entry));
+      if (entry.exactKey != null) {
+        removePosting(exactKeys, entry.exactKey, entry);
+      }
+    }
+  }
+
+  /**
+   * Capture the candidates of the given lower-cased query. Has to be called on the JavaFX
+   * application thread, the returned search may be run on any thread.
+   */
+  Search prepareSearch(final String query) {
+    return new Search(query, new ArrayList<>(getCandidates(query)),
+          new ArrayList<>(exactKeys.getOrDefault(query, Collections.emptySet())));
+  }
+
+  private Collection<Entry> getCandidates(final String query) {
+    if (query.length() < GRAM_LENGTH) {
+      return entries.values();
+    }
+    Collection<Entry> candidates = null;
+    for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+      final Set<Entry> posting = postings.get(trigram(query, i));
+      if (posting == null) {
+        return Collections.emptySet();
+      }
+      if (candidates == null || posting.size() < candidates.size()) {
+        candidates = posting;
+      }
+    }
+    return candidates;
+  }
+
+  private static <K> void removePosting(final Map<K, Set<Entry>> postings, final K key,
+                                        final Entry entry) {
+    final Set<Entry> posting = postings.get(key);
+    if (posting != null) {
+      posting.remove(entry);
+      if (posting.isEmpty()) {
+        postings.remove(key);
+      }
+    }
+  }
+
+  private static long trigram(final String text, final int index) {
+    return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16)
+          | text.charAt(index + 2);
+  }
+
+  private static Entry createEntry(final TreeItem<EntityWrapper> treeItem, final Entry parent,
+                                   final long sequence) {
+    final EntityWrapper wrapper = treeItem.getValue();
+    if (wrapper == null) {
+      return null;
+    }
+    if (wrapper.getEntityType() == null) {
+      // the sub roots are not searchable but shown as ancestors
+      return new Entry(wrapper, parent, sequence, null);
+    }
+    switch (wrapper.getEntityType()) {
+      case COURSE:
+        final CourseWrapper courseWrapper = (CourseWrapper) wrapper;
+        return new Entry(wrapper, parent, sequence, null, courseWrapper.getLongName(),
+              courseWrapper.getShortName(), courseWrapper.getKey());
+      case LEVEL:
+        return new Entry(wrapper, parent, sequence, null, ((LevelWrapper) wrapper).getName());
+      case MODULE:
+        final ModuleWrapper moduleWrapper = (ModuleWrapper) wrapper;
+        return new Entry(wrapper, parent, sequence, null, moduleWrapper.getKey(),
+              moduleWrapper.getTitle());
+      case ABSTRACT_UNIT:
+        final AbstractUnitWrapper abstractUnitWrapper = (AbstractUnitWrapper) wrapper;
+        return new Entry(wrapper, parent, sequence, null, abstractUnitWrapper.getKey(),
+              abstractUnitWrapper.getTitle());
+      case UNIT:
+        final UnitWrapper unitWrapper = (UnitWrapper) wrapper;
+        return new Entry(wrapper, parent, sequence, null, unitWrapper.getKey(),
+              unitWrapper.getTitle());
+      case GROUP:
+      case SESSION:
+        return new Entry(wrapper, parent, sequence, String.valueOf(wrapper.getId()));
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * The candidates of a query captured on the JavaFX application thread.
+   */
+  static final class Search {
+
+    private final String query;
+    private final List<Entry> candidates;
+    private final List<Entry> exactMatches;
+
+    private Search(final String query, final List<Entry> candidates,
+                   final List<Entry> exactMatches) {
+      this.query = query;
+      this.candidates = candidates;
+      this.exactMatches = exactMatches;
+    }
+
+    /**
+     * Build a new tree of the matching items and their ancestors below an empty root. Does not
+     * touch the indexed tree and may be called off the JavaFX application thread.
+     */
+    TreeItem<EntityWrapper> createFilteredRoot() {
+      final Set<Entry> visibleEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+      candidates.stream()
+            .filter(entry -> entry.matches(query))
+            .forEach(entry -> addWithAncestors(entry, visibleEntries));
+      exactMatches.forEach(entry -> addWithAncestors(entry, visibleEntries));
+      final Map<Entry, List<Entry>> children = new IdentityHashMap<>();
+      visibleEntries.forEach(entry ->
+            children.computeIfAbsent(entry.parent, parent -> new ArrayList<>()).add(entry));
+      final TreeItem<EntityWrapper> filteredRoot = new TreeItem<>();
+      addFilteredChildren(filteredRoot, null, children);
+      return filteredRoot;
+    }
+
+    private static void addWithAncestors(final Entry entry, final Set<Entry> visibleEntries) {
+      Entry current = entry;
+      while (current != null && visibleEntries.add(current)) {
+        current = current.parent;
+      }
+    }
+
+    private static void addFilteredChildren(final TreeItem<EntityWrapper> filteredTreeItem,
+                                            final Entry entry,
+                                            final Map<Entry, List<Entry>> children) {
+      final List<Entry> childEntries = children.get(entry);
+      if (childEntries == null) {
+        return;
+      }
+      childEntries.sort(Comparator.comparingLong(child -> child.sequence));
+      final List<TreeItem<EntityWrapper>> filteredChildren = new ArrayList<>(childEntries.size());
+      childEntries.forEach(child -> {
+        final TreeItem<EntityWrapper> filteredChild = new TreeItem<>(child.wrapper);
+        addFilteredChildren(filteredChild, child, children);
+        filteredChildren.add(filteredChild);
+      });
+      filteredTreeItem.getChildren().addAll(filteredChildren);
+    }
+  }
+
+  private static final class Entry {
+
+    private final EntityWrapper wrapper;
+    private final Entry parent;
+    private final long sequence;
+    private final String exactKey;
+    private final List<String> texts;
+
+    private Entry(final EntityWrapper wrapper, final Entry parent, final long sequence,
+                  final String exactKey, final String... texts) {
+      this.wrapper = wrapper;
+      this.parent = parent;
+      this.sequence = sequence;
+      this.exactKey = exactKey;
+      this.texts = Stream.of(texts).filter(Objects::nonNull).map(String::toLowerCase)
+            .collect(Collectors.toList());
+    }
+
+    private boolean matches(final String query) {
+      return texts.stream().anyMatch(text -> text.contains(query));
+    }
+
+    private Set<Long> getTrigrams() {
+      final Set<Long> trigrams = new HashSet<>();
+      texts.forEach(text -> {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+          trigrams.add(trigram(text, i));
+        }
+      });
+      return trigrams;
+    }
+  }
+}
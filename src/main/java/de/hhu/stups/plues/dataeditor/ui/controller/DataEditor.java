@@ -86,17 +86,25 @@ public class DataEditor extends VBox implements Initializable {
         }
       }
     });
-    EasyBind.subscribe(dbService.dbTaskProperty(), this::setStatusBarProgress);
+    // a running load task takes precedence over background tasks like saving the database
+    EasyBind.subscribe(EasyBind.combine(dbService.dbTaskProperty(),
+        dbService.backgroundTaskProperty(),
+        (loadTask, backgroundTask) -> loadTask == null ? backgroundTask : loadTask),
+        this::setStatusBarProgress);
   }
 
   private void setStatusBarProgress(Task<Void> task) {
     Platform.runLater(() -> {
+      statusBar.progressProperty().unbind();
+      statusBar.textProperty().unbind();
       if (task == null) {
         statusBar.setProgress(0);
         statusBar.textProperty().set("");
       } else {
-        statusBar.setProgress(-1);
-        statusBar.textProperty().set(resources.getString("loading"));
+        // the message of the task is the resource key of the current stage
+        statusBar.progressProperty().bind(task.progressProperty());
+        statusBar.textProperty().bind(EasyBind.map(task.messageProperty(),
+            stage -> resources.getString(stage.isEmpty() ? "loading" : stage)));
       }
     });
   }
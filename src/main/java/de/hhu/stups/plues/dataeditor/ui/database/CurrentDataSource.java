@@ -0,0 +1,31 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A data source delegating to the connection pool of the database currently opened by the
+ * {@link DbService}, so that the repositories follow each newly loaded database. A write keeps
+ * the pool it has been submitted for, see {@link DbService#getCurrentDataSource()}.
+ */
+public class CurrentDataSource extends AbstractDataSource {
+
+  private final DbService dbService;
+
+  public CurrentDataSource(final DbService dbService) {
+    this.dbService = dbService;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return dbService.getCurrentDataSource().getConnection();
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password)
+        throws SQLException {
+    return dbService.getCurrentDataSource().getConnection(username, password);
+  }
+}
@@ -0,0 +1,16 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+/**
+ * The read path used by the {@link DataService} to load the entities of a database.
+ */
+public enum DataLoadMode {
+  /**
+   * Load the entities through the Spring Data repositories and Hibernate.
+   */
+  REPOSITORY,
+  /**
+   * Stream the tables with plain JDBC using the {@link SnapshotReader}, Hibernate is only used to
+   * write changes.
+   */
+  SNAPSHOT
+}
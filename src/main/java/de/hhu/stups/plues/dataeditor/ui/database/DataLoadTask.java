@@ -0,0 +1,39 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import javafx.concurrent.Task;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * A task running the load pipeline of the {@link DataService} on the worker of the
+ * {@link DbService}. The pipeline reports the start of each {@link LoadStage}, which updates the
+ * progress and the message of this task.
+ */
+class DataLoadTask extends Task<Void> {
+
+  private final Consumer<DataLoadTask> pipeline;
+
+  DataLoadTask(final Consumer<DataLoadTask> pipeline) {
+    this.pipeline = pipeline;
+  }
+
+  @Override
+  protected Void call() {
+    pipeline.accept(this);
+    updateProgress(1, 1);
+    return null;
+  }
+
+  /**
+   * Report the start of the given stage and stop the pipeline if the task has been cancelled in
+   * the meantime, e.g. since another database is loaded.
+   */
+  void startStage(final LoadStage stage) {
+    if (isCancelled()) {
+      throw new CancellationException();
+    }
+    updateMessage(stage.getMessageKey());
+    updateProgress(stage.ordinal(), LoadStage.values().length);
+  }
+}
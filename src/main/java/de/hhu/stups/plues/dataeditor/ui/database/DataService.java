@@ -1,7 +1,12 @@
 package de.hhu.stups.plues.dataeditor.ui.database;
 
+import de.hhu.stups.plues.dataeditor.exceptions.DataLoadException;
+import de.hhu.stups.plues.dataeditor.exceptions.DataSaveException;
 import de.hhu.stups.plues.dataeditor.ui.database.events.DataChangeEvent;
 import de.hhu.stups.plues.dataeditor.ui.database.events.DataChangeType;
+import de.hhu.stups.plues.dataeditor.ui.database.events.DbEvent;
+import de.hhu.stups.plues.dataeditor.ui.database.events.DbEventType;
+import de.hhu.stups.plues.dataeditor.ui.database.events.ExternalChangeDbEvent;
 import de.hhu.stups.plues.dataeditor.ui.entities.AbstractUnitWrapper;
 import de.hhu.stups.plues.dataeditor.ui.entities.Course;
 import de.hhu.stups.plues.dataeditor.ui.entities.CourseKzfa;
@@ -18,11 +23,13 @@ import de.hhu.stups.plues.dataeditor.ui.entities.UnitWrapper;
 import de.hhu.stups.plues.dataeditor.ui.entities.repositories.AbstractUnitRepository;
 import de.hhu.stups.plues.dataeditor.ui.entities.repositories.CourseRepository;
 import de.hhu.stups.plues.dataeditor.ui.entities.repositories.GroupRepository;
+import de.hhu.stups.plues.dataeditor.ui.entities.repositories.JoinRow;
 import de.hhu.stups.plues.dataeditor.ui.entities.repositories.LevelRepository;
 import de.hhu.stups.plues.dataeditor.ui.entities.repositories.ModuleRepository;
 import de.hhu.stups.plues.dataeditor.ui.entities.repositories.RepositoryFactory;
 import de.hhu.stups.plues.dataeditor.ui.entities.repositories.SessionRepository;
 import de.hhu.stups.plues.dataeditor.ui.entities.repositories.UnitRepository;
+import javafx.application.Platform;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.MapProperty;
 import javafx.beans.property.ObjectProperty;
@@ -30,13 +37,44 @@ import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleMapProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableMap;
 import org.fxmisc.easybind.EasyBind;
 import org.reactfx.EventSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 
@@ -46,7 +84,18 @@ import javax.sql.DataSource;
 @Component
 public class DataService {
 
+  private static final int LOAD_THREADS = 8;
+
+  private static final Logger logger = LoggerFactory.getLogger(DataService.class);
+
   private final EventSource<DataChangeEvent> dataChangeEventSource;
+  private final ObservableIntMap<CourseWrapper> courseWrappers;
+  private final ObservableIntMap<LevelWrapper> levelWrappers;
+  private final ObservableIntMap<ModuleWrapper> moduleWrappers;
+  private final ObservableIntMap<AbstractUnitWrapper> abstractUnitWrappers;
+  private final ObservableIntMap<UnitWrapper> unitWrappers;
+  private final ObservableIntMap<SessionWrapper> sessionWrappers;
+  private final ObservableIntMap<GroupWrapper> groupWrappers;
   private final MapProperty<Integer, CourseWrapper> courseWrappersProperty;
   private final ListProperty<CourseWrapper> majorCourseWrappersProperty;
   private final ListProperty<CourseWrapper> minorCourseWrappersProperty;
@@ -65,7 +114,30 @@ public class DataService {
   private final GroupRepository groupRepository;
   private final SessionRepository sessionRepository;
 
+  private final DbService dbService;
+  private final TransactionTemplate transactionTemplate;
+  private final RelationLoader relationLoader;
+  private final IdAllocator idAllocator;
+  private final ExecutorService loadExecutor;
+  private final ObjectProperty<DataLoadMode> loadModeProperty;
+  private final ObjectProperty<File> snapshotCacheDirectoryProperty;
+  private final List<ViewModelBuilder> viewModelBuilders;
+
   private ObjectProperty<EntityWrapper> draggedEntityProperty;
+  // the state the published data has been read from, replaced on the JavaFX application thread
+  private volatile LoadState loadState;
+  // a refresh requested while a load task is running, it follows the load task
+  private boolean refreshPending;
+  // counts the writes started by runInTransaction, a refresh that has read concurrently to a
+  // write is dropped, since it may have read the rows before the write
+  private final AtomicLong writeSequence = new AtomicLong();
+  private final AtomicInteger runningWrites = new AtomicInteger();
+  // a dropped refresh waiting for the running writes to finish
+  private volatile boolean refreshAfterWrites;
+  // the writes of the events pushed by pushAll, committed in a single transaction, and the undo
+  // of their changes to the published wrappers in case the transaction is rolled back
+  private List<Runnable> pendingWrites;
+  private List<Runnable> pendingUndos;
 
   /**
    * Initialize the map properties to store and manage the database entity wrapper and subscribe to
@@ -73,18 +145,39 @@ public class DataService {
    */
 
   @Autowired
-  public DataService(final DbService dbService, RepositoryFactory repositoryFactory) {
-    courseWrappersProperty = new SimpleMapProperty<>(FXCollections.observableHashMap());
+  public DataService(final DbService dbService, RepositoryFactory repositoryFactory,
+                     final PlatformTransactionManager transactionManager) {
+    courseWrappers = new ObservableIntMap<>();
+    courseWrappersProperty = new SimpleMapProperty<>(courseWrappers);
     majorCourseWrappersProperty = new SimpleListProperty<>(FXCollections.observableArrayList());
     minorCourseWrappersProperty = new SimpleListProperty<>(FXCollections.observableArrayList());
-    levelWrappersProperty = new SimpleMapProperty<>(FXCollections.observableHashMap());
-    moduleWrappersProperty = new SimpleMapProperty<>(FXCollections.observableHashMap());
-    abstractUnitWrappersProperty = new SimpleMapProperty<>(FXCollections.observableHashMap());
-    unitWrappersProperty = new SimpleMapProperty<>(FXCollections.observableHashMap());
-    sessionWrappersProperty = new SimpleMapProperty<>(FXCollections.observableHashMap());
-    groupWrappersProperty = new SimpleMapProperty<>(FXCollections.observableHashMap());
+    levelWrappers = new ObservableIntMap<>();
+    levelWrappersProperty = new SimpleMapProperty<>(levelWrappers);
+    moduleWrappers = new ObservableIntMap<>();
+    moduleWrappersProperty = new SimpleMapProperty<>(moduleWrappers);
+    abstractUnitWrappers = new ObservableIntMap<>();
+    abstractUnitWrappersProperty = new SimpleMapProperty<>(abstractUnitWrappers);
+    unitWrappers = new ObservableIntMap<>();
+    unitWrappersProperty = new SimpleMapProperty<>(unitWrappers);
+    sessionWrappers = new ObservableIntMap<>();
+    sessionWrappersProperty = new SimpleMapProperty<>(sessionWrappers);
+    groupWrappers = new ObservableIntMap<>();
+    groupWrappersProperty = new SimpleMapProperty<>(groupWrappers);
     dataChangeEventSource = new EventSource<>();
     draggedEntityProperty = new SimpleObjectProperty<>();
+    this.dbService = dbService;
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    relationLoader = new RelationLoader();
+    viewModelBuilders = new CopyOnWriteArrayList<>();
+    loadExecutor = Executors.newFixedThreadPool(
+        Math.min(LOAD_THREADS, Runtime.getRuntime().availableProcessors()), runnable -> {
+          final Thread thread = new Thread(runnable, "data-loader");
+          thread.setDaemon(true);
+          return thread;
+        });
+    loadModeProperty = new SimpleObjectProperty<>(DataLoadMode.SNAPSHOT);
+    snapshotCacheDirectoryProperty = new SimpleObjectProperty<>(
+        new File(System.getProperty("user.home"), ".plues-data-editor/snapshots"));
 
     this.courseRepository = repositoryFactory.getCourseRepository();
     this.levelRepository = repositoryFactory.getLevelRepository();
@@ -94,22 +187,217 @@ public class DataService {
     this.groupRepository = repositoryFactory.getGroupRepository();
     this.sessionRepository = repositoryFactory.getSessionRepository();
 
+    idAllocator = new IdAllocator();
+    idAllocator.register(EntityType.COURSE, courseRepository::getMaxId);
+    idAllocator.register(EntityType.LEVEL, levelRepository::getMaxId);
+    idAllocator.register(EntityType.MODULE, moduleRepository::getMaxId);
+    idAllocator.register(EntityType.ABSTRACT_UNIT, abstractUnitRepository::getMaxId);
+    idAllocator.register(EntityType.UNIT, unitRepository::getMaxId);
+    idAllocator.register(EntityType.GROUP, groupRepository::getMaxId);
+    idAllocator.register(EntityType.SESSION, sessionRepository::getMaxId);
+
     EasyBind.subscribe(dbService.dataSourceProperty(), this::loadData);
+    EasyBind.subscribe(dbService.dbTaskProperty(), loadTask -> {
+      if (loadTask == null && refreshPending) {
+        refreshPending = false;
+        refreshData();
+      }
+    });
+    dbService.dbEventSource().subscribe(this::refreshOnExternalChange);
     dataChangeEventSource.subscribe(this::persistData);
   }
 
-  private void persistData(DataChangeEvent dataChangeEvent) {
-    if (dataChangeEvent.getDataChangeType().storeEntity()) {
-      if (dataChangeEvent.getChangedEntity().getId() == 0) {
-        saveNewEntity(dataChangeEvent.getChangedEntity().getEntityType(),
-            dataChangeEvent.getChangedEntity());
-      } else {
-        saveEntity(dataChangeEvent.getChangedEntity().getEntityType(),
-            dataChangeEvent.getChangedEntity());
+  /**
+   * Run the given unit of work in a single transaction on the writer of the {@link DbService}, so
+   * that the JavaFX application thread never waits for the lock of the database. The write is
+   * bound to the current database and the returned future completes on the JavaFX application
+   * thread once it has been committed or rolled back, a failure is logged. A unit of work running
+   * inside a write already joins its transaction. Each write advances the write sequence, so that
+   * a concurrent refresh does not overwrite it, see {@link #refreshData()}. Has to be called on
+   * the JavaFX application thread.
+   */
+  public CompletableFuture<Void> runInTransaction(final Runnable unitOfWork) {
+    if (dbService.isWriting()) {
+      transactionTemplate.execute(status -> {
+        unitOfWork.run();
+        return null;
+      });
+      return CompletableFuture.completedFuture(null);
+    }
+    writeSequence.incrementAndGet();
+    runningWrites.incrementAndGet();
+    return dbService.submitWrite(() -> transactionTemplate.execute(status -> {
+      unitOfWork.run();
+      return (Void) null;
+    })).whenCompleteAsync((ignored, exception) -> {
+      if (exception != null) {
+        logger.error("Exception while writing to the database", exception);
+        // the ids of the next new entities are checked against the database again
+        idAllocator.invalidate();
       }
+      if (runningWrites.decrementAndGet() == 0 && refreshAfterWrites) {
+        refreshAfterWrites();
+      }
+    }, Platform::runLater);
+  }
+
+  /**
+   * Push the given data change events and persist all of them in a single transaction, if any of
+   * them fails nothing is written at all. Has to be called on the JavaFX application thread.
+   */
+  public CompletableFuture<Void> pushAll(final Collection<DataChangeEvent> dataChangeEvents) {
+    pendingWrites = new ArrayList<>();
+    pendingUndos = new ArrayList<>();
+    final List<Runnable> writes = pendingWrites;
+    final List<Runnable> undos = pendingUndos;
+    try {
+      dataChangeEvents.forEach(dataChangeEventSource::push);
+    } finally {
+      pendingWrites = null;
+      pendingUndos = null;
+    }
+    return undoOnRollback(runInTransaction(() -> writes.forEach(Runnable::run)), undos);
+  }
+
+  /**
+   * Persist the entity of the given event on the writer, see
+   * {@link #runInTransaction(Runnable)}. New entities get their id and are added to the published
+   * wrappers and deleted entities are removed from them right away, so that the other subscribers
+   * of the event find them as usual. Both is undone if the transaction is rolled back.
+   */
+  private void persistData(final DataChangeEvent dataChangeEvent) {
+    final EntityWrapper changedEntity = dataChangeEvent.getChangedEntity();
+    final Runnable write;
+    final Runnable undo;
+    if (dataChangeEvent.getDataChangeType().storeEntity() && changedEntity.getId() == 0) {
+      setId(changedEntity, idAllocator.nextId(changedEntity.getEntityType()));
+      putEntity(changedEntity);
+      write = () -> saveNewEntity(changedEntity.getEntityType(), changedEntity);
+      undo = () -> {
+        removeEntity(changedEntity);
+        dataChangeEventSource.push(
+            new DataChangeEvent(DataChangeType.REMOVE_ENTITY, changedEntity));
+        // the entity is stored as a new one again
+        setId(changedEntity, 0);
+      };
+    } else if (dataChangeEvent.getDataChangeType().storeEntity()) {
+      write = () -> saveEntity(changedEntity.getEntityType(), changedEntity);
+      undo = () -> { };
     } else if (dataChangeEvent.getDataChangeType().deleteEntity()) {
-      deleteEntity(dataChangeEvent.getChangedEntity().getEntityType(),
-          dataChangeEvent.getChangedEntity());
+      removeEntity(changedEntity);
+      write = () -> deleteEntity(changedEntity.getEntityType(), changedEntity);
+      undo = () -> {
+        putEntity(changedEntity);
+        dataChangeEventSource.push(
+            new DataChangeEvent(DataChangeType.REFRESH_ENTITY, changedEntity));
+      };
+    } else {
+      return;
+    }
+    if (pendingWrites != null) {
+      pendingWrites.add(write);
+      pendingUndos.add(undo);
+    } else {
+      undoOnRollback(runInTransaction(write), Collections.singletonList(undo));
+    }
+  }
+
+  /**
+   * Undo the changes made to the published wrappers for the given write in reverse order if it
+   * fails, unless another database has been loaded in the meantime.
+   */
+  private CompletableFuture<Void> undoOnRollback(final CompletableFuture<Void> write,
+                                                 final List<Runnable> undos) {
+    final DataSource dataSource = dbService.dataSourceProperty().get();
+    return write.whenComplete((ignored, exception) -> {
+      if (exception != null && dataSource == dbService.dataSourceProperty().get()) {
+        for (int i = undos.size() - 1; i >= 0; i--) {
+          undos.get(i).run();
+        }
+      }
+    });
+  }
+
+  private static void setId(final EntityWrapper entityWrapper, final int id) {
+    switch (entityWrapper.getEntityType()) {
+      case COURSE:
+        ((CourseWrapper) entityWrapper).setId(id);
+        break;
+      case LEVEL:
+        ((LevelWrapper) entityWrapper).setId(id);
+        break;
+      case MODULE:
+        ((ModuleWrapper) entityWrapper).setId(id);
+        break;
+      case ABSTRACT_UNIT:
+        ((AbstractUnitWrapper) entityWrapper).setId(id);
+        break;
+      case UNIT:
+        ((UnitWrapper) entityWrapper).setId(id);
+        break;
+      case GROUP:
+        ((GroupWrapper) entityWrapper).setId(id);
+        break;
+      case SESSION:
+        ((SessionWrapper) entityWrapper).setId(id);
+        break;
+      default:
+    }
+  }
+
+  /**
+   * Add the given entity to the published wrappers, e.g. a new one.
+   */
+  private void putEntity(final EntityWrapper entityWrapper) {
+    final int id = entityWrapper.getId();
+    switch (entityWrapper.getEntityType()) {
+      case COURSE:
+        courseWrappersProperty.put(id, (CourseWrapper) entityWrapper);
+        if (((CourseWrapper) entityWrapper).getCourse().isMajor()) {
+          majorCourseWrappersProperty.add((CourseWrapper) entityWrapper);
+        } else {
+          minorCourseWrappersProperty.add((CourseWrapper) entityWrapper);
+        }
+        break;
+      case LEVEL:
+        levelWrappersProperty.put(id, (LevelWrapper) entityWrapper);
+        break;
+      case MODULE:
+        moduleWrappersProperty.put(id, (ModuleWrapper) entityWrapper);
+        break;
+      case ABSTRACT_UNIT:
+        abstractUnitWrappersProperty.put(id, (AbstractUnitWrapper) entityWrapper);
+        break;
+      case UNIT:
+        unitWrappersProperty.put(id, (UnitWrapper) entityWrapper);
+        break;
+      case GROUP:
+        groupWrappersProperty.put(id, (GroupWrapper) entityWrapper);
+        break;
+      case SESSION:
+        sessionWrappersProperty.put(id, (SessionWrapper) entityWrapper);
+        break;
+      default:
+    }
+  }
+
+  /**
+   * Remove the given entity from the published wrappers, e.g. a deleted one.
+   */
+  private void removeEntity(final EntityWrapper entityWrapper) {
+    getWrappers(entityWrapper.getEntityType()).values().remove(entityWrapper);
+    majorCourseWrappersProperty.remove(entityWrapper);
+    minorCourseWrappersProperty.remove(entityWrapper);
+  }
+
+  /**
+   * Make sure that the id handed out to the given new entity has not been taken by another process
+   * in the meantime, since its row would be overwritten by the insert.
+   */
+  private void checkNewId(final EntityWrapper entityWrapper) {
+    if (!idAllocator.isFree(entityWrapper.getEntityType(), entityWrapper.getId())) {
+      throw new DataSaveException(new IllegalStateException("The id " + entityWrapper.getId()
+          + " of the new " + entityWrapper.getEntityType() + " has been taken"));
     }
   }
 
@@ -141,17 +429,20 @@ public class DataService {
   }
 
   private void saveCourse(final CourseWrapper courseWrapper) {
-    courseRepository.deleteMinor(courseWrapper.getId());
     final Course co = courseWrapper.getCourse();
     courseRepository.updateSimpleCourse(co.getId(), co.getKey(), co.getDegree(),
           co.getShortName(), co.getLongName(), CourseKzfa.toString(courseWrapper.getKzfa()),
           co.getPo(), co.getCreditPoints());
     if (co.isMinor()) {
-      co.getMajorCourses().forEach(course ->
-            courseRepository.insertMinor(co.getId(), course.getId()));
+      JoinSetSynchronizer.synchronize(courseRepository.findMajorIdsOfMinor(co.getId()),
+            courseIds(co.getMajorCourses()),
+            majorIds -> courseRepository.insertMinors(JoinRow.withLeft(co.getId(), majorIds)),
+            majorIds -> courseRepository.deleteMinors(JoinRow.withLeft(co.getId(), majorIds)));
     } else {
-      co.getMinorCourses().forEach(course ->
-            courseRepository.insertMinor(course.getId(), co.getId()));
+      JoinSetSynchronizer.synchronize(courseRepository.findMinorIdsOfMajor(co.getId()),
+            courseIds(co.getMinorCourses()),
+            minorIds -> courseRepository.insertMinors(JoinRow.withRight(minorIds, co.getId())),
+            minorIds -> courseRepository.deleteMinors(JoinRow.withRight(minorIds, co.getId())));
     }
   }
 
@@ -184,49 +475,56 @@ public class DataService {
             mod.getTitle(), false);
     }
 
-    abstractUnitRepository.deleteModuleAbstractUnitSemesterByModule(mod.getId());
-    abstractUnitRepository.deleteModuleAbstractUnitTypeByModule(mod.getId());
-    moduleWrapper.getAbstractUnits().forEach(abstractUnitWrapper -> {
-      abstractUnitRepository.deleteModuleAbstractUnitSemesterByAbstractUnit(
-            abstractUnitWrapper.getId());
-      abstractUnitRepository.insertSimpleModuleAbstractUnitSemester(
-            mod.getId(), abstractUnitWrapper.getId());
-      abstractUnitRepository.deleteModuleAbstractUnitTypeByAbstractUnit(
-            abstractUnitWrapper.getId());
-      abstractUnitRepository.insertSimpleModuleAbstractUnitType(
-            mod.getId(), abstractUnitWrapper.getId());
-    });
+    final Set<Integer> abstractUnitIds = wrapperIds(moduleWrapper.getAbstractUnits());
+    JoinSetSynchronizer.synchronize(
+          abstractUnitRepository.findSemesterAbstractUnitIdsByModule(mod.getId()),
+          abstractUnitIds,
+          ids -> abstractUnitRepository.insertModuleAbstractUnitSemesters(
+                JoinRow.withLeft(mod.getId(), ids)),
+          ids -> abstractUnitRepository.deleteModuleAbstractUnitSemesters(
+                JoinRow.withLeft(mod.getId(), ids)));
+    JoinSetSynchronizer.synchronize(
+          abstractUnitRepository.findTypeAbstractUnitIdsByModule(mod.getId()),
+          abstractUnitIds,
+          ids -> abstractUnitRepository.insertModuleAbstractUnitTypes(
+                JoinRow.withLeft(mod.getId(), ids)),
+          ids -> abstractUnitRepository.deleteModuleAbstractUnitTypes(
+                JoinRow.withLeft(mod.getId(), ids)));
   }
 
   private void saveAbstractUnit(AbstractUnitWrapper abstractUnitWrapper) {
     abstractUnitRepository.save(abstractUnitWrapper.getAbstractUnit());
-    abstractUnitRepository.deleteModuleAbstractUnitTypeByAbstractUnit(
-          abstractUnitWrapper.getId());
-    abstractUnitRepository.deleteModuleAbstractUnitSemesterByAbstractUnit(
-          abstractUnitWrapper.getId());
-
-    abstractUnitWrapper.getModules().forEach(moduleWrapper -> {
-      abstractUnitRepository.insertSimpleModuleAbstractUnitType(
-            moduleWrapper.getId(), abstractUnitWrapper.getId());
-      abstractUnitRepository.insertSimpleModuleAbstractUnitSemester(
-            moduleWrapper.getId(), abstractUnitWrapper.getId());
-    });
-    abstractUnitRepository.deleteUnitAbstractUnitByAbstractUnit(abstractUnitWrapper.getId());
-    abstractUnitWrapper.getUnits().forEach(unitWrapper ->
-          abstractUnitRepository.insertSimpleUnitAbstractUnit(unitWrapper.getId(),
-                abstractUnitWrapper.getId()));
+    final int id = abstractUnitWrapper.getId();
+    final Set<Integer> moduleIds = wrapperIds(abstractUnitWrapper.getModules());
+    JoinSetSynchronizer.synchronize(
+          abstractUnitRepository.findTypeModuleIdsByAbstractUnit(id), moduleIds,
+          ids -> abstractUnitRepository.insertModuleAbstractUnitTypes(JoinRow.withRight(ids, id)),
+          ids -> abstractUnitRepository.deleteModuleAbstractUnitTypes(JoinRow.withRight(ids, id)));
+    JoinSetSynchronizer.synchronize(
+          abstractUnitRepository.findSemesterModuleIdsByAbstractUnit(id), moduleIds,
+          ids -> abstractUnitRepository.insertModuleAbstractUnitSemesters(
+                JoinRow.withRight(ids, id)),
+          ids -> abstractUnitRepository.deleteModuleAbstractUnitSemesters(
+                JoinRow.withRight(ids, id)));
+    JoinSetSynchronizer.synchronize(
+          abstractUnitRepository.findUnitIdsByAbstractUnit(id),
+          wrapperIds(abstractUnitWrapper.getUnits()),
+          ids -> abstractUnitRepository.insertUnitAbstractUnits(JoinRow.withRight(ids, id)),
+          ids -> abstractUnitRepository.deleteUnitAbstractUnits(JoinRow.withRight(ids, id)));
   }
 
   private void saveUnit(UnitWrapper unitWrapper) {
-    abstractUnitRepository.deleteUnitAbstractUnitByUnit(unitWrapper.getId());
     unitRepository.save(unitWrapper.getUnit());
-    unitWrapper.getAbstractUnits().forEach(abstractUnitWrapper ->
-          abstractUnitRepository.insertSimpleUnitAbstractUnit(unitWrapper.getId(),
-                abstractUnitWrapper.getId()));
+    final int id = unitWrapper.getId();
+    JoinSetSynchronizer.synchronize(
+          abstractUnitRepository.findAbstractUnitIdsByUnit(id),
+          wrapperIds(unitWrapper.getAbstractUnits()),
+          ids -> abstractUnitRepository.insertUnitAbstractUnits(JoinRow.withLeft(id, ids)),
+          ids -> abstractUnitRepository.deleteUnitAbstractUnits(JoinRow.withLeft(id, ids)));
   }
 
   private void saveNewEntity(EntityType changedType, EntityWrapper changedEntity) {
-    final int maxId;
+    checkNewId(changedEntity);
     switch (changedType) {
       case COURSE:
         saveNewCourse((CourseWrapper) changedEntity);
@@ -244,17 +542,9 @@ public class DataService {
         saveNewUnit((UnitWrapper) changedEntity);
         break;
       case GROUP:
-        maxId = groupRepository.getMaxId() + 1;
-        ((GroupWrapper) changedEntity).setId(maxId);
-        groupWrappersProperty.put(changedEntity.getId(),
-            ((GroupWrapper) changedEntity));
         groupRepository.save(((GroupWrapper) changedEntity).getGroup());
         break;
       case SESSION:
-        maxId = sessionRepository.getMaxId() + 1;
-        ((SessionWrapper) changedEntity).setId(maxId);
-        sessionWrappersProperty.put(changedEntity.getId(),
-            ((SessionWrapper) changedEntity));
         sessionRepository.save(((SessionWrapper) changedEntity).getSession());
         break;
       default:
@@ -262,27 +552,19 @@ public class DataService {
   }
 
   private void saveNewCourse(final CourseWrapper courseWrapper) {
-    final int maxId = courseRepository.getMaxId();
-    courseWrapper.setId(maxId + 1);
-    courseWrappersProperty.put(courseWrapper.getId(), courseWrapper);
     final Course co = courseWrapper.getCourse();
     courseRepository.insertSimpleCourse(co.getId(), co.getKey(), co.getDegree(), co.getShortName(),
           co.getLongName(), CourseKzfa.toString(courseWrapper.getKzfa()), co.getPo(),
           co.getCreditPoints());
     if (courseWrapper.getCourse().isMajor()) {
-      majorCourseWrappersProperty.add(courseWrapper);
-      co.getMinorCourses().forEach(course ->
-            courseRepository.insertMinor(course.getId(), co.getId()));
+      courseRepository.insertMinors(
+            JoinRow.withRight(courseIds(co.getMinorCourses()), co.getId()));
     } else {
-      minorCourseWrappersProperty.add(courseWrapper);
-      co.getMajorCourses().forEach(course ->
-            courseRepository.insertMinor(co.getId(), course.getId()));
+      courseRepository.insertMinors(JoinRow.withLeft(co.getId(), courseIds(co.getMajorCourses())));
     }
   }
 
   private void saveNewLevel(final LevelWrapper levelWrapper) {
-    final int maxId = levelRepository.getMaxId();
-    levelWrapper.setId(maxId + 1);
     final Level lvl = levelWrapper.getLevel();
     levelRepository.insertSimpleLevel(lvl.getId(), lvl.getName(), lvl.getTm(), lvl.getArt(),
         lvl.getMin(), lvl.getMax(), lvl.getMinCreditPoints(), lvl.getMaxCreditPoints(),
@@ -290,12 +572,9 @@ public class DataService {
     if (lvl.getParent() == null && lvl.getCourse() != null) {
       levelRepository.insertCourseLevel(lvl.getCourse().getId(), lvl.getId());
     }
-    levelWrappersProperty.put(levelWrapper.getId(), levelWrapper);
   }
 
   private void saveNewModule(final ModuleWrapper moduleWrapper) {
-    final int maxId = moduleRepository.getMaxId();
-    moduleWrapper.setId(maxId + 1);
     final Module mod = moduleWrapper.getModule();
     moduleRepository.insertSimpleModule(mod.getId(), mod.getKey(), mod.getTitle(), mod.getPordnr(),
           mod.getElectiveUnits(), mod.getBundled());
@@ -310,42 +589,27 @@ public class DataService {
       moduleRepository.insertModuleLevel(mod.getId(), lvl.getId(), course.getId(),
             mod.getTitle(), false);
     }
-    moduleWrapper.getAbstractUnits().forEach(abstractUnitWrapper -> {
-      abstractUnitRepository.deleteModuleAbstractUnitSemesterByAbstractUnit(
-            abstractUnitWrapper.getId());
-      abstractUnitRepository.insertSimpleModuleAbstractUnitSemester(
-            mod.getId(), abstractUnitWrapper.getId());
-      abstractUnitRepository.deleteModuleAbstractUnitTypeByAbstractUnit(
-            abstractUnitWrapper.getId());
-      abstractUnitRepository.insertSimpleModuleAbstractUnitType(
-            mod.getId(), abstractUnitWrapper.getId());
-    });
-
-    moduleWrappersProperty.put(mod.getId(), moduleWrapper);
+    // a new module has no rows in the join tables yet
+    final List<JoinRow> moduleAbstractUnits =
+          JoinRow.withLeft(mod.getId(), wrapperIds(moduleWrapper.getAbstractUnits()));
+    abstractUnitRepository.insertModuleAbstractUnitSemesters(moduleAbstractUnits);
+    abstractUnitRepository.insertModuleAbstractUnitTypes(moduleAbstractUnits);
   }
 
   private void saveNewAbstractUnit(AbstractUnitWrapper abstractUnitWrapper) {
-    abstractUnitWrapper.setId(abstractUnitRepository.getMaxId() + 1);
-    abstractUnitWrappersProperty.put(abstractUnitWrapper.getId(), abstractUnitWrapper);
     abstractUnitRepository.save(abstractUnitWrapper.getAbstractUnit());
-    abstractUnitWrapper.getModules().forEach(moduleWrapper -> {
-      abstractUnitRepository.insertSimpleModuleAbstractUnitType(
-            moduleWrapper.getId(), abstractUnitWrapper.getId());
-      abstractUnitRepository.insertSimpleModuleAbstractUnitSemester(
-            moduleWrapper.getId(), abstractUnitWrapper.getId());
-    });
-    abstractUnitWrapper.getUnits().forEach(unitWrapper ->
-          abstractUnitRepository.insertSimpleUnitAbstractUnit(unitWrapper.getId(),
-          abstractUnitWrapper.getId()));
+    final List<JoinRow> moduleAbstractUnits = JoinRow.withRight(
+          wrapperIds(abstractUnitWrapper.getModules()), abstractUnitWrapper.getId());
+    abstractUnitRepository.insertModuleAbstractUnitTypes(moduleAbstractUnits);
+    abstractUnitRepository.insertModuleAbstractUnitSemesters(moduleAbstractUnits);
+    abstractUnitRepository.insertUnitAbstractUnits(JoinRow.withRight(
+          wrapperIds(abstractUnitWrapper.getUnits()), abstractUnitWrapper.getId()));
   }
 
   private void saveNewUnit(UnitWrapper unitWrapper) {
-    unitWrapper.setId(unitRepository.getMaxId() + 1);
-    unitWrappersProperty.put(unitWrapper.getId(), unitWrapper);
     unitRepository.save(unitWrapper.getUnit());
-    unitWrapper.getAbstractUnits().forEach(abstractUnit ->
-          abstractUnitRepository.insertSimpleUnitAbstractUnit(
-                unitWrapper.getId(), abstractUnit.getId()));
+    abstractUnitRepository.insertUnitAbstractUnits(
+          JoinRow.withLeft(unitWrapper.getId(), wrapperIds(unitWrapper.getAbstractUnits())));
   }
 
   private void deleteEntity(final EntityType changedType, final EntityWrapper changedEntity) {
@@ -354,22 +618,17 @@ public class DataService {
         courseRepository.delete(((CourseWrapper) changedEntity).getCourse());
         courseRepository.deleteMinor(changedEntity.getId());
         courseRepository.deleteCourseLevel(changedEntity.getId());
-        courseWrappersProperty.get().values().remove(changedEntity);
-        majorCourseWrappersProperty.remove(changedEntity);
-        minorCourseWrappersProperty.remove(changedEntity);
         break;
       case LEVEL:
         levelRepository.delete(((LevelWrapper) changedEntity).getLevel());
         levelRepository.deleteCourseLevel(changedEntity.getId());
         levelRepository.deleteModuleLevel(changedEntity.getId());
-        levelWrappersProperty.get().values().remove(changedEntity);
         break;
       case MODULE:
         moduleRepository.delete(((ModuleWrapper) changedEntity).getModule());
         moduleRepository.deleteModuleLevel(changedEntity.getId());
         abstractUnitRepository.deleteModuleAbstractUnitTypeByModule(changedEntity.getId());
         abstractUnitRepository.deleteModuleAbstractUnitSemesterByModule(changedEntity.getId());
-        moduleWrappersProperty.get().values().remove(changedEntity);
         break;
       case ABSTRACT_UNIT:
         abstractUnitRepository.delete(((AbstractUnitWrapper) changedEntity).getAbstractUnit());
@@ -377,19 +636,15 @@ public class DataService {
         abstractUnitRepository.deleteModuleAbstractUnitSemesterByAbstractUnit(
               changedEntity.getId());
         abstractUnitRepository.deleteUnitAbstractUnitByAbstractUnit(changedEntity.getId());
-        abstractUnitWrappersProperty.get().values().remove(changedEntity);
         break;
       case UNIT:
         unitRepository.delete(((UnitWrapper) changedEntity).getUnit());
-        unitWrappersProperty.get().values().remove(changedEntity);
         break;
       case GROUP:
         groupRepository.delete(((GroupWrapper) changedEntity).getGroup());
-        groupWrappersProperty.get().values().remove(changedEntity);
         break;
       case SESSION:
         sessionRepository.delete(((SessionWrapper) changedEntity).getSession());
-        sessionWrappersProperty.get().values().remove(changedEntity);
         break;
       default:
     }
@@ -400,112 +655,660 @@ public class DataService {
     if (dataSource == null) {
       return;
     }
-    clear();
-    initializeEntitiesFlat();
-    initializeEntitiesNested();
-    dataChangeEventSource.push(new DataChangeEvent(DataChangeType.RELOAD_DB));
+    loadState = null;
+    // the database has just been opened, so its snapshot cache may be used
+    final File dbFile = dbService.getDbFile();
+    dbService.submitLoadTask(
+        new DataLoadTask(loadTask -> loadData(dataSource, dbFile, loadTask)));
   }
 
   /**
-   * Initialize all map properties on the first level.
+   * The load pipeline running on the worker of the {@link DbService}. The data is read and wired
+   * in an {@link EntitySnapshot}, the registered {@link ViewModelBuilder} prepare their views and
+   * everything is handed over to the JavaFX application thread in a single publish step. The
+   * pipeline stops between the stages if the task has been cancelled. If a database file is given
+   * the entities are decoded from its {@link SnapshotCache} if it is up to date, otherwise the
+   * cache is written once the entities have been wired, while the views are prepared.
    */
-  private void initializeEntitiesFlat() {
-    courseRepository.findAll().forEach(course -> {
-      final CourseWrapper courseWrapper = new CourseWrapper(course);
-      courseWrappersProperty.put(course.getId(), courseWrapper);
-      if (course.isMajor()) {
-        majorCourseWrappersProperty.add(courseWrapper);
-      } else {
-        minorCourseWrappersProperty.add(courseWrapper);
+  private void loadData(final DataSource dataSource, final File dbFile,
+                        final DataLoadTask loadTask) {
+    loadTask.startStage(LoadStage.READ_TABLES);
+    // a commit after the fingerprints have been read is found by the next refresh
+    final TableFingerprints fingerprints = TableFingerprints.read(dataSource);
+    final SnapshotCache snapshotCache = getSnapshotCache(dbFile);
+    final SnapshotKey snapshotKey =
+        snapshotCache == null ? null : SnapshotKey.of(dbFile, dataSource);
+    final EntitySnapshot cachedSnapshot =
+        snapshotCache == null ? null : snapshotCache.read(snapshotKey);
+    final EntitySnapshot snapshot =
+        cachedSnapshot == null ? initializeEntitiesFlat(dataSource) : cachedSnapshot;
+    loadTask.startStage(LoadStage.WIRE_RELATIONS);
+    initializeEntitiesNested(snapshot);
+    // wiring sets the relations of the entities, the cache and the views only read them
+    final Future<?> cacheWrite = snapshotCache == null || cachedSnapshot != null ? null
+        : loadExecutor.submit(() -> snapshotCache.write(snapshotKey, snapshot));
+    loadTask.startStage(LoadStage.BUILD_TREE);
+    final List<Runnable> viewModelInstallers = viewModelBuilders.stream()
+        .map(viewModelBuilder -> viewModelBuilder.build(snapshot))
+        .collect(Collectors.toList());
+    final LoadState state = LoadState.of(snapshot, fingerprints);
+    if (cacheWrite != null) {
+      // the entities must not be edited on the JavaFX application thread while being written
+      await(cacheWrite);
+    }
+    Platform.runLater(() -> {
+      if (!loadTask.isCancelled()) {
+        publish(snapshot, viewModelInstallers);
+        loadState = state;
       }
     });
-    levelRepository.findAll().forEach(level ->
-        levelWrappersProperty.put(level.getId(),
-            new LevelWrapper(level)));
-    moduleRepository.findAll().forEach(module ->
-        moduleWrappersProperty.put(module.getId(),
-            new ModuleWrapper(module)));
-    abstractUnitRepository.findAll().forEach(abstractUnit ->
-        abstractUnitWrappersProperty.put(abstractUnit.getId(),
-            new AbstractUnitWrapper(abstractUnit)));
-    unitRepository.findAll().forEach(unit ->
-        unitWrappersProperty.put(unit.getId(),
-            new UnitWrapper(unit)));
-    groupRepository.findAll().forEach(group ->
-        groupWrappersProperty.put(group.getId(),
-            new GroupWrapper(group)));
-    sessionRepository.findAll().forEach(session ->
-        sessionWrappersProperty.put(session.getId(),
-            new SessionWrapper(session)));
   }
 
   /**
-   * Initialize the nested {@link de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper} after
-   * calling {@link #initializeEntitiesFlat()} since we need to use the wrapper defined
-   * there.
-   */
-  private void initializeEntitiesNested() {
-    abstractUnitWrappersProperty.values().forEach(abstractUnitWrapper -> {
-      abstractUnitWrapper.modulesProperty().addAll(
-          abstractUnitWrapper.getAbstractUnit().getModules().stream()
-              .map(module -> moduleWrappersProperty.get(module.getId()))
-              .collect(Collectors.toSet()));
-      abstractUnitWrapper.unitsProperty().addAll(
-          abstractUnitWrapper.getAbstractUnit().getUnits().stream()
-              .map(unit -> unitWrappersProperty.get(unit.getId())).collect(Collectors.toSet()));
-    });
-    moduleWrappersProperty.values().forEach(moduleWrapper -> {
-      moduleWrapper.abstractUnitsProperty().addAll(
-          moduleWrapper.getModule().getAbstractUnits().stream()
-              .map(abstractUnit -> abstractUnitWrappersProperty.get(abstractUnit.getId()))
-              .collect(Collectors.toSet()));
-      moduleWrapper.coursesProperty().addAll(
-          moduleWrapper.getModule().getCourses().stream()
-              .map(course -> courseWrappersProperty.get(course.getId()))
-              .collect(Collectors.toSet()));
-      if (moduleWrapper.getModule().getLevel() != null) {
-        moduleWrapper.setLevel(levelWrappersProperty.get(
-              moduleWrapper.getModule().getLevel().getId()));
+   * Load the data of the current database again, e.g. after it has been changed in bulk.
+   */
+  public void reloadData() {
+    final DataSource dataSource = dbService.dataSourceProperty().get();
+    dbService.submitLoadTask(new DataLoadTask(loadTask -> loadData(dataSource, null, loadTask)));
+  }
+
+  /**
+   * Make sure that no new entity gets an id up to the given id of the given table, e.g. since rows
+   * with these ids are written by an import. Tables of no entity type are ignored.
+   */
+  public void reserveIds(final String table, final long maxId) {
+    final EntityType entityType = getEntityType(table);
+    if (entityType != null) {
+      idAllocator.skip(entityType, (int) Math.min(maxId, Integer.MAX_VALUE));
+    }
+  }
+
+  /**
+   * Get the next free id of the given table for a row written outside of the entities, e.g. by an
+   * import. The id is taken from the ids of the new entities, so that both never collide. Returns
+   * an empty optional for tables of no entity type.
+   */
+  public OptionalInt nextId(final String table) {
+    final EntityType entityType = getEntityType(table);
+    return entityType == null
+        ? OptionalInt.empty() : OptionalInt.of(idAllocator.nextId(entityType));
+  }
+
+  private static EntityType getEntityType(final String table) {
+    return LoadState.TABLES.entrySet().stream()
+        .filter(entry -> entry.getValue().equals(table))
+        .map(Map.Entry::getKey)
+        .findAny().orElse(null);
+  }
+
+  /**
+   * Take over the changes made to the current database outside of the editor since its data has
+   * been loaded, without loading all of it again. Only the columns of the rows updated since then
+   * and of the rows with unknown ids are read. The ids and relations are read again only from the
+   * tables whose {@link TableFingerprints} have changed, since deleted rows are found by comparing
+   * the ids and the join tables carry no timestamps. The published wrappers
+   * are patched in place and a {@link DataChangeType#REFRESH_ENTITY} or
+   * {@link DataChangeType#REMOVE_ENTITY} event is pushed for each changed entity. The data is
+   * loaded completely if it has not been published yet, while a load task is running the refresh
+   * is deferred until it has finished. A refresh that has been running while the editor wrote to
+   * the database is not applied, since the rows it has read may predate the write and would undo
+   * the edit. It is started again once the writes have finished.
+   */
+  public void refreshData() {
+    if (dbService.dbTaskProperty().get() != null) {
+      refreshPending = true;
+      return;
+    }
+    final LoadState state = loadState;
+    if (state == null) {
+      reloadData();
+      return;
+    }
+    // a write running already may commit after the rows have been read
+    final long sequence = runningWrites.get() == 0 ? writeSequence.get() : -1;
+    final DataSource dataSource = dbService.dataSourceProperty().get();
+    dbService.submitLoadTask(
+        new DataLoadTask(loadTask -> refreshData(dataSource, state, sequence, loadTask)));
+  }
+
+  /**
+   * Start a refresh that has been dropped because of a concurrent write again, once no write is
+   * running anymore. Has to be called on the JavaFX application thread.
+   */
+  private void refreshAfterWrites() {
+    // the flag is set first, so that either the last write or this check sees the other
+    refreshAfterWrites = true;
+    if (runningWrites.get() == 0) {
+      refreshAfterWrites = false;
+      refreshData();
+    }
+  }
+
+  /**
+   * Take over the commits of another process to the opened database, see {@link DbService}.
+   */
+  private void refreshOnExternalChange(final DbEvent dbEvent) {
+    if (DbEventType.EXTERNAL_CHANGE.equals(dbEvent.getEventType())
+        && ((ExternalChangeDbEvent) dbEvent).getDbFile().equals(dbService.getDbFile())) {
+      refreshData();
+    }
+  }
+
+  /**
+   * The refresh pipeline running on the worker of the {@link DbService}. The relations of the
+   * changed tables are read in parallel to the changed rows, the ids and relations of all other
+   * tables are taken over from the given state. The changed rows are always streamed by a
+   * {@link SnapshotReader}, whatever the {@link DataLoadMode}.
+   */
+  private void refreshData(final DataSource dataSource, final LoadState state,
+                           final long sequence, final DataLoadTask loadTask) {
+    loadTask.startStage(LoadStage.READ_TABLES);
+    // a commit after the fingerprints have been read is found by the next refresh
+    final TableFingerprints fingerprints = TableFingerprints.read(dataSource);
+    final Set<String> changedTables = fingerprints.changedSince(state.getFingerprints());
+    final Future<EntityRelations> relations = loadExecutor.submit(() ->
+        relationLoader.load(dataSource, changedTables, state.getRelations()));
+    final Map<EntityType, Set<Integer>> ids = new EnumMap<>(EntityType.class);
+    final Map<String, String> conditions = new HashMap<>();
+    final EntitySnapshot changes;
+    try (final SnapshotReader snapshotReader = new SnapshotReader(dataSource, conditions::get)) {
+      LoadState.TABLES.forEach((entityType, table) -> ids.put(entityType,
+          changedTables.contains(table)
+              ? snapshotReader.readIds(table) : state.getIds(entityType)));
+      conditions.putAll(state.changedRows(ids));
+      changes = new EntitySnapshot(
+          readRows(snapshotReader, SnapshotReader::readCourses, CourseWrapper::new),
+          readRows(snapshotReader, SnapshotReader::readLevels, LevelWrapper::new),
+          readRows(snapshotReader, SnapshotReader::readModules, ModuleWrapper::new),
+          readRows(snapshotReader, SnapshotReader::readAbstractUnits, AbstractUnitWrapper::new),
+          readRows(snapshotReader, SnapshotReader::readUnits, UnitWrapper::new),
+          readRows(snapshotReader, SnapshotReader::readGroups, GroupWrapper::new),
+          readRows(snapshotReader, SnapshotReader::readSessions, SessionWrapper::new),
+          await(relations));
+    } catch (final RuntimeException exception) {
+      relations.cancel(true);
+      throw exception;
+    }
+    loadTask.startStage(LoadStage.WIRE_RELATIONS);
+    final Map<EntityType, Set<Integer>> rewired =
+        changes.getRelations().changedSince(state.getRelations());
+    final LoadState refreshedState = state.advance(changes, ids, fingerprints);
+    Platform.runLater(() -> {
+      if (loadTask.isCancelled() || loadState != state) {
+        return;
+      }
+      if (writeSequence.get() != sequence) {
+        refreshAfterWrites();
+        return;
       }
+      applyChanges(state, changes, refreshedState, rewired);
+      loadState = refreshedState;
     });
-    unitWrappersProperty.values().forEach(unitWrapper -> {
-      unitWrapper.abstractUnitsProperty().addAll(
-          unitWrapper.getUnit().getAbstractUnits().stream()
-              .map(abstractUnit -> abstractUnitWrappersProperty.get(abstractUnit.getId()))
-              .collect(Collectors.toSet()));
-      unitWrapper.groupsProperty().addAll(
-          unitWrapper.getUnit().getGroups().stream()
-              .map(group -> groupWrappersProperty.get(group.getId()))
-              .collect(Collectors.toSet()));
+  }
+
+  private static <E, W extends EntityWrapper> ObservableIntMap<W> readRows(
+      final SnapshotReader snapshotReader,
+      final BiConsumer<SnapshotReader, Consumer<E>> tableReader, final Function<E, W> wrap) {
+    final ObservableIntMap<W> wrappers = new ObservableIntMap<>();
+    tableReader.accept(snapshotReader, entity -> {
+      final W wrapper = wrap.apply(entity);
+      wrappers.put(wrapper.getId(), wrapper);
     });
-    // add majors and minors to course wrappers
-    courseWrappersProperty.values().forEach(courseWrapper -> {
-      courseWrapper.majorCourseWrapperProperty().addAll(
-          courseWrapper.getCourse().getMajorCourses().stream()
-              .map(course -> courseWrappersProperty().get(course.getId()))
-              .collect(Collectors.toSet()));
-      courseWrapper.minorCourseWrapperProperty().addAll(
-          courseWrapper.getCourse().getMinorCourses().stream()
-              .map(course -> courseWrappersProperty().get(course.getId()))
-              .collect(Collectors.toSet()));
+    return wrappers;
+  }
+
+  /**
+   * Patch the published wrappers with the changes read by a refresh. The wrappers of deleted rows
+   * are removed, the changed ones take over the new columns and the new ones are added. Afterwards
+   * the changed and new wrappers as well as all wrappers whose relations have changed are wired
+   * again. Has to be called on the JavaFX application thread.
+   */
+  private void applyChanges(final LoadState previousState, final EntitySnapshot changes,
+                            final LoadState refreshedState,
+                            final Map<EntityType, Set<Integer>> rewired) {
+    final List<DataChangeEvent> events = new ArrayList<>();
+    final EntitySnapshot published = new EntitySnapshot(courseWrappers, levelWrappers,
+        moduleWrappers, abstractUnitWrappers, unitWrappers, groupWrappers, sessionWrappers,
+        changes.getRelations());
+    LoadState.TABLES.keySet().forEach(entityType -> removeDeleted(entityType,
+        previousState.getIds(entityType), refreshedState.getIds(entityType), events));
+
+    final Set<Integer> changedCourses = merge(courseWrappers, changes.getCourses(),
+        (wrapper, changed) -> wrapper.update(changed.getCourse()));
+    final Set<Integer> changedLevels = merge(levelWrappers, changes.getLevels(),
+        (wrapper, changed) -> wrapper.update(changed.getLevel()));
+    final Set<Integer> changedModules = merge(moduleWrappers, changes.getModules(),
+        (wrapper, changed) -> wrapper.update(changed.getModule()));
+    final Set<Integer> changedAbstractUnits =
+        merge(abstractUnitWrappers, changes.getAbstractUnits(),
+            (wrapper, changed) -> wrapper.update(changed.getAbstractUnit()));
+    final Set<Integer> changedUnits = merge(unitWrappers, changes.getUnits(),
+        (wrapper, changed) -> wrapper.update(changed.getUnit()));
+    final Set<Integer> changedGroups = merge(groupWrappers, changes.getGroups(),
+        (wrapper, changed) -> wrapper.update(changed.getGroup()));
+    final Set<Integer> changedSessions = merge(sessionWrappers, changes.getSessions(),
+        (wrapper, changed) -> wrapper.update(changed.getSession()));
+
+    final List<CourseWrapper> courses = rewire(courseWrappers, changes.getCourses(),
+        rewired.get(EntityType.COURSE), changedCourses, wrapper -> wireCourse(wrapper, published));
+    courses.forEach(this::sortIntoMajorsOrMinors);
+    final List<LevelWrapper> levels = rewire(levelWrappers, changes.getLevels(),
+        rewired.get(EntityType.LEVEL), changedLevels, wrapper -> wireLevel(wrapper, published));
+    final List<ModuleWrapper> modules = rewire(moduleWrappers, changes.getModules(),
+        rewired.get(EntityType.MODULE), changedModules, wrapper -> wireModule(wrapper, published));
+    final List<AbstractUnitWrapper> abstractUnits = rewire(abstractUnitWrappers,
+        changes.getAbstractUnits(), rewired.get(EntityType.ABSTRACT_UNIT), changedAbstractUnits,
+        wrapper -> wireAbstractUnit(wrapper, published));
+    final List<UnitWrapper> units = rewire(unitWrappers, changes.getUnits(),
+        rewired.get(EntityType.UNIT), changedUnits, wrapper -> wireUnit(wrapper, published));
+    final List<GroupWrapper> groups = rewire(groupWrappers, changes.getGroups(),
+        rewired.get(EntityType.GROUP), changedGroups, wrapper -> wireGroup(wrapper, published));
+    final List<SessionWrapper> sessions = rewire(sessionWrappers, changes.getSessions(),
+        rewired.get(EntityType.SESSION), changedSessions,
+        wrapper -> wireSession(wrapper, published));
+
+    LoadState.TABLES.keySet().forEach(entityType -> idAllocator.skip(entityType,
+        refreshedState.getIds(entityType).stream().mapToInt(Integer::intValue).max().orElse(0)));
+    // the parents are refreshed first, so that the views can attach new children to them
+    Stream.of(courses, levels, modules, abstractUnits, units, groups, sessions)
+        .flatMap(List::stream)
+        .forEach(wrapper -> events.add(
+            new DataChangeEvent(DataChangeType.REFRESH_ENTITY, wrapper)));
+    events.forEach(dataChangeEventSource::push);
+  }
+
+  private void removeDeleted(final EntityType entityType, final Set<Integer> previousIds,
+                             final Set<Integer> currentIds, final List<DataChangeEvent> events) {
+    final ObservableIntMap<? extends EntityWrapper> wrappers = getWrappers(entityType);
+    for (final int id : previousIds) {
+      if (!currentIds.contains(id)) {
+        final EntityWrapper wrapper = wrappers.remove(id);
+        if (wrapper != null) {
+          majorCourseWrappersProperty.remove(wrapper);
+          minorCourseWrappersProperty.remove(wrapper);
+          events.add(new DataChangeEvent(DataChangeType.REMOVE_ENTITY, wrapper));
+        }
+      }
+    }
+  }
+
+  private ObservableIntMap<? extends EntityWrapper> getWrappers(final EntityType entityType) {
+    switch (entityType) {
+      case COURSE:
+        return courseWrappers;
+      case LEVEL:
+        return levelWrappers;
+      case MODULE:
+        return moduleWrappers;
+      case ABSTRACT_UNIT:
+        return abstractUnitWrappers;
+      case UNIT:
+        return unitWrappers;
+      case GROUP:
+        return groupWrappers;
+      case SESSION:
+        return sessionWrappers;
+      default:
+        throw new IllegalArgumentException("No wrappers of type " + entityType);
+    }
+  }
+
+  /**
+   * Update the published wrappers by the changed ones of the same id and add the new ones. Rows
+   * that have only been read again, e.g. since they have been saved by the editor itself, are not
+   * reported. Returns the ids of the wrappers whose columns have changed and of the new ones.
+   */
+  private static <W extends EntityWrapper> Set<Integer> merge(final ObservableIntMap<W> wrappers,
+                                                              final ObservableIntMap<W> changes,
+                                                              final BiPredicate<W, W> update) {
+    final Set<Integer> changedIds = new HashSet<>();
+    changes.values().forEach(changed -> {
+      final W wrapper = wrappers.get(changed.getId());
+      if (wrapper == null) {
+        wrappers.put(changed.getId(), changed);
+        changedIds.add(changed.getId());
+      } else if (update.test(wrapper, changed)) {
+        changedIds.add(changed.getId());
+      }
     });
-    levelWrappersProperty.values().forEach(levelWrapper -> {
-      if (levelWrapper.getLevel().getParent() != null) {
-        levelWrapper.setParent(levelWrappersProperty.get(levelWrapper.getLevel().getParent()
-            .getId()));
+    return changedIds;
+  }
+
+  /**
+   * Wire the published wrappers that have been read again or whose relations differ from the
+   * previous state. Returns the wrappers in the order of their ids whose columns or relations have
+   * actually changed.
+   */
+  private static <W extends EntityWrapper> List<W> rewire(final ObservableIntMap<W> wrappers,
+                                                          final ObservableIntMap<W> changes,
+                                                          final Set<Integer> rewired,
+                                                          final Set<Integer> changedIds,
+                                                          final Predicate<W> wire) {
+    final Set<Integer> ids = new TreeSet<>(rewired);
+    changes.keyStream().forEach(ids::add);
+    final List<W> changed = new ArrayList<>();
+    for (final Integer id : ids) {
+      final W wrapper = wrappers.get(id.intValue());
+      if (wrapper != null && (wire.test(wrapper) | changedIds.contains(id))) {
+        changed.add(wrapper);
       }
-      if (levelWrapper.getLevel().getCourse() != null) {
-        levelWrapper.setCourseProperty(courseWrappersProperty().get(levelWrapper.getLevel()
-            .getCourse().getId()));
+    }
+    return changed;
+  }
+
+  /**
+   * Move a refreshed course to the list matching its kind, e.g. since its kzfa has been changed.
+   */
+  private void sortIntoMajorsOrMinors(final CourseWrapper courseWrapper) {
+    final boolean major = courseWrapper.getCourse().isMajor();
+    (major ? minorCourseWrappersProperty : majorCourseWrappersProperty).remove(courseWrapper);
+    final List<CourseWrapper> courses =
+        major ? majorCourseWrappersProperty : minorCourseWrappersProperty;
+    if (!courses.contains(courseWrapper)) {
+      courses.add(courseWrapper);
+    }
+  }
+
+  /**
+   * Get the snapshot cache used to load the given database file, null if the cache is disabled.
+   * The cache is bound to the {@link SnapshotReader}, since it yields the same plain entities.
+   */
+  private SnapshotCache getSnapshotCache(final File dbFile) {
+    final File directory = snapshotCacheDirectoryProperty.get();
+    if (dbFile == null || directory == null
+        || !DataLoadMode.SNAPSHOT.equals(loadModeProperty.get())) {
+      return null;
+    }
+    return new SnapshotCache(directory);
+  }
+
+  /**
+   * Register a view which builds its content during each load of a database before the data is
+   * published.
+   */
+  public void addViewModelBuilder(final ViewModelBuilder viewModelBuilder) {
+    viewModelBuilders.add(viewModelBuilder);
+  }
+
+  /**
+   * Load all tables concurrently on the {@link #loadExecutor}. Each table is read into its own
+   * staging map, either through the repositories or by streaming the table with a separate
+   * {@link SnapshotReader} depending on {@link #loadModeProperty}. The relations are read in
+   * parallel by the {@link RelationLoader}.
+   */
+  private EntitySnapshot initializeEntitiesFlat(final DataSource dataSource) {
+    final Future<ObservableIntMap<CourseWrapper>> courses = loadTable(dataSource, courseRepository,
+        SnapshotReader::readCourses, CourseWrapper::new);
+    final Future<ObservableIntMap<LevelWrapper>> levels = loadTable(dataSource, levelRepository,
+        SnapshotReader::readLevels, LevelWrapper::new);
+    final Future<ObservableIntMap<ModuleWrapper>> modules = loadTable(dataSource, moduleRepository,
+        SnapshotReader::readModules, ModuleWrapper::new);
+    final Future<ObservableIntMap<AbstractUnitWrapper>> abstractUnits = loadTable(dataSource,
+        abstractUnitRepository, SnapshotReader::readAbstractUnits, AbstractUnitWrapper::new);
+    final Future<ObservableIntMap<UnitWrapper>> units = loadTable(dataSource, unitRepository,
+        SnapshotReader::readUnits, UnitWrapper::new);
+    final Future<ObservableIntMap<GroupWrapper>> groups = loadTable(dataSource, groupRepository,
+        SnapshotReader::readGroups, GroupWrapper::new);
+    final Future<ObservableIntMap<SessionWrapper>> sessions = loadTable(dataSource,
+        sessionRepository, SnapshotReader::readSessions, SessionWrapper::new);
+    final Future<EntityRelations> relations =
+        loadExecutor.submit(() -> relationLoader.load(dataSource));
+    try {
+      return new EntitySnapshot(await(courses), await(levels), await(modules),
+          await(abstractUnits), await(units), await(groups), await(sessions), await(relations));
+    } catch (final RuntimeException exception) {
+      Stream.of(courses, levels, modules, abstractUnits, units, groups, sessions, relations)
+          .forEach(future -> future.cancel(true));
+      throw exception;
+    }
+  }
+
+  private <E, W extends EntityWrapper> Future<ObservableIntMap<W>> loadTable(
+      final DataSource dataSource, final CrudRepository<E, Integer> repository,
+      final BiConsumer<SnapshotReader, Consumer<E>> tableReader, final Function<E, W> wrap) {
+    return loadExecutor.submit(() -> {
+      final ObservableIntMap<W> wrappers = new ObservableIntMap<>();
+      final Consumer<E> put = entity -> {
+        final W wrapper = wrap.apply(entity);
+        wrappers.put(wrapper.getId(), wrapper);
+      };
+      if (DataLoadMode.SNAPSHOT.equals(loadModeProperty.get())) {
+        try (final SnapshotReader snapshotReader = new SnapshotReader(dataSource)) {
+          tableReader.accept(snapshotReader, put);
+        }
+      } else {
+        repository.findAll().forEach(put);
       }
+      return wrappers;
     });
-    groupWrappersProperty.values().forEach(groupWrapper -> {
-      groupWrapper.setUnit(unitWrappersProperty.get(groupWrapper.getGroup().getUnit().getId()));
-      groupWrapper.sessionsProperty().addAll(
-          groupWrapper.getGroup().getSessions().stream()
-              .map(session -> sessionWrappersProperty.get(session.getId()))
-              .collect(Collectors.toSet()));
+  }
+
+  private <T> T await(final Future<T> future) {
+    try {
+      return future.get();
+    } catch (final InterruptedException exception) {
+      // the load task has been cancelled
+      Thread.currentThread().interrupt();
+      throw new CancellationException();
+    } catch (final ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exception.getCause();
+      }
+      throw new DataLoadException(exception);
+    }
+  }
+
+  /**
+   * Replace the content of all map properties by the staged wrappers in one step, install the
+   * prepared view models and notify the views. Has to be called on the JavaFX application thread.
+   */
+  private void publish(final EntitySnapshot snapshot, final List<Runnable> viewModelInstallers) {
+    clear();
+    courseWrappersProperty.putAll(snapshot.getCourses());
+    levelWrappersProperty.putAll(snapshot.getLevels());
+    moduleWrappersProperty.putAll(snapshot.getModules());
+    abstractUnitWrappersProperty.putAll(snapshot.getAbstractUnits());
+    unitWrappersProperty.putAll(snapshot.getUnits());
+    groupWrappersProperty.putAll(snapshot.getGroups());
+    sessionWrappersProperty.putAll(snapshot.getSessions());
+    snapshot.getCourses().values().forEach(courseWrapper -> {
+      if (courseWrapper.getCourse().isMajor()) {
+        majorCourseWrappersProperty.add(courseWrapper);
+      } else {
+        minorCourseWrappersProperty.add(courseWrapper);
+      }
     });
+    seedIdAllocator(snapshot);
+    viewModelInstallers.forEach(Runnable::run);
+    dataChangeEventSource.push(new DataChangeEvent(DataChangeType.RELOAD_DB));
+  }
+
+  /**
+   * Initialize the nested {@link de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper} after
+   * calling {@link #initializeEntitiesFlat(DataSource)} since we need to use the wrapper defined
+   * there. The relations are taken from the join tables read by the {@link RelationLoader} so
+   * that none of the lazy entity collections has to be loaded one by one. The entity collections
+   * are replaced as well, since they are used to build the tree view.
+   */
+  private void initializeEntitiesNested(final EntitySnapshot snapshot) {
+    snapshot.getAbstractUnits().values().forEach(wrapper -> wireAbstractUnit(wrapper, snapshot));
+    snapshot.getModules().values().forEach(wrapper -> wireModule(wrapper, snapshot));
+    snapshot.getUnits().values().forEach(wrapper -> wireUnit(wrapper, snapshot));
+    snapshot.getCourses().values().forEach(wrapper -> wireCourse(wrapper, snapshot));
+    snapshot.getLevels().values().forEach(wrapper -> wireLevel(wrapper, snapshot));
+    snapshot.getGroups().values().forEach(wrapper -> wireGroup(wrapper, snapshot));
+    snapshot.getSessions().values().forEach(wrapper -> wireSession(wrapper, snapshot));
+  }
+
+  /**
+   * Wire the given abstract unit wrapper by the relations of the given snapshot. Like the other
+   * wire methods it returns whether the relations shown by the wrapper have changed.
+   */
+  private boolean wireAbstractUnit(final AbstractUnitWrapper abstractUnitWrapper,
+                                   final EntitySnapshot snapshot) {
+    final EntityRelations relations = snapshot.getRelations();
+    final int id = abstractUnitWrapper.getId();
+    final Set<ModuleWrapper> modules =
+        resolve(relations.getModulesOfAbstractUnit(id), snapshot.getModules());
+    final Set<UnitWrapper> units =
+        resolve(relations.getUnitsOfAbstractUnit(id), snapshot.getUnits());
+    abstractUnitWrapper.getAbstractUnit().setModules(unwrap(modules, ModuleWrapper::getModule));
+    abstractUnitWrapper.getAbstractUnit().setUnits(unwrap(units, UnitWrapper::getUnit));
+    return replace(abstractUnitWrapper.modulesProperty(), modules)
+        | replace(abstractUnitWrapper.unitsProperty(), units);
+  }
+
+  private boolean wireModule(final ModuleWrapper moduleWrapper, final EntitySnapshot snapshot) {
+    final EntityRelations relations = snapshot.getRelations();
+    final int id = moduleWrapper.getId();
+    final Set<AbstractUnitWrapper> abstractUnits =
+        resolve(relations.getAbstractUnitsOfModule(id), snapshot.getAbstractUnits());
+    final Set<CourseWrapper> courses =
+        resolve(relations.getCoursesOfModule(id), snapshot.getCourses());
+    moduleWrapper.getModule().setAbstractUnits(
+        unwrap(abstractUnits, AbstractUnitWrapper::getAbstractUnit));
+    moduleWrapper.getModule().setCourses(unwrap(courses, CourseWrapper::getCourse));
+    final boolean changed = replace(moduleWrapper.abstractUnitsProperty(), abstractUnits)
+        | replace(moduleWrapper.coursesProperty(), courses);
+    final LevelWrapper levelWrapper = snapshot.getLevels().get(relations.getLevelOfModule(id));
+    if (levelWrapper == null || levelWrapper == moduleWrapper.getLevel()) {
+      return changed;
+    }
+    moduleWrapper.setLevel(levelWrapper);
+    return true;
+  }
+
+  private boolean wireUnit(final UnitWrapper unitWrapper, final EntitySnapshot snapshot) {
+    final EntityRelations relations = snapshot.getRelations();
+    final int id = unitWrapper.getId();
+    final Set<AbstractUnitWrapper> abstractUnits =
+        resolve(relations.getAbstractUnitsOfUnit(id), snapshot.getAbstractUnits());
+    final Set<GroupWrapper> groups = resolve(relations.getGroupsOfUnit(id), snapshot.getGroups());
+    unitWrapper.getUnit().setAbstractUnits(
+        unwrap(abstractUnits, AbstractUnitWrapper::getAbstractUnit));
+    unitWrapper.getUnit().setGroups(unwrap(groups, GroupWrapper::getGroup));
+    final Set<Integer> semesters = relations.getSemestersOfUnit(id);
+    // the semesters of a loaded unit may still be a lazy collection, they are only compared once
+    // they have been replaced, i.e. when the published wrappers are wired again
+    final boolean changedSemesters = snapshot.getUnits() != unitWrappers
+        || !semesters.equals(unitWrapper.getSemesters());
+    if (changedSemesters) {
+      unitWrapper.setSemesters(FXCollections.observableSet(new HashSet<>(semesters)));
+    }
+    return replace(unitWrapper.abstractUnitsProperty(), abstractUnits)
+        | replace(unitWrapper.groupsProperty(), groups) | changedSemesters;
+  }
+
+  // add majors and minors to course wrappers
+  private boolean wireCourse(final CourseWrapper courseWrapper, final EntitySnapshot snapshot) {
+    final EntityRelations relations = snapshot.getRelations();
+    final int id = courseWrapper.getId();
+    final Set<CourseWrapper> majorCourses =
+        resolve(relations.getMajorsOfCourse(id), snapshot.getCourses());
+    final Set<CourseWrapper> minorCourses =
+        resolve(relations.getMinorsOfCourse(id), snapshot.getCourses());
+    courseWrapper.getCourse().setMajorCourses(unwrap(majorCourses, CourseWrapper::getCourse));
+    courseWrapper.getCourse().setMinorCourses(unwrap(minorCourses, CourseWrapper::getCourse));
+    courseWrapper.getCourse().setLevels(unwrap(
+        resolve(relations.getLevelsOfCourse(id), snapshot.getLevels()), LevelWrapper::getLevel));
+    return replace(courseWrapper.majorCourseWrapperProperty(), majorCourses)
+        | replace(courseWrapper.minorCourseWrapperProperty(), minorCourses);
+  }
+
+  private boolean wireLevel(final LevelWrapper levelWrapper, final EntitySnapshot snapshot) {
+    final EntityRelations relations = snapshot.getRelations();
+    final int id = levelWrapper.getId();
+    final Level level = levelWrapper.getLevel();
+    level.setChildren(unwrap(resolve(relations.getChildrenOfLevel(id), snapshot.getLevels()),
+        LevelWrapper::getLevel));
+    level.setModules(unwrap(resolve(relations.getModulesOfLevel(id), snapshot.getModules()),
+        ModuleWrapper::getModule));
+    // moved children and modules are reported by the wrappers of the children and modules
+    final LevelWrapper parent = snapshot.getLevels().get(relations.getParentOfLevel(id));
+    final CourseWrapper course = snapshot.getCourses().get(relations.getCourseOfLevel(id));
+    final boolean changed =
+        parent != levelWrapper.getParent() || course != levelWrapper.getCourseWrapper();
+    levelWrapper.setParent(parent);
+    levelWrapper.setCourseProperty(course);
+    return changed;
+  }
+
+  private boolean wireGroup(final GroupWrapper groupWrapper, final EntitySnapshot snapshot) {
+    final EntityRelations relations = snapshot.getRelations();
+    final int id = groupWrapper.getId();
+    final Set<SessionWrapper> sessions =
+        resolve(relations.getSessionsOfGroup(id), snapshot.getSessions());
+    groupWrapper.getGroup().setSessions(unwrap(sessions, SessionWrapper::getSession));
+    final UnitWrapper unitWrapper = snapshot.getUnits().get(relations.getUnitOfGroup(id));
+    final boolean changedUnit = unitWrapper != null && unitWrapper != groupWrapper.getUnit();
+    if (changedUnit) {
+      groupWrapper.setUnit(unitWrapper);
+    }
+    return replace(groupWrapper.sessionsProperty(), sessions) | changedUnit;
+  }
+
+  private boolean wireSession(final SessionWrapper sessionWrapper,
+                              final EntitySnapshot snapshot) {
+    final GroupWrapper groupWrapper = snapshot.getGroups()
+        .get(snapshot.getRelations().getGroupOfSession(sessionWrapper.getId()));
+    if (groupWrapper == null || groupWrapper.getGroup() == sessionWrapper.getGroup()) {
+      return false;
+    }
+    sessionWrapper.setGroup(groupWrapper.getGroup());
+    return true;
+  }
+
+  /**
+   * Continue the ids after the largest id of each loaded table, so that no query is needed until
+   * the first block of ids is used up.
+   */
+  private void seedIdAllocator(final EntitySnapshot snapshot) {
+    idAllocator.seed(EntityType.COURSE, maxKey(snapshot.getCourses()));
+    idAllocator.seed(EntityType.LEVEL, maxKey(snapshot.getLevels()));
+    idAllocator.seed(EntityType.MODULE, maxKey(snapshot.getModules()));
+    idAllocator.seed(EntityType.ABSTRACT_UNIT, maxKey(snapshot.getAbstractUnits()));
+    idAllocator.seed(EntityType.UNIT, maxKey(snapshot.getUnits()));
+    idAllocator.seed(EntityType.GROUP, maxKey(snapshot.getGroups()));
+    idAllocator.seed(EntityType.SESSION, maxKey(snapshot.getSessions()));
+  }
+
+  private static Set<Integer> wrapperIds(final Collection<? extends EntityWrapper> wrappers) {
+    return wrappers.stream().map(EntityWrapper::getId).collect(Collectors.toSet());
+  }
+
+  private static Set<Integer> courseIds(final Collection<Course> courses) {
+    return courses.stream().map(Course::getId).collect(Collectors.toSet());
+  }
+
+  private static int maxKey(final ObservableIntMap<?> wrappers) {
+    return wrappers.keyStream().max().orElse(0);
+  }
+
+  /**
+   * Map the given ids to the wrappers stored in the staging map and skip dangling references.
+   */
+  private static <T> Set<T> resolve(final Set<Integer> ids, final ObservableIntMap<T> wrappers) {
+    final Set<T> resolved = new HashSet<>(ids.size() * 2);
+    for (final Integer id : ids) {
+      final T wrapper = wrappers.get(id.intValue());
+      if (wrapper != null) {
+        resolved.add(wrapper);
+      }
+    }
+    return resolved;
+  }
+
+  private static <T, E> Set<E> unwrap(final Set<T> wrappers, final Function<T, E> entity) {
+    return wrappers.stream().map(entity).collect(Collectors.toSet());
+  }
+
+  /**
+   * Replace the content of the given wrapper set, only the differences are applied so that the
+   * listeners of a set whose relations have not changed are not notified. Returns whether the
+   * content has changed.
+   */
+  private static <T> boolean replace(final Set<T> wrappers, final Set<T> content) {
+    return wrappers.retainAll(content) | wrappers.addAll(content);
   }
 
   private void clear() {
@@ -520,8 +1323,17 @@ public class DataService {
     groupWrappersProperty.clear();
   }
 
-  public ObservableMap<Integer, CourseWrapper> getCourseWrappers() {
-    return courseWrappersProperty.get();
+  /**
+   * Get a view on the published map properties, e.g. to extend a view model that has been built
+   * by a {@link ViewModelBuilder}.
+   */
+  public EntitySnapshot getEntitySnapshot() {
+    return new EntitySnapshot(courseWrappers, levelWrappers, moduleWrappers, abstractUnitWrappers,
+        unitWrappers, groupWrappers, sessionWrappers, null);
+  }
+
+  public ObservableIntMap<CourseWrapper> getCourseWrappers() {
+    return courseWrappers;
   }
 
   public MapProperty<Integer, CourseWrapper> courseWrappersProperty() {
@@ -532,8 +1344,8 @@ public class DataService {
     return groupWrappersProperty;
   }
 
-  public ObservableMap<Integer, GroupWrapper> getGroupWrappers() {
-    return groupWrappersProperty.get();
+  public ObservableIntMap<GroupWrapper> getGroupWrappers() {
+    return groupWrappers;
   }
 
   public ListProperty<CourseWrapper> majorCourseWrappersProperty() {
@@ -544,40 +1356,40 @@ public class DataService {
     return minorCourseWrappersProperty;
   }
 
-  public ObservableMap<Integer, LevelWrapper> getLevelWrappers() {
-    return levelWrappersProperty.get();
+  public ObservableIntMap<LevelWrapper> getLevelWrappers() {
+    return levelWrappers;
   }
 
   public MapProperty<Integer, LevelWrapper> levelWrappersProperty() {
     return levelWrappersProperty;
   }
 
-  public ObservableMap<Integer, ModuleWrapper> getModuleWrappers() {
-    return moduleWrappersProperty.get();
+  public ObservableIntMap<ModuleWrapper> getModuleWrappers() {
+    return moduleWrappers;
   }
 
   public MapProperty<Integer, ModuleWrapper> moduleWrappersProperty() {
     return moduleWrappersProperty;
   }
 
-  public ObservableMap<Integer, AbstractUnitWrapper> getAbstractUnitWrappers() {
-    return abstractUnitWrappersProperty.get();
+  public ObservableIntMap<AbstractUnitWrapper> getAbstractUnitWrappers() {
+    return abstractUnitWrappers;
   }
 
   public MapProperty<Integer, AbstractUnitWrapper> abstractUnitWrappersProperty() {
     return abstractUnitWrappersProperty;
   }
 
-  public ObservableMap<Integer, UnitWrapper> getUnitWrappers() {
-    return unitWrappersProperty.get();
+  public ObservableIntMap<UnitWrapper> getUnitWrappers() {
+    return unitWrappers;
   }
 
   public MapProperty<Integer, UnitWrapper> unitWrappersProperty() {
     return unitWrappersProperty;
   }
 
-  public ObservableMap<Integer, SessionWrapper> getSessionWrappers() {
-    return sessionWrappersProperty.get();
+  public ObservableIntMap<SessionWrapper> getSessionWrappers() {
+    return sessionWrappers;
   }
 
   public MapProperty<Integer, SessionWrapper> sessionWrappersProperty() {
@@ -591,4 +1403,19 @@ public class DataService {
   public ObjectProperty<EntityWrapper> draggedEntityProperty() {
     return draggedEntityProperty;
   }
+
+  /**
+   * The {@link DataLoadMode} used the next time a database is loaded.
+   */
+  public ObjectProperty<DataLoadMode> loadModeProperty() {
+    return loadModeProperty;
+  }
+
+  /**
+   * The directory of the {@link SnapshotCache} used when a database is opened, the cache is
+   * disabled if set to null.
+   */
+  public ObjectProperty<File> snapshotCacheDirectoryProperty() {
+    return snapshotCacheDirectoryProperty;
+  }
 }
@@ -1,8 +1,14 @@
 package de.hhu.stups.plues.dataeditor.ui.database;
 
+import de.hhu.stups.plues.dataeditor.exceptions.DataLoadException;
+import de.hhu.stups.plues.dataeditor.exceptions.DataSaveException;
 import de.hhu.stups.plues.dataeditor.ui.database.events.DbEvent;
+import de.hhu.stups.plues.dataeditor.ui.database.events.ExternalChangeDbEvent;
 import de.hhu.stups.plues.dataeditor.ui.database.events.LoadDbEvent;
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.concurrent.Task;
 import org.reactfx.EventSource;
@@ -11,8 +17,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.stereotype.Component;
+import org.sqlite.SQLiteDataSource;
 
 import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import javax.sql.DataSource;
 
 
@@ -22,11 +40,31 @@ import javax.sql.DataSource;
 @Component
 public class DbService {
 
+  private static final int READER_CONNECTIONS = 8;
+
   private final Logger logger = LoggerFactory.getLogger(getClass());
   private final EventSource<DbEvent> dbEventSource;
   private final ObjectProperty<DataSource> dataSourceProperty;
   private final ObjectProperty<File> dbFileProperty;
   private final ObjectProperty<Task<Void>> dbTaskProperty;
+  private final ObjectProperty<Task<Void>> backgroundTaskProperty;
+  private final ObjectProperty<SqliteProfile> sqliteProfileProperty;
+  private final ExecutorService loadExecutor;
+  private final ExecutorService backgroundExecutor;
+  private final BooleanProperty workingCopyModeProperty;
+  private final ObjectProperty<Duration> checkpointIntervalProperty;
+  private final ScheduledExecutorService checkpointExecutor;
+  private final ObjectProperty<Duration> changePollIntervalProperty;
+  private final ExecutorService watchExecutor;
+  private final ExecutorService writeExecutor;
+  // the pool whose writer connection is held by the current thread, if any
+  private final ThreadLocal<SqliteConnectionPool> writingPool = new ThreadLocal<>();
+  private SqliteConnectionPool connectionPool;
+  private WorkingCopy workingCopy;
+  private ScheduledFuture<?> checkpoint;
+  private ExternalChangeWatcher changeWatcher;
+  private Future<?> watching;
+  private SqliteProfile loadedSqliteProfile;
 
   /**
    * The database service to load and modify a .sqlite3 database.
@@ -38,13 +76,274 @@ public class DbService {
     dataSourceProperty = new SimpleObjectProperty<>();
     dbFileProperty = new SimpleObjectProperty<>();
     dbTaskProperty = new SimpleObjectProperty<>();
+    backgroundTaskProperty = new SimpleObjectProperty<>();
+    sqliteProfileProperty = new SimpleObjectProperty<>(SqliteProfile.SAFE);
+    workingCopyModeProperty = new SimpleBooleanProperty(false);
+    checkpointIntervalProperty = new SimpleObjectProperty<>();
+    checkpointIntervalProperty.addListener((observable, oldValue, newValue) ->
+          scheduleCheckpoints());
+    checkpointExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "db-checkpoint");
+      thread.setDaemon(true);
+      return thread;
+    });
+    changePollIntervalProperty = new SimpleObjectProperty<>(Duration.ofSeconds(2));
+    changePollIntervalProperty.addListener((observable, oldValue, newValue) -> watchChanges());
+    watchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "db-watcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    loadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "db-loader");
+      thread.setDaemon(true);
+      return thread;
+    });
+    backgroundExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "db-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "db-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    publishDataSource(
+          createDataSource("jdbc:sqlite:db.sqlite3", sqliteProfileProperty.get()), null);
+  }
 
+  /**
+   * Create the connection pool for the given url applying the given {@link SqliteProfile} to each
+   * of its connections. Creating the pool does not touch the database file yet.
+   */
+  private static SqliteConnectionPool createDataSource(final String url,
+                                                       final SqliteProfile sqliteProfile) {
     DataSourceBuilder dataSourceBuilder = DataSourceBuilder.create();
     dataSourceBuilder.type(org.sqlite.SQLiteDataSource.class);
     dataSourceBuilder.driverClassName("org.sqlite.JDBC");
-    dataSourceBuilder.url("jdbc:sqlite:db.sqlite3");
-    DataSource newDataSource = dataSourceBuilder.build();
-    dataSourceProperty.set(newDataSource);
+    dataSourceBuilder.url(url);
+    return new SqliteConnectionPool(
+          new SqliteProfileDataSource(dataSourceBuilder.build(), sqliteProfile),
+          READER_CONNECTIONS);
+  }
+
+  /**
+   * Open the given database file on the load worker, since the working copy is a full copy of
+   * the file. The new pool is published on the JavaFX application thread unless another database
+   * has been loaded in the meantime, its data is loaded right after this task on the same worker.
+   */
+  private void openDb(final File dbFile, final SqliteProfile sqliteProfile,
+                      final boolean workingCopyMode, final DataLoadTask loadTask) {
+    loadTask.startStage(LoadStage.OPEN_DB);
+    final WorkingCopy copy = workingCopyMode ? WorkingCopy.create(dbFile) : null;
+    final File openedFile = copy == null ? dbFile : copy.getCopyFile();
+    final SqliteConnectionPool pool =
+          createDataSource("jdbc:sqlite:" + openedFile.getAbsolutePath(), sqliteProfile);
+    Platform.runLater(() -> {
+      if (loadTask.isCancelled()) {
+        pool.close();
+        if (copy != null) {
+          copy.delete();
+        }
+        return;
+      }
+      dbFileProperty.set(dbFile);
+      loadedSqliteProfile = sqliteProfile;
+      publishDataSource(pool, copy);
+      scheduleCheckpoints();
+      watchChanges();
+    });
+  }
+
+  /**
+   * Make the given pool and working copy, if any, the current ones and retire the pool and the
+   * working copy of the previous database. Publishing the data source starts loading its data.
+   */
+  private void publishDataSource(final SqliteConnectionPool pool, final WorkingCopy copy) {
+    final SqliteConnectionPool previousPool;
+    final WorkingCopy previousCopy;
+    synchronized (this) {
+      previousPool = connectionPool;
+      previousCopy = workingCopy;
+      connectionPool = pool;
+      workingCopy = copy;
+    }
+    if (previousPool != null) {
+      retire(previousPool, previousCopy);
+    }
+    dataSourceProperty.set(pool);
+  }
+
+  /**
+   * Close the given pool and delete the given working copy, if any, once the tasks that may still
+   * use them have stopped. Load tasks, background tasks and submitted writes run on a single
+   * worker each, so the pool is closed after the tasks submitted to all three workers so far.
+   * Connections leased by other threads are closed by the pool as soon as they are returned.
+   */
+  private void retire(final SqliteConnectionPool pool, final WorkingCopy copy) {
+    loadExecutor.execute(() -> backgroundExecutor.execute(() -> writeExecutor.execute(() -> {
+      pool.close();
+      if (copy != null) {
+        copy.delete();
+      }
+    })));
+  }
+
+  /**
+   * Write the working copy back to the opened database file on the writer, the returned future
+   * fails with a {@link DataSaveException}. Does nothing if the database has not been opened in
+   * working copy mode.
+   */
+  public CompletableFuture<Void> saveWorkingCopy() {
+    final WorkingCopy savedCopy;
+    synchronized (this) {
+      savedCopy = workingCopy;
+    }
+    if (savedCopy == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return submitWrite(() -> {
+      try (final Connection connection = writingPool.get().getConnection()) {
+        savedCopy.save(connection);
+      } catch (final SQLException exception) {
+        throw new DataSaveException(exception);
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Discard all changes since the last save by loading the opened database file again.
+   */
+  public void discardWorkingCopy() {
+    if (dbFileProperty.get() != null) {
+      dbEventSource.push(new LoadDbEvent(dbFileProperty.get(), loadedSqliteProfile));
+    }
+  }
+
+  private synchronized void scheduleCheckpoints() {
+    if (checkpoint != null) {
+      checkpoint.cancel(false);
+      checkpoint = null;
+    }
+    final Duration interval = checkpointIntervalProperty.get();
+    if (workingCopy != null && interval != null) {
+      checkpoint = checkpointExecutor.scheduleAtFixedRate(() -> {
+        try {
+          saveWorkingCopy().join();
+        } catch (final RuntimeException exception) {
+          logger.error("Exception while saving a checkpoint of the working copy", exception);
+        }
+      }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Watch the opened database file for the commits of other processes, each of them is published
+   * as an {@link ExternalChangeDbEvent} on the JavaFX application thread. A working copy is not
+   * watched, since no one else uses it.
+   */
+  private synchronized void watchChanges() {
+    if (changeWatcher != null) {
+      watching.cancel(true);
+      changeWatcher.close();
+      changeWatcher = null;
+    }
+    final File dbFile = dbFileProperty.get();
+    final Duration pollInterval = changePollIntervalProperty.get();
+    if (dbFile == null || workingCopy != null || pollInterval == null) {
+      return;
+    }
+    final SQLiteDataSource watchDataSource = new SQLiteDataSource();
+    watchDataSource.setUrl("jdbc:sqlite:" + dbFile.getAbsolutePath());
+    watchDataSource.setReadOnly(true);
+    watchDataSource.getConfig().setBusyTimeout(SqliteProfile.BUSY_TIMEOUT_MILLIS);
+    try {
+      changeWatcher = new ExternalChangeWatcher(dbFile, watchDataSource, pollInterval,
+          () -> Platform.runLater(() -> dbEventSource.push(new ExternalChangeDbEvent(dbFile))));
+    } catch (final DataLoadException exception) {
+      logger.error("Exception while starting to watch " + dbFile, exception);
+      return;
+    }
+    watching = watchExecutor.submit(changeWatcher);
+  }
+
+  /**
+   * Run the given write on the writer thread and complete the returned future with its result.
+   * The write is bound to the database that is current when it is submitted, a database opened in
+   * the meantime is never written to by it. The writes of the writer thread run in the order of
+   * their submission, so the JavaFX application thread never waits for the lock of a write.
+   */
+  public <T> CompletableFuture<T> submitWrite(final Supplier<T> write) {
+    final SqliteConnectionPool writePool;
+    final ExternalChangeWatcher watcher;
+    synchronized (this) {
+      writePool = connectionPool;
+      watcher = changeWatcher;
+    }
+    return CompletableFuture.supplyAsync(() -> write(writePool, watcher, write), writeExecutor);
+  }
+
+  /**
+   * Run the given write on the calling thread, for writes of background tasks which have nothing
+   * else to do while they wait. Like {@link #write(DataSource, Supplier)} for the current database.
+   */
+  public <T> T write(final Supplier<T> write) {
+    final SqliteConnectionPool writePool;
+    final ExternalChangeWatcher watcher;
+    synchronized (this) {
+      writePool = connectionPool;
+      watcher = changeWatcher;
+    }
+    return write(writePool, watcher, write);
+  }
+
+  /**
+   * Run the given write on the single writer connection of the given data source, which has to be
+   * published by this service, on the calling thread. Concurrent writes of the editor are
+   * serialized, so that they never compete for the lock of the database. The commit may still wait
+   * for readers and other processes up to the busy timeout of the {@link SqliteProfile}, after
+   * which SQLite reports a busy database. The writes are not reported as external changes of the
+   * current database.
+   */
+  public <T> T write(final DataSource dataSource, final Supplier<T> write) {
+    final ExternalChangeWatcher watcher;
+    synchronized (this) {
+      watcher = dataSource == connectionPool ? changeWatcher : null;
+    }
+    return write((SqliteConnectionPool) dataSource, watcher, write);
+  }
+
+  private <T> T write(final SqliteConnectionPool writePool, final ExternalChangeWatcher watcher,
+                      final Supplier<T> write) {
+    final SqliteConnectionPool enclosingPool = writingPool.get();
+    writingPool.set(writePool);
+    try {
+      if (watcher == null) {
+        return writePool.write(write);
+      }
+      return watcher.runOwnWrite(() -> writePool.write(write));
+    } finally {
+      writingPool.set(enclosingPool);
+    }
+  }
+
+  /**
+   * Whether the calling thread is running a write, a nested write joins it.
+   */
+  public boolean isWriting() {
+    return writingPool.get() != null;
+  }
+
+  /**
+   * Get the data source writes and reads of the calling thread go to. This is the pool of the
+   * running write, if any, and the pool of the current database otherwise.
+   */
+  DataSource getCurrentDataSource() {
+    final SqliteConnectionPool pool = writingPool.get();
+    return pool == null ? dataSourceProperty.get() : pool;
   }
 
   /**
@@ -55,22 +354,12 @@ public class DbService {
   private void handleDbEvent(final DbEvent dbEvent) {
     switch (dbEvent.getEventType()) {
       case LOAD_DB:
-        dbFileProperty.set(((LoadDbEvent) dbEvent).getDbFile());
-        final Task<Void> loadDbTask = new Task<Void>() {
-          @Override
-          protected Void call() {
-            DataSourceBuilder dataSourceBuilder = DataSourceBuilder.create();
-            dataSourceBuilder.type(org.sqlite.SQLiteDataSource.class);
-            dataSourceBuilder.driverClassName("org.sqlite.JDBC");
-            dataSourceBuilder.url("jdbc:sqlite:" + dbFileProperty.get().getAbsolutePath());
-            DataSource newDataSource = dataSourceBuilder.build();
-            dataSourceProperty.set(newDataSource);
-            dbTaskProperty.set(null);
-            return null;
-          }
-        };
-        dbTaskProperty.set(loadDbTask);
-        new Thread(loadDbTask).start();
+        final LoadDbEvent loadDbEvent = (LoadDbEvent) dbEvent;
+        final SqliteProfile sqliteProfile = loadDbEvent.getSqliteProfile() == null
+              ? sqliteProfileProperty.get() : loadDbEvent.getSqliteProfile();
+        final boolean workingCopyMode = workingCopyModeProperty.get();
+        submitLoadTask(new DataLoadTask(loadTask ->
+              openDb(loadDbEvent.getDbFile(), sqliteProfile, workingCopyMode, loadTask)));
         break;
       case UPDATE_DB:
         break;
@@ -81,6 +370,67 @@ public class DbService {
     }
   }
 
+  /**
+   * Run the given load task on the single load worker and publish it in {@link #dbTaskProperty}.
+   * A load task that is still running is cancelled first, the new task is started as soon as the
+   * cancelled one has stopped. The new task is published before the running one is cancelled, since
+   * cancelling it on the JavaFX application thread finishes it right away, which must not be seen
+   * as the end of loading, e.g. when an open task hands over to the load of the data.
+   */
+  synchronized void submitLoadTask(final Task<Void> loadTask) {
+    final Task<Void> runningTask = dbTaskProperty.get();
+    loadTask.setOnSucceeded(event -> finishLoadTask(loadTask));
+    loadTask.setOnCancelled(event -> finishLoadTask(loadTask));
+    loadTask.setOnFailed(event -> {
+      logger.error("Exception while loading the database", loadTask.getException());
+      finishLoadTask(loadTask);
+    });
+    dbTaskProperty.set(loadTask);
+    if (runningTask != null) {
+      runningTask.cancel();
+    }
+    loadExecutor.execute(loadTask);
+  }
+
+  private synchronized void finishLoadTask(final Task<Void> loadTask) {
+    if (dbTaskProperty.get() == loadTask) {
+      dbTaskProperty.set(null);
+    }
+  }
+
+  /**
+   * Save a consistent and compacted snapshot of the current database to the given file on a
+   * background task. The editor can be used while the snapshot is written.
+   */
+  public Task<Void> saveAs(final File target) {
+    final Task<Void> saveTask = new SaveDbTask(dataSourceProperty.get(), target);
+    submitBackgroundTask(saveTask);
+    return saveTask;
+  }
+
+  /**
+   * Run the given task on the background worker after all previously submitted background tasks
+   * and publish it in {@link #backgroundTaskProperty} while it is running. The message of the
+   * task has to be a resource key.
+   */
+  public synchronized void submitBackgroundTask(final Task<Void> backgroundTask) {
+    backgroundTask.setOnRunning(event -> backgroundTaskProperty.set(backgroundTask));
+    backgroundTask.setOnSucceeded(event -> finishBackgroundTask(backgroundTask));
+    backgroundTask.setOnCancelled(event -> finishBackgroundTask(backgroundTask));
+    backgroundTask.setOnFailed(event -> {
+      logger.error("Exception in a background task of the database",
+            backgroundTask.getException());
+      finishBackgroundTask(backgroundTask);
+    });
+    backgroundExecutor.execute(backgroundTask);
+  }
+
+  private synchronized void finishBackgroundTask(final Task<Void> backgroundTask) {
+    if (backgroundTaskProperty.get() == backgroundTask) {
+      backgroundTaskProperty.set(null);
+    }
+  }
+
   /**
    * Getter for the database event source.
    *
@@ -116,4 +466,40 @@ public class DbService {
     return dbTaskProperty;
   }
 
+  public ObjectProperty<Task<Void>> backgroundTaskProperty() {
+    return backgroundTaskProperty;
+  }
+
+  /**
+   * Whether databases are loaded into a temporary working copy which has to be saved explicitly,
+   * used the next time a database is loaded.
+   */
+  public BooleanProperty workingCopyModeProperty() {
+    return workingCopyModeProperty;
+  }
+
+  /**
+   * The interval of automatic saves of the working copy, no checkpoints are saved if it is null.
+   */
+  public ObjectProperty<Duration> checkpointIntervalProperty() {
+    return checkpointIntervalProperty;
+  }
+
+  /**
+   * The interval in which the opened database is checked for commits of other processes if its
+   * file system does not report the modification, the database is not watched if it is null.
+   */
+  public ObjectProperty<Duration> changePollIntervalProperty() {
+    return changePollIntervalProperty;
+  }
+
+  /**
+   * The {@link SqliteProfile} used for databases loaded without an explicit profile, the
+   * {@link SqliteProfile#SAFE} preset by default. The faster preset changes the journal mode of the
+   * database file and has to be chosen explicitly when opening a database.
+   */
+  public ObjectProperty<SqliteProfile> sqliteProfileProperty() {
+    return sqliteProfileProperty;
+  }
+
 }
@@ -0,0 +1,321 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The relations between all entities of a database given by their ids. Filled by the
+ * {@link RelationLoader} and used by the {@link DataService} to wire the entity wrappers.
+ */
+class EntityRelations {
+
+  private final Map<Integer, Set<Integer>> moduleAbstractUnits = new HashMap<>();
+  private final Map<Integer, Set<Integer>> abstractUnitModules = new HashMap<>();
+  private final Map<Integer, Set<Integer>> unitAbstractUnits = new HashMap<>();
+  private final Map<Integer, Set<Integer>> abstractUnitUnits = new HashMap<>();
+  private final Map<Integer, Set<Integer>> moduleCourses = new HashMap<>();
+  private final Map<Integer, Set<Integer>> levelModules = new HashMap<>();
+  private final Map<Integer, Integer> moduleLevel = new HashMap<>();
+  private final Map<Integer, Set<Integer>> courseMinors = new HashMap<>();
+  private final Map<Integer, Set<Integer>> courseMajors = new HashMap<>();
+  private final Map<Integer, Set<Integer>> courseLevels = new HashMap<>();
+  private final Map<Integer, Integer> levelCourse = new HashMap<>();
+  private final Map<Integer, Set<Integer>> levelChildren = new HashMap<>();
+  private final Map<Integer, Integer> levelParent = new HashMap<>();
+  private final Map<Integer, Set<Integer>> unitGroups = new HashMap<>();
+  private final Map<Integer, Integer> groupUnit = new HashMap<>();
+  private final Map<Integer, Set<Integer>> groupSessions = new HashMap<>();
+  private final Map<Integer, Integer> sessionGroup = new HashMap<>();
+  private final Map<Integer, Set<Integer>> unitSemesters = new HashMap<>();
+
+  void addModuleLevel(final int moduleId, final int levelId, final int courseId) {
+    link(moduleCourses, moduleId, courseId);
+    link(levelModules, levelId, moduleId);
+    moduleLevel.putIfAbsent(moduleId, levelId);
+  }
+
+  void addModuleAbstractUnit(final int moduleId, final int abstractUnitId) {
+    link(moduleAbstractUnits, moduleId, abstractUnitId);
+    link(abstractUnitModules, abstractUnitId, moduleId);
+  }
+
+  void addUnitAbstractUnit(final int unitId, final int abstractUnitId) {
+    link(unitAbstractUnits, unitId, abstractUnitId);
+    link(abstractUnitUnits, abstractUnitId, unitId);
+  }
+
+  void addMinor(final int majorCourseId, final int minorCourseId) {
+    link(courseMinors, majorCourseId, minorCourseId);
+    link(courseMajors, minorCourseId, majorCourseId);
+  }
+
+  void addCourseLevel(final int courseId, final int levelId) {
+    link(courseLevels, courseId, levelId);
+    levelCourse.putIfAbsent(levelId, courseId);
+  }
+
+  void addLevelParent(final int levelId, final int parentId) {
+    link(levelChildren, parentId, levelId);
+    levelParent.put(levelId, parentId);
+  }
+
+  void addGroup(final int groupId, final int unitId) {
+    link(unitGroups, unitId, groupId);
+    groupUnit.put(groupId, unitId);
+  }
+
+  void addSession(final int sessionId, final int groupId) {
+    link(groupSessions, groupId, sessionId);
+    sessionGroup.put(sessionId, groupId);
+  }
+
+  void addUnitSemester(final int unitId, final int semester) {
+    link(unitSemesters, unitId, semester);
+  }
+
+  Set<Integer> getAbstractUnitsOfModule(final int moduleId) {
+    return get(moduleAbstractUnits, moduleId);
+  }
+
+  Set<Integer> getModulesOfAbstractUnit(final int abstractUnitId) {
+    return get(abstractUnitModules, abstractUnitId);
+  }
+
+  Set<Integer> getAbstractUnitsOfUnit(final int unitId) {
+    return get(unitAbstractUnits, unitId);
+  }
+
+  Set<Integer> getUnitsOfAbstractUnit(final int abstractUnitId) {
+    return get(abstractUnitUnits, abstractUnitId);
+  }
+
+  Set<Integer> getCoursesOfModule(final int moduleId) {
+    return get(moduleCourses, moduleId);
+  }
+
+  Set<Integer> getModulesOfLevel(final int levelId) {
+    return get(levelModules, levelId);
+  }
+
+  Integer getLevelOfModule(final int moduleId) {
+    return moduleLevel.get(moduleId);
+  }
+
+  Set<Integer> getMinorsOfCourse(final int courseId) {
+    return get(courseMinors, courseId);
+  }
+
+  Set<Integer> getMajorsOfCourse(final int courseId) {
+    return get(courseMajors, courseId);
+  }
+
+  Set<Integer> getLevelsOfCourse(final int courseId) {
+    return get(courseLevels, courseId);
+  }
+
+  Integer getCourseOfLevel(final int levelId) {
+    return levelCourse.get(levelId);
+  }
+
+  Set<Integer> getChildrenOfLevel(final int levelId) {
+    return get(levelChildren, levelId);
+  }
+
+  Integer getParentOfLevel(final int levelId) {
+    return levelParent.get(levelId);
+  }
+
+  Set<Integer> getGroupsOfUnit(final int unitId) {
+    return get(unitGroups, unitId);
+  }
+
+  Integer getUnitOfGroup(final int groupId) {
+    return groupUnit.get(groupId);
+  }
+
+  Set<Integer> getSessionsOfGroup(final int groupId) {
+    return get(groupSessions, groupId);
+  }
+
+  Integer getGroupOfSession(final int sessionId) {
+    return sessionGroup.get(sessionId);
+  }
+
+  Set<Integer> getSemestersOfUnit(final int unitId) {
+    return get(unitSemesters, unitId);
+  }
+
+  /**
+   * Get the ids of the entities whose relations differ from the given previous relations, grouped
+   * by the type of the entity. Used by the incremental refresh of the {@link DataService} to wire
+   * only the affected wrappers again.
+   */
+  Map<EntityType, Set<Integer>> changedSince(final EntityRelations previous) {
+    final Map<EntityType, Set<Integer>> changed = new EnumMap<>(EntityType.class);
+    if (previous == this) {
+      // the relations have been taken over by a refresh that found no changed table
+      LoadState.TABLES.keySet().forEach(entityType -> changed.put(entityType, new HashSet<>()));
+      return changed;
+    }
+    collectChanged(changed, EntityType.MODULE, moduleAbstractUnits, previous.moduleAbstractUnits);
+    collectChanged(changed, EntityType.ABSTRACT_UNIT, abstractUnitModules,
+        previous.abstractUnitModules);
+    collectChanged(changed, EntityType.UNIT, unitAbstractUnits, previous.unitAbstractUnits);
+    collectChanged(changed, EntityType.ABSTRACT_UNIT, abstractUnitUnits,
+        previous.abstractUnitUnits);
+    collectChanged(changed, EntityType.MODULE, moduleCourses, previous.moduleCourses);
+    collectChanged(changed, EntityType.LEVEL, levelModules, previous.levelModules);
+    collectChanged(changed, EntityType.MODULE, moduleLevel, previous.moduleLevel);
+    collectChanged(changed, EntityType.COURSE, courseMinors, previous.courseMinors);
+    collectChanged(changed, EntityType.COURSE, courseMajors, previous.courseMajors);
+    collectChanged(changed, EntityType.COURSE, courseLevels, previous.courseLevels);
+    collectChanged(changed, EntityType.LEVEL, levelCourse, previous.levelCourse);
+    collectChanged(changed, EntityType.LEVEL, levelChildren, previous.levelChildren);
+    collectChanged(changed, EntityType.LEVEL, levelParent, previous.levelParent);
+    collectChanged(changed, EntityType.UNIT, unitGroups, previous.unitGroups);
+    collectChanged(changed, EntityType.GROUP, groupUnit, previous.groupUnit);
+    collectChanged(changed, EntityType.GROUP, groupSessions, previous.groupSessions);
+    collectChanged(changed, EntityType.SESSION, sessionGroup, previous.sessionGroup);
+    collectChanged(changed, EntityType.UNIT, unitSemesters, previous.unitSemesters);
+    return changed;
+  }
+
+  private static <V> void collectChanged(final Map<EntityType, Set<Integer>> changed,
+                                         final EntityType entityType,
+                                         final Map<Integer, V> relation,
+                                         final Map<Integer, V> previous) {
+    final Set<Integer> ids = changed.computeIfAbsent(entityType, type -> new HashSet<>());
+    relation.forEach((id, value) -> {
+      if (!value.equals(previous.get(id))) {
+        ids.add(id);
+      }
+    });
+    previous.keySet().stream().filter(id -> !relation.containsKey(id)).forEach(ids::add);
+  }
+
+  /**
+   * Take over the relations read from the given table from the given relations, used by the
+   * incremental refresh for the tables that have not changed. The sets of ids are shared, neither
+   * relations change them after they have been loaded.
+   */
+  void copyTable(final String table, final EntityRelations relations) {
+    switch (table) {
+      case "module_levels":
+        moduleCourses.putAll(relations.moduleCourses);
+        levelModules.putAll(relations.levelModules);
+        moduleLevel.putAll(relations.moduleLevel);
+        break;
+      case "modules_abstract_units_types":
+        moduleAbstractUnits.putAll(relations.moduleAbstractUnits);
+        abstractUnitModules.putAll(relations.abstractUnitModules);
+        break;
+      case "unit_abstract_unit":
+        unitAbstractUnits.putAll(relations.unitAbstractUnits);
+        abstractUnitUnits.putAll(relations.abstractUnitUnits);
+        break;
+      case "minors":
+        courseMinors.putAll(relations.courseMinors);
+        courseMajors.putAll(relations.courseMajors);
+        break;
+      case "course_levels":
+        courseLevels.putAll(relations.courseLevels);
+        levelCourse.putAll(relations.levelCourse);
+        break;
+      case "levels":
+        levelChildren.putAll(relations.levelChildren);
+        levelParent.putAll(relations.levelParent);
+        break;
+      case "groups":
+        unitGroups.putAll(relations.unitGroups);
+        groupUnit.putAll(relations.groupUnit);
+        break;
+      case "sessions":
+        groupSessions.putAll(relations.groupSessions);
+        sessionGroup.putAll(relations.sessionGroup);
+        break;
+      case "unit_semester":
+        unitSemesters.putAll(relations.unitSemesters);
+        break;
+      default:
+        throw new IllegalArgumentException("No relations are read from the table " + table);
+    }
+  }
+
+  /**
+   * Write all relations to the given output, used by the {@link SnapshotCache}.
+   */
+  void write(final DataOutput output) throws IOException {
+    for (final Map<Integer, Set<Integer>> relation : getLinks()) {
+      output.writeInt(relation.size());
+      for (final Map.Entry<Integer, Set<Integer>> entry : relation.entrySet()) {
+        output.writeInt(entry.getKey());
+        output.writeInt(entry.getValue().size());
+        for (final int value : entry.getValue()) {
+          output.writeInt(value);
+        }
+      }
+    }
+    for (final Map<Integer, Integer> relation : getReferences()) {
+      output.writeInt(relation.size());
+      for (final Map.Entry<Integer, Integer> entry : relation.entrySet()) {
+        output.writeInt(entry.getKey());
+        output.writeInt(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Read the relations in the format of {@link #write(DataOutput)} from the given buffer.
+   */
+  static EntityRelations read(final ByteBuffer buffer) {
+    final EntityRelations relations = new EntityRelations();
+    for (final Map<Integer, Set<Integer>> relation : relations.getLinks()) {
+      for (int entries = buffer.getInt(); entries > 0; entries--) {
+        final int key = buffer.getInt();
+        final int size = buffer.getInt();
+        final Set<Integer> values = new HashSet<>(size * 2);
+        for (int value = 0; value < size; value++) {
+          values.add(buffer.getInt());
+        }
+        relation.put(key, values);
+      }
+    }
+    for (final Map<Integer, Integer> relation : relations.getReferences()) {
+      for (int entries = buffer.getInt(); entries > 0; entries--) {
+        relation.put(buffer.getInt(), buffer.getInt());
+      }
+    }
+    return relations;
+  }
+
+  // the order of both lists defines the format written by the snapshot cache
+  private List<Map<Integer, Set<Integer>>> getLinks() {
+    return Arrays.asList(moduleAbstractUnits, abstractUnitModules, unitAbstractUnits,
+        abstractUnitUnits, moduleCourses, levelModules, courseMinors, courseMajors, courseLevels,
+        levelChildren, unitGroups, groupSessions, unitSemesters);
+  }
+
+  private List<Map<Integer, Integer>> getReferences() {
+    return Arrays.asList(moduleLevel, levelCourse, levelParent, groupUnit, sessionGroup);
+  }
+
+  private static void link(final Map<Integer, Set<Integer>> relation,
+                           final int key, final int value) {
+    relation.computeIfAbsent(key, id -> new HashSet<>()).add(value);
+  }
+
+  private static Set<Integer> get(final Map<Integer, Set<Integer>> relation, final int key) {
+    return relation.getOrDefault(key, Collections.emptySet());
+  }
+}
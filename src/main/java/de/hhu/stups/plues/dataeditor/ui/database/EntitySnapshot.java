@@ -0,0 +1,77 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.AbstractUnitWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.CourseWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.GroupWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.LevelWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.ModuleWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.SessionWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.UnitWrapper;
+
+/**
+ * The staging area of a database load. All wrappers are collected and wired in maps keyed by their
+ * id that are not visible to the user interface, before the {@link DataService} publishes them at
+ * once on the JavaFX application thread. The maps are passed to each {@link ViewModelBuilder} in
+ * between.
+ */
+public class EntitySnapshot {
+
+  private final ObservableIntMap<CourseWrapper> courses;
+  private final ObservableIntMap<LevelWrapper> levels;
+  private final ObservableIntMap<ModuleWrapper> modules;
+  private final ObservableIntMap<AbstractUnitWrapper> abstractUnits;
+  private final ObservableIntMap<UnitWrapper> units;
+  private final ObservableIntMap<GroupWrapper> groups;
+  private final ObservableIntMap<SessionWrapper> sessions;
+  private final EntityRelations relations;
+
+  EntitySnapshot(final ObservableIntMap<CourseWrapper> courses,
+                 final ObservableIntMap<LevelWrapper> levels,
+                 final ObservableIntMap<ModuleWrapper> modules,
+                 final ObservableIntMap<AbstractUnitWrapper> abstractUnits,
+                 final ObservableIntMap<UnitWrapper> units,
+                 final ObservableIntMap<GroupWrapper> groups,
+                 final ObservableIntMap<SessionWrapper> sessions,
+                 final EntityRelations relations) {
+    this.courses = courses;
+    this.levels = levels;
+    this.modules = modules;
+    this.abstractUnits = abstractUnits;
+    this.units = units;
+    this.groups = groups;
+    this.sessions = sessions;
+    this.relations = relations;
+  }
+
+  public ObservableIntMap<CourseWrapper> getCourses() {
+    return courses;
+  }
+
+  public ObservableIntMap<LevelWrapper> getLevels() {
+    return levels;
+  }
+
+  public ObservableIntMap<ModuleWrapper> getModules() {
+    return modules;
+  }
+
+  public ObservableIntMap<AbstractUnitWrapper> getAbstractUnits() {
+    return abstractUnits;
+  }
+
+  public ObservableIntMap<UnitWrapper> getUnits() {
+    return units;
+  }
+
+  public ObservableIntMap<GroupWrapper> getGroups() {
+    return groups;
+  }
+
+  public ObservableIntMap<SessionWrapper> getSessions() {
+    return sessions;
+  }
+
+  EntityRelations getRelations() {
+    return relations;
+  }
+}
@@ -0,0 +1,171 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataLoadException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+/**
+ * Notice the commits of other processes to the opened database file, e.g. of batch scripts running
+ * against the same file. The directory of the file is watched by a {@link WatchService} and
+ * {@code PRAGMA data_version} is queried on a dedicated connection whenever something in it has
+ * been modified, and at least once per poll interval since not every file system reports its
+ * modifications. The data version changes with the commits of every other connection, including
+ * the writer connection of the editor, so its writes have to run through
+ * {@link #runOwnWrite(Supplier)}.
+ */
+class ExternalChangeWatcher implements Runnable, AutoCloseable {
+
+  // a batch of commits is reported once the file has not been modified for this long
+  private static final long SETTLE_MILLIS = 250;
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final File dbFile;
+  private final Duration pollInterval;
+  private final Runnable onExternalChange;
+  private final Connection connection;
+  private final WatchService watchService;
+  private int dataVersion;
+  private boolean closed;
+
+  /**
+   * Start watching the given database file, the given callback is run on the watching thread
+   * after another process has committed to the database.
+   */
+  ExternalChangeWatcher(final File dbFile, final DataSource dataSource, final Duration pollInterval,
+                        final Runnable onExternalChange) {
+    this.dbFile = dbFile;
+    this.pollInterval = pollInterval;
+    this.onExternalChange = onExternalChange;
+    try {
+      connection = dataSource.getConnection();
+      dataVersion = readDataVersion();
+    } catch (final SQLException exception) {
+      throw new DataLoadException(exception);
+    }
+    watchService = createWatchService(dbFile);
+  }
+
+  private WatchService createWatchService(final File dbFile) {
+    final Path directory = dbFile.getAbsoluteFile().toPath().getParent();
+    try {
+      final WatchService service = FileSystems.getDefault().newWatchService();
+      directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY);
+      return service;
+    } catch (final IOException | UnsupportedOperationException exception) {
+      logger.warn("Cannot watch " + directory + ", the database is polled only", exception);
+      return null;
+    }
+  }
+
+  /**
+   * Run the given write of the editor and take over the data version afterwards, so that the
+   * write is not reported as an external change. A commit of another process during the write
+   * is only noticed with its next commit.
+   */
+  synchronized <T> T runOwnWrite(final Supplier<T> write) {
+    try {
+      return write.get();
+    } finally {
+      if (!closed) {
+        try {
+          dataVersion = readDataVersion();
+        } catch (final SQLException exception) {
+          logger.error("Exception while reading the data version of " + dbFile, exception);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        awaitModification(pollInterval.toMillis());
+        if (hasChanged()) {
+          // wait until the other process has finished its batch of commits
+          while (awaitModification(SETTLE_MILLIS)) {
+            logger.debug("{} is still being modified", dbFile);
+          }
+          takeOverDataVersion();
+          onExternalChange.run();
+        }
+      }
+    } catch (final InterruptedException | ClosedWatchServiceException exception) {
+      Thread.currentThread().interrupt();
+    } catch (final SQLException exception) {
+      logger.error("Exception while watching " + dbFile + " for external changes", exception);
+    }
+  }
+
+  /**
+   * Wait at most the given time for a modification in the directory of the database file.
+   */
+  private boolean awaitModification(final long millis) throws InterruptedException {
+    if (watchService == null) {
+      Thread.sleep(millis);
+      return false;
+    }
+    final WatchKey watchKey = watchService.poll(millis, TimeUnit.MILLISECONDS);
+    if (watchKey == null) {
+      return false;
+    }
+    watchKey.pollEvents();
+    watchKey.reset();
+    return true;
+  }
+
+  private synchronized boolean hasChanged() throws SQLException {
+    return !closed && readDataVersion() != dataVersion;
+  }
+
+  private synchronized void takeOverDataVersion() throws SQLException {
+    if (!closed) {
+      dataVersion = readDataVersion();
+    }
+  }
+
+  private int readDataVersion() throws SQLException {
+    try (final Statement statement = connection.createStatement();
+         final ResultSet resultSet = statement.executeQuery("PRAGMA data_version")) {
+      if (!resultSet.next()) {
+        // older versions of SQLite silently ignore the pragma
+        throw new SQLException("PRAGMA data_version is not supported by this version of SQLite");
+      }
+      return resultSet.getInt(1);
+    }
+  }
+
+  /**
+   * Stop watching and close the connection, the watching thread has to be interrupted as well.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    try {
+      if (watchService != null) {
+        watchService.close();
+      }
+      connection.close();
+    } catch (final IOException | SQLException exception) {
+      logger.error("Exception while closing the watcher of " + dbFile, exception);
+    }
+  }
+}
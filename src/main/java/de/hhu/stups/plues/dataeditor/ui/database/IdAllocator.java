@@ -0,0 +1,95 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Hand out the ids of new entities in memory. The allocator is seeded with the largest id of each
+ * table when a database is loaded and reserves the ids in blocks. The allocator reconciles with
+ * the database by querying the largest id once when a block is exhausted and for the first id of
+ * each table after {@link #invalidate()}. The ids are handed out before the write is submitted, so
+ * the write makes sure with {@link #isFree(EntityType, int)} that they have not been taken by
+ * someone else in the meantime, a failed write invalidates the allocator.
+ */
+class IdAllocator {
+
+  private static final int BLOCK_SIZE = 64;
+
+  private final Map<EntityType, IntSupplier> maxIdQueries = new EnumMap<>(EntityType.class);
+  private final Map<EntityType, IdBlock> idBlocks = new EnumMap<>(EntityType.class);
+
+  /**
+   * Register the query returning the largest id stored in the table of the given entity type.
+   */
+  void register(final EntityType entityType, final IntSupplier maxIdQuery) {
+    maxIdQueries.put(entityType, maxIdQuery);
+  }
+
+  /**
+   * Start a new block after the given largest id, e.g. taken from the freshly loaded entities.
+   */
+  synchronized void seed(final EntityType entityType, final int maxId) {
+    final IdBlock idBlock = getIdBlock(entityType);
+    idBlock.next = maxId + 1;
+    idBlock.limit = maxId + BLOCK_SIZE;
+    idBlock.reconciled = true;
+  }
+
+  /**
+   * Make sure that no id up to the given id is handed out, e.g. after rows written by someone else
+   * have been found by a refresh. The current block is kept if it starts after the id already.
+   * Like {@link #seed(EntityType, int)} this counts as a reconciliation with the database.
+   */
+  synchronized void skip(final EntityType entityType, final int maxId) {
+    final IdBlock idBlock = getIdBlock(entityType);
+    if (idBlock.next <= maxId) {
+      seed(entityType, maxId);
+    } else {
+      idBlock.reconciled = true;
+    }
+  }
+
+  /**
+   * Reconcile each table with the database again before its next id is handed out. The blocks are
+   * kept, only their start is moved behind the largest id stored in the table.
+   */
+  synchronized void invalidate() {
+    idBlocks.values().forEach(idBlock -> idBlock.reconciled = false);
+  }
+
+  /**
+   * Get the next free id for the given entity type.
+   */
+  synchronized int nextId(final EntityType entityType) {
+    final IdBlock idBlock = getIdBlock(entityType);
+    if (!idBlock.reconciled || idBlock.next > idBlock.limit) {
+      final int maxId = maxIdQueries.get(entityType).getAsInt();
+      idBlock.next = Math.max(idBlock.next, maxId + 1);
+      idBlock.limit = Math.max(idBlock.limit, idBlock.next + BLOCK_SIZE - 1);
+      idBlock.reconciled = true;
+    }
+    return idBlock.next++;
+  }
+
+  /**
+   * Whether the given id lies above the largest id stored in the table of the given entity type,
+   * i.e. no row with this id has been committed since it was handed out.
+   */
+  boolean isFree(final EntityType entityType, final int id) {
+    return maxIdQueries.get(entityType).getAsInt() < id;
+  }
+
+  private IdBlock getIdBlock(final EntityType entityType) {
+    return idBlocks.computeIfAbsent(entityType, type -> new IdBlock());
+  }
+
+  private static final class IdBlock {
+    // an empty block, the first id is requested from the database
+    private int next = 1;
+    private int limit = 0;
+    private boolean reconciled = true;
+  }
+}
@@ -0,0 +1,45 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Synchronize the rows of a join table with the relation set of an entity. The ids stored in the
+ * database are compared to the ids of the current relation and only the missing rows are inserted
+ * and the stale rows deleted, each as a single batch. Unchanged rows are not touched at all, so
+ * that their additional columns like the semester or the type are kept.
+ */
+final class JoinSetSynchronizer {
+
+  private JoinSetSynchronizer() {
+  }
+
+  /**
+   * Issue the minimal inserts and deletes to turn the persisted ids into the current ids.
+   *
+   * @param persistedIds the ids currently stored in the join table for one entity.
+   * @param currentIds the ids of the relation set of the entity.
+   * @param insert inserts the rows for the given ids, only called if there is any.
+   * @param delete deletes all rows for the given ids, only called if there is any.
+   */
+  static void synchronize(final Collection<Integer> persistedIds,
+                          final Collection<Integer> currentIds,
+                          final Consumer<Set<Integer>> insert,
+                          final Consumer<Set<Integer>> delete) {
+    final Set<Integer> persisted = new HashSet<>(persistedIds);
+    final Set<Integer> current = new HashSet<>(currentIds);
+    final Set<Integer> stale = persisted.stream().filter(id -> !current.contains(id))
+          .collect(Collectors.toSet());
+    final Set<Integer> missing = current.stream().filter(id -> !persisted.contains(id))
+          .collect(Collectors.toSet());
+    if (!stale.isEmpty()) {
+      delete.accept(stale);
+    }
+    if (!missing.isEmpty()) {
+      insert.accept(missing);
+    }
+  }
+}
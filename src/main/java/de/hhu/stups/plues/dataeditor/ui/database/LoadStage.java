@@ -0,0 +1,35 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+/**
+ * The stages of loading a database in the order they are executed by the {@link DataService}. The
+ * message key refers to the main resource bundle and is shown in the status bar.
+ */
+public enum LoadStage {
+  /**
+   * Open the database file, in working copy mode the file is copied first. Run by the
+   * {@link DbService} before the data of the opened database is loaded on the same worker.
+   */
+  OPEN_DB("openingDb"),
+  /**
+   * Read all entity tables and the relations between them.
+   */
+  READ_TABLES("loadingTables"),
+  /**
+   * Wire the entity wrappers using the relations.
+   */
+  WIRE_RELATIONS("loadingRelations"),
+  /**
+   * Build the view models like the tree of the data tree view.
+   */
+  BUILD_TREE("loadingTree");
+
+  private final String messageKey;
+
+  LoadStage(final String messageKey) {
+    this.messageKey = messageKey;
+  }
+
+  public String getMessageKey() {
+    return messageKey;
+  }
+}
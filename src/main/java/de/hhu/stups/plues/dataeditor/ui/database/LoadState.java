@@ -0,0 +1,167 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
+import org.hibernate.usertype.SqliteTimeStamps;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The state of the database the published data has been read from, used by the incremental
+ * refresh of the {@link DataService}. The watermark is the latest updated_at timestamp of all
+ * rows read so far. A refresh only reads the rows updated at or after the watermark and the rows
+ * whose ids are not known yet, the known ids that are missing in the database belong to deleted
+ * rows. The relations are kept to find the entities whose join table rows have changed, the
+ * {@link TableFingerprints} to read the ids and relations only of the tables that have changed.
+ */
+final class LoadState {
+
+  static final Map<EntityType, String> TABLES;
+
+  static {
+    final Map<EntityType, String> tables = new EnumMap<>(EntityType.class);
+    tables.put(EntityType.COURSE, "courses");
+    tables.put(EntityType.LEVEL, "levels");
+    tables.put(EntityType.MODULE, "modules");
+    tables.put(EntityType.ABSTRACT_UNIT, "abstract_units");
+    tables.put(EntityType.UNIT, "units");
+    tables.put(EntityType.GROUP, "groups");
+    tables.put(EntityType.SESSION, "sessions");
+    TABLES = Collections.unmodifiableMap(tables);
+  }
+
+  private final LocalDateTime watermark;
+  private final Map<EntityType, Set<Integer>> ids;
+  private final EntityRelations relations;
+  private final TableFingerprints fingerprints;
+
+  private LoadState(final LocalDateTime watermark, final Map<EntityType, Set<Integer>> ids,
+                    final EntityRelations relations, final TableFingerprints fingerprints) {
+    this.watermark = watermark;
+    this.ids = ids;
+    this.relations = relations;
+    this.fingerprints = fingerprints;
+  }
+
+  /**
+   * Get the state of the given freshly loaded and wired entities, the given fingerprints have
+   * been read before the entities.
+   */
+  static LoadState of(final EntitySnapshot snapshot, final TableFingerprints fingerprints) {
+    final Map<EntityType, Set<Integer>> ids = new EnumMap<>(EntityType.class);
+    ids.put(EntityType.COURSE, idsOf(snapshot.getCourses()));
+    ids.put(EntityType.LEVEL, idsOf(snapshot.getLevels()));
+    ids.put(EntityType.MODULE, idsOf(snapshot.getModules()));
+    ids.put(EntityType.ABSTRACT_UNIT, idsOf(snapshot.getAbstractUnits()));
+    ids.put(EntityType.UNIT, idsOf(snapshot.getUnits()));
+    ids.put(EntityType.GROUP, idsOf(snapshot.getGroups()));
+    ids.put(EntityType.SESSION, idsOf(snapshot.getSessions()));
+    return new LoadState(latestUpdate(snapshot), ids, snapshot.getRelations(), fingerprints);
+  }
+
+  /**
+   * Get the state after the given changes have been applied, the given ids are the ids currently
+   * stored in each table and the given fingerprints have been read before them.
+   */
+  LoadState advance(final EntitySnapshot changes, final Map<EntityType, Set<Integer>> currentIds,
+                    final TableFingerprints currentFingerprints) {
+    final LocalDateTime latestChange = latestUpdate(changes);
+    final boolean moved = watermark == null
+        || latestChange != null && latestChange.isAfter(watermark);
+    return new LoadState(moved ? latestChange : watermark, currentIds, changes.getRelations(),
+        currentFingerprints);
+  }
+
+  /**
+   * Get the SQL conditions selecting the changed rows of each table by the name of the table. The
+   * timestamps are stored either as UTC text or as milliseconds since the epoch, so the watermark
+   * is compared in both representations. It is truncated to seconds, rows updated within the same
+   * second as the watermark are read again.
+   */
+  Map<String, String> changedRows(final Map<EntityType, Set<Integer>> currentIds) {
+    final String updated;
+    if (watermark == null) {
+      updated = "updated_at IS NOT NULL";
+    } else {
+      final LocalDateTime since = watermark.truncatedTo(ChronoUnit.SECONDS);
+      updated = "typeof(updated_at) = 'text' AND updated_at >= '"
+          + SqliteTimeStamps.format(SqliteTimeStamps.localToUtc(since))
+          + "' OR typeof(updated_at) = 'integer' AND updated_at >= "
+          + since.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    final Map<String, String> conditions = new HashMap<>();
+    TABLES.forEach((entityType, table) -> {
+      final int[] newIds = currentIds.get(entityType).stream()
+          .filter(id -> !ids.get(entityType).contains(id))
+          .mapToInt(Integer::intValue).sorted().toArray();
+      conditions.put(table, newIds.length == 0 ? updated : updated + " OR " + idRanges(newIds));
+    });
+    return conditions;
+  }
+
+  Set<Integer> getIds(final EntityType entityType) {
+    return ids.get(entityType);
+  }
+
+  EntityRelations getRelations() {
+    return relations;
+  }
+
+  TableFingerprints getFingerprints() {
+    return fingerprints;
+  }
+
+  /**
+   * Select the given sorted ids, consecutive ids as written by a bulk insert are combined to a
+   * single range to keep the statement short.
+   */
+  private static String idRanges(final int[] ids) {
+    final StringJoiner ranges = new StringJoiner(" OR ");
+    int start = 0;
+    for (int end = 0; end < ids.length; end++) {
+      if (end + 1 == ids.length || ids[end + 1] != ids[end] + 1) {
+        ranges.add(start == end ? "id = " + ids[start]
+            : "id BETWEEN " + ids[start] + " AND " + ids[end]);
+        start = end + 1;
+      }
+    }
+    return ranges.toString();
+  }
+
+  private static Set<Integer> idsOf(final ObservableIntMap<?> wrappers) {
+    return wrappers.keyStream().boxed().collect(Collectors.toSet());
+  }
+
+  private static LocalDateTime latestUpdate(final EntitySnapshot snapshot) {
+    return Stream.of(
+        updates(snapshot.getCourses(), wrapper -> wrapper.getCourse().getUpdatedAt()),
+        updates(snapshot.getLevels(), wrapper -> wrapper.getLevel().getUpdatedAt()),
+        updates(snapshot.getModules(), wrapper -> wrapper.getModule().getUpdatedAt()),
+        updates(snapshot.getAbstractUnits(),
+            wrapper -> wrapper.getAbstractUnit().getUpdatedAt()),
+        updates(snapshot.getUnits(), wrapper -> wrapper.getUnit().getUpdatedAt()),
+        updates(snapshot.getGroups(), wrapper -> wrapper.getGroup().getUpdatedAt()),
+        updates(snapshot.getSessions(), wrapper -> wrapper.getSession().getUpdatedAt()))
+        .flatMap(Function.identity())
+        .filter(Objects::nonNull)
+        .max(Comparator.naturalOrder())
+        .orElse(null);
+  }
+
+  private static <W> Stream<LocalDateTime> updates(final ObservableIntMap<W> wrappers,
+                                                   final Function<W, LocalDateTime> updatedAt) {
+    return wrappers.values().stream().map(updatedAt);
+  }
+}
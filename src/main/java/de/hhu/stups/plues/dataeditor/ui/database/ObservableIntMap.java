@@ -0,0 +1,483 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * An observable map from primitive int ids to entity wrappers. The keys and values are stored in
+ * two parallel arrays using open addressing with linear probing, so neither the keys are boxed nor
+ * an entry object is allocated per mapping. The lookups by a primitive id like {@link #get(int)}
+ * do not allocate at all. Removed mappings leave a tombstone that is reused by later insertions
+ * and dropped on the next rehash, which keeps iterators valid when removing through them.
+ *
+ * <p>The map fires the same changes as {@link javafx.collections.FXCollections#observableHashMap()}
+ * to its {@link MapChangeListener} and {@link InvalidationListener}: one change per added,
+ * replaced or removed mapping, replacing a value by an equal one is not reported. Null keys and
+ * null values are not supported. As the default map of JavaFX the map is not thread-safe.
+ */
+public class ObservableIntMap<V> extends AbstractMap<Integer, V>
+    implements ObservableMap<Integer, V> {
+
+  private static final int MIN_CAPACITY = 16;
+  private static final Object REMOVED = new Object();
+
+  private final List<InvalidationListener> invalidationListeners = new CopyOnWriteArrayList<>();
+  private final List<MapChangeListener<? super Integer, ? super V>> changeListeners =
+      new CopyOnWriteArrayList<>();
+  private int[] keys;
+  private Object[] values;
+  private int size;
+  private int tombstones;
+  private int modCount;
+  private Set<Entry<Integer, V>> entrySet;
+  private Collection<V> valueCollection;
+
+  public ObservableIntMap() {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Create an empty map able to hold the given number of mappings without rehashing.
+   */
+  public ObservableIntMap(final int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  /**
+   * Get the value mapped to the given id or null if there is none.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(final int key) {
+    final int slot = findSlot(key);
+    return slot < 0 ? null : (V) values[slot];
+  }
+
+  public boolean containsKey(final int key) {
+    return findSlot(key) >= 0;
+  }
+
+  /**
+   * Map the given id to the given value and notify the listeners.
+   *
+   * @return the value previously mapped to the id or null if there was none.
+   */
+  @SuppressWarnings("unchecked")
+  public V put(final int key, final V value) {
+    Objects.requireNonNull(value, "value");
+    final int slot = findSlot(key);
+    if (slot >= 0) {
+      final V oldValue = (V) values[slot];
+      values[slot] = value;
+      if (!oldValue.equals(value)) {
+        fireChange(key, oldValue, value);
+      }
+      return oldValue;
+    }
+    if (size + tombstones >= threshold()) {
+      rehash(capacityFor(size + 1));
+    }
+    insert(key, value);
+    modCount++;
+    fireChange(key, null, value);
+    return null;
+  }
+
+  /**
+   * Remove the mapping of the given id and notify the listeners.
+   *
+   * @return the removed value or null if the id was not mapped.
+   */
+  public V remove(final int key) {
+    final int slot = findSlot(key);
+    return slot < 0 ? null : removeSlot(slot);
+  }
+
+  /**
+   * Get a stream of all mapped ids without boxing them.
+   */
+  public IntStream keyStream() {
+    final int[] currentKeys = keys;
+    final Object[] currentValues = values;
+    return IntStream.range(0, currentKeys.length)
+        .filter(slot -> isFull(currentValues[slot]))
+        .map(slot -> currentKeys[slot]);
+  }
+
+  @Override
+  public V get(final Object key) {
+    return key instanceof Integer ? get(((Integer) key).intValue()) : null;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return key instanceof Integer && containsKey(((Integer) key).intValue());
+  }
+
+  @Override
+  public V put(final Integer key, final V value) {
+    return put(key.intValue(), value);
+  }
+
+  @Override
+  public V remove(final Object key) {
+    return key instanceof Integer ? remove(((Integer) key).intValue()) : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void putAll(final Map<? extends Integer, ? extends V> map) {
+    if (!(map instanceof ObservableIntMap)) {
+      super.putAll(map);
+      return;
+    }
+    final ObservableIntMap<? extends V> intMap = (ObservableIntMap<? extends V>) map;
+    if (size + intMap.size > threshold()) {
+      rehash(capacityFor(size + intMap.size));
+    }
+    for (int slot = 0; slot < intMap.keys.length; slot++) {
+      if (isFull(intMap.values[slot])) {
+        put(intMap.keys[slot], (V) intMap.values[slot]);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Remove all mappings one by one, the listeners are notified about each of them.
+   */
+  @Override
+  public void clear() {
+    for (int slot = 0; slot < keys.length && size > 0; slot++) {
+      if (isFull(values[slot])) {
+        removeSlot(slot);
+      }
+    }
+    allocate(MIN_CAPACITY);
+  }
+
+  @Override
+  public Set<Entry<Integer, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<Integer, V>>() {
+        @Override
+        public Iterator<Entry<Integer, V>> iterator() {
+          return new SlotIterator<Entry<Integer, V>>() {
+            @Override
+            Entry<Integer, V> at(final int slot) {
+              return new SlotEntry(slot);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+
+        @Override
+        public void clear() {
+          ObservableIntMap.this.clear();
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  @Override
+  public Collection<V> values() {
+    if (valueCollection == null) {
+      valueCollection = new AbstractCollection<V>() {
+        @Override
+        public Iterator<V> iterator() {
+          return new SlotIterator<V>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            V at(final int slot) {
+              return (V) values[slot];
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+
+        @Override
+        public void clear() {
+          ObservableIntMap.this.clear();
+        }
+      };
+    }
+    return valueCollection;
+  }
+
+  @Override
+  public void addListener(final MapChangeListener<? super Integer, ? super V> listener) {
+    changeListeners.add(Objects.requireNonNull(listener, "listener"));
+  }
+
+  @Override
+  public void removeListener(final MapChangeListener<? super Integer, ? super V> listener) {
+    changeListeners.remove(listener);
+  }
+
+  @Override
+  public void addListener(final InvalidationListener listener) {
+    invalidationListeners.add(Objects.requireNonNull(listener, "listener"));
+  }
+
+  @Override
+  public void removeListener(final InvalidationListener listener) {
+    invalidationListeners.remove(listener);
+  }
+
+  private int findSlot(final int key) {
+    final int mask = keys.length - 1;
+    for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      final Object value = values[slot];
+      if (value == null) {
+        return -1;
+      }
+      if (value != REMOVED && keys[slot] == key) {
+        return slot;
+      }
+    }
+  }
+
+  /**
+   * Store a new mapping in the first free slot or tombstone of the probe sequence.
+   */
+  private void insert(final int key, final Object value) {
+    final int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (isFull(values[slot])) {
+      slot = (slot + 1) & mask;
+    }
+    if (values[slot] == REMOVED) {
+      tombstones--;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V removeSlot(final int slot) {
+    final V oldValue = (V) values[slot];
+    values[slot] = REMOVED;
+    size--;
+    tombstones++;
+    modCount++;
+    fireChange(keys[slot], oldValue, null);
+    return oldValue;
+  }
+
+  private void rehash(final int capacity) {
+    final int[] oldKeys = keys;
+    final Object[] oldValues = values;
+    allocate(capacity);
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      if (isFull(oldValues[slot])) {
+        insert(oldKeys[slot], oldValues[slot]);
+      }
+    }
+  }
+
+  private void allocate(final int capacity) {
+    keys = new int[capacity];
+    values = new Object[capacity];
+    size = 0;
+    tombstones = 0;
+  }
+
+  private int threshold() {
+    return keys.length / 4 * 3;
+  }
+
+  private void fireChange(final int key, final V removed, final V added) {
+    if (!invalidationListeners.isEmpty()) {
+      invalidationListeners.forEach(listener -> listener.invalidated(this));
+    }
+    if (!changeListeners.isEmpty()) {
+      final IntChange change = new IntChange(key, removed, added);
+      changeListeners.forEach(listener -> listener.onChanged(change));
+    }
+  }
+
+  private static boolean isFull(final Object value) {
+    return value != null && value != REMOVED;
+  }
+
+  private static int capacityFor(final int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity / 4 * 3 <= expectedSize) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private static int hash(final int key) {
+    final int hash = key * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Iterate the occupied slots of the current arrays, removing through the iterator only leaves a
+   * tombstone so that the slots do not move.
+   */
+  private abstract class SlotIterator<T> implements Iterator<T> {
+
+    private int expectedModCount = modCount;
+    private int nextSlot = advance(0);
+    private int lastSlot = -1;
+
+    abstract T at(int slot);
+
+    @Override
+    public boolean hasNext() {
+      return nextSlot < keys.length;
+    }
+
+    @Override
+    public T next() {
+      if (expectedModCount != modCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      lastSlot = nextSlot;
+      nextSlot = advance(nextSlot + 1);
+      return at(lastSlot);
+    }
+
+    @Override
+    public void remove() {
+      if (lastSlot < 0) {
+        throw new IllegalStateException();
+      }
+      if (expectedModCount != modCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeSlot(lastSlot);
+      lastSlot = -1;
+      expectedModCount = modCount;
+    }
+
+    private int advance(final int slot) {
+      int next = slot;
+      while (next < keys.length && !isFull(values[next])) {
+        next++;
+      }
+      return next;
+    }
+  }
+
+  private final class SlotEntry implements Entry<Integer, V> {
+
+    private final int key;
+
+    private SlotEntry(final int slot) {
+      this.key = keys[slot];
+    }
+
+    @Override
+    public Integer getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return get(key);
+    }
+
+    @Override
+    public V setValue(final V value) {
+      return put(key, value);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (!(other instanceof Entry)) {
+        return false;
+      }
+      final Entry<?, ?> entry = (Entry<?, ?>) other;
+      return getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return key ^ Objects.hashCode(getValue());
+    }
+  }
+
+  private final class IntChange extends MapChangeListener.Change<Integer, V> {
+
+    private final int key;
+    private final V removed;
+    private final V added;
+
+    private IntChange(final int key, final V removed, final V added) {
+      super(ObservableIntMap.this);
+      this.key = key;
+      this.removed = removed;
+      this.added = added;
+    }
+
+    @Override
+    public boolean wasAdded() {
+      return added != null;
+    }
+
+    @Override
+    public boolean wasRemoved() {
+      return removed != null;
+    }
+
+    @Override
+    public Integer getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValueAdded() {
+      return added;
+    }
+
+    @Override
+    public V getValueRemoved() {
+      return removed;
+    }
+
+    @Override
+    public String toString() {
+      return (wasRemoved() ? "removed " + removed + (wasAdded() ? " and " : "") : "")
+          + (wasAdded() ? "added " + added : "") + " at key " + key;
+    }
+  }
+}
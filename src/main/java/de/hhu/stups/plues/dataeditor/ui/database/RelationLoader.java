@@ -0,0 +1,124 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataLoadException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+
+/**
+ * Load all relations between the entities by reading each join table exactly once. The number of
+ * queries is fixed and independent of the size of the database, in contrast to touching the lazy
+ * collections of every single entity. The incremental refresh reads only the tables that have
+ * changed, see {@link TableFingerprints}.
+ */
+class RelationLoader {
+
+  private static final String MODULE_LEVELS =
+        "SELECT module_id, level_id, course_id FROM module_levels";
+  private static final String MODULE_ABSTRACT_UNITS =
+        "SELECT module_id, abstract_unit_id FROM modules_abstract_units_types";
+  private static final String UNIT_ABSTRACT_UNITS =
+        "SELECT unit_id, abstract_unit_id FROM unit_abstract_unit";
+  private static final String MINORS = "SELECT course_id, minor_course_id FROM minors";
+  private static final String COURSE_LEVELS = "SELECT course_id, level_id FROM course_levels";
+  private static final String LEVEL_PARENTS =
+        "SELECT id, parent_id FROM levels WHERE parent_id IS NOT NULL";
+  private static final String GROUPS = "SELECT id, unit_id FROM groups";
+  private static final String SESSIONS = "SELECT id, group_id FROM sessions";
+  private static final String UNIT_SEMESTERS = "SELECT unit_id, semester FROM unit_semester";
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  // the queries by the table they read, the order of the map is the order of the reads
+  private final Map<String, RelationQuery> queries = new LinkedHashMap<>();
+
+  RelationLoader() {
+    queries.put("module_levels", new RelationQuery(MODULE_LEVELS, (relations, resultSet) ->
+          relations.addModuleLevel(resultSet.getInt(1), resultSet.getInt(2),
+                resultSet.getInt(3))));
+    queries.put("modules_abstract_units_types",
+          new RelationQuery(MODULE_ABSTRACT_UNITS, (relations, resultSet) ->
+                relations.addModuleAbstractUnit(resultSet.getInt(1), resultSet.getInt(2))));
+    queries.put("unit_abstract_unit", new RelationQuery(UNIT_ABSTRACT_UNITS,
+          (relations, resultSet) ->
+                relations.addUnitAbstractUnit(resultSet.getInt(1), resultSet.getInt(2))));
+    queries.put("minors", new RelationQuery(MINORS, (relations, resultSet) ->
+          relations.addMinor(resultSet.getInt(1), resultSet.getInt(2))));
+    queries.put("course_levels", new RelationQuery(COURSE_LEVELS, (relations, resultSet) ->
+          relations.addCourseLevel(resultSet.getInt(1), resultSet.getInt(2))));
+    queries.put("levels", new RelationQuery(LEVEL_PARENTS, (relations, resultSet) ->
+          relations.addLevelParent(resultSet.getInt(1), resultSet.getInt(2))));
+    queries.put("groups", new RelationQuery(GROUPS, (relations, resultSet) ->
+          relations.addGroup(resultSet.getInt(1), resultSet.getInt(2))));
+    queries.put("sessions", new RelationQuery(SESSIONS, (relations, resultSet) ->
+          relations.addSession(resultSet.getInt(1), resultSet.getInt(2))));
+    queries.put("unit_semester", new RelationQuery(UNIT_SEMESTERS, (relations, resultSet) ->
+          relations.addUnitSemester(resultSet.getInt(1), resultSet.getInt(2))));
+  }
+
+  /**
+   * Read all join tables and foreign key columns from the given data source.
+   */
+  EntityRelations load(final DataSource dataSource) {
+    return load(dataSource, queries.keySet(), new EntityRelations());
+  }
+
+  /**
+   * Read the join tables and foreign key columns of the given changed tables from the given data
+   * source and take over the relations of all other tables from the given previous relations. The
+   * previous relations are returned as they are if none of their tables has changed.
+   */
+  EntityRelations load(final DataSource dataSource, final Set<String> changedTables,
+                       final EntityRelations previous) {
+    if (queries.keySet().stream().noneMatch(changedTables::contains)) {
+      return previous;
+    }
+    final EntityRelations relations = new EntityRelations();
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement()) {
+      for (final Map.Entry<String, RelationQuery> query : queries.entrySet()) {
+        if (changedTables.contains(query.getKey())) {
+          readRows(statement, query.getValue().query,
+                resultSet -> query.getValue().reader.read(relations, resultSet));
+        } else {
+          relations.copyTable(query.getKey(), previous);
+        }
+      }
+    } catch (final SQLException exception) {
+      logger.error("Exception while loading the entity relations", exception);
+      throw new DataLoadException(exception);
+    }
+    return relations;
+  }
+
+  private void readRows(final Statement statement, final String query,
+                        final RowHandler rowHandler) throws SQLException {
+    try (final ResultSet resultSet = statement.executeQuery(query)) {
+      while (resultSet.next()) {
+        rowHandler.handle(resultSet);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface RelationReader {
+    void read(EntityRelations relations, ResultSet resultSet) throws SQLException;
+  }
+
+  private static final class RelationQuery {
+    private final String query;
+    private final RelationReader reader;
+
+    private RelationQuery(final String query, final RelationReader reader) {
+      this.query = query;
+      this.reader = reader;
+    }
+  }
+}
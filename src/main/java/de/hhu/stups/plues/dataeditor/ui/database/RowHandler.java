@@ -0,0 +1,12 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Handle the current row of a {@link ResultSet} read by plain JDBC.
+ */
+@FunctionalInterface
+interface RowHandler {
+  void handle(ResultSet resultSet) throws SQLException;
+}
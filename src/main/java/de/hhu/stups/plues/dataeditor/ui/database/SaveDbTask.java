@@ -0,0 +1,51 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import javafx.concurrent.Task;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * Save a consistent snapshot of a database to another file. The snapshot is taken with the online
+ * backup API of SQLite on a reader connection, so that it does not block the writer, and is
+ * compacted afterwards on its own connection. The message of the task is the resource key of the
+ * current step.
+ */
+class SaveDbTask extends Task<Void> {
+
+  private final DataSource dataSource;
+  private final File target;
+
+  SaveDbTask(final DataSource dataSource, final File target) {
+    this.dataSource = dataSource;
+    this.target = target;
+  }
+
+  @Override
+  protected Void call() throws Exception {
+    updateMessage("savingDb");
+    updateProgress(0, 2);
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement()) {
+      statement.executeUpdate("backup to " + WorkingCopy.quote(target));
+    }
+    if (isCancelled()) {
+      return null;
+    }
+    updateMessage("compactingDb");
+    updateProgress(1, 2);
+    final SQLiteDataSource targetDataSource = new SQLiteDataSource();
+    targetDataSource.setUrl("jdbc:sqlite:" + target.getAbsolutePath());
+    try (final Connection connection = targetDataSource.getConnection();
+         final Statement statement = connection.createStatement()) {
+      // the copy is a single self-contained file regardless of the journal mode of the source
+      statement.execute("PRAGMA journal_mode = DELETE");
+      statement.executeUpdate("VACUUM");
+    }
+    updateProgress(2, 2);
+    return null;
+  }
+}
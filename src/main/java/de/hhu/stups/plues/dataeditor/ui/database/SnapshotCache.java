@@ -0,0 +1,393 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.AbstractUnit;
+import de.hhu.stups.plues.dataeditor.ui.entities.AbstractUnitWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.Course;
+import de.hhu.stups.plues.dataeditor.ui.entities.CourseWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.Group;
+import de.hhu.stups.plues.dataeditor.ui.entities.GroupWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.Level;
+import de.hhu.stups.plues.dataeditor.ui.entities.LevelWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.Module;
+import de.hhu.stups.plues.dataeditor.ui.entities.ModuleWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.Session;
+import de.hhu.stups.plues.dataeditor.ui.entities.SessionWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.Unit;
+import de.hhu.stups.plues.dataeditor.ui.entities.UnitWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.function.Function;
+
+/**
+ * A binary cache of the entities and relations read from a database file. After a database has
+ * been read from SQLite the {@link DataService} writes the plain entities and the
+ * {@link EntityRelations} to a file in the cache directory, together with the {@link SnapshotKey}
+ * of the database. The next time the same unchanged database is opened the file is memory-mapped
+ * and decoded instead of querying all tables. The cache does not hold any JavaFX objects, the
+ * wrappers are created again while decoding.
+ */
+class SnapshotCache {
+
+  private static final int MAGIC = 0x504c5353;
+  private static final int FORMAT_VERSION = 2;
+  private static final String SUFFIX = ".snapshot";
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final File directory;
+
+  SnapshotCache(final File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Decode the cached snapshot of the database identified by the given key.
+   *
+   * @return the snapshot or null if there is none for the current state of the database.
+   */
+  EntitySnapshot read(final SnapshotKey key) {
+    final File cacheFile = getCacheFile(key);
+    if (!cacheFile.isFile()) {
+      return null;
+    }
+    try (final FileChannel channel = FileChannel.open(cacheFile.toPath(),
+        StandardOpenOption.READ)) {
+      final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION
+          || !key.equals(SnapshotKey.read(buffer))) {
+        return null;
+      }
+      return new EntitySnapshot(
+          readTable(buffer, SnapshotCache::readCourse, CourseWrapper::new),
+          readTable(buffer, SnapshotCache::readLevel, LevelWrapper::new),
+          readTable(buffer, SnapshotCache::readModule, ModuleWrapper::new),
+          readTable(buffer, SnapshotCache::readAbstractUnit, AbstractUnitWrapper::new),
+          readTable(buffer, SnapshotCache::readUnit, UnitWrapper::new),
+          readTable(buffer, SnapshotCache::readGroup, GroupWrapper::new),
+          readTable(buffer, SnapshotCache::readSession, SessionWrapper::new),
+          EntityRelations.read(buffer));
+    } catch (final IOException | BufferUnderflowException | IllegalArgumentException exception) {
+      logger.warn("Ignoring the unreadable snapshot cache " + cacheFile, exception);
+      return null;
+    }
+  }
+
+  /**
+   * Write the entities and relations of the given snapshot freshly read from the database
+   * identified by the given key. The file is replaced atomically, a failure is only logged since
+   * the cache is an optimization.
+   */
+  void write(final SnapshotKey key, final EntitySnapshot snapshot) {
+    final File cacheFile = getCacheFile(key);
+    Path tempFile = null;
+    try {
+      Files.createDirectories(directory.toPath());
+      tempFile = Files.createTempFile(directory.toPath(), cacheFile.getName(), ".tmp");
+      try (final DataOutputStream output = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16))) {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        key.write(output);
+        output.writeInt(snapshot.getCourses().size());
+        for (final CourseWrapper courseWrapper : snapshot.getCourses().values()) {
+          writeCourse(output, courseWrapper.getCourse());
+        }
+        output.writeInt(snapshot.getLevels().size());
+        for (final LevelWrapper levelWrapper : snapshot.getLevels().values()) {
+          writeLevel(output, levelWrapper.getLevel());
+        }
+        output.writeInt(snapshot.getModules().size());
+        for (final ModuleWrapper moduleWrapper : snapshot.getModules().values()) {
+          writeModule(output, moduleWrapper.getModule());
+        }
+        output.writeInt(snapshot.getAbstractUnits().size());
+        for (final AbstractUnitWrapper abstractUnitWrapper : snapshot.getAbstractUnits().values()) {
+          writeAbstractUnit(output, abstractUnitWrapper.getAbstractUnit());
+        }
+        output.writeInt(snapshot.getUnits().size());
+        for (final UnitWrapper unitWrapper : snapshot.getUnits().values()) {
+          writeUnit(output, unitWrapper.getUnit());
+        }
+        output.writeInt(snapshot.getGroups().size());
+        for (final GroupWrapper groupWrapper : snapshot.getGroups().values()) {
+          writeGroup(output, groupWrapper.getGroup());
+        }
+        output.writeInt(snapshot.getSessions().size());
+        for (final SessionWrapper sessionWrapper : snapshot.getSessions().values()) {
+          writeSession(output, sessionWrapper.getSession());
+        }
+        snapshot.getRelations().write(output);
+      }
+      try {
+        Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (final IOException exception) {
+        Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (final IOException exception) {
+      logger.warn("Exception while writing the snapshot cache " + cacheFile, exception);
+      if (tempFile != null) {
+        tempFile.toFile().delete();
+      }
+    }
+  }
+
+  /**
+   * One file per database path, the key stored in the file tells whether it is still valid.
+   */
+  private File getCacheFile(final SnapshotKey key) {
+    final String name = new File(key.getPath()).getName();
+    return new File(directory,
+        name + "-" + Integer.toHexString(key.getPath().hashCode()) + SUFFIX);
+  }
+
+  private static <E, W extends EntityWrapper> ObservableIntMap<W> readTable(
+      final ByteBuffer buffer, final Function<ByteBuffer, E> readEntity,
+      final Function<E, W> wrap) {
+    final int size = buffer.getInt();
+    final ObservableIntMap<W> wrappers = new ObservableIntMap<>(size);
+    for (int row = 0; row < size; row++) {
+      final W wrapper = wrap.apply(readEntity.apply(buffer));
+      wrappers.put(wrapper.getId(), wrapper);
+    }
+    return wrappers;
+  }
+
+  private static void writeCourse(final DataOutputStream output, final Course course)
+      throws IOException {
+    output.writeInt(course.getId());
+    writeString(output, course.getKey());
+    writeString(output, course.getDegree());
+    writeString(output, course.getShortName());
+    writeString(output, course.getLongName());
+    writeString(output, course.getKzfa());
+    writeInteger(output, course.getPo());
+    writeInteger(output, unsetToNull(course.getCreditPoints()));
+    writeDateTime(output, course.getCreatedAt());
+    writeDateTime(output, course.getUpdatedAt());
+  }
+
+  private static Course readCourse(final ByteBuffer buffer) {
+    final Course course = new Course();
+    course.setId(buffer.getInt());
+    course.setKey(readString(buffer));
+    course.setDegree(readString(buffer));
+    course.setShortName(readString(buffer));
+    course.setLongName(readString(buffer));
+    course.setKzfa(readString(buffer));
+    course.setPo(readInteger(buffer));
+    course.setCreditPoints(readInteger(buffer));
+    course.setCreatedAt(readDateTime(buffer));
+    course.setUpdatedAt(readDateTime(buffer));
+    return course;
+  }
+
+  private static void writeLevel(final DataOutputStream output, final Level level)
+      throws IOException {
+    output.writeInt(level.getId());
+    writeString(output, level.getName());
+    writeString(output, level.getTm());
+    writeString(output, level.getArt());
+    writeInteger(output, unsetToNull(level.getMin()));
+    writeInteger(output, unsetToNull(level.getMax()));
+    writeInteger(output, unsetToNull(level.getMinCreditPoints()));
+    writeInteger(output, unsetToNull(level.getMaxCreditPoints()));
+    writeDateTime(output, level.getCreatedAt());
+    writeDateTime(output, level.getUpdatedAt());
+  }
+
+  private static Level readLevel(final ByteBuffer buffer) {
+    final Level level = new Level();
+    level.setId(buffer.getInt());
+    level.setName(readString(buffer));
+    level.setTm(readString(buffer));
+    level.setArt(readString(buffer));
+    level.setMin(readInteger(buffer));
+    level.setMax(readInteger(buffer));
+    level.setMinCreditPoints(readInteger(buffer));
+    level.setMaxCreditPoints(readInteger(buffer));
+    level.setCreatedAt(readDateTime(buffer));
+    level.setUpdatedAt(readDateTime(buffer));
+    return level;
+  }
+
+  private static void writeModule(final DataOutputStream output, final Module module)
+      throws IOException {
+    output.writeInt(module.getId());
+    writeString(output, module.getKey());
+    writeString(output, module.getTitle());
+    writeInteger(output, module.getPordnr());
+    writeInteger(output, module.getElectiveUnits());
+    final Boolean bundled = module.getBundled();
+    output.writeByte(bundled == null ? -1 : bundled ? 1 : 0);
+    writeDateTime(output, module.getCreatedAt());
+    writeDateTime(output, module.getUpdatedAt());
+  }
+
+  private static Module readModule(final ByteBuffer buffer) {
+    final Module module = new Module();
+    module.setId(buffer.getInt());
+    module.setKey(readString(buffer));
+    module.setTitle(readString(buffer));
+    module.setPordnr(readInteger(buffer));
+    module.setElectiveUnits(readInteger(buffer));
+    final byte bundled = buffer.get();
+    module.setBundled(bundled < 0 ? null : bundled == 1);
+    module.setCreatedAt(readDateTime(buffer));
+    module.setUpdatedAt(readDateTime(buffer));
+    return module;
+  }
+
+  private static void writeAbstractUnit(final DataOutputStream output,
+                                        final AbstractUnit abstractUnit) throws IOException {
+    output.writeInt(abstractUnit.getId());
+    writeString(output, abstractUnit.getKey());
+    writeString(output, abstractUnit.getTitle());
+    writeDateTime(output, abstractUnit.getCreatedAt());
+    writeDateTime(output, abstractUnit.getUpdatedAt());
+  }
+
+  private static AbstractUnit readAbstractUnit(final ByteBuffer buffer) {
+    final AbstractUnit abstractUnit = new AbstractUnit();
+    abstractUnit.setId(buffer.getInt());
+    abstractUnit.setKey(readString(buffer));
+    abstractUnit.setTitle(readString(buffer));
+    abstractUnit.setCreatedAt(readDateTime(buffer));
+    abstractUnit.setUpdatedAt(readDateTime(buffer));
+    return abstractUnit;
+  }
+
+  private static void writeUnit(final DataOutputStream output, final Unit unit)
+      throws IOException {
+    output.writeInt(unit.getId());
+    writeString(output, unit.getKey());
+    writeString(output, unit.getTitle());
+    writeDateTime(output, unit.getCreatedAt());
+    writeDateTime(output, unit.getUpdatedAt());
+  }
+
+  private static Unit readUnit(final ByteBuffer buffer) {
+    final Unit unit = new Unit();
+    unit.setId(buffer.getInt());
+    unit.setKey(readString(buffer));
+    unit.setTitle(readString(buffer));
+    unit.setSemesters(new HashSet<>());
+    unit.setCreatedAt(readDateTime(buffer));
+    unit.setUpdatedAt(readDateTime(buffer));
+    return unit;
+  }
+
+  private static void writeGroup(final DataOutputStream output, final Group group)
+      throws IOException {
+    output.writeInt(group.getId());
+    output.writeInt(group.getHalfSemester());
+    writeDateTime(output, group.getCreatedAt());
+    writeDateTime(output, group.getUpdatedAt());
+  }
+
+  private static Group readGroup(final ByteBuffer buffer) {
+    final Group group = new Group();
+    group.setId(buffer.getInt());
+    group.setHalfSemester(buffer.getInt());
+    group.setCreatedAt(readDateTime(buffer));
+    group.setUpdatedAt(readDateTime(buffer));
+    return group;
+  }
+
+  private static void writeSession(final DataOutputStream output, final Session session)
+      throws IOException {
+    output.writeInt(session.getId());
+    writeString(output, session.getDay());
+    writeInteger(output, session.getTime());
+    writeInteger(output, session.getRhythm());
+    writeInteger(output, session.getDuration());
+    output.writeBoolean(session.isTentative());
+    writeDateTime(output, session.getCreatedAt());
+    writeDateTime(output, session.getUpdatedAt());
+  }
+
+  private static Session readSession(final ByteBuffer buffer) {
+    final Session session = new Session();
+    session.setId(buffer.getInt());
+    session.setDay(readString(buffer));
+    session.setTime(readInteger(buffer));
+    session.setRhythm(readInteger(buffer));
+    session.setDuration(readInteger(buffer));
+    session.setTentative(buffer.get() != 0);
+    session.setCreatedAt(readDateTime(buffer));
+    session.setUpdatedAt(readDateTime(buffer));
+    return session;
+  }
+
+  /**
+   * Some getters of the entities return -1 instead of null, the cache stores null in this case.
+   */
+  private static Integer unsetToNull(final int value) {
+    return value == -1 ? null : value;
+  }
+
+  private static void writeString(final DataOutputStream output, final String value)
+      throws IOException {
+    if (value == null) {
+      output.writeInt(-1);
+      return;
+    }
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(final ByteBuffer buffer) {
+    final int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    final byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeInteger(final DataOutputStream output, final Integer value)
+      throws IOException {
+    output.writeBoolean(value != null);
+    if (value != null) {
+      output.writeInt(value);
+    }
+  }
+
+  private static Integer readInteger(final ByteBuffer buffer) {
+    return buffer.get() == 0 ? null : buffer.getInt();
+  }
+
+  private static void writeDateTime(final DataOutputStream output, final LocalDateTime value)
+      throws IOException {
+    output.writeBoolean(value != null);
+    if (value != null) {
+      output.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+      output.writeInt(value.getNano());
+    }
+  }
+
+  private static LocalDateTime readDateTime(final ByteBuffer buffer) {
+    if (buffer.get() == 0) {
+      return null;
+    }
+    return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+  }
+}
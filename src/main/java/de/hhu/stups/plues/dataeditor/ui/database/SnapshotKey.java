@@ -0,0 +1,133 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataLoadException;
+
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import javax.sql.DataSource;
+
+/**
+ * Identify the state of a database file a {@link SnapshotCache} entry has been written for. The key
+ * consists of the path, the size and modification time of the database file and its write-ahead
+ * log as well as the schema version and the file change counter stored in the database. With a
+ * rollback journal every commit increments the file change counter, so that a commit is detected
+ * even if it keeps the size and falls into the resolution of the modification time. Commits to the
+ * write-ahead log change its size or modification time instead, an empty or missing log is treated
+ * the same since SQLite removes it when the last connection is closed.
+ */
+final class SnapshotKey {
+
+  private static final int CHANGE_COUNTER_OFFSET = 24;
+
+  private final String path;
+  private final long size;
+  private final long lastModified;
+  private final long walSize;
+  private final long walLastModified;
+  private final int schemaVersion;
+  private final int changeCounter;
+
+  private SnapshotKey(final String path, final long size, final long lastModified,
+                      final long walSize, final long walLastModified, final int schemaVersion,
+                      final int changeCounter) {
+    this.path = path;
+    this.size = size;
+    this.lastModified = lastModified;
+    this.walSize = walSize;
+    this.walLastModified = walLastModified;
+    this.schemaVersion = schemaVersion;
+    this.changeCounter = changeCounter;
+  }
+
+  /**
+   * Get the key of the current state of the given database file, the schema version is queried
+   * using the given data source.
+   */
+  static SnapshotKey of(final File dbFile, final DataSource dataSource) {
+    final int schemaVersion;
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement();
+         final ResultSet resultSet = statement.executeQuery("PRAGMA schema_version")) {
+      schemaVersion = resultSet.next() ? resultSet.getInt(1) : 0;
+    } catch (final SQLException exception) {
+      throw new DataLoadException(exception);
+    }
+    final File walFile = new File(dbFile.getPath() + "-wal");
+    final long walSize = walFile.length();
+    return new SnapshotKey(dbFile.getAbsolutePath(), dbFile.length(), dbFile.lastModified(),
+        walSize, walSize == 0 ? 0 : walFile.lastModified(), schemaVersion,
+        readChangeCounter(dbFile));
+  }
+
+  /**
+   * Read the file change counter from the header of the given database file, which is stored as a
+   * big-endian integer at offset 24. An empty database file has no header yet.
+   */
+  private static int readChangeCounter(final File dbFile) {
+    try (final RandomAccessFile file = new RandomAccessFile(dbFile, "r")) {
+      if (file.length() < CHANGE_COUNTER_OFFSET + Integer.BYTES) {
+        return 0;
+      }
+      file.seek(CHANGE_COUNTER_OFFSET);
+      return file.readInt();
+    } catch (final IOException exception) {
+      throw new DataLoadException(exception);
+    }
+  }
+
+  static SnapshotKey read(final ByteBuffer buffer) {
+    final byte[] path = new byte[buffer.getInt()];
+    buffer.get(path);
+    return new SnapshotKey(new String(path, StandardCharsets.UTF_8), buffer.getLong(),
+        buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getInt(), buffer.getInt());
+  }
+
+  void write(final DataOutput output) throws IOException {
+    final byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+    output.writeLong(size);
+    output.writeLong(lastModified);
+    output.writeLong(walSize);
+    output.writeLong(walLastModified);
+    output.writeInt(schemaVersion);
+    output.writeInt(changeCounter);
+  }
+
+  String getPath() {
+    return path;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (other == null || getClass() != other.getClass()) {
+      return false;
+    }
+    final SnapshotKey that = (SnapshotKey) other;
+    return size == that.size
+        && lastModified == that.lastModified
+        && walSize == that.walSize
+        && walLastModified == that.walLastModified
+        && schemaVersion == that.schemaVersion
+        && changeCounter == that.changeCounter
+        && path.equals(that.path);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(path, size, lastModified, walSize, walLastModified, schemaVersion,
+        changeCounter);
+  }
+}
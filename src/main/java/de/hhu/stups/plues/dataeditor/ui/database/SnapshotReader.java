@@ -0,0 +1,234 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataLoadException;
+import de.hhu.stups.plues.dataeditor.ui.entities.AbstractUnit;
+import de.hhu.stups.plues.dataeditor.ui.entities.Course;
+import de.hhu.stups.plues.dataeditor.ui.entities.Group;
+import de.hhu.stups.plues.dataeditor.ui.entities.Level;
+import de.hhu.stups.plues.dataeditor.ui.entities.Module;
+import de.hhu.stups.plues.dataeditor.ui.entities.Session;
+import de.hhu.stups.plues.dataeditor.ui.entities.Unit;
+import org.hibernate.usertype.SqliteTimeStamps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.sql.DataSource;
+
+/**
+ * Read the entity tables of a database with forward-only JDBC result sets and bypass Hibernate.
+ * Each row is passed to the given consumer as a plain entity without proxies or persistent
+ * collections. The relations are wired afterwards using the {@link RelationLoader}.
+ */
+class SnapshotReader implements AutoCloseable {
+
+  private static final String COURSES = "SELECT id, key, degree, short_name, name, kzfa, po, "
+        + "credit_points, created_at, updated_at FROM courses";
+  private static final String LEVELS = "SELECT id, name, tm, art, min, max, min_credit_points, "
+        + "max_credit_points, created_at, updated_at FROM levels";
+  private static final String MODULES = "SELECT id, key, title, pordnr, elective_units, bundled, "
+        + "created_at, updated_at FROM modules";
+  private static final String ABSTRACT_UNITS =
+        "SELECT id, key, title, created_at, updated_at FROM abstract_units";
+  private static final String UNITS =
+        "SELECT id, unit_key, title, created_at, updated_at FROM units";
+  private static final String GROUPS =
+        "SELECT id, half_semester, created_at, updated_at FROM groups";
+  private static final String SESSIONS = "SELECT id, day, time, rhythm, duration, tentative, "
+        + "created_at, updated_at FROM sessions";
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final Connection connection;
+  private final Function<String, String> conditions;
+
+  /**
+   * Open a connection to the given data source which is used for all tables.
+   */
+  SnapshotReader(final DataSource dataSource) {
+    this(dataSource, table -> null);
+  }
+
+  /**
+   * Open a connection to the given data source which is used for all tables. Only the rows
+   * matching the SQL condition returned for the name of a table are read, all rows if the
+   * condition is null.
+   */
+  SnapshotReader(final DataSource dataSource, final Function<String, String> conditions) {
+    this.conditions = conditions;
+    try {
+      connection = dataSource.getConnection();
+    } catch (final SQLException exception) {
+      logger.error("Exception while opening the database", exception);
+      throw new DataLoadException(exception);
+    }
+  }
+
+  void readCourses(final Consumer<Course> consumer) {
+    readRows(COURSES, "courses", resultSet -> {
+      final Course course = new Course();
+      course.setId(resultSet.getInt(1));
+      course.setKey(resultSet.getString(2));
+      course.setDegree(resultSet.getString(3));
+      course.setShortName(resultSet.getString(4));
+      course.setLongName(resultSet.getString(5));
+      course.setKzfa(resultSet.getString(6));
+      course.setPo(getInteger(resultSet, 7));
+      course.setCreditPoints(getInteger(resultSet, 8));
+      course.setCreatedAt(getDateTime(resultSet, 9));
+      course.setUpdatedAt(getDateTime(resultSet, 10));
+      consumer.accept(course);
+    });
+  }
+
+  void readLevels(final Consumer<Level> consumer) {
+    readRows(LEVELS, "levels", resultSet -> {
+      final Level level = new Level();
+      level.setId(resultSet.getInt(1));
+      level.setName(resultSet.getString(2));
+      level.setTm(resultSet.getString(3));
+      level.setArt(resultSet.getString(4));
+      level.setMin(getInteger(resultSet, 5));
+      level.setMax(getInteger(resultSet, 6));
+      level.setMinCreditPoints(getInteger(resultSet, 7));
+      level.setMaxCreditPoints(getInteger(resultSet, 8));
+      level.setCreatedAt(getDateTime(resultSet, 9));
+      level.setUpdatedAt(getDateTime(resultSet, 10));
+      consumer.accept(level);
+    });
+  }
+
+  void readModules(final Consumer<Module> consumer) {
+    readRows(MODULES, "modules", resultSet -> {
+      final Module module = new Module();
+      module.setId(resultSet.getInt(1));
+      module.setKey(resultSet.getString(2));
+      module.setTitle(resultSet.getString(3));
+      module.setPordnr(getInteger(resultSet, 4));
+      module.setElectiveUnits(getInteger(resultSet, 5));
+      final boolean bundled = resultSet.getBoolean(6);
+      module.setBundled(resultSet.wasNull() ? null : bundled);
+      module.setCreatedAt(getDateTime(resultSet, 7));
+      module.setUpdatedAt(getDateTime(resultSet, 8));
+      consumer.accept(module);
+    });
+  }
+
+  void readAbstractUnits(final Consumer<AbstractUnit> consumer) {
+    readRows(ABSTRACT_UNITS, "abstract_units", resultSet -> {
+      final AbstractUnit abstractUnit = new AbstractUnit();
+      abstractUnit.setId(resultSet.getInt(1));
+      abstractUnit.setKey(resultSet.getString(2));
+      abstractUnit.setTitle(resultSet.getString(3));
+      abstractUnit.setCreatedAt(getDateTime(resultSet, 4));
+      abstractUnit.setUpdatedAt(getDateTime(resultSet, 5));
+      consumer.accept(abstractUnit);
+    });
+  }
+
+  void readUnits(final Consumer<Unit> consumer) {
+    readRows(UNITS, "units", resultSet -> {
+      final Unit unit = new Unit();
+      unit.setId(resultSet.getInt(1));
+      unit.setKey(resultSet.getString(2));
+      unit.setTitle(resultSet.getString(3));
+      unit.setSemesters(new HashSet<>());
+      unit.setCreatedAt(getDateTime(resultSet, 4));
+      unit.setUpdatedAt(getDateTime(resultSet, 5));
+      consumer.accept(unit);
+    });
+  }
+
+  void readGroups(final Consumer<Group> consumer) {
+    readRows(GROUPS, "groups", resultSet -> {
+      final Group group = new Group();
+      group.setId(resultSet.getInt(1));
+      group.setHalfSemester(resultSet.getInt(2));
+      group.setCreatedAt(getDateTime(resultSet, 3));
+      group.setUpdatedAt(getDateTime(resultSet, 4));
+      consumer.accept(group);
+    });
+  }
+
+  void readSessions(final Consumer<Session> consumer) {
+    readRows(SESSIONS, "sessions", resultSet -> {
+      final Session session = new Session();
+      session.setId(resultSet.getInt(1));
+      session.setDay(resultSet.getString(2));
+      session.setTime(getInteger(resultSet, 3));
+      session.setRhythm(getInteger(resultSet, 4));
+      session.setDuration(getInteger(resultSet, 5));
+      session.setTentative(resultSet.getBoolean(6));
+      session.setCreatedAt(getDateTime(resultSet, 7));
+      session.setUpdatedAt(getDateTime(resultSet, 8));
+      consumer.accept(session);
+    });
+  }
+
+  /**
+   * Read the ids of all rows of the given table, the condition of the table is not applied.
+   */
+  Set<Integer> readIds(final String table) {
+    final Set<Integer> ids = new HashSet<>();
+    readRows("SELECT id FROM " + table, resultSet -> ids.add(resultSet.getInt(1)));
+    return ids;
+  }
+
+  private void readRows(final String query, final String table, final RowHandler rowHandler) {
+    final String condition = conditions.apply(table);
+    readRows(condition == null ? query : query + " WHERE " + condition, rowHandler);
+  }
+
+  private void readRows(final String query, final RowHandler rowHandler) {
+    try (final Statement statement = connection.createStatement(
+          ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+         final ResultSet resultSet = statement.executeQuery(query)) {
+      while (resultSet.next()) {
+        rowHandler.handle(resultSet);
+      }
+    } catch (final SQLException exception) {
+      logger.error("Exception while reading the database", exception);
+      throw new DataLoadException(exception);
+    }
+  }
+
+  private static Integer getInteger(final ResultSet resultSet, final int column)
+        throws SQLException {
+    final int value = resultSet.getInt(column);
+    return resultSet.wasNull() ? null : value;
+  }
+
+  /**
+   * Timestamps are either stored as UTC text by the database defaults, e.g. 2016-04-27 15:40:18,
+   * or as milliseconds since the epoch. They are read like the
+   * {@link org.hibernate.usertype.SqliteDateTimeType} of the entities does.
+   */
+  private LocalDateTime getDateTime(final ResultSet resultSet, final int column)
+        throws SQLException {
+    final String value = resultSet.getString(column);
+    if (value == null || value.isEmpty()) {
+      return null;
+    }
+    final LocalDateTime dateTime = SqliteTimeStamps.parseToLocal(value);
+    if (dateTime == null) {
+      logger.warn("Unexpected time stamp {}", value);
+    }
+    return dateTime;
+  }
+
+  @Override
+  public void close() {
+    try {
+      connection.close();
+    } catch (final SQLException exception) {
+      logger.error("Exception while closing the database", exception);
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+/**
+ * A small pool of connections to one SQLite database. A fixed number of reader connections is
+ * opened on demand and reused, a caller waits if all of them are leased. All
+ * writes are serialized by {@link #write(Supplier)} on exactly one writer connection, any
+ * connection requested by the thread running a write is the writer connection. This way SQLite
+ * never sees two concurrent writers. In WAL mode readers do not block the writer at all, with a
+ * rollback journal the commit of the writer waits until the running reads have finished, up to
+ * the busy timeout of the {@link SqliteProfile}, so readers must not keep a transaction open for
+ * long.
+ */
+public class SqliteConnectionPool extends AbstractDataSource implements AutoCloseable {
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final DataSource targetDataSource;
+  private final int readerCount;
+  private final Deque<Connection> idleReaders = new ArrayDeque<>();
+  private final ReentrantLock writeLock = new ReentrantLock(true);
+  private int openReaders;
+  private int writerLeases;
+  private Connection writer;
+  private boolean closed;
+
+  /**
+   * Create a pool opening its connections from the given data source.
+   */
+  SqliteConnectionPool(final DataSource targetDataSource, final int readerCount) {
+    this.targetDataSource = targetDataSource;
+    this.readerCount = readerCount;
+  }
+
+  /**
+   * Run the given write on the calling thread while holding the writer connection. Writes of
+   * other threads wait until it has finished, nested writes of the same thread are joined.
+   */
+  public <T> T write(final Supplier<T> write) {
+    writeLock.lock();
+    try {
+      return write.get();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (writeLock.isHeldByCurrentThread()) {
+      return lease(getWriter(), false);
+    }
+    return lease(borrowReader(), true);
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password)
+        throws SQLException {
+    return getConnection();
+  }
+
+  /**
+   * Close all idle connections. Leased connections are closed as soon as they are returned.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    idleReaders.forEach(this::closeQuietly);
+    openReaders -= idleReaders.size();
+    idleReaders.clear();
+    if (writer != null && writerLeases == 0) {
+      closeQuietly(writer);
+      writer = null;
+    }
+    notifyAll();
+  }
+
+  private synchronized Connection getWriter() throws SQLException {
+    checkOpen();
+    if (writer == null) {
+      writer = targetDataSource.getConnection();
+    }
+    writerLeases++;
+    return writer;
+  }
+
+  private synchronized Connection borrowReader() throws SQLException {
+    while (idleReaders.isEmpty() && openReaders >= readerCount) {
+      checkOpen();
+      try {
+        wait();
+      } catch (final InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted while waiting for a connection", exception);
+      }
+    }
+    checkOpen();
+    if (!idleReaders.isEmpty()) {
+      return idleReaders.pop();
+    }
+    final Connection connection = targetDataSource.getConnection();
+    openReaders++;
+    return connection;
+  }
+
+  private synchronized void release(final Connection connection, final boolean reader) {
+    if (!reader && --writerLeases > 0) {
+      // the writer connection is still leased by an enclosing caller of the same write
+      return;
+    }
+    try {
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+    } catch (final SQLException exception) {
+      logger.error("Exception while resetting a pooled connection", exception);
+      closeQuietly(connection);
+      if (reader) {
+        openReaders--;
+        notifyAll();
+      } else {
+        writer = null;
+      }
+      return;
+    }
+    if (!reader) {
+      if (closed) {
+        closeQuietly(connection);
+        writer = null;
+      }
+      return;
+    }
+    if (closed) {
+      closeQuietly(connection);
+      openReaders--;
+    } else {
+      idleReaders.push(connection);
+    }
+    notifyAll();
+  }
+
+  private void checkOpen() throws SQLException {
+    if (closed) {
+      throw new SQLException("The connection pool has been closed");
+    }
+  }
+
+  /**
+   * Wrap the given physical connection, closing the wrapper returns the connection to the pool.
+   */
+  private Connection lease(final Connection connection, final boolean reader) {
+    final boolean[] released = {false};
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+          new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+              case "close":
+                if (!released[0]) {
+                  released[0] = true;
+                  release(connection, reader);
+                }
+                return null;
+              case "isClosed":
+                return released[0] || connection.isClosed();
+              default:
+                if (released[0]) {
+                  throw new SQLException("The connection has been returned to the pool");
+                }
+                try {
+                  return method.invoke(connection, args);
+                } catch (final InvocationTargetException exception) {
+                  throw exception.getCause();
+                }
+            }
+          });
+  }
+
+  private void closeQuietly(final Connection connection) {
+    try {
+      connection.close();
+    } catch (final SQLException exception) {
+      logger.error("Exception while closing a pooled connection", exception);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The pragmas applied to every connection of an opened SQLite database. The {@link #SAFE} preset
+ * keeps the rollback journal and syncs on every commit, the {@link #FAST} preset uses the write
+ * ahead log and only syncs on checkpoints, which is still safe against crashes of the application
+ * and makes each save considerably cheaper.
+ *
+ * <p>With the rollback journal a commit has to wait until no other connection is reading, and
+ * a reader has to wait while a commit is written. Every connection therefore waits up to
+ * {@link #BUSY_TIMEOUT_MILLIS} for the lock instead of failing at once, which is enough since
+ * the editor only reads in short transactions, e.g. one per table, and copies the database
+ * with the step-wise online backup.
+ */
+public final class SqliteProfile {
+
+  static final int BUSY_TIMEOUT_MILLIS = 30_000;
+
+  public static final SqliteProfile SAFE =
+        new SqliteProfile("DELETE", "FULL", -8_000, 0, "DEFAULT");
+  public static final SqliteProfile FAST =
+        new SqliteProfile("WAL", "NORMAL", -64_000, 256L * 1024 * 1024, "MEMORY");
+
+  private final String journalMode;
+  private final String synchronous;
+  private final int cacheSize;
+  private final long mmapSize;
+  private final String tempStore;
+
+  private SqliteProfile(final String journalMode, final String synchronous, final int cacheSize,
+                        final long mmapSize, final String tempStore) {
+    this.journalMode = journalMode;
+    this.synchronous = synchronous;
+    this.cacheSize = cacheSize;
+    this.mmapSize = mmapSize;
+    this.tempStore = tempStore;
+  }
+
+  /**
+   * Get a copy of this profile using the given cache size. A negative value is the size in KiB, a
+   * positive one the number of pages.
+   */
+  public SqliteProfile withCacheSize(final int cacheSize) {
+    return new SqliteProfile(journalMode, synchronous, cacheSize, mmapSize, tempStore);
+  }
+
+  /**
+   * Get a copy of this profile using the given size in bytes of memory mapped I/O, 0 disables it.
+   */
+  public SqliteProfile withMmapSize(final long mmapSize) {
+    return new SqliteProfile(journalMode, synchronous, cacheSize, mmapSize, tempStore);
+  }
+
+  /**
+   * Get the pragma statements to execute on each new connection.
+   */
+  List<String> getPragmas() {
+    return Arrays.asList(
+          "PRAGMA journal_mode = " + journalMode,
+          "PRAGMA synchronous = " + synchronous,
+          "PRAGMA cache_size = " + cacheSize,
+          "PRAGMA mmap_size = " + mmapSize,
+          "PRAGMA temp_store = " + tempStore,
+          "PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+  }
+
+  public String getJournalMode() {
+    return journalMode;
+  }
+
+  public String getSynchronous() {
+    return synchronous;
+  }
+
+  public int getCacheSize() {
+    return cacheSize;
+  }
+
+  public long getMmapSize() {
+    return mmapSize;
+  }
+
+  public String getTempStore() {
+    return tempStore;
+  }
+}
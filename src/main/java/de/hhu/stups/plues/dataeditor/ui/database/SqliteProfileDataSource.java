@@ -0,0 +1,48 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * A data source applying the pragmas of a {@link SqliteProfile} to every connection it opens.
+ */
+class SqliteProfileDataSource extends DelegatingDataSource {
+
+  private final SqliteProfile sqliteProfile;
+
+  SqliteProfileDataSource(final DataSource targetDataSource, final SqliteProfile sqliteProfile) {
+    super(targetDataSource);
+    this.sqliteProfile = sqliteProfile;
+  }
+
+  SqliteProfile getSqliteProfile() {
+    return sqliteProfile;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return configure(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password)
+        throws SQLException {
+    return configure(super.getConnection(username, password));
+  }
+
+  private Connection configure(final Connection connection) throws SQLException {
+    try (final Statement statement = connection.createStatement()) {
+      for (final String pragma : sqliteProfile.getPragmas()) {
+        statement.execute(pragma);
+      }
+    } catch (final SQLException exception) {
+      connection.close();
+      throw exception;
+    }
+    return connection;
+  }
+}
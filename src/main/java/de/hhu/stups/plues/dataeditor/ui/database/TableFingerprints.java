@@ -0,0 +1,112 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataLoadException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+/**
+ * Fingerprints of the tables read by the incremental refresh of the {@link DataService}, each
+ * computed by a single aggregate query inside SQLite. A fingerprint consists of the number of
+ * rows, the largest rowid and a checksum of the ids and relation columns weighted by the rowid, so
+ * that inserted and deleted rows as well as changed relations change it. The ids and relations of
+ * a table are only read again if its fingerprint has changed. Columns updated in place are found
+ * by their updated_at timestamp instead, see {@link LoadState}.
+ */
+final class TableFingerprints {
+
+  // the columns of each table that are part of its checksum
+  static final Map<String, List<String>> TABLES;
+
+  static {
+    final Map<String, List<String>> tables = new LinkedHashMap<>();
+    tables.put("courses", Collections.singletonList("id"));
+    tables.put("levels", Arrays.asList("id", "parent_id"));
+    tables.put("modules", Collections.singletonList("id"));
+    tables.put("abstract_units", Collections.singletonList("id"));
+    tables.put("units", Collections.singletonList("id"));
+    tables.put("groups", Arrays.asList("id", "unit_id"));
+    tables.put("sessions", Arrays.asList("id", "group_id"));
+    tables.put("module_levels", Arrays.asList("module_id", "level_id", "course_id"));
+    tables.put("modules_abstract_units_types", Arrays.asList("module_id", "abstract_unit_id"));
+    tables.put("unit_abstract_unit", Arrays.asList("unit_id", "abstract_unit_id"));
+    tables.put("minors", Arrays.asList("course_id", "minor_course_id"));
+    tables.put("course_levels", Arrays.asList("course_id", "level_id"));
+    tables.put("unit_semester", Arrays.asList("unit_id", "semester"));
+    TABLES = Collections.unmodifiableMap(tables);
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(TableFingerprints.class);
+
+  private final Map<String, List<Object>> fingerprints;
+
+  private TableFingerprints(final Map<String, List<Object>> fingerprints) {
+    this.fingerprints = fingerprints;
+  }
+
+  /**
+   * Get fingerprints matching no table, so that all tables count as changed.
+   */
+  static TableFingerprints none() {
+    return new TableFingerprints(Collections.emptyMap());
+  }
+
+  /**
+   * Read the fingerprints of all tables from the given data source.
+   */
+  static TableFingerprints read(final DataSource dataSource) {
+    final Map<String, List<Object>> fingerprints = new HashMap<>();
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement()) {
+      for (final Map.Entry<String, List<String>> table : TABLES.entrySet()) {
+        try (final ResultSet resultSet =
+                 statement.executeQuery(getQuery(table.getKey(), table.getValue()))) {
+          resultSet.next();
+          fingerprints.put(table.getKey(), Arrays.asList(
+              resultSet.getLong(1), resultSet.getLong(2), resultSet.getDouble(3)));
+        }
+      }
+    } catch (final SQLException exception) {
+      logger.error("Exception while reading the fingerprints of the tables", exception);
+      throw new DataLoadException(exception);
+    }
+    return new TableFingerprints(fingerprints);
+  }
+
+  /**
+   * Get the names of the tables whose fingerprint differs from the given previous one.
+   */
+  Set<String> changedSince(final TableFingerprints previous) {
+    return TABLES.keySet().stream()
+        .filter(table -> !fingerprints.get(table).equals(previous.fingerprints.get(table)))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Weight each column by the rowid and its position, so that moving a value to another row or
+   * column changes the checksum. The checksum is summed up as a floating point number by total(),
+   * which in contrast to sum() never fails with an integer overflow.
+   */
+  private static String getQuery(final String table, final List<String> columns) {
+    final StringJoiner checksum = new StringJoiner(" + ", "total(", ")");
+    for (int column = 0; column < columns.size(); column++) {
+      checksum.add("coalesce(" + columns.get(column) + ", -1) * (rowid * "
+          + (columns.size() + 1) + " + " + (column + 1) + ")");
+    }
+    return "SELECT count(*), max(rowid), " + checksum + " FROM " + table;
+  }
+}
@@ -0,0 +1,17 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+/**
+ * A view that prepares its content for a newly loaded database off the JavaFX application thread.
+ * Registered at the {@link DataService} and called during {@link LoadStage#BUILD_TREE}.
+ */
+@FunctionalInterface
+public interface ViewModelBuilder {
+
+  /**
+   * Build the view model for the given wrappers without touching the scene graph.
+   *
+   * @return the action installing the view model, which is run on the JavaFX application thread
+   *     when the loaded data is published.
+   */
+  Runnable build(EntitySnapshot snapshot);
+}
@@ -0,0 +1,94 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataLoadException;
+import de.hhu.stups.plues.dataeditor.exceptions.DataSaveException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A temporary copy of an opened database. The copy is created and written back using the online
+ * backup API of SQLite, so that all edits only touch the copy until the user saves them. Unsaved
+ * changes are discarded by simply deleting the copy.
+ */
+class WorkingCopy {
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final File dbFile;
+  private final File copyFile;
+
+  private WorkingCopy(final File dbFile, final File copyFile) {
+    this.dbFile = dbFile;
+    this.copyFile = copyFile;
+  }
+
+  /**
+   * Copy the given database into a new temporary file.
+   */
+  static WorkingCopy create(final File dbFile) {
+    final File copyFile;
+    try {
+      copyFile = Files.createTempFile("plues-", ".sqlite3").toFile();
+      copyFile.deleteOnExit();
+    } catch (final IOException exception) {
+      throw new DataLoadException(exception);
+    }
+    final WorkingCopy workingCopy = new WorkingCopy(dbFile, copyFile);
+    final SQLiteDataSource dataSource = new SQLiteDataSource();
+    dataSource.setUrl("jdbc:sqlite:" + copyFile.getAbsolutePath());
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement()) {
+      statement.executeUpdate("restore from " + quote(dbFile));
+    } catch (final SQLException exception) {
+      workingCopy.delete();
+      throw new DataLoadException(exception);
+    }
+    return workingCopy;
+  }
+
+  /**
+   * Write the working copy back to the original database using the given connection to the copy.
+   */
+  void save(final Connection connection) {
+    try (final Statement statement = connection.createStatement()) {
+      statement.executeUpdate("backup to " + quote(dbFile));
+    } catch (final SQLException exception) {
+      logger.error("Exception while saving the working copy to " + dbFile, exception);
+      throw new DataSaveException(exception);
+    }
+  }
+
+  /**
+   * Delete the temporary file and thereby discard all unsaved changes.
+   */
+  void delete() {
+    try {
+      Files.deleteIfExists(copyFile.toPath());
+    } catch (final IOException exception) {
+      // the file is still deleted on exit
+      logger.warn("Could not delete the working copy " + copyFile, exception);
+    }
+  }
+
+  File getDbFile() {
+    return dbFile;
+  }
+
+  File getCopyFile() {
+    return copyFile;
+  }
+
+  /**
+   * The path of the given file as an SQL string literal, e.g. for the backup commands of SQLite.
+   */
+  static String quote(final File file) {
+    return "'" + file.getAbsolutePath().replace("'", "''") + "'";
+  }
+}
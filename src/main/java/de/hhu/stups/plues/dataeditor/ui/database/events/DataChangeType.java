@@ -1,7 +1,8 @@
 package de.hhu.stups.plues.dataeditor.ui.database.events;
 
 public enum DataChangeType {
-  CHANGE_ENTITY, NEW_ENTITY, STORE_ENTITY, DELETE_ENTITY, RELOAD_DB, INSERT_NEW_ENTITY;
+  CHANGE_ENTITY, NEW_ENTITY, STORE_ENTITY, DELETE_ENTITY, RELOAD_DB, INSERT_NEW_ENTITY,
+  REFRESH_ENTITY, REMOVE_ENTITY;
 
   public boolean reloadDb() {
     return this.equals(RELOAD_DB);
@@ -22,4 +23,20 @@ public enum DataChangeType {
   public boolean deleteEntity() {
     return this.equals(DELETE_ENTITY);
   }
+
+  /**
+   * The entity has been changed or added in the database outside of the editor and has been
+   * refreshed, it must not be stored again.
+   */
+  public boolean refreshEntity() {
+    return this.equals(REFRESH_ENTITY);
+  }
+
+  /**
+   * The entity has been deleted from the database outside of the editor and has been removed, it
+   * must not be deleted again.
+   */
+  public boolean removeEntity() {
+    return this.equals(REMOVE_ENTITY);
+  }
 }
@@ -1,5 +1,5 @@
 package de.hhu.stups.plues.dataeditor.ui.database.events;
 
 public enum DbEventType {
-  UPDATE_DB, LOAD_DB, CLOSE_DB
+  UPDATE_DB, LOAD_DB, CLOSE_DB, EXTERNAL_CHANGE
 }
@@ -0,0 +1,26 @@
+package de.hhu.stups.plues.dataeditor.ui.database.events;
+
+import java.io.File;
+
+public class ExternalChangeDbEvent implements DbEvent {
+
+  private static final DbEventType eventType = DbEventType.EXTERNAL_CHANGE;
+
+  private final File dbFile;
+
+  /**
+   * The given database file has been changed by another process, e.g. by a batch script.
+   */
+  public ExternalChangeDbEvent(final File dbFile) {
+    this.dbFile = dbFile;
+  }
+
+  public File getDbFile() {
+    return dbFile;
+  }
+
+  @Override
+  public DbEventType getEventType() {
+    return eventType;
+  }
+}
@@ -1,5 +1,7 @@
 package de.hhu.stups.plues.dataeditor.ui.database.events;
 
+import de.hhu.stups.plues.dataeditor.ui.database.SqliteProfile;
+
 import java.io.File;
 
 public class LoadDbEvent implements DbEvent {
@@ -7,15 +9,29 @@ public class LoadDbEvent implements DbEvent {
   private static final DbEventType eventType = DbEventType.LOAD_DB;
 
   private final File dbFile;
+  private final SqliteProfile sqliteProfile;
 
   public LoadDbEvent(final File dbFile) {
+    this(dbFile, null);
+  }
+
+  /**
+   * Load the given database file using the given {@link SqliteProfile}, or the default profile of
+   * the {@link de.hhu.stups.plues.dataeditor.ui.database.DbService} if it is null.
+   */
+  public LoadDbEvent(final File dbFile, final SqliteProfile sqliteProfile) {
     this.dbFile = dbFile;
+    this.sqliteProfile = sqliteProfile;
   }
 
   public File getDbFile() {
     return dbFile;
   }
 
+  public SqliteProfile getSqliteProfile() {
+    return sqliteProfile;
+  }
+
   @Override
   public DbEventType getEventType() {
     return eventType;
@@ -0,0 +1,186 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataImportException;
+import de.hhu.stups.plues.dataeditor.ui.database.DataService;
+import de.hhu.stups.plues.dataeditor.ui.database.DbService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+/**
+ * The second pass of an import writing the validated rows. The rows are collected in chunks which
+ * are written with JDBC batches in one transaction each on the writer connection of the
+ * {@link DbService}, so that edits can continue between two chunks. The ids of the entity tables
+ * are reserved through the {@link DataService}: the largest id given in the import is skipped and
+ * rows without an id get the next id of the new entities. In the other tables rows without an id
+ * get the next id after the largest id in the database and the import. Rows are never replaced,
+ * the given ids have been checked by the {@link ValidatingTableWriter}. If a chunk still fails,
+ * e.g. by a row another process has stored in the meantime, the exception reports the rows of
+ * each table that have already been committed.
+ */
+class BatchTableWriter implements TableWriter {
+
+  private static final int CHUNK_ROWS = 10_000;
+  private static final int BATCH_ROWS = 1_000;
+
+  private final DbService dbService;
+  private final DataService dataService;
+  private final DataSource dataSource;
+  private final Map<String, TableSchema> schemas;
+  private final Map<String, Long> maxIds;
+  private final LongConsumer progress;
+  private final Map<String, Long> nextIds = new HashMap<>();
+  private final List<Object[]> chunk = new ArrayList<>();
+  private final Map<String, Long> committedRows = new LinkedHashMap<>();
+  private long writtenRows;
+  private TableSchema schema;
+  private List<String> columns;
+  private List<String> insertColumns;
+  private int idIndex;
+
+  BatchTableWriter(final DbService dbService, final DataService dataService,
+                   final DataSource dataSource, final Map<String, TableSchema> schemas,
+                   final Map<String, Long> maxIds, final LongConsumer progress) {
+    this.dbService = dbService;
+    this.dataService = dataService;
+    this.dataSource = dataSource;
+    this.schemas = schemas;
+    this.maxIds = maxIds;
+    this.progress = progress;
+  }
+
+  @Override
+  public void startDatabase() {
+  }
+
+  @Override
+  public void startTable(final String table, final List<String> columns) {
+    schema = schemas.get(table);
+    this.columns = columns;
+    insertColumns = new ArrayList<>(columns);
+    final String idColumn = schema.getIdColumn();
+    if (idColumn != null && !insertColumns.contains(idColumn)) {
+      insertColumns.add(idColumn);
+    }
+    idIndex = idColumn == null ? -1 : insertColumns.indexOf(idColumn);
+    if (maxIds.containsKey(table)) {
+      dataService.reserveIds(table, maxIds.get(table));
+    }
+  }
+
+  @Override
+  public void writeRow(final Object[] values) {
+    final Object[] row = new Object[insertColumns.size()];
+    for (int i = 0; i < values.length; i++) {
+      row[i] = schema.convert(columns.get(i), values[i]);
+    }
+    if (idIndex >= 0 && row[idIndex] == null) {
+      row[idIndex] = nextId();
+    }
+    chunk.add(row);
+    if (chunk.size() >= CHUNK_ROWS) {
+      flush();
+    }
+  }
+
+  @Override
+  public void endTable() {
+    flush();
+    schema = null;
+  }
+
+  @Override
+  public void endDatabase() {
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private long nextId() {
+    final String table = schema.getTable();
+    final OptionalInt entityId = dataService.nextId(table);
+    if (entityId.isPresent()) {
+      return entityId.getAsInt();
+    }
+    final long nextId = nextIds.computeIfAbsent(table, key ->
+          Math.max(queryMaxId(), maxIds.getOrDefault(table, 0L)) + 1);
+    nextIds.put(table, nextId + 1);
+    return nextId;
+  }
+
+  private long queryMaxId() {
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement();
+         final ResultSet resultSet = statement.executeQuery(
+               "SELECT coalesce(max(" + ExportTask.quote(schema.getIdColumn()) + "), 0) FROM "
+                     + ExportTask.quote(schema.getTable()))) {
+      return resultSet.next() ? resultSet.getLong(1) : 0;
+    } catch (final SQLException exception) {
+      throw new DataImportException(exception);
+    }
+  }
+
+  private String describeCommittedRows() {
+    if (committedRows.isEmpty()) {
+      return "no rows have been committed";
+    }
+    return "rows already committed: " + committedRows.entrySet().stream()
+          .map(entry -> entry.getValue() + " of table " + entry.getKey())
+          .collect(Collectors.joining(", "));
+  }
+
+  private void flush() {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    final String insert = "INSERT INTO " + ExportTask.quote(schema.getTable())
+          + " (" + insertColumns.stream().map(ExportTask::quote).collect(Collectors.joining(", "))
+          + ") VALUES (" + insertColumns.stream().map(column -> "?")
+          .collect(Collectors.joining(", ")) + ")";
+    dbService.write(dataSource, () -> {
+      try (final Connection connection = dataSource.getConnection()) {
+        connection.setAutoCommit(false);
+        try (final PreparedStatement statement = connection.prepareStatement(insert)) {
+          int batchRows = 0;
+          for (final Object[] row : chunk) {
+            for (int i = 0; i < row.length; i++) {
+              statement.setObject(i + 1, row[i]);
+            }
+            statement.addBatch();
+            if (++batchRows % BATCH_ROWS == 0) {
+              statement.executeBatch();
+            }
+          }
+          statement.executeBatch();
+          connection.commit();
+        } catch (final SQLException exception) {
+          connection.rollback();
+          throw exception;
+        } finally {
+          connection.setAutoCommit(true);
+        }
+      } catch (final SQLException exception) {
+        throw new DataImportException("Importing table " + schema.getTable() + " failed, "
+              + describeCommittedRows() + ": " + exception.getMessage(), exception);
+      }
+      return null;
+    });
+    committedRows.merge(schema.getTable(), (long) chunk.size(), Long::sum);
+    writtenRows += chunk.size();
+    chunk.clear();
+    progress.accept(writtenRows);
+  }
+}
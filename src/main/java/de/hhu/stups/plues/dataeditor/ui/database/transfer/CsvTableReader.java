@@ -0,0 +1,116 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataImportException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read a single table from a CSV file. The first line contains the column names, an empty field
+ * that is not quoted is NULL. Fields may be quoted with double quotes and contain line breaks.
+ */
+class CsvTableReader implements TableReader {
+
+  private final Reader reader;
+  private final String table;
+  private int next = -2;
+
+  CsvTableReader(final Reader reader, final String table) {
+    this.reader = reader;
+    this.table = table;
+  }
+
+  @Override
+  public void read(final TableWriter tableWriter) throws IOException {
+    final List<Object> header = readLine();
+    if (header == null) {
+      return;
+    }
+    final List<String> columns = new ArrayList<>();
+    header.forEach(column -> columns.add(String.valueOf(column)));
+    tableWriter.startDatabase();
+    tableWriter.startTable(table, columns);
+    final Object[] values = new Object[columns.size()];
+    long line = 1;
+    List<Object> fields;
+    while ((fields = readLine()) != null) {
+      line++;
+      if (fields.size() != values.length) {
+        throw new DataImportException("Expected " + values.length + " fields but found "
+              + fields.size() + " in line " + line + " of " + table);
+      }
+      Arrays.fill(values, null);
+      fields.toArray(values);
+      tableWriter.writeRow(values);
+    }
+    tableWriter.endTable();
+    tableWriter.endDatabase();
+  }
+
+  /**
+   * Read the fields of the next line or null at the end of the file.
+   */
+  private List<Object> readLine() throws IOException {
+    if (peek() == -1) {
+      return null;
+    }
+    final List<Object> fields = new ArrayList<>();
+    while (true) {
+      fields.add(readField());
+      final int character = read();
+      if (character == ',') {
+        continue;
+      }
+      if (character == '\r' && peek() == '\n') {
+        read();
+      }
+      return fields;
+    }
+  }
+
+  private Object readField() throws IOException {
+    if (peek() != '"') {
+      final StringBuilder field = new StringBuilder();
+      while (peek() != ',' && peek() != '\n' && peek() != '\r' && peek() != -1) {
+        field.append((char) read());
+      }
+      return field.length() == 0 ? null : field.toString();
+    }
+    read();
+    final StringBuilder field = new StringBuilder();
+    while (true) {
+      final int character = read();
+      if (character == -1) {
+        throw new DataImportException("Unterminated quoted field in " + table);
+      }
+      if (character == '"') {
+        if (peek() != '"') {
+          return field.toString();
+        }
+        read();
+      }
+      field.append((char) character);
+    }
+  }
+
+  private int peek() throws IOException {
+    if (next == -2) {
+      next = reader.read();
+    }
+    return next;
+  }
+
+  private int read() throws IOException {
+    final int character = peek();
+    next = -2;
+    return character;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
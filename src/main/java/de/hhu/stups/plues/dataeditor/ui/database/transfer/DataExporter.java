@@ -0,0 +1,46 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.ui.database.DbService;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.concurrent.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+
+/**
+ * Export the current database to XML or JSON files on the background worker of the
+ * {@link DbService}.
+ */
+@Component
+public class DataExporter {
+
+  private static final int DEFAULT_FETCH_SIZE = 1000;
+
+  private final DbService dbService;
+  private final IntegerProperty fetchSizeProperty;
+
+  @Autowired
+  public DataExporter(final DbService dbService) {
+    this.dbService = dbService;
+    fetchSizeProperty = new SimpleIntegerProperty(DEFAULT_FETCH_SIZE);
+  }
+
+  /**
+   * Export all tables of the current database to the given file in the given format.
+   */
+  public Task<Void> export(final File target, final ExportFormat format) {
+    final Task<Void> exportTask = new ExportTask(dbService.dataSourceProperty().get(), target,
+          format, fetchSizeProperty.get());
+    dbService.submitBackgroundTask(exportTask);
+    return exportTask;
+  }
+
+  /**
+   * The number of rows fetched at once by the cursors of an export.
+   */
+  public IntegerProperty fetchSizeProperty() {
+    return fetchSizeProperty;
+  }
+}
@@ -0,0 +1,47 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.ui.database.DataService;
+import de.hhu.stups.plues.dataeditor.ui.database.DbService;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Import XML, JSON or CSV files in the shape written by the {@link DataExporter} into the current
+ * database on the background worker of the {@link DbService}.
+ */
+@Component
+public class DataImporter {
+
+  private final DbService dbService;
+  private final DataService dataService;
+
+  @Autowired
+  public DataImporter(final DbService dbService, final DataService dataService) {
+    this.dbService = dbService;
+    this.dataService = dataService;
+  }
+
+  /**
+   * Import the given files and reload the data afterwards. Nothing is written if any row of the
+   * files is invalid or gives an id twice or an id that is already stored. The chunks written
+   * before a cancel or a failure, e.g. by a row another process has stored in the meantime, are
+   * kept and the exception of a failure reports them.
+   */
+  public Task<Void> importFiles(final List<File> files) {
+    final Task<Void> importTask = new ImportTask(dbService, dataService, files);
+    // chunks that have been written before a failure or a cancel are shown as well
+    importTask.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED,
+          event -> dataService.reloadData());
+    importTask.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED,
+          event -> dataService.reloadData());
+    importTask.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED,
+          event -> dataService.reloadData());
+    dbService.submitBackgroundTask(importTask);
+    return importTask;
+  }
+}
@@ -0,0 +1,31 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+/**
+ * The file formats supported by the {@link DataExporter}.
+ */
+public enum ExportFormat {
+  XML("xml"), JSON("json");
+
+  private final String extension;
+
+  ExportFormat(final String extension) {
+    this.extension = extension;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Get the format of the given file name by its extension, defaults to {@link #XML}.
+   */
+  public static ExportFormat ofFileName(final String fileName) {
+    final String lowerCaseName = fileName.toLowerCase();
+    for (final ExportFormat format : values()) {
+      if (lowerCaseName.endsWith("." + format.extension)) {
+        return format;
+      }
+    }
+    return XML;
+  }
+}
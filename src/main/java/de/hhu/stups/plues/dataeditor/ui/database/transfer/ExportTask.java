@@ -0,0 +1,184 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import javafx.concurrent.Task;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * Stream all tables of a database to a file. Each table is read with a forward-only cursor and
+ * every row is written as soon as it has been read, so that neither entities nor wrappers are
+ * created and the memory used does not depend on the size of the database. The tables are read
+ * from a temporary copy taken with the online backup API of SQLite, so that they form a
+ * consistent snapshot without keeping a transaction open on the database while the file is
+ * written. The file is written next to the target and only moved in place once the export has
+ * succeeded, a cancelled or failed export leaves the target untouched.
+ */
+class ExportTask extends Task<Void> {
+
+  private static final String TABLES = "SELECT name FROM sqlite_master "
+        + "WHERE type = 'table' AND name NOT LIKE 'sqlite_%' ORDER BY name";
+  private static final int PROGRESS_INTERVAL = 1000;
+
+  private final DataSource dataSource;
+  private final File target;
+  private final ExportFormat format;
+  private final int fetchSize;
+
+  ExportTask(final DataSource dataSource, final File target, final ExportFormat format,
+             final int fetchSize) {
+    this.dataSource = dataSource;
+    this.target = target;
+    this.format = format;
+    this.fetchSize = fetchSize;
+  }
+
+  @Override
+  protected Void call() throws Exception {
+    updateMessage("exportingDb");
+    final File snapshot = Files.createTempFile("plues-export-", ".sqlite3").toFile();
+    try {
+      copyDatabase(snapshot);
+      if (!isCancelled()) {
+        exportSnapshot(snapshot);
+      }
+    } finally {
+      Files.deleteIfExists(snapshot.toPath());
+    }
+    return null;
+  }
+
+  private void exportSnapshot(final File snapshot) throws SQLException, IOException {
+    final File partialTarget = File.createTempFile("." + target.getName() + "-", ".part",
+          target.getAbsoluteFile().getParentFile());
+    try {
+      final SQLiteDataSource snapshotDataSource = new SQLiteDataSource();
+      snapshotDataSource.setUrl("jdbc:sqlite:" + snapshot.getAbsolutePath());
+      try (final Connection connection = snapshotDataSource.getConnection();
+           final TableWriter tableWriter = createTableWriter(partialTarget)) {
+        export(connection, tableWriter);
+      }
+      if (!isCancelled()) {
+        moveInPlace(partialTarget);
+      }
+    } finally {
+      Files.deleteIfExists(partialTarget.toPath());
+    }
+  }
+
+  /**
+   * Copy the database to the given file. The backup API copies a few pages at a time, so that
+   * the writer of the editor is never blocked for long.
+   */
+  private void copyDatabase(final File snapshot) throws SQLException {
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement()) {
+      statement.executeUpdate("backup to " + quote(snapshot));
+    }
+  }
+
+  private void moveInPlace(final File partialTarget) throws IOException {
+    try {
+      Files.move(partialTarget.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    } catch (final AtomicMoveNotSupportedException exception) {
+      Files.move(partialTarget.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private void export(final Connection connection, final TableWriter tableWriter)
+        throws SQLException, IOException {
+    final Map<String, Long> rowCounts = countRows(connection);
+    final long totalRows = Math.max(1, rowCounts.values().stream().mapToLong(Long::longValue)
+          .sum());
+    long writtenRows = 0;
+    tableWriter.startDatabase();
+    for (final String table : rowCounts.keySet()) {
+      try (final Statement statement = connection.createStatement(
+            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+        statement.setFetchSize(fetchSize);
+        try (final ResultSet resultSet = statement.executeQuery(
+              "SELECT * FROM " + quote(table))) {
+          final ResultSetMetaData metaData = resultSet.getMetaData();
+          final List<String> columns = new ArrayList<>();
+          for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(metaData.getColumnName(i));
+          }
+          tableWriter.startTable(table, columns);
+          final Object[] values = new Object[columns.size()];
+          while (resultSet.next()) {
+            if (isCancelled()) {
+              return;
+            }
+            for (int i = 0; i < values.length; i++) {
+              values[i] = resultSet.getObject(i + 1);
+            }
+            tableWriter.writeRow(values);
+            if (++writtenRows % PROGRESS_INTERVAL == 0) {
+              updateProgress(writtenRows, totalRows);
+            }
+          }
+          tableWriter.endTable();
+        }
+      }
+    }
+    tableWriter.endDatabase();
+    updateProgress(totalRows, totalRows);
+  }
+
+  private Map<String, Long> countRows(final Connection connection) throws SQLException {
+    final Map<String, Long> rowCounts = new LinkedHashMap<>();
+    try (final Statement statement = connection.createStatement()) {
+      final List<String> tables = new ArrayList<>();
+      try (final ResultSet resultSet = statement.executeQuery(TABLES)) {
+        while (resultSet.next()) {
+          tables.add(resultSet.getString(1));
+        }
+      }
+      for (final String table : tables) {
+        try (final ResultSet resultSet =
+                   statement.executeQuery("SELECT count(*) FROM " + quote(table))) {
+          rowCounts.put(table, resultSet.next() ? resultSet.getLong(1) : 0);
+        }
+      }
+    }
+    return rowCounts;
+  }
+
+  private TableWriter createTableWriter(final File file) throws IOException {
+    final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+    if (ExportFormat.JSON.equals(format)) {
+      return new JsonTableWriter(
+            new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+    }
+    return new XmlTableWriter(outputStream);
+  }
+
+  static String quote(final String identifier) {
+    return "\"" + identifier.replace("\"", "\"\"") + "\"";
+  }
+
+  private static String quote(final File file) {
+    return "'" + file.getAbsolutePath().replace("'", "''") + "'";
+  }
+}
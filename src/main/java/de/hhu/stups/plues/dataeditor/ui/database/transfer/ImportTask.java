@@ -0,0 +1,102 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataImportException;
+import de.hhu.stups.plues.dataeditor.ui.database.DataService;
+import de.hhu.stups.plues.dataeditor.ui.database.DbService;
+import javafx.concurrent.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * Import the tables of XML, JSON or CSV files in two streaming passes. The first pass validates
+ * all rows against the schema of the database and the given ids against the stored ones, the
+ * second one writes them using a {@link BatchTableWriter}. A CSV file contains a single table
+ * named like the file.
+ */
+class ImportTask extends Task<Void> {
+
+  private final DbService dbService;
+  private final DataService dataService;
+  private final List<File> files;
+
+  ImportTask(final DbService dbService, final DataService dataService, final List<File> files) {
+    this.dbService = dbService;
+    this.dataService = dataService;
+    this.files = new ArrayList<>(files);
+  }
+
+  @Override
+  protected Void call() throws Exception {
+    final DataSource dataSource = dbService.dataSourceProperty().get();
+    final Map<String, TableSchema> schemas;
+    try (final Connection connection = dataSource.getConnection()) {
+      schemas = TableSchema.load(connection);
+    }
+    updateMessage("validatingImport");
+    final ValidatingTableWriter validator = new ValidatingTableWriter(schemas);
+    for (final File file : files) {
+      if (isCancelled()) {
+        return null;
+      }
+      try (final TableReader tableReader = createTableReader(file, schemas)) {
+        tableReader.read(validator);
+      }
+    }
+    try (final Connection connection = dataSource.getConnection()) {
+      validator.checkIds(connection);
+    }
+    updateMessage("importingDb");
+    final long totalRows = Math.max(1, validator.getRows());
+    final BatchTableWriter batchTableWriter = new BatchTableWriter(dbService, dataService,
+          dataSource, schemas, validator.getMaxIds(),
+          writtenRows -> updateProgress(writtenRows, totalRows));
+    for (final File file : files) {
+      if (isCancelled()) {
+        return null;
+      }
+      try (final TableReader tableReader = createTableReader(file, schemas)) {
+        tableReader.read(batchTableWriter);
+      }
+    }
+    updateProgress(totalRows, totalRows);
+    return null;
+  }
+
+  private static TableReader createTableReader(final File file,
+                                               final Map<String, TableSchema> schemas)
+        throws IOException {
+    final String fileName = file.getName();
+    final int extension = fileName.lastIndexOf('.');
+    final String suffix = extension < 0 ? "" : fileName.substring(extension + 1).toLowerCase();
+    switch (suffix) {
+      case "xml":
+        return new XmlTableReader(new BufferedInputStream(new FileInputStream(file)), table -> {
+          final TableSchema schema = schemas.get(table);
+          if (schema == null) {
+            throw new DataImportException("Unknown table " + table);
+          }
+          return schema.getColumns();
+        });
+      case "json":
+        return new JsonTableReader(new BufferedReader(
+              new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)));
+      case "csv":
+        return new CsvTableReader(new BufferedReader(
+              new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)),
+              fileName.substring(0, extension));
+      default:
+        throw new DataImportException("Unsupported file " + fileName);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataImportException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read tables written by the {@link JsonTableWriter} with a small pull parser. Only the document
+ * structure of the writer is supported, i.e. the name and the columns of each table have to be
+ * given before its rows. Numbers and booleans are passed as text like strings.
+ */
+class JsonTableReader implements TableReader {
+
+  private final Reader reader;
+  private int next = -2;
+
+  JsonTableReader(final Reader reader) {
+    this.reader = reader;
+  }
+
+  @Override
+  public void read(final TableWriter tableWriter) throws IOException {
+    expect('{');
+    expectKey("tables");
+    expect('[');
+    tableWriter.startDatabase();
+    if (!tryConsume(']')) {
+      do {
+        readTable(tableWriter);
+      } while (tryConsume(','));
+      expect(']');
+    }
+    expect('}');
+    tableWriter.endDatabase();
+  }
+
+  private void readTable(final TableWriter tableWriter) throws IOException {
+    expect('{');
+    expectKey("name");
+    final String table = readString();
+    expect(',');
+    expectKey("columns");
+    final List<String> columns = new ArrayList<>();
+    expect('[');
+    if (!tryConsume(']')) {
+      do {
+        columns.add(readString());
+      } while (tryConsume(','));
+      expect(']');
+    }
+    expect(',');
+    expectKey("rows");
+    tableWriter.startTable(table, columns);
+    final Object[] values = new Object[columns.size()];
+    expect('[');
+    if (!tryConsume(']')) {
+      do {
+        expect('[');
+        for (int i = 0; i < values.length; i++) {
+          if (i > 0) {
+            expect(',');
+          }
+          values[i] = readValue();
+        }
+        expect(']');
+        tableWriter.writeRow(values);
+      } while (tryConsume(','));
+      expect(']');
+    }
+    expect('}');
+    tableWriter.endTable();
+  }
+
+  private void expectKey(final String key) throws IOException {
+    final String actualKey = readString();
+    if (!key.equals(actualKey)) {
+      throw new DataImportException("Expected the key " + key + " but found " + actualKey);
+    }
+    expect(':');
+  }
+
+  private String readValue() throws IOException {
+    skipWhitespace();
+    if (peek() == '"') {
+      return readString();
+    }
+    final StringBuilder literal = new StringBuilder();
+    while (peek() != -1 && peek() != ',' && peek() != ']' && peek() != '}'
+          && !Character.isWhitespace(peek())) {
+      literal.append((char) read());
+    }
+    final String value = literal.toString();
+    if (value.isEmpty()) {
+      throw new DataImportException("Expected a value");
+    }
+    return "null".equals(value) ? null : value;
+  }
+
+  private String readString() throws IOException {
+    expect('"');
+    final StringBuilder value = new StringBuilder();
+    while (true) {
+      final int character = read();
+      if (character == -1) {
+        throw new DataImportException("Unterminated string");
+      }
+      if (character == '"') {
+        return value.toString();
+      }
+      if (character != '\\') {
+        value.append((char) character);
+        continue;
+      }
+      final int escaped = read();
+      switch (escaped) {
+        case 'n':
+          value.append('\n');
+          break;
+        case 'r':
+          value.append('\r');
+          break;
+        case 't':
+          value.append('\t');
+          break;
+        case 'b':
+          value.append('\b');
+          break;
+        case 'f':
+          value.append('\f');
+          break;
+        case 'u':
+          final char[] hex = new char[4];
+          for (int i = 0; i < hex.length; i++) {
+            hex[i] = (char) read();
+          }
+          value.append((char) Integer.parseInt(new String(hex), 16));
+          break;
+        default:
+          value.append((char) escaped);
+      }
+    }
+  }
+
+  private void expect(final char expected) throws IOException {
+    if (!tryConsume(expected)) {
+      throw new DataImportException("Expected '" + expected + "' but found "
+            + (peek() == -1 ? "the end of the file" : "'" + (char) peek() + "'"));
+    }
+  }
+
+  private boolean tryConsume(final char expected) throws IOException {
+    skipWhitespace();
+    if (peek() == expected) {
+      read();
+      return true;
+    }
+    return false;
+  }
+
+  private void skipWhitespace() throws IOException {
+    while (peek() != -1 && Character.isWhitespace(peek())) {
+      read();
+    }
+  }
+
+  private int peek() throws IOException {
+    if (next == -2) {
+      next = reader.read();
+    }
+    return next;
+  }
+
+  private int read() throws IOException {
+    final int character = peek();
+    next = -2;
+    return character;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,118 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Write the tables as JSON. The rows of each table are arrays in the order of its columns, e.g.
+ * {@code {"tables":[{"name":"courses","columns":["id","key"],"rows":[[1,"..."]]}]}}.
+ */
+class JsonTableWriter implements TableWriter {
+
+  private final Writer writer;
+  private boolean firstTable;
+  private boolean firstRow;
+
+  JsonTableWriter(final Writer writer) {
+    this.writer = writer;
+  }
+
+  @Override
+  public void startDatabase() throws IOException {
+    writer.write("{\"tables\":[");
+    firstTable = true;
+  }
+
+  @Override
+  public void startTable(final String table, final List<String> columns) throws IOException {
+    if (!firstTable) {
+      writer.write(',');
+    }
+    firstTable = false;
+    firstRow = true;
+    writer.write("\n{\"name\":");
+    writeString(table);
+    writer.write(",\"columns\":[");
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writeString(columns.get(i));
+    }
+    writer.write("],\"rows\":[");
+  }
+
+  @Override
+  public void writeRow(final Object[] values) throws IOException {
+    writer.write(firstRow ? "\n[" : ",\n[");
+    firstRow = false;
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writeValue(values[i]);
+    }
+    writer.write(']');
+  }
+
+  @Override
+  public void endTable() throws IOException {
+    writer.write("]}");
+  }
+
+  @Override
+  public void endDatabase() throws IOException {
+    writer.write("\n]}\n");
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  private void writeValue(final Object value) throws IOException {
+    if (value == null) {
+      writer.write("null");
+    } else if (value instanceof Number || value instanceof Boolean) {
+      writer.write(value.toString());
+    } else if (value instanceof byte[]) {
+      writeString(Base64.getEncoder().encodeToString((byte[]) value));
+    } else {
+      writeString(value.toString());
+    }
+  }
+
+  private void writeString(final String value) throws IOException {
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char character = value.charAt(i);
+      switch (character) {
+        case '"':
+          writer.write("\\\"");
+          break;
+        case '\\':
+          writer.write("\\\\");
+          break;
+        case '\n':
+          writer.write("\\n");
+          break;
+        case '\r':
+          writer.write("\\r");
+          break;
+        case '\t':
+          writer.write("\\t");
+          break;
+        default:
+          if (character < 0x20) {
+            writer.write(String.format("\\u%04x", (int) character));
+          } else {
+            writer.write(character);
+          }
+      }
+    }
+    writer.write('"');
+  }
+}
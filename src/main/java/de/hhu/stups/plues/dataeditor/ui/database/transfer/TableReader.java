@@ -0,0 +1,15 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import java.io.IOException;
+
+/**
+ * Read tables in the shape written by a {@link TableWriter} and pass them row by row to another
+ * {@link TableWriter} without keeping any row in memory. All values are passed as text or null.
+ */
+interface TableReader extends AutoCloseable {
+
+  void read(TableWriter tableWriter) throws IOException;
+
+  @Override
+  void close() throws IOException;
+}
@@ -0,0 +1,131 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataImportException;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The columns of a database table as reported by {@code PRAGMA table_info}, used to validate and
+ * convert the textual values of an import.
+ */
+final class TableSchema {
+
+  private static final String TABLES =
+        "SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%'";
+
+  private final String table;
+  private final List<String> columns = new ArrayList<>();
+  private final Map<String, String> types = new HashMap<>();
+  private final Set<String> requiredColumns = new HashSet<>();
+  private String idColumn;
+
+  private TableSchema(final String table) {
+    this.table = table;
+  }
+
+  /**
+   * Read the schema of all tables of the database.
+   */
+  static Map<String, TableSchema> load(final Connection connection) throws SQLException {
+    final Map<String, TableSchema> schemas = new HashMap<>();
+    try (final Statement statement = connection.createStatement()) {
+      final List<String> tables = new ArrayList<>();
+      try (final ResultSet resultSet = statement.executeQuery(TABLES)) {
+        while (resultSet.next()) {
+          tables.add(resultSet.getString(1));
+        }
+      }
+      for (final String table : tables) {
+        final TableSchema schema = new TableSchema(table);
+        try (final ResultSet resultSet = statement.executeQuery(
+              "PRAGMA table_info(" + ExportTask.quote(table) + ")")) {
+          int primaryKeyColumns = 0;
+          String primaryKey = null;
+          while (resultSet.next()) {
+            final String column = resultSet.getString("name");
+            final String type = String.valueOf(resultSet.getString("type")).toUpperCase();
+            schema.columns.add(column);
+            schema.types.put(column, type);
+            if (resultSet.getInt("pk") > 0) {
+              primaryKeyColumns++;
+              primaryKey = "INTEGER".equals(type) ? column : null;
+            }
+            if (resultSet.getInt("notnull") != 0 && resultSet.getString("dflt_value") == null) {
+              schema.requiredColumns.add(column);
+            }
+          }
+          // only a single INTEGER PRIMARY KEY is an alias of the row id
+          if (primaryKeyColumns == 1 && primaryKey != null) {
+            schema.idColumn = primaryKey;
+            schema.requiredColumns.remove(primaryKey);
+          }
+        }
+        schemas.put(table, schema);
+      }
+    }
+    return schemas;
+  }
+
+  String getTable() {
+    return table;
+  }
+
+  List<String> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Get the INTEGER PRIMARY KEY column whose values can be allocated, or null.
+   */
+  String getIdColumn() {
+    return idColumn;
+  }
+
+  boolean isRequired(final String column) {
+    return requiredColumns.contains(column);
+  }
+
+  Set<String> getRequiredColumns() {
+    return requiredColumns;
+  }
+
+  /**
+   * Convert the given textual value to the type of the given column using the type affinity
+   * rules of SQLite.
+   */
+  Object convert(final String column, final Object value) {
+    if (value == null) {
+      return null;
+    }
+    final String text = value.toString();
+    final String type = types.get(column);
+    try {
+      if (type.contains("INT")) {
+        return Long.parseLong(text);
+      }
+      if (type.contains("BOOL")) {
+        return "true".equalsIgnoreCase(text) || "1".equals(text) ? 1 : 0;
+      }
+      if (type.contains("REAL") || type.contains("FLOA") || type.contains("DOUB")) {
+        return Double.parseDouble(text);
+      }
+      if (type.contains("BLOB")) {
+        return Base64.getDecoder().decode(text);
+      }
+    } catch (final IllegalArgumentException exception) {
+      throw new DataImportException("Invalid value " + text + " for column " + column
+            + " of type " + type + " in table " + table);
+    }
+    return text;
+  }
+}
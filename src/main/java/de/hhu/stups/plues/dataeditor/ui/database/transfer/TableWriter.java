@@ -0,0 +1,27 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Write the tables of a database row by row to a stream without keeping any row in memory.
+ */
+interface TableWriter extends AutoCloseable {
+
+  void startDatabase() throws IOException;
+
+  void startTable(String table, List<String> columns) throws IOException;
+
+  /**
+   * Write a single row, the values are in the order of the columns given to
+   * {@link #startTable(String, List)} and null if the column is NULL.
+   */
+  void writeRow(Object[] values) throws IOException;
+
+  void endTable() throws IOException;
+
+  void endDatabase() throws IOException;
+
+  @Override
+  void close() throws IOException;
+}
@@ -0,0 +1,155 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataImportException;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The first pass of an import checking all rows against the schema of the database before
+ * anything is written. Counts the rows and collects the given ids of each table, so that ids given
+ * twice or already stored are rejected by {@link #checkIds(Connection)} before the first chunk is
+ * committed.
+ */
+class ValidatingTableWriter implements TableWriter {
+
+  private final Map<String, TableSchema> schemas;
+  private final Map<String, Long> maxIds = new HashMap<>();
+  private final Map<String, IdList> ids = new HashMap<>();
+  private long rows;
+  private TableSchema schema;
+  private List<String> columns;
+  private long tableRows;
+  private int idIndex;
+
+  ValidatingTableWriter(final Map<String, TableSchema> schemas) {
+    this.schemas = schemas;
+  }
+
+  @Override
+  public void startDatabase() {
+  }
+
+  @Override
+  public void startTable(final String table, final List<String> columns) {
+    schema = schemas.get(table);
+    if (schema == null) {
+      throw new DataImportException("Unknown table " + table);
+    }
+    columns.stream().filter(column -> !schema.getColumns().contains(column)).findAny()
+          .ifPresent(column -> {
+            throw new DataImportException("Unknown column " + column + " in table " + table);
+          });
+    schema.getRequiredColumns().stream().filter(column -> !columns.contains(column)).findAny()
+          .ifPresent(column -> {
+            throw new DataImportException("Missing column " + column + " in table " + table);
+          });
+    this.columns = columns;
+    tableRows = 0;
+    idIndex = columns.indexOf(schema.getIdColumn());
+  }
+
+  @Override
+  public void writeRow(final Object[] values) {
+    tableRows++;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null && schema.isRequired(columns.get(i))) {
+        throw new DataImportException("Missing value for column " + columns.get(i) + " in row "
+              + tableRows + " of table " + schema.getTable());
+      }
+      final Object value = schema.convert(columns.get(i), values[i]);
+      if (i == idIndex && value != null) {
+        maxIds.merge(schema.getTable(), (Long) value, Math::max);
+        ids.computeIfAbsent(schema.getTable(), table -> new IdList()).add((Long) value);
+      }
+    }
+    rows++;
+  }
+
+  @Override
+  public void endTable() {
+    schema = null;
+    columns = null;
+  }
+
+  @Override
+  public void endDatabase() {
+  }
+
+  @Override
+  public void close() {
+  }
+
+  long getRows() {
+    return rows;
+  }
+
+  /**
+   * Get the largest id given in the rows of each table.
+   */
+  Map<String, Long> getMaxIds() {
+    return maxIds;
+  }
+
+  /**
+   * Check that no id is given twice for a table and that none of the given ids is stored in the
+   * database yet, since rows are never replaced. The stored ids in the range of the given ones are
+   * streamed in order and merged with the sorted given ids.
+   */
+  void checkIds(final Connection connection) throws SQLException {
+    for (final Map.Entry<String, IdList> entry : ids.entrySet()) {
+      final String table = entry.getKey();
+      final long[] givenIds = entry.getValue().toSortedArray();
+      for (int i = 1; i < givenIds.length; i++) {
+        if (givenIds[i] == givenIds[i - 1]) {
+          throw new DataImportException("Duplicate id " + givenIds[i] + " in table " + table);
+        }
+      }
+      final String idColumn = ExportTask.quote(schemas.get(table).getIdColumn());
+      try (final Statement statement = connection.createStatement();
+           final ResultSet resultSet = statement.executeQuery("SELECT " + idColumn + " FROM "
+                 + ExportTask.quote(table) + " WHERE " + idColumn + " BETWEEN " + givenIds[0]
+                 + " AND " + givenIds[givenIds.length - 1] + " ORDER BY " + idColumn)) {
+        int index = 0;
+        while (resultSet.next()) {
+          final long storedId = resultSet.getLong(1);
+          while (givenIds[index] < storedId) {
+            index++;
+          }
+          if (givenIds[index] == storedId) {
+            throw new DataImportException("A row with id " + storedId + " is already stored in "
+                  + "table " + table);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * A growing array of the ids given for one table.
+   */
+  private static final class IdList {
+
+    private long[] ids = new long[16];
+    private int size;
+
+    void add(final long id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+    }
+
+    long[] toSortedArray() {
+      final long[] sorted = Arrays.copyOf(ids, size);
+      Arrays.sort(sorted);
+      return sorted;
+    }
+  }
+}
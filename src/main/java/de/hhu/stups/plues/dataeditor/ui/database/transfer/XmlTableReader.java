@@ -0,0 +1,89 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataImportException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Function;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Read tables written by the {@link XmlTableWriter} using StAX. Since a row only contains the
+ * attributes of its columns that are not NULL, the columns of each table are taken from the
+ * schema of the database.
+ */
+class XmlTableReader implements TableReader {
+
+  private final InputStream inputStream;
+  private final Function<String, List<String>> columnsOfTable;
+
+  XmlTableReader(final InputStream inputStream,
+                 final Function<String, List<String>> columnsOfTable) {
+    this.inputStream = inputStream;
+    this.columnsOfTable = columnsOfTable;
+  }
+
+  @Override
+  public void read(final TableWriter tableWriter) throws IOException {
+    try {
+      final XMLStreamReader reader = XMLInputFactory.newInstance()
+            .createXMLStreamReader(inputStream);
+      try {
+        read(reader, tableWriter);
+      } finally {
+        reader.close();
+      }
+    } catch (final XMLStreamException exception) {
+      throw new IOException(exception);
+    }
+  }
+
+  private void read(final XMLStreamReader reader, final TableWriter tableWriter)
+        throws XMLStreamException, IOException {
+    List<String> columns = null;
+    tableWriter.startDatabase();
+    while (reader.hasNext()) {
+      final int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        if (XmlTableWriter.TABLE.equals(reader.getLocalName())) {
+          final String table = reader.getAttributeValue(null, XmlTableWriter.NAME);
+          columns = columnsOfTable.apply(table);
+          tableWriter.startTable(table, columns);
+        } else if (XmlTableWriter.ROW.equals(reader.getLocalName())) {
+          if (columns == null) {
+            throw new DataImportException("Row outside of a table at line "
+                  + reader.getLocation().getLineNumber());
+          }
+          tableWriter.writeRow(readRow(reader, columns));
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT
+            && XmlTableWriter.TABLE.equals(reader.getLocalName())) {
+        tableWriter.endTable();
+        columns = null;
+      }
+    }
+    tableWriter.endDatabase();
+  }
+
+  private static Object[] readRow(final XMLStreamReader reader, final List<String> columns) {
+    final Object[] values = new Object[columns.size()];
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final int column = columns.indexOf(reader.getAttributeLocalName(i));
+      if (column < 0) {
+        throw new DataImportException("Unknown column " + reader.getAttributeLocalName(i)
+              + " at line " + reader.getLocation().getLineNumber());
+      }
+      values[column] = reader.getAttributeValue(i);
+    }
+    return values;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+}
@@ -0,0 +1,109 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Write the tables as XML using StAX. Each row is an empty element with one attribute per column
+ * that is not NULL, e.g. {@code <table name="courses"><row id="1" key="..."/></table>}.
+ */
+class XmlTableWriter implements TableWriter {
+
+  static final String DATABASE = "database";
+  static final String TABLE = "table";
+  static final String NAME = "name";
+  static final String ROW = "row";
+
+  private final OutputStream outputStream;
+  private final XMLStreamWriter writer;
+  private List<String> columns;
+
+  XmlTableWriter(final OutputStream outputStream) throws IOException {
+    this.outputStream = outputStream;
+    try {
+      writer = XMLOutputFactory.newInstance()
+            .createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+    } catch (final XMLStreamException exception) {
+      throw new IOException(exception);
+    }
+  }
+
+  @Override
+  public void startDatabase() throws IOException {
+    try {
+      writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+      writer.writeStartElement(DATABASE);
+    } catch (final XMLStreamException exception) {
+      throw new IOException(exception);
+    }
+  }
+
+  @Override
+  public void startTable(final String table, final List<String> columns) throws IOException {
+    this.columns = columns;
+    try {
+      writer.writeStartElement(TABLE);
+      writer.writeAttribute(NAME, table);
+    } catch (final XMLStreamException exception) {
+      throw new IOException(exception);
+    }
+  }
+
+  @Override
+  public void writeRow(final Object[] values) throws IOException {
+    try {
+      writer.writeEmptyElement(ROW);
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != null) {
+          writer.writeAttribute(columns.get(i), toText(values[i]));
+        }
+      }
+    } catch (final XMLStreamException exception) {
+      throw new IOException(exception);
+    }
+  }
+
+  @Override
+  public void endTable() throws IOException {
+    try {
+      writer.writeEndElement();
+    } catch (final XMLStreamException exception) {
+      throw new IOException(exception);
+    }
+  }
+
+  @Override
+  public void endDatabase() throws IOException {
+    try {
+      writer.writeEndElement();
+      writer.writeEndDocument();
+      writer.flush();
+    } catch (final XMLStreamException exception) {
+      throw new IOException(exception);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      writer.close();
+    } catch (final XMLStreamException exception) {
+      throw new IOException(exception);
+    } finally {
+      outputStream.close();
+    }
+  }
+
+  private static String toText(final Object value) {
+    if (value instanceof byte[]) {
+      return Base64.getEncoder().encodeToString((byte[]) value);
+    }
+    return value.toString();
+  }
+}
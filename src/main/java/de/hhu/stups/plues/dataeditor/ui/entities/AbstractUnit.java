@@ -52,6 +52,19 @@ public class AbstractUnit extends ModelEntity implements Serializable {
     // Default constructor is required by hibernate
   }
 
+  /**
+   * Take over the columns of the given abstract unit, e.g. read again from the database, and tell
+   * whether any of them has changed. The id and the relations are left untouched.
+   */
+  boolean copyColumns(final AbstractUnit other) {
+    final boolean changed = !Objects.equals(key, other.key)
+        || !Objects.equals(title, other.title);
+    this.key = other.key;
+    this.title = other.title;
+    copyTimestamps(other);
+    return changed;
+  }
+
   @Override
   public boolean equals(final Object other) {
     if (this == other) {
@@ -3,10 +3,7 @@ package de.hhu.stups.plues.dataeditor.ui.entities;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SetProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
@@ -16,90 +13,119 @@ import java.util.stream.Collectors;
 
 public class AbstractUnitWrapper implements EntityWrapper {
 
-  private final IntegerProperty idProperty;
-  private final StringProperty keyProperty;
-  private final StringProperty titleProperty;
   private final SetProperty<UnitWrapper> unitsProperty;
   private final SetProperty<ModuleWrapper> modulesProperty;
-  private final ObjectProperty<AbstractUnit> abstractUnitProperty;
+  private AbstractUnit abstractUnit;
+  private IntegerProperty idProperty;
+  private StringProperty keyProperty;
+  private StringProperty titleProperty;
+  private ObjectProperty<AbstractUnit> abstractUnitProperty;
 
   /**
-   * Initialize the property bindings according to the given {@link AbstractUnit}.
+   * Wrap the given {@link AbstractUnit}, the properties except for the units and modules are
+   * created on first access.
    */
   public AbstractUnitWrapper(final AbstractUnit abstractUnit) {
     assert abstractUnit != null;
-    keyProperty = new SimpleStringProperty(abstractUnit.getKey());
-    titleProperty = new SimpleStringProperty(abstractUnit.getTitle());
+    this.abstractUnit = abstractUnit;
     unitsProperty = new SimpleSetProperty<>(FXCollections.observableSet());
     modulesProperty = new SimpleSetProperty<>(FXCollections.observableSet());
-    abstractUnitProperty = new SimpleObjectProperty<>(abstractUnit);
-    idProperty = new SimpleIntegerProperty(abstractUnit.getId());
     setPropertyListener();
   }
 
   private void setPropertyListener() {
-    keyProperty.addListener((observable, oldValue, newValue) ->
-          abstractUnitProperty.get().setKey(newValue));
-    titleProperty.addListener((observable, oldValue, newValue) ->
-          abstractUnitProperty.get().setTitle(newValue));
     unitsProperty.addListener((observable, oldValue, newValue) ->
           addOrRemoveUnit(newValue));
     modulesProperty.addListener((observable, oldValue, newValue) ->
           addOrRemoveModule(newValue));
-
-    idProperty.addListener((observable, oldValue, newValue) -> {
-      final AbstractUnit abstractUnit = abstractUnitProperty.get();
-      if (newValue != null) {
-        abstractUnit.setId(newValue.intValue());
-        return;
-      }
-      abstractUnit.setId(-1);
-    });
   }
 
   private void addOrRemoveUnit(final ObservableSet<UnitWrapper> newValue) {
-    abstractUnitProperty.get().setUnits(newValue.stream().map(
+    abstractUnit.setUnits(newValue.stream().map(
           UnitWrapper::getUnit).collect(Collectors.toSet()));
   }
 
   private void addOrRemoveModule(final ObservableSet<ModuleWrapper> newValue) {
-    abstractUnitProperty.get().setModules(newValue.stream().map(
+    abstractUnit.setModules(newValue.stream().map(
           ModuleWrapper::getModule).collect(Collectors.toSet()));
   }
 
   public int getId() {
-    return idProperty.get();
+    return abstractUnit.getId();
   }
 
+  /**
+   * Set the id of the abstract unit, notifying the {@link #idProperty()} if it has been created.
+   */
   public void setId(int id) {
-    this.idProperty.set(id);
+    if (idProperty == null) {
+      abstractUnit.setId(id);
+    } else {
+      idProperty.set(id);
+    }
   }
 
+  /**
+   * The id of the abstract unit, created on first access.
+   */
   public IntegerProperty idProperty() {
+    if (idProperty == null) {
+      idProperty = WriteThroughProperties.ofInt(abstractUnit.getId(),
+          id -> abstractUnit.setId(id));
+    }
     return idProperty;
   }
 
   public String getKey() {
-    return keyProperty.get();
+    return abstractUnit.getKey();
   }
 
+  /**
+   * Set the key of the abstract unit, notifying the {@link #keyProperty()} if it has been created.
+   */
   public void setKey(String keyProperty) {
-    this.keyProperty.set(keyProperty);
+    if (this.keyProperty == null) {
+      abstractUnit.setKey(keyProperty);
+    } else {
+      this.keyProperty.set(keyProperty);
+    }
   }
 
+  /**
+   * The key of the abstract unit, created on first access.
+   */
   public StringProperty keyProperty() {
+    if (keyProperty == null) {
+      keyProperty = WriteThroughProperties.ofString(abstractUnit.getKey(),
+          key -> abstractUnit.setKey(key));
+    }
     return keyProperty;
   }
 
   public String getTitle() {
-    return titleProperty.get();
+    return abstractUnit.getTitle();
   }
 
+  /**
+   * Set the title of the abstract unit, notifying the {@link #titleProperty()} if it has been
+   * created.
+   */
   public void setTitle(String titleProperty) {
-    this.titleProperty.set(titleProperty);
+    if (this.titleProperty == null) {
+      abstractUnit.setTitle(titleProperty);
+    } else {
+      this.titleProperty.set(titleProperty);
+    }
   }
 
+  /**
+   * The title of the abstract unit, created on first access.
+   */
   public StringProperty titleProperty() {
+    if (titleProperty == null) {
+      titleProperty = WriteThroughProperties.ofString(abstractUnit.getTitle(),
+          title -> abstractUnit.setTitle(title));
+    }
     return titleProperty;
   }
 
@@ -127,20 +153,39 @@ public class AbstractUnitWrapper implements EntityWrapper {
     return modulesProperty;
   }
 
+  /**
+   * The wrapped abstract unit, created on first access.
+   */
   public ObjectProperty<AbstractUnit> abstractUnitProperty() {
+    if (abstractUnitProperty == null) {
+      abstractUnitProperty = WriteThroughProperties.ofObject(abstractUnit,
+          newAbstractUnit -> abstractUnit = newAbstractUnit);
+    }
     return abstractUnitProperty;
   }
 
+  /**
+   * Take over the columns of the given abstract unit read from the database, e.g. since its row has
+   * been changed outside of the editor. The properties created so far are updated as well. Returns
+   * whether any of the columns has changed.
+   */
+  public boolean update(final AbstractUnit source) {
+    final boolean changed = abstractUnit.copyColumns(source);
+    WriteThroughProperties.update(keyProperty, abstractUnit.getKey());
+    WriteThroughProperties.update(titleProperty, abstractUnit.getTitle());
+    return changed;
+  }
+
   public AbstractUnit getAbstractUnit() {
-    return abstractUnitProperty.get();
+    return abstractUnit;
   }
 
   @Override
   public String toString() {
-    if (abstractUnitProperty.get() == null) {
+    if (abstractUnit == null) {
       return "";
     }
-    return abstractUnitProperty.get().getTitle();
+    return abstractUnit.getTitle();
   }
 
   @Override
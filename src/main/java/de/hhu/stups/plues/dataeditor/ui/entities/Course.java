@@ -77,6 +77,29 @@ public class Course extends ModelEntity implements Serializable {
     // Default constructor is required by hibernate
   }
 
+  /**
+   * Take over the columns of the given course, e.g. read again from the database, and tell whether
+   * any of them has changed. The id and the relations are left untouched.
+   */
+  boolean copyColumns(final Course other) {
+    final boolean changed = !Objects.equals(key, other.key)
+        || !Objects.equals(po, other.po)
+        || !Objects.equals(creditPoints, other.creditPoints)
+        || !Objects.equals(shortName, other.shortName)
+        || !Objects.equals(longName, other.longName)
+        || !Objects.equals(degree, other.degree)
+        || !Objects.equals(kzfa, other.kzfa);
+    this.key = other.key;
+    this.po = other.po;
+    this.creditPoints = other.creditPoints;
+    this.shortName = other.shortName;
+    this.longName = other.longName;
+    this.degree = other.degree;
+    this.kzfa = other.kzfa;
+    copyTimestamps(other);
+    return changed;
+  }
+
   @Override
   public boolean equals(final Object other) {
     if (this == other) {
@@ -3,10 +3,7 @@ package de.hhu.stups.plues.dataeditor.ui.entities;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SetProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
@@ -17,6 +14,9 @@ import javax.persistence.Transient;
 
 public class CourseWrapper implements EntityWrapper {
 
+  private final SetProperty<CourseWrapper> majorCourseWrapperProperty;
+  private final SetProperty<CourseWrapper> minorCourseWrapperProperty;
+  private Course course;
   private IntegerProperty idProperty;
   private StringProperty keyProperty;
   private IntegerProperty poProperty;
@@ -25,25 +25,15 @@ public class CourseWrapper implements EntityWrapper {
   private StringProperty longNameProperty;
   private ObjectProperty<CourseDegree> degreeProperty;
   private ObjectProperty<CourseKzfa> kzfaProperty;
-  private SetProperty<CourseWrapper> majorCourseWrapperProperty;
-  private SetProperty<CourseWrapper> minorCourseWrapperProperty;
   private ObjectProperty<Course> courseProperty;
 
   /**
-   * Initialize the property bindings according to the given {@link Course}.
+   * Wrap the given {@link Course}, the properties except for the major and minor courses are
+   * created on first access.
    */
   public CourseWrapper(final Course course) {
     assert course != null;
-    keyProperty = new SimpleStringProperty(course.getKey());
-    poProperty = new SimpleIntegerProperty(course.getPo());
-    creditPointsProperty = new SimpleIntegerProperty(course.getCreditPoints());
-    shortNameProperty = new SimpleStringProperty(course.getShortName());
-    longNameProperty = new SimpleStringProperty(course.getLongName());
-    degreeProperty = new SimpleObjectProperty<>(
-          CourseDegree.getDegreeFromString(course.getDegree()));
-    kzfaProperty = new SimpleObjectProperty<>(CourseKzfa.getKzfaFromString(course.getKzfa()));
-    courseProperty = new SimpleObjectProperty<>(course);
-    idProperty = new SimpleIntegerProperty(course.getId());
+    this.course = course;
     majorCourseWrapperProperty = new SimpleSetProperty<>(FXCollections.observableSet());
     minorCourseWrapperProperty = new SimpleSetProperty<>(FXCollections.observableSet());
     setPropertyListener();
@@ -66,45 +56,6 @@ public class CourseWrapper implements EntityWrapper {
   }
 
   private void setPropertyListener() {
-    creditPointsProperty.addListener((observable, oldValue, newValue) ->
-          courseProperty.get().setCreditPoints(newValue.intValue()));
-    shortNameProperty.addListener((observable, oldValue, newValue) ->
-          courseProperty.get().setShortName(newValue));
-    keyProperty.addListener((observable, oldValue, newValue) ->
-          courseProperty.get().setKey(newValue));
-    kzfaProperty.addListener((observable, oldValue, newValue) -> {
-      final Course course = courseProperty.get();
-      if (newValue != null) {
-        course.setKzfa(CourseKzfa.toString(newValue));
-        return;
-      }
-      course.setKzfa("");
-    });
-    poProperty.addListener((observable, oldValue, newValue) -> {
-      if (newValue != null) {
-        courseProperty.get().setPo(newValue.intValue());
-        return;
-      }
-      courseProperty.get().setPo(-1);
-    });
-    degreeProperty.addListener((observable, oldValue, newValue) -> {
-      final Course course = courseProperty.get();
-      if (newValue != null) {
-        course.setDegree(newValue.toString().toLowerCase());
-        return;
-      }
-      course.setDegree("");
-    });
-    longNameProperty.addListener((observable, oldValue, newValue) ->
-          courseProperty.get().setLongName(newValue));
-    idProperty.addListener((observable, oldValue, newValue) -> {
-      final Course course = courseProperty.get();
-      if (newValue != null) {
-        course.setId(newValue.intValue());
-        return;
-      }
-      course.setId(-1);
-    });
     majorCourseWrapperProperty.addListener((observable, oldValue, newValue) ->
           addOrRemoveMajorCourse(newValue));
     minorCourseWrapperProperty.addListener((observable, oldValue, newValue) ->
@@ -112,112 +63,251 @@ public class CourseWrapper implements EntityWrapper {
   }
 
   private void addOrRemoveMajorCourse(ObservableSet<CourseWrapper> newValue) {
-    courseProperty.get().setMajorCourses(newValue.stream().map(
+    course.setMajorCourses(newValue.stream().map(
           CourseWrapper::getCourse).collect(Collectors.toSet()));
   }
 
   private void addOrRemoveMinorCourse(ObservableSet<CourseWrapper> newValue) {
-    courseProperty.get().setMinorCourses(newValue.stream().map(
+    course.setMinorCourses(newValue.stream().map(
           CourseWrapper::getCourse).collect(Collectors.toSet()));
   }
 
   public int getId() {
-    return idProperty.get();
+    return course.getId();
   }
 
-  public void setId(int id) {
-    this.idProperty.set(id);
+  /**
+   * Set the id of the course, notifying the {@link #idProperty()} if it has been created.
+   */
+  public void setId(final int id) {
+    if (idProperty == null) {
+      course.setId(id);
+    } else {
+      idProperty.set(id);
+    }
   }
 
+  /**
+   * The id of the course, created on first access.
+   */
   public IntegerProperty idProperty() {
+    if (idProperty == null) {
+      idProperty = WriteThroughProperties.ofInt(course.getId(),
+          id -> course.setId(id));
+    }
     return idProperty;
   }
 
   public String getKey() {
-    return keyProperty.get();
+    return course.getKey();
   }
 
+  /**
+   * Set the key of the course, notifying the {@link #keyProperty()} if it has been created.
+   */
   public void setKey(final String key) {
-    this.keyProperty.set(key);
+    if (keyProperty == null) {
+      course.setKey(key);
+    } else {
+      keyProperty.set(key);
+    }
   }
 
+  /**
+   * The key of the course, created on first access.
+   */
   public StringProperty keyProperty() {
+    if (keyProperty == null) {
+      keyProperty = WriteThroughProperties.ofString(course.getKey(),
+          key -> course.setKey(key));
+    }
     return keyProperty;
   }
 
   public int getPo() {
-    return poProperty.get();
+    return course.getPo();
   }
 
+  /**
+   * Set the po of the course, notifying the {@link #poProperty()} if it has been created.
+   */
   public void setPo(final int po) {
-    this.poProperty.set(po);
+    if (poProperty == null) {
+      course.setPo(po);
+    } else {
+      poProperty.set(po);
+    }
   }
 
+  /**
+   * The po of the course, created on first access.
+   */
   public IntegerProperty poProperty() {
+    if (poProperty == null) {
+      poProperty = WriteThroughProperties.ofInt(course.getPo(),
+          po -> course.setPo(po));
+    }
     return poProperty;
   }
 
   public int getCreditPoints() {
-    return creditPointsProperty.get();
+    return course.getCreditPoints();
   }
 
+  /**
+   * Set the credit points of the course, notifying the {@link #creditPointsProperty()} if it has
+   * been created.
+   */
   public void setCreditPoints(final int creditPoints) {
-    this.creditPointsProperty.set(creditPoints);
+    if (creditPointsProperty == null) {
+      course.setCreditPoints(creditPoints);
+    } else {
+      creditPointsProperty.set(creditPoints);
+    }
   }
 
+  /**
+   * The credit points of the course, created on first access.
+   */
   public IntegerProperty creditPointsProperty() {
+    if (creditPointsProperty == null) {
+      creditPointsProperty = WriteThroughProperties.ofInt(course.getCreditPoints(),
+          creditPoints -> course.setCreditPoints(creditPoints));
+    }
     return creditPointsProperty;
   }
 
   public String getShortName() {
-    return shortNameProperty.get();
+    return course.getShortName();
   }
 
+  /**
+   * Set the short name of the course, notifying the {@link #shortNameProperty()} if it has been
+   * created.
+   */
   public void setShortName(final String shortName) {
-    this.shortNameProperty.set(shortName);
+    if (shortNameProperty == null) {
+      course.setShortName(shortName);
+    } else {
+      shortNameProperty.set(shortName);
+    }
   }
 
+  /**
+   * The short name of the course, created on first access.
+   */
   public StringProperty shortNameProperty() {
+    if (shortNameProperty == null) {
+      shortNameProperty = WriteThroughProperties.ofString(course.getShortName(),
+          shortName -> course.setShortName(shortName));
+    }
     return shortNameProperty;
   }
 
   public String getLongName() {
-    return longNameProperty.get();
+    return course.getLongName();
   }
 
+  /**
+   * Set the long name of the course, notifying the {@link #longNameProperty()} if it has been
+   * created.
+   */
   public void setLongName(final String longName) {
-    this.longNameProperty.set(longName);
+    if (longNameProperty == null) {
+      course.setLongName(longName);
+    } else {
+      longNameProperty.set(longName);
+    }
   }
 
+  /**
+   * The long name of the course, created on first access.
+   */
   public StringProperty longNameProperty() {
+    if (longNameProperty == null) {
+      longNameProperty = WriteThroughProperties.ofString(course.getLongName(),
+          longName -> course.setLongName(longName));
+    }
     return longNameProperty;
   }
 
   public CourseDegree getDegree() {
-    return degreeProperty.get();
+    return degreeProperty == null
+        ? CourseDegree.getDegreeFromString(course.getDegree()) : degreeProperty.get();
   }
 
+  /**
+   * Set the degree of the course, notifying the {@link #degreeProperty()} if it has been created.
+   */
   public void setDegree(final CourseDegree degree) {
-    this.degreeProperty.set(degree);
+    if (degreeProperty == null) {
+      writeDegree(degree);
+    } else {
+      degreeProperty.set(degree);
+    }
   }
 
+  /**
+   * The degree of the course, created on first access.
+   */
   public ObjectProperty<CourseDegree> degreeProperty() {
+    if (degreeProperty == null) {
+      degreeProperty = WriteThroughProperties.ofObject(
+          CourseDegree.getDegreeFromString(course.getDegree()), this::writeDegree);
+    }
     return degreeProperty;
   }
 
+  private void writeDegree(final CourseDegree degree) {
+    if (degree != null) {
+      course.setDegree(degree.toString().toLowerCase());
+      return;
+    }
+    course.setDegree("");
+  }
+
   public CourseKzfa getKzfa() {
-    return kzfaProperty.get();
+    return kzfaProperty == null
+        ? CourseKzfa.getKzfaFromString(course.getKzfa()) : kzfaProperty.get();
   }
 
+  /**
+   * Set the kzfa of the course, notifying the {@link #kzfaProperty()} if it has been created.
+   */
   public void setKzfa(final CourseKzfa kzfa) {
-    this.kzfaProperty.set(kzfa);
+    if (kzfaProperty == null) {
+      writeKzfa(kzfa);
+    } else {
+      kzfaProperty.set(kzfa);
+    }
   }
 
+  /**
+   * The kzfa of the course, created on first access.
+   */
   public ObjectProperty<CourseKzfa> kzfaProperty() {
+    if (kzfaProperty == null) {
+      kzfaProperty = WriteThroughProperties.ofObject(
+          CourseKzfa.getKzfaFromString(course.getKzfa()), this::writeKzfa);
+    }
     return kzfaProperty;
   }
 
+  private void writeKzfa(final CourseKzfa kzfa) {
+    if (kzfa != null) {
+      course.setKzfa(CourseKzfa.toString(kzfa));
+      return;
+    }
+    course.setKzfa("");
+  }
+
+  /**
+   * The wrapped course, created on first access.
+   */
   public ObjectProperty<Course> courseProperty() {
+    if (courseProperty == null) {
+      courseProperty = WriteThroughProperties.ofObject(course, newCourse -> course = newCourse);
+    }
     return courseProperty;
   }
 
@@ -229,17 +319,35 @@ public class CourseWrapper implements EntityWrapper {
     return minorCourseWrapperProperty;
   }
 
+  /**
+   * Take over the columns of the given course read from the database, e.g. since its row has been
+   * changed outside of the editor. The properties created so far are updated as well. Returns
+   * whether any of the columns has changed.
+   */
+  public boolean update(final Course source) {
+    final boolean changed = course.copyColumns(source);
+    WriteThroughProperties.update(keyProperty, course.getKey());
+    WriteThroughProperties.update(poProperty, course.getPo());
+    WriteThroughProperties.update(creditPointsProperty, course.getCreditPoints());
+    WriteThroughProperties.update(shortNameProperty, course.getShortName());
+    WriteThroughProperties.update(longNameProperty, course.getLongName());
+    WriteThroughProperties.update(degreeProperty,
+        CourseDegree.getDegreeFromString(course.getDegree()));
+    WriteThroughProperties.update(kzfaProperty, CourseKzfa.getKzfaFromString(course.getKzfa()));
+    return changed;
+  }
+
   @Transient
   public Course getCourse() {
-    return courseProperty.get();
+    return course;
   }
 
   @Override
   public String toString() {
-    if (courseProperty.get() == null) {
+    if (course == null) {
       return "";
     }
-    return courseProperty.get().toString();
+    return course.toString();
   }
 
   @Override
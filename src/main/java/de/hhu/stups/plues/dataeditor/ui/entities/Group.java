@@ -37,6 +37,17 @@ public class Group extends ModelEntity implements Serializable {
     // Default constructor is required by hibernate
   }
 
+  /**
+   * Take over the columns of the given group, e.g. read again from the database, and tell whether
+   * any of them has changed. The id and the relations are left untouched.
+   */
+  boolean copyColumns(final Group other) {
+    final boolean changed = !Objects.equals(halfSemester, other.halfSemester);
+    this.halfSemester = other.halfSemester;
+    copyTimestamps(other);
+    return changed;
+  }
+
   public String getHalfSemesterWord() {
     return (halfSemester == 1) ? "first" : "second";
   }
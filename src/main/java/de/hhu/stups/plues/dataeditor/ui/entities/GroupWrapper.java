@@ -3,8 +3,6 @@ package de.hhu.stups.plues.dataeditor.ui.entities;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SetProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
@@ -15,41 +13,24 @@ import java.util.stream.Collectors;
 
 public class GroupWrapper implements EntityWrapper {
 
-  private final IntegerProperty idProperty;
-  private final IntegerProperty halfSemesterProperty;
   private final SetProperty<SessionWrapper> sessionsProperty;
-  private final ObjectProperty<UnitWrapper> unitProperty;
-  private final ObjectProperty<Group> groupProperty;
+  private Group group;
+  private UnitWrapper unit;
+  private IntegerProperty idProperty;
+  private IntegerProperty halfSemesterProperty;
+  private ObjectProperty<UnitWrapper> unitProperty;
+  private ObjectProperty<Group> groupProperty;
 
   /**
-   * Initialize the property bindings according to the given {@link Group}.
+   * Wrap the given {@link Group}, the properties except for the sessions are created on first
+   * access.
    */
   public GroupWrapper(final Group group) {
     assert group != null;
-    idProperty = new SimpleIntegerProperty(group.getId());
-    halfSemesterProperty = new SimpleIntegerProperty(group.getHalfSemester());
+    this.group = group;
     sessionsProperty = new SimpleSetProperty<>(FXCollections.observableSet());
-    unitProperty = new SimpleObjectProperty<>();
-    groupProperty = new SimpleObjectProperty<>(group);
-    setPropertyListener();
-  }
-
-  private void setPropertyListener() {
-    halfSemesterProperty.addListener((observable, oldValue, newValue) ->
-          groupProperty.get().setHalfSemester(newValue.intValue()));
     sessionsProperty.addListener((observable, oldValue, newValue) ->
-          addOrRemoveSession(groupProperty.get().getSessions(), oldValue, newValue));
-    unitProperty.addListener((observable, oldValue, newValue) ->
-          groupProperty.get().setUnit(newValue.getUnit()));
-
-    idProperty.addListener((observable, oldValue, newValue) -> {
-      final Group group = groupProperty.get();
-      if (newValue != null) {
-        group.setId(newValue.intValue());
-        return;
-      }
-      group.setId(-1);
-    });
+          addOrRemoveSession(this.group.getSessions(), oldValue, newValue));
   }
 
   private void addOrRemoveSession(final Set<Session> groups,
@@ -68,26 +49,54 @@ public class GroupWrapper implements EntityWrapper {
   }
 
   public int getId() {
-    return idProperty.get();
+    return group.getId();
   }
 
+  /**
+   * Set the id of the group, notifying the {@link #idProperty()} if it has been created.
+   */
   public void setId(int id) {
-    this.idProperty.set(id);
+    if (idProperty == null) {
+      group.setId(id);
+    } else {
+      idProperty.set(id);
+    }
   }
 
+  /**
+   * The id of the group, created on first access.
+   */
   public IntegerProperty idProperty() {
+    if (idProperty == null) {
+      idProperty = WriteThroughProperties.ofInt(group.getId(), id -> group.setId(id));
+    }
     return idProperty;
   }
 
   public int getHalfSemester() {
-    return halfSemesterProperty.get();
+    return group.getHalfSemester();
   }
 
+  /**
+   * Set the half semester of the group, notifying the {@link #halfSemesterProperty()} if it has
+   * been created.
+   */
   public void setHalfSemester(int halfSemester) {
-    this.halfSemesterProperty.set(halfSemester);
+    if (halfSemesterProperty == null) {
+      group.setHalfSemester(halfSemester);
+    } else {
+      halfSemesterProperty.set(halfSemester);
+    }
   }
 
+  /**
+   * The half semester of the group, created on first access.
+   */
   public IntegerProperty halfSemesterProperty() {
+    if (halfSemesterProperty == null) {
+      halfSemesterProperty = WriteThroughProperties.ofInt(group.getHalfSemester(),
+          halfSemester -> group.setHalfSemester(halfSemester));
+    }
     return halfSemesterProperty;
   }
 
@@ -104,28 +113,64 @@ public class GroupWrapper implements EntityWrapper {
   }
 
   public UnitWrapper getUnit() {
-    return unitProperty.get();
+    return unit;
   }
 
+  /**
+   * Set the unit wrapper of the group and the unit of the wrapped group, notifying the
+   * {@link #unitProperty()} if it has been created.
+   */
   public void setUnit(final UnitWrapper unit) {
-    this.unitProperty.set(unit);
+    if (unitProperty != null) {
+      unitProperty.set(unit);
+    } else if (this.unit != unit) {
+      writeUnit(unit);
+    }
   }
 
+  /**
+   * The unit wrapper of the group, created on first access.
+   */
   public ObjectProperty<UnitWrapper> unitProperty() {
+    if (unitProperty == null) {
+      unitProperty = WriteThroughProperties.ofObject(unit, this::writeUnit);
+    }
     return unitProperty;
   }
 
+  private void writeUnit(final UnitWrapper unit) {
+    this.unit = unit;
+    group.setUnit(unit.getUnit());
+  }
+
+  /**
+   * Take over the columns of the given group read from the database, e.g. since its row has been
+   * changed outside of the editor. The properties created so far are updated as well. Returns
+   * whether any of the columns has changed.
+   */
+  public boolean update(final Group source) {
+    final boolean changed = group.copyColumns(source);
+    WriteThroughProperties.update(halfSemesterProperty, group.getHalfSemester());
+    return changed;
+  }
+
   public Group getGroup() {
-    return groupProperty.get();
+    return group;
   }
 
+  /**
+   * The wrapped group, created on first access.
+   */
   public ObjectProperty<Group> groupProperty() {
+    if (groupProperty == null) {
+      groupProperty = WriteThroughProperties.ofObject(group, newGroup -> group = newGroup);
+    }
     return groupProperty;
   }
 
   @Override
   public String toString() {
-    if (groupProperty.get() == null) {
+    if (group == null) {
       return "";
     }
     return "G" + getId();
@@ -72,6 +72,29 @@ public class Level extends ModelEntity implements Serializable {
     // Default constructor is required by hibernate
   }
 
+  /**
+   * Take over the columns of the given level, e.g. read again from the database, and tell whether
+   * any of them has changed. The id and the relations are left untouched.
+   */
+  boolean copyColumns(final Level other) {
+    final boolean changed = !Objects.equals(name, other.name)
+        || !Objects.equals(tm, other.tm)
+        || !Objects.equals(art, other.art)
+        || !Objects.equals(min, other.min)
+        || !Objects.equals(max, other.max)
+        || !Objects.equals(minCreditPoints, other.minCreditPoints)
+        || !Objects.equals(maxCreditPoints, other.maxCreditPoints);
+    this.name = other.name;
+    this.tm = other.tm;
+    this.art = other.art;
+    this.min = other.min;
+    this.max = other.max;
+    this.minCreditPoints = other.minCreditPoints;
+    this.maxCreditPoints = other.maxCreditPoints;
+    copyTimestamps(other);
+    return changed;
+  }
+
   /**
    * Get the minimum number of modules required for level. Returns -1 if the level
    * is not cardinality based.
@@ -84,6 +107,10 @@ public class Level extends ModelEntity implements Serializable {
     return this.min;
   }
 
+  public void setMin(final Integer min) {
+    this.min = min;
+  }
+
   /**
    * Get the maximum number of modules required for level. Returns -1 if the level
    * is not cardinality based.
@@ -96,6 +123,10 @@ public class Level extends ModelEntity implements Serializable {
     return this.max;
   }
 
+  public void setMax(final Integer max) {
+    this.max = max;
+  }
+
   /**
    * Get the maximum number of credit points required for level. Returns -1 if the level
    * is not credit point based.
@@ -108,7 +139,7 @@ public class Level extends ModelEntity implements Serializable {
     return this.maxCreditPoints;
   }
 
-  public void setMaxCreditPoints(int max) {
+  public void setMaxCreditPoints(final Integer max) {
     this.maxCreditPoints = max;
   }
 
@@ -124,7 +155,7 @@ public class Level extends ModelEntity implements Serializable {
     return this.minCreditPoints;
   }
 
-  public void setMinCreditPoints(int min) {
+  public void setMinCreditPoints(final Integer min) {
     this.minCreditPoints = min;
   }
 
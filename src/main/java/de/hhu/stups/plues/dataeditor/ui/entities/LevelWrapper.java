@@ -3,10 +3,7 @@ package de.hhu.stups.plues.dataeditor.ui.entities;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SetProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.ObservableSet;
 
@@ -16,66 +13,28 @@ import java.util.stream.Collectors;
 
 public class LevelWrapper implements EntityWrapper {
 
-  private final IntegerProperty idProperty;
-  private final StringProperty nameProperty;
-  private final IntegerProperty minCreditsProperty;
-  private final IntegerProperty maxCreditsProperty;
-  private final ObjectProperty<LevelWrapper> parentProperty;
-  private final ObjectProperty<CourseWrapper> courseProperty;
   private final SetProperty<LevelWrapper> childrenProperty;
-  private final ObjectProperty<Level> levelProperty;
+  private Level level;
+  private LevelWrapper parent;
+  private CourseWrapper course;
+  private IntegerProperty idProperty;
+  private StringProperty nameProperty;
+  private IntegerProperty minCreditsProperty;
+  private IntegerProperty maxCreditsProperty;
+  private ObjectProperty<LevelWrapper> parentProperty;
+  private ObjectProperty<CourseWrapper> courseProperty;
+  private ObjectProperty<Level> levelProperty;
 
   /**
-   * Initialize the property bindings according to the given {@link Level}.
+   * Wrap the given {@link Level}, the properties except for the children are created on first
+   * access.
    */
   public LevelWrapper(final Level level) {
     assert level != null;
-    nameProperty = new SimpleStringProperty(level.getName());
-    minCreditsProperty = new SimpleIntegerProperty(level.getMinCreditPoints());
-    maxCreditsProperty = new SimpleIntegerProperty(level.getMaxCreditPoints());
-    parentProperty = new SimpleObjectProperty<>();
+    this.level = level;
     childrenProperty = new SimpleSetProperty<>();
-    levelProperty = new SimpleObjectProperty<>(level);
-    courseProperty = new SimpleObjectProperty<>();
-    idProperty = new SimpleIntegerProperty(level.getId());
-    setPropertyListener();
-  }
-
-  private void setPropertyListener() {
-    nameProperty.addListener((observable, oldValue, newValue) ->
-          levelProperty.get().setName(newValue));
-    minCreditsProperty.addListener((observable, oldValue, newValue) ->
-          levelProperty.get().setMinCreditPoints(newValue.intValue()));
-    maxCreditsProperty.addListener((observable, oldValue, newValue) ->
-          levelProperty.get().setMaxCreditPoints(newValue.intValue()));
-
-    parentProperty.addListener((observable, oldValue, newValue) -> {
-      if (newValue != null) {
-        levelProperty.get().setParent(newValue.getLevel());
-      } else {
-        levelProperty.get().setParent(null);
-      }
-    });
-
-    courseProperty.addListener((observable, oldValue, newValue) -> {
-      if (newValue != null) {
-        levelProperty.get().setCourse(newValue.getCourse());
-      } else {
-        levelProperty.get().setCourse(null);
-      }
-    });
-
     childrenProperty.addListener((observable, oldValue, newValue) ->
-          addOrRemoveLevel(levelProperty.get().getChildren(), oldValue, newValue));
-
-    idProperty.addListener((observable, oldValue, newValue) -> {
-      final Level level = levelProperty.get();
-      if (newValue != null) {
-        level.setId(newValue.intValue());
-        return;
-      }
-      level.setId(-1);
-    });
+          addOrRemoveLevel(this.level.getChildren(), oldValue, newValue));
   }
 
   private void addOrRemoveLevel(final Set<Level> levels,
@@ -94,75 +53,169 @@ public class LevelWrapper implements EntityWrapper {
   }
 
   public int getId() {
-    return idProperty.get();
+    return level.getId();
   }
 
+  /**
+   * Set the id of the level, notifying the {@link #idProperty()} if it has been created.
+   */
   public void setId(int id) {
-    this.idProperty.set(id);
+    if (idProperty == null) {
+      level.setId(id);
+    } else {
+      idProperty.set(id);
+    }
   }
 
+  /**
+   * The id of the level, created on first access.
+   */
   public IntegerProperty idProperty() {
+    if (idProperty == null) {
+      idProperty = WriteThroughProperties.ofInt(level.getId(), id -> level.setId(id));
+    }
     return idProperty;
   }
 
   public String getNameProperty() {
-    return nameProperty.get();
+    return level.getName();
   }
 
+  /**
+   * Set the name of the level, notifying the {@link #nameProperty()} if it has been created.
+   */
   public void setNameProperty(final String name) {
-    this.nameProperty.set(name);
+    if (nameProperty == null) {
+      level.setName(name);
+    } else {
+      nameProperty.set(name);
+    }
   }
 
+  /**
+   * The name of the level, created on first access.
+   */
   public StringProperty nameProperty() {
+    if (nameProperty == null) {
+      nameProperty = WriteThroughProperties.ofString(level.getName(), name -> level.setName(name));
+    }
     return nameProperty;
   }
 
   public String getName() {
-    return nameProperty.get();
+    return level.getName();
   }
 
   public int getMinCreditsProperty() {
-    return minCreditsProperty.get();
+    return level.getMinCreditPoints();
   }
 
+  /**
+   * Set the minimal credit points of the level, notifying the {@link #minCreditsProperty()} if it
+   * has been created.
+   */
   public void setMinCredits(final int minCredits) {
-    this.minCreditsProperty.set(minCredits);
+    if (minCreditsProperty == null) {
+      level.setMinCreditPoints(minCredits);
+    } else {
+      minCreditsProperty.set(minCredits);
+    }
   }
 
+  /**
+   * The minimal credit points of the level, created on first access.
+   */
   public IntegerProperty minCreditsProperty() {
+    if (minCreditsProperty == null) {
+      minCreditsProperty = WriteThroughProperties.ofInt(level.getMinCreditPoints(),
+          minCredits -> level.setMinCreditPoints(minCredits));
+    }
     return minCreditsProperty;
   }
 
   public int getMaxCreditsProperty() {
-    return maxCreditsProperty.get();
+    return level.getMaxCreditPoints();
   }
 
+  /**
+   * Set the maximal credit points of the level, notifying the {@link #maxCreditsProperty()} if it
+   * has been created.
+   */
   public void setMaxCredits(final int maxCredits) {
-    this.maxCreditsProperty.set(maxCredits);
+    if (maxCreditsProperty == null) {
+      level.setMaxCreditPoints(maxCredits);
+    } else {
+      maxCreditsProperty.set(maxCredits);
+    }
   }
 
+  /**
+   * The maximal credit points of the level, created on first access.
+   */
   public IntegerProperty maxCreditsProperty() {
+    if (maxCreditsProperty == null) {
+      maxCreditsProperty = WriteThroughProperties.ofInt(level.getMaxCreditPoints(),
+          maxCredits -> level.setMaxCreditPoints(maxCredits));
+    }
     return maxCreditsProperty;
   }
 
   public LevelWrapper getParent() {
-    return parentProperty.get();
+    return parent;
   }
 
+  /**
+   * Set the parent wrapper of the level and the parent of the wrapped level, notifying the
+   * {@link #parentProperty()} if it has been created.
+   */
   public void setParent(final LevelWrapper parent) {
-    this.parentProperty.set(parent);
+    if (parentProperty != null) {
+      parentProperty.set(parent);
+    } else if (this.parent != parent) {
+      writeParent(parent);
+    }
   }
 
+  /**
+   * The parent wrapper of the level, created on first access.
+   */
   public ObjectProperty<LevelWrapper> parentProperty() {
+    if (parentProperty == null) {
+      parentProperty = WriteThroughProperties.ofObject(parent, this::writeParent);
+    }
     return parentProperty;
   }
 
+  private void writeParent(final LevelWrapper parent) {
+    this.parent = parent;
+    level.setParent(parent == null ? null : parent.getLevel());
+  }
+
+  /**
+   * The course wrapper of the level, created on first access.
+   */
   public ObjectProperty<CourseWrapper> courseProperty() {
+    if (courseProperty == null) {
+      courseProperty = WriteThroughProperties.ofObject(course, this::writeCourse);
+    }
     return courseProperty;
   }
 
+  /**
+   * Set the course wrapper of the level and the course of the wrapped level, notifying the
+   * {@link #courseProperty()} if it has been created.
+   */
   public void setCourseProperty(final CourseWrapper courseWrapper) {
-    courseProperty.set(courseWrapper);
+    if (courseProperty != null) {
+      courseProperty.set(courseWrapper);
+    } else if (course != courseWrapper) {
+      writeCourse(courseWrapper);
+    }
+  }
+
+  private void writeCourse(final CourseWrapper courseWrapper) {
+    course = courseWrapper;
+    level.setCourse(courseWrapper == null ? null : courseWrapper.getCourse());
   }
 
   public ObservableSet<LevelWrapper> getChildrenProperty() {
@@ -177,16 +230,22 @@ public class LevelWrapper implements EntityWrapper {
     return childrenProperty;
   }
 
+  /**
+   * The wrapped level, created on first access.
+   */
   public ObjectProperty<Level> levelProperty() {
+    if (levelProperty == null) {
+      levelProperty = WriteThroughProperties.ofObject(level, newLevel -> level = newLevel);
+    }
     return levelProperty;
   }
 
   @Override
   public String toString() {
-    if (levelProperty.get() == null) {
+    if (level == null) {
       return "";
     }
-    return levelProperty.get().getName();
+    return level.getName();
   }
 
   @Override
@@ -194,12 +253,25 @@ public class LevelWrapper implements EntityWrapper {
     return EntityType.LEVEL;
   }
 
+  /**
+   * Take over the columns of the given level read from the database, e.g. since its row has been
+   * changed outside of the editor. The properties created so far are updated as well. Returns
+   * whether any of the columns has changed.
+   */
+  public boolean update(final Level source) {
+    final boolean changed = level.copyColumns(source);
+    WriteThroughProperties.update(nameProperty, level.getName());
+    WriteThroughProperties.update(minCreditsProperty, level.getMinCreditPoints());
+    WriteThroughProperties.update(maxCreditsProperty, level.getMaxCreditPoints());
+    return changed;
+  }
+
   public Level getLevel() {
-    return levelProperty.get();
+    return level;
   }
 
   public CourseWrapper getCourseWrapper() {
-    return courseProperty.get();
+    return course;
   }
 
   /**
@@ -1,6 +1,7 @@
 package de.hhu.stups.plues.dataeditor.ui.entities;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,10 +14,12 @@ import javax.persistence.MappedSuperclass;
 abstract class ModelEntity {
 
   @UpdateTimestamp
+  @Type(type = "org.hibernate.usertype.SqliteDateTimeType")
   @Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
   @CreationTimestamp
+  @Type(type = "org.hibernate.usertype.SqliteDateTimeType")
   @Column(name = "created_at")
   private LocalDateTime createdAt;
 
@@ -54,4 +57,9 @@ abstract class ModelEntity {
     this.createdAt = createdAt;
   }
 
+  void copyTimestamps(final ModelEntity other) {
+    this.updatedAt = other.updatedAt;
+    this.createdAt = other.createdAt;
+  }
+
 }
\ No newline at end of file
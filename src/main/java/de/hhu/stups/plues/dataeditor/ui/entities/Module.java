@@ -65,6 +65,25 @@ public class Module extends ModelEntity implements Serializable {
     // Default constructor is required by hibernate
   }
 
+  /**
+   * Take over the columns of the given module, e.g. read again from the database, and tell whether
+   * any of them has changed. The id and the relations are left untouched.
+   */
+  boolean copyColumns(final Module other) {
+    final boolean changed = !Objects.equals(key, other.key)
+        || !Objects.equals(title, other.title)
+        || !Objects.equals(pordnr, other.pordnr)
+        || !Objects.equals(electiveUnits, other.electiveUnits)
+        || !Objects.equals(bundled, other.bundled);
+    this.key = other.key;
+    this.title = other.title;
+    this.pordnr = other.pordnr;
+    this.electiveUnits = other.electiveUnits;
+    this.bundled = other.bundled;
+    copyTimestamps(other);
+    return changed;
+  }
+
   public Boolean getBundled() {
     return bundled;
   }
@@ -4,11 +4,7 @@ import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SetProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
@@ -18,133 +14,184 @@ import java.util.stream.Collectors;
 
 public class ModuleWrapper implements EntityWrapper {
 
-  private final IntegerProperty idProperty;
-  private final StringProperty keyProperty;
-  private final StringProperty titleProperty;
-  private final IntegerProperty pordnrProperty;
-  private final IntegerProperty electiveUnitsProperty;
-  private final BooleanProperty bundledProperty;
   private final SetProperty<AbstractUnitWrapper> abstractUnitsProperty;
   private final SetProperty<CourseWrapper> coursesProperty;
-  private final ObjectProperty<Module> moduleProperty;
-  private final ObjectProperty<LevelWrapper> levelProperty;
+  private Module module;
+  private LevelWrapper level;
+  private IntegerProperty idProperty;
+  private StringProperty keyProperty;
+  private StringProperty titleProperty;
+  private IntegerProperty pordnrProperty;
+  private IntegerProperty electiveUnitsProperty;
+  private BooleanProperty bundledProperty;
+  private ObjectProperty<Module> moduleProperty;
 
   /**
-   * Initialize the property bindings according to the given {@link Module}.
+   * Wrap the given {@link Module}, the properties except for the abstract units and courses are
+   * created on first access.
    */
   public ModuleWrapper(final Module module) {
     assert module != null;
-    keyProperty = new SimpleStringProperty(module.getKey());
-    titleProperty = new SimpleStringProperty(module.getTitle());
-    pordnrProperty = new SimpleIntegerProperty(module.getPordnr());
-    bundledProperty = new SimpleBooleanProperty(module.getBundled());
-    electiveUnitsProperty = new SimpleIntegerProperty(module.getElectiveUnits());
+    this.module = module;
     abstractUnitsProperty = new SimpleSetProperty<>(FXCollections.observableSet());
     coursesProperty = new SimpleSetProperty<>(FXCollections.observableSet());
-    levelProperty = new SimpleObjectProperty<>();
-    moduleProperty = new SimpleObjectProperty<>(module);
-    idProperty = new SimpleIntegerProperty(module.getId());
     setPropertyListener();
   }
 
   private void setPropertyListener() {
-    keyProperty.addListener((observable, oldValue, newValue) ->
-          moduleProperty.get().setKey(newValue));
-    titleProperty.addListener((observable, oldValue, newValue) ->
-          moduleProperty.get().setTitle(newValue));
-    pordnrProperty.addListener((observable, oldValue, newValue) ->
-          moduleProperty.get().setPordnr(newValue.intValue()));
-    bundledProperty.addListener((observable, oldValue, newValue) ->
-          moduleProperty.get().setBundled(newValue));
-    electiveUnitsProperty.addListener((observable, oldValue, newValue) ->
-          moduleProperty.get().setElectiveUnits(newValue.intValue()));
-    levelProperty.addListener((observable, oldValue, newValue) ->
-          moduleProperty.get().setLevel(newValue.getLevel()));
     coursesProperty.addListener((observable, oldValue, newValue) ->
           addOrRemoveCourse(newValue));
     abstractUnitsProperty.addListener((observable, oldValue, newValue) ->
           addOrRemoveAbstractUnit(newValue));
-    idProperty.addListener((observable, oldValue, newValue) -> {
-      final Module module = moduleProperty.get();
-      if (newValue != null) {
-        module.setId(newValue.intValue());
-        return;
-      }
-      module.setId(-1);
-    });
   }
 
   private void addOrRemoveAbstractUnit(final ObservableSet<AbstractUnitWrapper> newValue) {
-    moduleProperty.get().setAbstractUnits(newValue.stream().map(
+    module.setAbstractUnits(newValue.stream().map(
           AbstractUnitWrapper::getAbstractUnit).collect(Collectors.toSet()));
   }
 
   private void addOrRemoveCourse(final ObservableSet<CourseWrapper> newValue) {
-    moduleProperty.get().setCourses(newValue.stream().map(
+    module.setCourses(newValue.stream().map(
           CourseWrapper::getCourse).collect(Collectors.toSet()));
   }
 
   public int getId() {
-    return idProperty.get();
+    return module.getId();
   }
 
+  /**
+   * The id of the module, created on first access.
+   */
   public IntegerProperty idProperty() {
+    if (idProperty == null) {
+      idProperty = WriteThroughProperties.ofInt(module.getId(), id -> module.setId(id));
+    }
     return idProperty;
   }
 
+  /**
+   * Set the id of the module, notifying the {@link #idProperty()} if it has been created.
+   */
   public void setId(int id) {
-    this.idProperty.set(id);
+    if (idProperty == null) {
+      module.setId(id);
+    } else {
+      idProperty.set(id);
+    }
   }
 
   public String getKey() {
-    return keyProperty.get();
+    return module.getKey();
   }
 
+  /**
+   * Set the key of the module, notifying the {@link #keyProperty()} if it has been created.
+   */
   public void setKeyProperty(String keyProperty) {
-    this.keyProperty.set(keyProperty);
+    if (this.keyProperty == null) {
+      module.setKey(keyProperty);
+    } else {
+      this.keyProperty.set(keyProperty);
+    }
   }
 
+  /**
+   * The key of the module, created on first access.
+   */
   public StringProperty keyProperty() {
+    if (keyProperty == null) {
+      keyProperty = WriteThroughProperties.ofString(module.getKey(), key -> module.setKey(key));
+    }
     return keyProperty;
   }
 
   public String getTitle() {
-    return titleProperty.get();
+    return module.getTitle();
   }
 
+  /**
+   * Set the title of the module, notifying the {@link #titleProperty()} if it has been created.
+   */
   public void setTitleProperty(String titleProperty) {
-    this.titleProperty.set(titleProperty);
+    if (this.titleProperty == null) {
+      module.setTitle(titleProperty);
+    } else {
+      this.titleProperty.set(titleProperty);
+    }
   }
 
+  /**
+   * The title of the module, created on first access.
+   */
   public StringProperty titleProperty() {
+    if (titleProperty == null) {
+      titleProperty =
+          WriteThroughProperties.ofString(module.getTitle(), title -> module.setTitle(title));
+    }
     return titleProperty;
   }
 
   public int getPordnr() {
-    return pordnrProperty.get();
+    return module.getPordnr();
   }
 
+  /**
+   * Set the pordnr of the module, notifying the {@link #pordnrProperty()} if it has been created.
+   */
   public void setPordnrProperty(int pordnrProperty) {
-    this.pordnrProperty.set(pordnrProperty);
+    if (this.pordnrProperty == null) {
+      module.setPordnr(pordnrProperty);
+    } else {
+      this.pordnrProperty.set(pordnrProperty);
+    }
   }
 
+  /**
+   * The pordnr of the module, created on first access.
+   */
   public IntegerProperty pordnrProperty() {
+    if (pordnrProperty == null) {
+      pordnrProperty =
+          WriteThroughProperties.ofInt(module.getPordnr(), pordnr -> module.setPordnr(pordnr));
+    }
     return pordnrProperty;
   }
 
+  /**
+   * Whether the module is bundled, created on first access.
+   */
   public BooleanProperty bundledProperty() {
+    if (bundledProperty == null) {
+      bundledProperty = WriteThroughProperties.ofBoolean(module.getBundled(),
+          bundled -> module.setBundled(bundled));
+    }
     return bundledProperty;
   }
 
   public int getElectiveUnits() {
-    return electiveUnitsProperty.get();
+    return module.getElectiveUnits();
   }
 
+  /**
+   * Set the elective units of the module, notifying the {@link #electiveUnitsProperty()} if it
+   * has been created.
+   */
   public void setElectiveUnitsProperty(int electiveUnitsProperty) {
-    this.electiveUnitsProperty.set(electiveUnitsProperty);
+    if (this.electiveUnitsProperty == null) {
+      module.setElectiveUnits(electiveUnitsProperty);
+    } else {
+      this.electiveUnitsProperty.set(electiveUnitsProperty);
+    }
   }
 
+  /**
+   * The elective units of the module, created on first access.
+   */
   public IntegerProperty electiveUnitsProperty() {
+    if (electiveUnitsProperty == null) {
+      electiveUnitsProperty = WriteThroughProperties.ofInt(module.getElectiveUnits(),
+          electiveUnits -> module.setElectiveUnits(electiveUnits));
+    }
     return electiveUnitsProperty;
   }
 
@@ -172,20 +219,41 @@ public class ModuleWrapper implements EntityWrapper {
     return coursesProperty;
   }
 
+  /**
+   * The wrapped module, created on first access.
+   */
   public ObjectProperty<Module> moduleProperty() {
+    if (moduleProperty == null) {
+      moduleProperty = WriteThroughProperties.ofObject(module, newModule -> module = newModule);
+    }
     return moduleProperty;
   }
 
+  /**
+   * Take over the columns of the given module read from the database, e.g. since its row has been
+   * changed outside of the editor. The properties created so far are updated as well. Returns
+   * whether any of the columns has changed.
+   */
+  public boolean update(final Module source) {
+    final boolean changed = module.copyColumns(source);
+    WriteThroughProperties.update(keyProperty, module.getKey());
+    WriteThroughProperties.update(titleProperty, module.getTitle());
+    WriteThroughProperties.update(pordnrProperty, module.getPordnr());
+    WriteThroughProperties.update(electiveUnitsProperty, module.getElectiveUnits());
+    WriteThroughProperties.update(bundledProperty, module.getBundled());
+    return changed;
+  }
+
   public Module getModule() {
-    return moduleProperty.get();
+    return module;
   }
 
   @Override
   public String toString() {
-    if (moduleProperty.get() == null) {
+    if (module == null) {
       return "";
     }
-    return moduleProperty.get().getTitle();
+    return module.getTitle();
   }
 
   @Override
@@ -207,10 +275,16 @@ public class ModuleWrapper implements EntityWrapper {
   }
 
   public LevelWrapper getLevel() {
-    return levelProperty.get();
+    return level;
   }
 
+  /**
+   * Set the level wrapper of the module and the level of the wrapped module.
+   */
   public void setLevel(LevelWrapper level) {
-    levelProperty.set(level);
+    if (this.level != level) {
+      this.level = level;
+      module.setLevel(level.getLevel());
+    }
   }
 }
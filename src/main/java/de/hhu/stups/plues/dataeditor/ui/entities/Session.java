@@ -45,6 +45,25 @@ public class Session extends ModelEntity implements Serializable {
     // Default constructor is required by hibernate
   }
 
+  /**
+   * Take over the columns of the given session, e.g. read again from the database, and tell whether
+   * any of them has changed. The id and the relations are left untouched.
+   */
+  boolean copyColumns(final Session other) {
+    final boolean changed = !Objects.equals(day, other.day)
+        || !Objects.equals(time, other.time)
+        || !Objects.equals(rhythm, other.rhythm)
+        || !Objects.equals(duration, other.duration)
+        || !Objects.equals(tentative, other.tentative);
+    this.day = other.day;
+    this.time = other.time;
+    this.rhythm = other.rhythm;
+    this.duration = other.duration;
+    this.tentative = other.tentative;
+    copyTimestamps(other);
+    return changed;
+  }
+
   private static void initMaps() {
     dayOfWeekMap.put("mon", DayOfWeek.MONDAY);
     dayOfWeekMap.put("tue", DayOfWeek.TUESDAY);
@@ -3,165 +3,250 @@ package de.hhu.stups.plues.dataeditor.ui.entities;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
 public class SessionWrapper implements EntityWrapper {
 
-  private final IntegerProperty idProperty;
-  private final StringProperty dayProperty;
-  private final IntegerProperty timeProperty;
-  private final IntegerProperty rhythmProperty;
-  private final IntegerProperty durationProperty;
-  private final BooleanProperty tentativeProperty;
-  private final ObjectProperty<Group> groupProperty;
-  private final ObjectProperty<Session> sessionProperty;
+  private Session session;
+  private IntegerProperty idProperty;
+  private StringProperty dayProperty;
+  private IntegerProperty timeProperty;
+  private IntegerProperty rhythmProperty;
+  private IntegerProperty durationProperty;
+  private BooleanProperty tentativeProperty;
+  private ObjectProperty<Group> groupProperty;
+  private ObjectProperty<Session> sessionProperty;
 
   /**
-   * Initialize the property bindings according to the given {@link Session}.
+   * Wrap the given {@link Session}, the properties are created on first access.
    */
   public SessionWrapper(final Session session) {
     assert session != null;
-    dayProperty = new SimpleStringProperty(session.getDay());
-    timeProperty = new SimpleIntegerProperty(session.getTime());
-    rhythmProperty = new SimpleIntegerProperty(session.getRhythm());
-    durationProperty = new SimpleIntegerProperty(session.getDuration());
-    tentativeProperty = new SimpleBooleanProperty(session.isTentative());
-    groupProperty = new SimpleObjectProperty<>(session.getGroup());
-    sessionProperty = new SimpleObjectProperty<>(session);
-    idProperty = new SimpleIntegerProperty(session.getId());
-    setPropertyListener();
-  }
-
-  private void setPropertyListener() {
-    dayProperty.addListener((observable, oldValue, newValue) ->
-          sessionProperty.get().setDay(newValue));
-    timeProperty.addListener((observable, oldValue, newValue) ->
-          sessionProperty.get().setTime(newValue.intValue()));
-    rhythmProperty.addListener((observable, oldValue, newValue) ->
-          sessionProperty.get().setRhythm(newValue.intValue()));
-    durationProperty.addListener((observable, oldValue, newValue) ->
-          sessionProperty.get().setDuration(newValue.intValue()));
-    tentativeProperty.addListener((observable, oldValue, newValue) ->
-          sessionProperty.get().setTentative(newValue));
-    groupProperty.addListener((observable, oldValue, newValue) ->
-          sessionProperty.get().setGroup(newValue));
-
-    idProperty.addListener((observable, oldValue, newValue) -> {
-      final Session session = sessionProperty.get();
-      if (newValue != null) {
-        session.setId(newValue.intValue());
-        return;
-      }
-      session.setId(-1);
-    });
+    this.session = session;
   }
 
   public int getId() {
-    return idProperty.get();
+    return session.getId();
   }
 
+  /**
+   * Set the id of the session, notifying the {@link #idProperty()} if it has been created.
+   */
   public void setId(int id) {
-    this.idProperty.set(id);
+    if (idProperty == null) {
+      session.setId(id);
+    } else {
+      idProperty.set(id);
+    }
   }
 
+  /**
+   * The id of the session, created on first access.
+   */
   public IntegerProperty idProperty() {
+    if (idProperty == null) {
+      idProperty = WriteThroughProperties.ofInt(session.getId(), id -> session.setId(id));
+    }
     return idProperty;
   }
 
   public String getDay() {
-    return dayProperty.get();
+    return session.getDay();
   }
 
+  /**
+   * Set the day of the session, notifying the {@link #dayProperty()} if it has been created.
+   */
   public void setDayProperty(String dayProperty) {
-    this.dayProperty.set(dayProperty);
+    if (this.dayProperty == null) {
+      session.setDay(dayProperty);
+    } else {
+      this.dayProperty.set(dayProperty);
+    }
   }
 
+  /**
+   * The day of the session, created on first access.
+   */
   public StringProperty dayProperty() {
+    if (dayProperty == null) {
+      dayProperty = WriteThroughProperties.ofString(session.getDay(), day -> session.setDay(day));
+    }
     return dayProperty;
   }
 
   public int getTime() {
-    return timeProperty.get();
+    return session.getTime();
   }
 
+  /**
+   * Set the time of the session, notifying the {@link #timeProperty()} if it has been created.
+   */
   public void setTimeProperty(int timeProperty) {
-    this.timeProperty.set(timeProperty);
+    if (this.timeProperty == null) {
+      session.setTime(timeProperty);
+    } else {
+      this.timeProperty.set(timeProperty);
+    }
   }
 
+  /**
+   * The time of the session, created on first access.
+   */
   public IntegerProperty timeProperty() {
+    if (timeProperty == null) {
+      timeProperty =
+          WriteThroughProperties.ofInt(session.getTime(), time -> session.setTime(time));
+    }
     return timeProperty;
   }
 
   public int getRhythm() {
-    return rhythmProperty.get();
+    return session.getRhythm();
   }
 
+  /**
+   * Set the rhythm of the session, notifying the {@link #rhythmProperty()} if it has been created.
+   */
   public void setRhythmProperty(int rhythmProperty) {
-    this.rhythmProperty.set(rhythmProperty);
+    if (this.rhythmProperty == null) {
+      session.setRhythm(rhythmProperty);
+    } else {
+      this.rhythmProperty.set(rhythmProperty);
+    }
   }
 
+  /**
+   * The rhythm of the session, created on first access.
+   */
   public IntegerProperty rhythmProperty() {
+    if (rhythmProperty == null) {
+      rhythmProperty =
+          WriteThroughProperties.ofInt(session.getRhythm(), rhythm -> session.setRhythm(rhythm));
+    }
     return rhythmProperty;
   }
 
   public int getDuration() {
-    return durationProperty.get();
+    return session.getDuration();
   }
 
+  /**
+   * Set the duration of the session, notifying the {@link #durationProperty()} if it has been
+   * created.
+   */
   public void setDurationProperty(int durationProperty) {
-    this.durationProperty.set(durationProperty);
+    if (this.durationProperty == null) {
+      session.setDuration(durationProperty);
+    } else {
+      this.durationProperty.set(durationProperty);
+    }
   }
 
+  /**
+   * The duration of the session, created on first access.
+   */
   public IntegerProperty durationProperty() {
+    if (durationProperty == null) {
+      durationProperty = WriteThroughProperties.ofInt(session.getDuration(),
+          duration -> session.setDuration(duration));
+    }
     return durationProperty;
   }
 
   public boolean isTentativeProperty() {
-    return tentativeProperty.get();
+    return session.isTentative();
   }
 
+  /**
+   * Set whether the session is tentative, notifying the {@link #tentativeProperty()} if it has
+   * been created.
+   */
   public void setTentativeProperty(boolean tentativeProperty) {
-    this.tentativeProperty.set(tentativeProperty);
+    if (this.tentativeProperty == null) {
+      session.setTentative(tentativeProperty);
+    } else {
+      this.tentativeProperty.set(tentativeProperty);
+    }
   }
 
   public boolean isTentative() {
-    return tentativeProperty.get();
+    return session.isTentative();
   }
 
+  /**
+   * Whether the session is tentative, created on first access.
+   */
   public BooleanProperty tentativeProperty() {
+    if (tentativeProperty == null) {
+      tentativeProperty = WriteThroughProperties.ofBoolean(session.isTentative(),
+          tentative -> session.setTentative(tentative));
+    }
     return tentativeProperty;
   }
 
   public Group getGroup() {
-    return groupProperty.get();
+    return session.getGroup();
   }
 
+  /**
+   * Set the group of the session, notifying the {@link #groupProperty()} if it has been created.
+   */
   public void setGroup(Group group) {
-    this.groupProperty.set(group);
+    if (groupProperty == null) {
+      session.setGroup(group);
+    } else {
+      groupProperty.set(group);
+    }
   }
 
+  /**
+   * The group of the session, created on first access.
+   */
   public ObjectProperty<Group> groupProperty() {
+    if (groupProperty == null) {
+      groupProperty =
+          WriteThroughProperties.ofObject(session.getGroup(), group -> session.setGroup(group));
+    }
     return groupProperty;
   }
 
+  /**
+   * The wrapped session, created on first access.
+   */
   public ObjectProperty<Session> sessionProperty() {
+    if (sessionProperty == null) {
+      sessionProperty =
+          WriteThroughProperties.ofObject(session, newSession -> session = newSession);
+    }
     return sessionProperty;
   }
 
+  /**
+   * Take over the columns of the given session read from the database, e.g. since its row has been
+   * changed outside of the editor. The properties created so far are updated as well. Returns
+   * whether any of the columns has changed.
+   */
+  public boolean update(final Session source) {
+    final boolean changed = session.copyColumns(source);
+    WriteThroughProperties.update(dayProperty, session.getDay());
+    WriteThroughProperties.update(timeProperty, session.getTime());
+    WriteThroughProperties.update(rhythmProperty, session.getRhythm());
+    WriteThroughProperties.update(durationProperty, session.getDuration());
+    WriteThroughProperties.update(tentativeProperty, session.isTentative());
+    return changed;
+  }
+
   public Session getSession() {
-    return sessionProperty().get();
+    return session;
   }
 
   @Override
   public String toString() {
-    if (sessionProperty.get() == null) {
+    if (session == null) {
       return "";
     }
-    return sessionProperty.get().toString();
+    return session.toString();
   }
 
   /**
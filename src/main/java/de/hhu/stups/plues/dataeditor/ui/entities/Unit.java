@@ -32,7 +32,7 @@ public class Unit extends ModelEntity implements Serializable {
 
   private String title;
 
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   @CollectionTable(
         name = "unit_semester",
         joinColumns = @JoinColumn(name = "unit_id"))
@@ -49,6 +49,19 @@ public class Unit extends ModelEntity implements Serializable {
     // Default constructor is required by hibernate
   }
 
+  /**
+   * Take over the columns of the given unit, e.g. read again from the database, and tell whether
+   * any of them has changed. The id and the relations are left untouched.
+   */
+  boolean copyColumns(final Unit other) {
+    final boolean changed = !Objects.equals(key, other.key)
+        || !Objects.equals(title, other.title);
+    this.key = other.key;
+    this.title = other.title;
+    copyTimestamps(other);
+    return changed;
+  }
+
   public int getId() {
     return id;
   }
@@ -3,10 +3,7 @@ package de.hhu.stups.plues.dataeditor.ui.entities;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SetProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
@@ -16,62 +13,48 @@ import java.util.stream.Collectors;
 
 public class UnitWrapper implements EntityWrapper {
 
-  private final IntegerProperty idProperty;
-  private final StringProperty keyProperty;
-  private final StringProperty titleProperty;
   private final SetProperty<Integer> semestersProperty;
   private final SetProperty<AbstractUnitWrapper> abstractUnitsProperty;
-  private final ObjectProperty<Unit> unitProperty;
   private final SetProperty<GroupWrapper> groupsProperty;
+  private Unit unit;
+  private IntegerProperty idProperty;
+  private StringProperty keyProperty;
+  private StringProperty titleProperty;
+  private ObjectProperty<Unit> unitProperty;
 
   /**
-   * Initialize the property bindings according to the given {@link Unit}.
+   * Wrap the given {@link Unit}, the properties except for the semesters, abstract units and
+   * groups are created on first access.
    */
   public UnitWrapper(final Unit unit) {
     assert unit != null;
-    keyProperty = new SimpleStringProperty(unit.getKey());
-    titleProperty = new SimpleStringProperty(unit.getTitle());
+    this.unit = unit;
     semestersProperty = new SimpleSetProperty<>(FXCollections.observableSet(unit.getSemesters()));
     abstractUnitsProperty = new SimpleSetProperty<>(FXCollections.observableSet());
-    unitProperty = new SimpleObjectProperty<>(unit);
-    idProperty = new SimpleIntegerProperty(unit.getId());
     groupsProperty = new SimpleSetProperty<>(FXCollections.observableSet());
     setPropertyListener();
   }
 
   private void setPropertyListener() {
-    keyProperty.addListener((observable, oldValue, newValue) ->
-          unitProperty.get().setKey(newValue));
-    titleProperty.addListener((observable, oldValue, newValue) ->
-          unitProperty.get().setTitle(newValue));
     semestersProperty.addListener((observable, oldValue, newValue) ->
           addOrRemoveSemester(newValue));
     abstractUnitsProperty.addListener((observable, oldValue, newValue) ->
           addOrRemoveAbstractUnit(newValue));
     groupsProperty.addListener((observable, oldValue, newValue) ->
           addOrRemoveGroup(newValue));
-
-    idProperty.addListener((observable, oldValue, newValue) -> {
-      final Unit unit = unitProperty.get();
-      if (newValue != null) {
-        unit.setId(newValue.intValue());
-        return;
-      }
-      unit.setId(-1);
-    });
   }
 
   private void addOrRemoveSemester(final ObservableSet<Integer> newValue) {
-    unitProperty.get().setSemesters(newValue);
+    unit.setSemesters(newValue);
   }
 
   private void addOrRemoveAbstractUnit(final ObservableSet<AbstractUnitWrapper> newValue) {
-    unitProperty.get().setAbstractUnits(newValue.stream().map(
+    unit.setAbstractUnits(newValue.stream().map(
           AbstractUnitWrapper::getAbstractUnit).collect(Collectors.toSet()));
   }
 
   private void addOrRemoveGroup(final ObservableSet<GroupWrapper> newValue) {
-    unitProperty.get().setGroups(newValue.stream().map(
+    unit.setGroups(newValue.stream().map(
           GroupWrapper::getGroup).collect(Collectors.toSet()));
   }
 
@@ -88,38 +71,78 @@ public class UnitWrapper implements EntityWrapper {
   }
 
   public int getId() {
-    return idProperty.get();
+    return unit.getId();
   }
 
+  /**
+   * Set the id of the unit, notifying the {@link #idProperty()} if it has been created.
+   */
   public void setId(final int id) {
-    this.idProperty.set(id);
+    if (idProperty == null) {
+      unit.setId(id);
+    } else {
+      idProperty.set(id);
+    }
   }
 
+  /**
+   * The id of the unit, created on first access.
+   */
   public IntegerProperty idProperty() {
+    if (idProperty == null) {
+      idProperty = WriteThroughProperties.ofInt(unit.getId(), id -> unit.setId(id));
+    }
     return idProperty;
   }
 
   public String getKey() {
-    return keyProperty.get();
+    return unit.getKey();
   }
 
+  /**
+   * Set the key of the unit, notifying the {@link #keyProperty()} if it has been created.
+   */
   public void setKey(final String key) {
-    this.keyProperty.set(key);
+    if (keyProperty == null) {
+      unit.setKey(key);
+    } else {
+      keyProperty.set(key);
+    }
   }
 
+  /**
+   * The key of the unit, created on first access.
+   */
   public StringProperty keyProperty() {
+    if (keyProperty == null) {
+      keyProperty = WriteThroughProperties.ofString(unit.getKey(), key -> unit.setKey(key));
+    }
     return keyProperty;
   }
 
   public String getTitle() {
-    return titleProperty.get();
+    return unit.getTitle();
   }
 
+  /**
+   * Set the title of the unit, notifying the {@link #titleProperty()} if it has been created.
+   */
   public void setTitle(final String title) {
-    this.titleProperty.set(title);
+    if (titleProperty == null) {
+      unit.setTitle(title);
+    } else {
+      titleProperty.set(title);
+    }
   }
 
+  /**
+   * The title of the unit, created on first access.
+   */
   public StringProperty titleProperty() {
+    if (titleProperty == null) {
+      titleProperty =
+          WriteThroughProperties.ofString(unit.getTitle(), title -> unit.setTitle(title));
+    }
     return titleProperty;
   }
 
@@ -147,20 +170,38 @@ public class UnitWrapper implements EntityWrapper {
     return abstractUnitsProperty;
   }
 
+  /**
+   * The wrapped unit, created on first access.
+   */
   public ObjectProperty<Unit> unitProperty() {
+    if (unitProperty == null) {
+      unitProperty = WriteThroughProperties.ofObject(unit, newUnit -> unit = newUnit);
+    }
     return unitProperty;
   }
 
+  /**
+   * Take over the columns of the given unit read from the database, e.g. since its row has been
+   * changed outside of the editor. The properties created so far are updated as well. Returns
+   * whether any of the columns has changed.
+   */
+  public boolean update(final Unit source) {
+    final boolean changed = unit.copyColumns(source);
+    WriteThroughProperties.update(keyProperty, unit.getKey());
+    WriteThroughProperties.update(titleProperty, unit.getTitle());
+    return changed;
+  }
+
   public Unit getUnit() {
-    return unitProperty.get();
+    return unit;
   }
 
   @Override
   public String toString() {
-    if (unitProperty.get() == null) {
+    if (unit == null) {
       return "";
     }
-    return unitProperty.get().getTitle();
+    return unit.getTitle();
   }
 
   @Override
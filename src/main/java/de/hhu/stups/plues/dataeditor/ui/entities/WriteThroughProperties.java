@@ -0,0 +1,61 @@
+package de.hhu.stups.plues.dataeditor.ui.entities;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Create the properties of the entity wrappers on demand. The wrappers read their values straight
+ * from the wrapped entity and only create a property once a view asks for it. The property starts
+ * with the current value of the entity and writes each change through to the entity, so that the
+ * entity stays the single source of the values.
+ */
+final class WriteThroughProperties {
+
+  private WriteThroughProperties() {
+  }
+
+  static IntegerProperty ofInt(final int value, final IntConsumer writeThrough) {
+    final IntegerProperty property = new SimpleIntegerProperty(value);
+    property.addListener((observable, oldValue, newValue) ->
+          writeThrough.accept(newValue.intValue()));
+    return property;
+  }
+
+  static StringProperty ofString(final String value, final Consumer<String> writeThrough) {
+    final StringProperty property = new SimpleStringProperty(value);
+    property.addListener((observable, oldValue, newValue) -> writeThrough.accept(newValue));
+    return property;
+  }
+
+  static BooleanProperty ofBoolean(final boolean value, final Consumer<Boolean> writeThrough) {
+    final BooleanProperty property = new SimpleBooleanProperty(value);
+    property.addListener((observable, oldValue, newValue) -> writeThrough.accept(newValue));
+    return property;
+  }
+
+  static <T> ObjectProperty<T> ofObject(final T value, final Consumer<T> writeThrough) {
+    final ObjectProperty<T> property = new SimpleObjectProperty<>(value);
+    property.addListener((observable, oldValue, newValue) -> writeThrough.accept(newValue));
+    return property;
+  }
+
+  /**
+   * Set the given property to the current value of the entity if it has already been created, so
+   * that the views bound to it show a value changed in the entity directly.
+   */
+  static <T> void update(final Property<T> property, final T value) {
+    if (property != null) {
+      property.setValue(value);
+    }
+  }
+}
@@ -6,7 +6,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface AbstractUnitRepository extends CrudRepository<AbstractUnit,Integer> {
+import java.util.List;
+
+public interface AbstractUnitRepository extends CrudRepository<AbstractUnit, Integer>,
+      AbstractUnitRepositoryCustom {
   @Query("SELECT coalesce(max(abstractUnit.id), 1) FROM AbstractUnit abstractUnit")
   int getMaxId();
 
@@ -66,4 +69,28 @@ public interface AbstractUnitRepository extends CrudRepository<AbstractUnit,Inte
   @Query(value = "DELETE FROM unit_abstract_unit WHERE unit_id = ?1",
         nativeQuery = true)
   void deleteUnitAbstractUnitByUnit(int unitId);
+
+  @Query(value = "SELECT abstract_unit_id FROM modules_abstract_units_semesters "
+        + "WHERE module_id = ?1", nativeQuery = true)
+  List<Integer> findSemesterAbstractUnitIdsByModule(int moduleId);
+
+  @Query(value = "SELECT module_id FROM modules_abstract_units_semesters "
+        + "WHERE abstract_unit_id = ?1", nativeQuery = true)
+  List<Integer> findSemesterModuleIdsByAbstractUnit(int abstractUnitId);
+
+  @Query(value = "SELECT abstract_unit_id FROM modules_abstract_units_types "
+        + "WHERE module_id = ?1", nativeQuery = true)
+  List<Integer> findTypeAbstractUnitIdsByModule(int moduleId);
+
+  @Query(value = "SELECT module_id FROM modules_abstract_units_types "
+        + "WHERE abstract_unit_id = ?1", nativeQuery = true)
+  List<Integer> findTypeModuleIdsByAbstractUnit(int abstractUnitId);
+
+  @Query(value = "SELECT unit_id FROM unit_abstract_unit WHERE abstract_unit_id = ?1",
+        nativeQuery = true)
+  List<Integer> findUnitIdsByAbstractUnit(int abstractUnitId);
+
+  @Query(value = "SELECT abstract_unit_id FROM unit_abstract_unit WHERE unit_id = ?1",
+        nativeQuery = true)
+  List<Integer> findAbstractUnitIdsByUnit(int unitId);
 }
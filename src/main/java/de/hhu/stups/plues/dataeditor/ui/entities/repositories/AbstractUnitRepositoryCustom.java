@@ -0,0 +1,23 @@
+package de.hhu.stups.plues.dataeditor.ui.entities.repositories;
+
+import java.util.Collection;
+
+/**
+ * Batch variants of the join table methods of the {@link AbstractUnitRepository}, each executing
+ * all rows in a single round-trip. The rows of the module tables are (module id, abstract unit id)
+ * and the rows of unit_abstract_unit are (unit id, abstract unit id).
+ */
+public interface AbstractUnitRepositoryCustom {
+
+  void insertModuleAbstractUnitSemesters(Collection<JoinRow> joinRows);
+
+  void deleteModuleAbstractUnitSemesters(Collection<JoinRow> joinRows);
+
+  void insertModuleAbstractUnitTypes(Collection<JoinRow> joinRows);
+
+  void deleteModuleAbstractUnitTypes(Collection<JoinRow> joinRows);
+
+  void insertUnitAbstractUnits(Collection<JoinRow> joinRows);
+
+  void deleteUnitAbstractUnits(Collection<JoinRow> joinRows);
+}
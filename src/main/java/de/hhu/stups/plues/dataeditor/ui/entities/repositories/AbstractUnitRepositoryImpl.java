@@ -0,0 +1,64 @@
+package de.hhu.stups.plues.dataeditor.ui.entities.repositories;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+public class AbstractUnitRepositoryImpl implements AbstractUnitRepositoryCustom {
+
+  private static final String INSERT_MODULE_ABSTRACT_UNIT_SEMESTER =
+        "INSERT INTO modules_abstract_units_semesters (module_id, abstract_unit_id, semester) "
+              + "VALUES (?, ?, -1)";
+  private static final String DELETE_MODULE_ABSTRACT_UNIT_SEMESTER =
+        "DELETE FROM modules_abstract_units_semesters WHERE module_id = ? AND abstract_unit_id = ?";
+  private static final String INSERT_MODULE_ABSTRACT_UNIT_TYPE =
+        "INSERT INTO modules_abstract_units_types (module_id, abstract_unit_id, type) "
+              + "VALUES (?, ?, 'm')";
+  private static final String DELETE_MODULE_ABSTRACT_UNIT_TYPE =
+        "DELETE FROM modules_abstract_units_types WHERE module_id = ? AND abstract_unit_id = ?";
+  private static final String INSERT_UNIT_ABSTRACT_UNIT =
+        "INSERT INTO unit_abstract_unit (unit_id, abstract_unit_id) VALUES (?, ?)";
+  private static final String DELETE_UNIT_ABSTRACT_UNIT =
+        "DELETE FROM unit_abstract_unit WHERE unit_id = ? AND abstract_unit_id = ?";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  @Transactional
+  public void insertModuleAbstractUnitSemesters(final Collection<JoinRow> joinRows) {
+    JoinRowBatch.execute(entityManager, INSERT_MODULE_ABSTRACT_UNIT_SEMESTER, joinRows);
+  }
+
+  @Override
+  @Transactional
+  public void deleteModuleAbstractUnitSemesters(final Collection<JoinRow> joinRows) {
+    JoinRowBatch.execute(entityManager, DELETE_MODULE_ABSTRACT_UNIT_SEMESTER, joinRows);
+  }
+
+  @Override
+  @Transactional
+  public void insertModuleAbstractUnitTypes(final Collection<JoinRow> joinRows) {
+    JoinRowBatch.execute(entityManager, INSERT_MODULE_ABSTRACT_UNIT_TYPE, joinRows);
+  }
+
+  @Override
+  @Transactional
+  public void deleteModuleAbstractUnitTypes(final Collection<JoinRow> joinRows) {
+    JoinRowBatch.execute(entityManager, DELETE_MODULE_ABSTRACT_UNIT_TYPE, joinRows);
+  }
+
+  @Override
+  @Transactional
+  public void insertUnitAbstractUnits(final Collection<JoinRow> joinRows) {
+    JoinRowBatch.execute(entityManager, INSERT_UNIT_ABSTRACT_UNIT, joinRows);
+  }
+
+  @Override
+  @Transactional
+  public void deleteUnitAbstractUnits(final Collection<JoinRow> joinRows) {
+    JoinRowBatch.execute(entityManager, DELETE_UNIT_ABSTRACT_UNIT, joinRows);
+  }
+}
@@ -6,7 +6,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface CourseRepository extends CrudRepository<Course, Integer> {
+import java.util.List;
+
+public interface CourseRepository extends CrudRepository<Course, Integer>,
+      CourseRepositoryCustom {
   @Query("SELECT coalesce(max(course.id), 1) FROM Course course")
   int getMaxId();
 
@@ -33,6 +36,12 @@ public interface CourseRepository extends CrudRepository<Course, Integer> {
         nativeQuery = true)
   void insertMinor(int minorId, int majorId);
 
+  @Query(value = "select course_id from minors where minor_course_id = ?1", nativeQuery = true)
+  List<Integer> findMajorIdsOfMinor(int minorId);
+
+  @Query(value = "select minor_course_id from minors where course_id = ?1", nativeQuery = true)
+  List<Integer> findMinorIdsOfMajor(int majorId);
+
   @Transactional
   @Modifying
   @Query(value = "delete from minors where minor_course_id = ?1 or course_id = ?1",
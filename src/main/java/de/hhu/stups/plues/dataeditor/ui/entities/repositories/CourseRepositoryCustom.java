@@ -0,0 +1,15 @@
+package de.hhu.stups.plues.dataeditor.ui.entities.repositories;
+
+import java.util.Collection;
+
+/**
+ * Batch variants of the minor methods of the {@link CourseRepository}, each executing all rows in a
+ * single round-trip. The rows are (minor course id, major course id) like in
+ * {@link CourseRepository#insertMinor(int, int)}.
+ */
+public interface CourseRepositoryCustom {
+
+  void insertMinors(Collection<JoinRow> joinRows);
+
+  void deleteMinors(Collection<JoinRow> joinRows);
+}
@@ -0,0 +1,30 @@
+package de.hhu.stups.plues.dataeditor.ui.entities.repositories;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+public class CourseRepositoryImpl implements CourseRepositoryCustom {
+
+  private static final String INSERT_MINOR =
+        "insert into minors (minor_course_id, course_id) VALUES (?, ?)";
+  private static final String DELETE_MINOR =
+        "delete from minors where minor_course_id = ? and course_id = ?";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  @Transactional
+  public void insertMinors(final Collection<JoinRow> joinRows) {
+    JoinRowBatch.execute(entityManager, INSERT_MINOR, joinRows);
+  }
+
+  @Override
+  @Transactional
+  public void deleteMinors(final Collection<JoinRow> joinRows) {
+    JoinRowBatch.execute(entityManager, DELETE_MINOR, joinRows);
+  }
+}
@@ -0,0 +1,44 @@
+package de.hhu.stups.plues.dataeditor.ui.entities.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A single row of a join table consisting of two ids in the order of the parameters of the
+ * corresponding single row repository method.
+ */
+public final class JoinRow {
+
+  private final int leftId;
+  private final int rightId;
+
+  public JoinRow(final int leftId, final int rightId) {
+    this.leftId = leftId;
+    this.rightId = rightId;
+  }
+
+  /**
+   * Create the rows joining the given left id with each of the right ids.
+   */
+  public static List<JoinRow> withLeft(final int leftId, final Collection<Integer> rightIds) {
+    return rightIds.stream().map(rightId -> new JoinRow(leftId, rightId))
+          .collect(Collectors.toList());
+  }
+
+  /**
+   * Create the rows joining each of the left ids with the given right id.
+   */
+  public static List<JoinRow> withRight(final Collection<Integer> leftIds, final int rightId) {
+    return leftIds.stream().map(leftId -> new JoinRow(leftId, rightId))
+          .collect(Collectors.toList());
+  }
+
+  public int getLeftId() {
+    return leftId;
+  }
+
+  public int getRightId() {
+    return rightId;
+  }
+}
@@ -0,0 +1,36 @@
+package de.hhu.stups.plues.dataeditor.ui.entities.repositories;
+
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import javax.persistence.EntityManager;
+
+/**
+ * Execute a statement with two id parameters for many join rows as a single JDBC batch on the
+ * connection of the current transaction.
+ */
+final class JoinRowBatch {
+
+  private JoinRowBatch() {
+  }
+
+  static void execute(final EntityManager entityManager, final String statement,
+                      final Collection<JoinRow> joinRows) {
+    if (joinRows.isEmpty()) {
+      return;
+    }
+    // write pending changes of the persistence context before bypassing it
+    entityManager.flush();
+    entityManager.unwrap(Session.class).doWork(connection -> {
+      try (final PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
+        for (final JoinRow joinRow : joinRows) {
+          preparedStatement.setInt(1, joinRow.getLeftId());
+          preparedStatement.setInt(2, joinRow.getRightId());
+          preparedStatement.addBatch();
+        }
+        preparedStatement.executeBatch();
+      }
+    });
+  }
+}
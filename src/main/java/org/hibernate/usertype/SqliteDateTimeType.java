@@ -11,19 +11,16 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.Objects;
 
+/**
+ * Map the textual UTC time stamps of SQLite, e.g. 2016-04-27 15:40:18, to local date times of the
+ * default time zone, see {@link SqliteTimeStamps}. Time stamps are always written as text, the
+ * milliseconds since the epoch written by former versions of the JDBC driver are still read.
+ */
 public class SqliteDateTimeType implements UserType {
-  // e.g. 2016-04-27 15:40:18
-  private static final String SQLITE_TEXT_TIME_STAMP = "yyyy-MM-dd kk:mm:ss";
 
   private final Logger logger = LoggerFactory.getLogger(getClass());
-  private final DateTimeFormatter dateTimeFormatter
-      = DateTimeFormatter.ofPattern(SQLITE_TEXT_TIME_STAMP);
 
   @Override
   public int[] sqlTypes() {
@@ -51,29 +48,27 @@ public class SqliteDateTimeType implements UserType {
       throws SQLException {
     assert names.length == 1;
     final String dateStr = rs.getString(names[0]);
-
-    final DateTimeFormatter formatter = dateTimeFormatter.withZone(ZoneId.of("UTC"));
-    try {
-      final ZonedDateTime utcDate = ZonedDateTime.parse(dateStr, formatter);
-      return utcDate.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
-    } catch (final DateTimeParseException | NullPointerException exception) {
-      logger.error("Exception was thrown", exception);
-      throw new HibernateException(exception.getMessage());
+    if (dateStr == null) {
+      return null;
+    }
+    final LocalDateTime dateTime = SqliteTimeStamps.parseToLocal(dateStr);
+    if (dateTime == null) {
+      logger.error("Unexpected time stamp {}", dateStr);
+      throw new HibernateException("Unexpected time stamp " + dateStr);
     }
+    return dateTime;
   }
 
   @Override
   public void nullSafeSet(final PreparedStatement st, final Object value, final int index,
                           final SharedSessionContractImplementor session)
       throws SQLException {
-    final ZonedDateTime local = ((LocalDateTime) value).atZone(ZoneId.systemDefault());
-    final ZonedDateTime dateTime = local.withZoneSameInstant(ZoneId.of("UTC"));
-    try {
-      st.setString(index, dateTimeFormatter.format(dateTime));
-    } catch (final IllegalArgumentException exception) {
-      logger.error("Exception was thrown", exception);
-      throw new HibernateException(exception.getMessage());
+    if (value == null) {
+      st.setNull(index, Types.TIMESTAMP);
+      return;
     }
+    st.setString(index,
+        SqliteTimeStamps.format(SqliteTimeStamps.localToUtc((LocalDateTime) value)));
   }
 
   @Override
@@ -98,6 +93,7 @@ public class SqliteDateTimeType implements UserType {
 
   @Override
   public Object replace(final Object original, final Object target, final Object owner) {
-    throw new HibernateException("Currently not supported");
+    // local date times are immutable, merging a detached entity just takes over the original
+    return original;
   }
 }
@@ -0,0 +1,204 @@
+package org.hibernate.usertype;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Parse and format the textual time stamps of SQLite, e.g. 2016-04-27 15:40:18, and convert them
+ * between UTC and the default time zone. The layout is fixed, so the digits are read directly from
+ * the text instead of running a {@link DateTimeFormatter} for each of the two time stamps of every
+ * row. The offset of the default zone is cached for the period between two of its transitions.
+ */
+public final class SqliteTimeStamps {
+
+  private static final ZoneId ZONE = ZoneId.systemDefault();
+  private static final long SECONDS_PER_DAY = 86400;
+  private static final int[] FRACTION_SCALES = {
+      100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+  // years beyond four digits are left to the formatter
+  private static final DateTimeFormatter FORMATTER =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  private static volatile OffsetPeriod offsetPeriod = OffsetPeriod.of(Instant.now());
+
+  private SqliteTimeStamps() {
+  }
+
+  /**
+   * Parse a time stamp of the layout yyyy-MM-dd HH:mm:ss with an optional fraction of up to nine
+   * digits. The hour 24 written by former versions of the editor is midnight of the same day.
+   * Returns null for null and for any text of another layout, no exception is thrown.
+   */
+  public static LocalDateTime parse(final CharSequence text) {
+    if (text == null) {
+      return null;
+    }
+    final int length = text.length();
+    if (length < 19 || length == 20 || length > 29
+        || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != ' '
+        || text.charAt(13) != ':' || text.charAt(16) != ':'
+        || length > 19 && text.charAt(19) != '.') {
+      return null;
+    }
+    final int year = digits(text, 0, 4);
+    final int month = digits(text, 5, 7);
+    final int day = digits(text, 8, 10);
+    final int hour = digits(text, 11, 13);
+    final int minute = digits(text, 14, 16);
+    final int second = digits(text, 17, 19);
+    final int fraction = length > 19 ? digits(text, 20, length) : 0;
+    if (year < 0 || month < 1 || month > 12 || day < 1
+        || day > 28 && day > Month.of(month).length(Year.isLeap(year))
+        || hour < 0 || hour > 24 || minute < 0 || minute > 59 || second < 0 || second > 59
+        || fraction < 0) {
+      return null;
+    }
+    final int nano = length > 19 ? fraction * FRACTION_SCALES[length - 21] : 0;
+    return LocalDateTime.of(year, month, day, hour % 24, minute, second, nano);
+  }
+
+  /**
+   * Format the given time stamp as yyyy-MM-dd HH:mm:ss, the fraction of the second is dropped.
+   */
+  public static String format(final LocalDateTime dateTime) {
+    final int year = dateTime.getYear();
+    if (year < 0 || year > 9999) {
+      return FORMATTER.format(dateTime);
+    }
+    final char[] text = new char[19];
+    putDigits(text, 0, 4, year);
+    text[4] = '-';
+    putDigits(text, 5, 7, dateTime.getMonthValue());
+    text[7] = '-';
+    putDigits(text, 8, 10, dateTime.getDayOfMonth());
+    text[10] = ' ';
+    putDigits(text, 11, 13, dateTime.getHour());
+    text[13] = ':';
+    putDigits(text, 14, 16, dateTime.getMinute());
+    text[16] = ':';
+    putDigits(text, 17, 19, dateTime.getSecond());
+    return new String(text);
+  }
+
+  /**
+   * Convert the given UTC time stamp to the default time zone.
+   */
+  public static LocalDateTime utcToLocal(final LocalDateTime utc) {
+    final long epochSecond = utc.toEpochSecond(ZoneOffset.UTC);
+    return LocalDateTime.ofEpochSecond(epochSecond, utc.getNano(), offsetAt(epochSecond));
+  }
+
+  /**
+   * Convert the given milliseconds since the epoch to a time stamp of the default time zone.
+   */
+  public static LocalDateTime epochMilliToLocal(final long epochMilli) {
+    final long epochSecond = Math.floorDiv(epochMilli, 1000);
+    final int nano = (int) Math.floorMod(epochMilli, 1000) * 1_000_000;
+    return LocalDateTime.ofEpochSecond(epochSecond, nano, offsetAt(epochSecond));
+  }
+
+  /**
+   * Parse a time stamp as stored by SQLite to the default time zone. The text written by the
+   * database defaults, e.g. 2016-04-27 15:40:18, is in UTC, while former versions of the JDBC
+   * driver wrote milliseconds since the epoch. Returns null for null and for any other value.
+   */
+  public static LocalDateTime parseToLocal(final CharSequence value) {
+    final LocalDateTime utc = parse(value);
+    if (utc != null) {
+      return utcToLocal(utc);
+    }
+    if (value == null || value.length() == 0 || value.length() > 18) {
+      return null;
+    }
+    for (int index = 0; index < value.length(); index++) {
+      if (!Character.isDigit(value.charAt(index))) {
+        return null;
+      }
+    }
+    return epochMilliToLocal(Long.parseLong(value.toString()));
+  }
+
+  /**
+   * Convert the given time stamp of the default time zone to UTC. Time stamps in the gap or the
+   * overlap of a transition are resolved like {@link LocalDateTime#atZone(ZoneId)} does.
+   */
+  public static LocalDateTime localToUtc(final LocalDateTime local) {
+    final OffsetPeriod period = offsetPeriod;
+    final long epochSecond = local.toEpochSecond(period.offset);
+    // a day away from the transitions the offset is unambiguous
+    if (epochSecond - SECONDS_PER_DAY >= period.from
+        && epochSecond + SECONDS_PER_DAY < period.until) {
+      return LocalDateTime.ofEpochSecond(epochSecond, local.getNano(), ZoneOffset.UTC);
+    }
+    final Instant instant = local.atZone(ZONE).toInstant();
+    offsetPeriod = OffsetPeriod.of(instant);
+    return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+  }
+
+  private static ZoneOffset offsetAt(final long epochSecond) {
+    OffsetPeriod period = offsetPeriod;
+    if (epochSecond < period.from || epochSecond >= period.until) {
+      period = OffsetPeriod.of(Instant.ofEpochSecond(epochSecond));
+      offsetPeriod = period;
+    }
+    return period.offset;
+  }
+
+  /**
+   * Read the decimal number between the given indices, -1 if any of the characters is no digit.
+   */
+  private static int digits(final CharSequence text, final int start, final int end) {
+    int value = 0;
+    for (int index = start; index < end; index++) {
+      final int digit = text.charAt(index) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static void putDigits(final char[] text, final int start, final int end,
+                                final int value) {
+    int remaining = value;
+    for (int index = end - 1; index >= start; index--) {
+      text[index] = (char) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+  }
+
+  /**
+   * The offset of the default zone between two of its transitions, in seconds since the epoch.
+   */
+  private static final class OffsetPeriod {
+    private final long from;
+    private final long until;
+    private final ZoneOffset offset;
+
+    private OffsetPeriod(final long from, final long until, final ZoneOffset offset) {
+      this.from = from;
+      this.until = until;
+      this.offset = offset;
+    }
+
+    private static OffsetPeriod of(final Instant instant) {
+      final ZoneRules rules = ZONE.getRules();
+      final ZoneOffset offset = rules.getOffset(instant);
+      if (rules.isFixedOffset()) {
+        return new OffsetPeriod(Long.MIN_VALUE, Long.MAX_VALUE, offset);
+      }
+      final ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+      final ZoneOffsetTransition next = rules.nextTransition(instant);
+      return new OffsetPeriod(previous == null ? Long.MIN_VALUE : previous.toEpochSecond(),
+          next == null ? Long.MAX_VALUE : next.toEpochSecond(), offset);
+    }
+  }
+}
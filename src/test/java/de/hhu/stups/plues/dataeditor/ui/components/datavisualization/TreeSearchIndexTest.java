@@ -0,0 +1,163 @@
+package de.hhu.stups.plues.dataeditor.ui.components.datavisualization;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.Group;
+import de.hhu.stups.plues.dataeditor.ui.entities.GroupWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.Level;
+import de.hhu.stups.plues.dataeditor.ui.entities.LevelWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.Module;
+import de.hhu.stups.plues.dataeditor.ui.entities.ModuleWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.SubRootWrapper;
+import javafx.scene.control.TreeItem;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TreeSearchIndexTest {
+
+  private TreeItem<EntityWrapper> root;
+  private TreeItem<EntityWrapper> level;
+  private TreeItem<EntityWrapper> programming;
+  private TreeItem<EntityWrapper> analysis;
+  private TreeItem<EntityWrapper> group;
+  private TreeSearchIndex index;
+
+  /**
+   * Build a level with two modules and a sub root holding a group below an empty root.
+   */
+  @Before
+  public void setUp() {
+    root = new TreeItem<>();
+    level = new TreeItem<>(createLevel(1, "Wahlbereich"));
+    programming = new TreeItem<>(createModule(1, "P-M-1", "Programming"));
+    analysis = new TreeItem<>(createModule(2, "P-M-2", "Analysis and Programming"));
+    final TreeItem<EntityWrapper> subRoot = new TreeItem<>(new SubRootWrapper("groups"));
+    group = new TreeItem<>(createGroup(42));
+    root.getChildren().add(level);
+    level.getChildren().add(programming);
+    level.getChildren().add(analysis);
+    level.getChildren().add(subRoot);
+    subRoot.getChildren().add(group);
+    index = new TreeSearchIndex(root);
+  }
+
+  @Test
+  public void testMatchesWithAncestors() {
+    final TreeItem<EntityWrapper> filteredRoot = search("analysis");
+    Assert.assertNull(filteredRoot.getValue());
+    Assert.assertEquals(1, filteredRoot.getChildren().size());
+    final TreeItem<EntityWrapper> filteredLevel = filteredRoot.getChildren().get(0);
+    Assert.assertSame(level.getValue(), filteredLevel.getValue());
+    Assert.assertEquals(values(analysis), values(filteredLevel.getChildren()));
+    Assert.assertNotSame(level, filteredLevel);
+  }
+
+  @Test
+  public void testOrderOfSiblings() {
+    final TreeItem<EntityWrapper> filteredLevel = search("programming").getChildren().get(0);
+    Assert.assertEquals(values(programming, analysis), values(filteredLevel.getChildren()));
+  }
+
+  @Test
+  public void testCaseAndKeys() {
+    Assert.assertEquals(values(programming),
+        values(search("p-m-1").getChildren().get(0).getChildren()));
+    // the query is lower-cased by the caller, the texts are lower-cased by the index
+    Assert.assertTrue(search("PROGRAMMING").getChildren().isEmpty());
+  }
+
+  @Test
+  public void testShortQuery() {
+    final TreeItem<EntityWrapper> filteredLevel = search("an").getChildren().get(0);
+    Assert.assertEquals(values(analysis), values(filteredLevel.getChildren()));
+  }
+
+  @Test
+  public void testNoMatch() {
+    Assert.assertTrue(search("xyz").getChildren().isEmpty());
+    Assert.assertTrue(search("gro").getChildren().isEmpty());
+  }
+
+  @Test
+  public void testExactId() {
+    final TreeItem<EntityWrapper> filteredSubRoot =
+        search("42").getChildren().get(0).getChildren().get(0);
+    Assert.assertTrue(filteredSubRoot.getValue() instanceof SubRootWrapper);
+    Assert.assertEquals(values(group), values(filteredSubRoot.getChildren()));
+    Assert.assertTrue(search("4").getChildren().isEmpty());
+  }
+
+  @Test
+  public void testRemoveAndAdd() {
+    level.getChildren().remove(programming);
+    index.remove(programming);
+    Assert.assertEquals(values(analysis),
+        values(search("programming").getChildren().get(0).getChildren()));
+
+    // a moved item is added again and sorted behind its siblings
+    level.getChildren().add(programming);
+    index.add(programming);
+    Assert.assertEquals(values(analysis, programming),
+        values(search("programming").getChildren().get(0).getChildren()));
+  }
+
+  @Test
+  public void testRemoveDescendants() {
+    root.getChildren().remove(level);
+    index.remove(level);
+    Assert.assertTrue(search("programming").getChildren().isEmpty());
+    Assert.assertTrue(search("42").getChildren().isEmpty());
+  }
+
+  @Test
+  public void testSearchIsCapturedWhenPrepared() {
+    final TreeSearchIndex.Search search = index.prepareSearch("programming");
+    level.getChildren().remove(analysis);
+    index.remove(analysis);
+    final TreeItem<EntityWrapper> filteredLevel = search.createFilteredRoot().getChildren().get(0);
+    Assert.assertEquals(values(programming, analysis), values(filteredLevel.getChildren()));
+  }
+
+  private TreeItem<EntityWrapper> search(final String query) {
+    return index.prepareSearch(query).createFilteredRoot();
+  }
+
+  @SafeVarargs
+  private static List<EntityWrapper> values(final TreeItem<EntityWrapper>... treeItems) {
+    final List<EntityWrapper> values = new ArrayList<>();
+    for (final TreeItem<EntityWrapper> treeItem : treeItems) {
+      values.add(treeItem.getValue());
+    }
+    return values;
+  }
+
+  private static List<EntityWrapper> values(final List<TreeItem<EntityWrapper>> treeItems) {
+    final List<EntityWrapper> values = new ArrayList<>();
+    treeItems.forEach(treeItem -> values.add(treeItem.getValue()));
+    return values;
+  }
+
+  private static LevelWrapper createLevel(final int id, final String name) {
+    final Level level = new Level();
+    level.setId(id);
+    level.setName(name);
+    return new LevelWrapper(level);
+  }
+
+  private static ModuleWrapper createModule(final int id, final String key, final String title) {
+    final Module module = new Module();
+    module.setId(id);
+    module.setKey(key);
+    module.setTitle(title);
+    return new ModuleWrapper(module);
+  }
+
+  private static GroupWrapper createGroup(final int id) {
+    final Group group = new Group();
+    group.setId(id);
+    return new GroupWrapper(group);
+  }
+}
@@ -0,0 +1,125 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class EntityRelationsTest {
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    final EntityRelations relations = createRelations();
+    final ByteBuffer buffer = write(relations);
+    final EntityRelations read = EntityRelations.read(buffer);
+    Assert.assertFalse(buffer.hasRemaining());
+
+    Assert.assertEquals(ids(10, 11), read.getAbstractUnitsOfModule(1));
+    Assert.assertEquals(ids(1, 2), read.getModulesOfAbstractUnit(10));
+    Assert.assertEquals(ids(10), read.getAbstractUnitsOfUnit(20));
+    Assert.assertEquals(ids(20, 21), read.getUnitsOfAbstractUnit(10));
+    Assert.assertEquals(ids(100, 101), read.getCoursesOfModule(1));
+    Assert.assertEquals(ids(1, 2), read.getModulesOfLevel(50));
+    Assert.assertEquals(Integer.valueOf(50), read.getLevelOfModule(1));
+    Assert.assertEquals(ids(102), read.getMinorsOfCourse(100));
+    Assert.assertEquals(ids(100, 101), read.getMajorsOfCourse(102));
+    Assert.assertEquals(ids(50, 51), read.getLevelsOfCourse(100));
+    Assert.assertEquals(Integer.valueOf(100), read.getCourseOfLevel(50));
+    Assert.assertEquals(ids(52), read.getChildrenOfLevel(50));
+    Assert.assertEquals(Integer.valueOf(50), read.getParentOfLevel(52));
+    Assert.assertEquals(ids(30, 31), read.getGroupsOfUnit(20));
+    Assert.assertEquals(Integer.valueOf(20), read.getUnitOfGroup(30));
+    Assert.assertEquals(ids(40), read.getSessionsOfGroup(30));
+    Assert.assertEquals(Integer.valueOf(30), read.getGroupOfSession(40));
+    Assert.assertEquals(ids(1, 3), read.getSemestersOfUnit(20));
+
+    Assert.assertEquals(Collections.emptySet(), read.getAbstractUnitsOfModule(99));
+    Assert.assertNull(read.getLevelOfModule(99));
+    assertUnchanged(relations, read);
+  }
+
+  @Test
+  public void testEmptyRoundTrip() throws IOException {
+    final ByteBuffer buffer = write(new EntityRelations());
+    final EntityRelations read = EntityRelations.read(buffer);
+    Assert.assertFalse(buffer.hasRemaining());
+    assertUnchanged(new EntityRelations(), read);
+    assertUnchanged(read, new EntityRelations());
+  }
+
+  @Test
+  public void testRoundTripDetectsChanges() throws IOException {
+    final EntityRelations changed = createRelations();
+    changed.addSession(41, 31);
+    final EntityRelations read = EntityRelations.read(write(changed));
+    Assert.assertEquals(ids(31), read.changedSince(createRelations()).get(EntityType.GROUP));
+    Assert.assertEquals(ids(41), read.changedSince(createRelations()).get(EntityType.SESSION));
+  }
+
+  @Test
+  public void testCopyTables() {
+    final EntityRelations relations = createRelations();
+    final EntityRelations copy = new EntityRelations();
+    Arrays.asList("module_levels", "modules_abstract_units_types", "unit_abstract_unit", "minors",
+        "course_levels", "levels", "groups", "sessions", "unit_semester")
+        .forEach(table -> copy.copyTable(table, relations));
+    assertUnchanged(relations, copy);
+    Assert.assertEquals(ids(10), copy.getAbstractUnitsOfUnit(20));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCopyTableWithoutRelations() {
+    new EntityRelations().copyTable("courses", createRelations());
+  }
+
+  private static EntityRelations createRelations() {
+    final EntityRelations relations = new EntityRelations();
+    relations.addModuleAbstractUnit(1, 10);
+    relations.addModuleAbstractUnit(1, 11);
+    relations.addModuleAbstractUnit(2, 10);
+    relations.addUnitAbstractUnit(20, 10);
+    relations.addUnitAbstractUnit(21, 10);
+    relations.addModuleLevel(1, 50, 100);
+    relations.addModuleLevel(1, 50, 101);
+    relations.addModuleLevel(2, 50, 100);
+    relations.addMinor(100, 102);
+    relations.addMinor(101, 102);
+    relations.addCourseLevel(100, 50);
+    relations.addCourseLevel(100, 51);
+    relations.addLevelParent(52, 50);
+    relations.addGroup(30, 20);
+    relations.addGroup(31, 20);
+    relations.addSession(40, 30);
+    relations.addUnitSemester(20, 1);
+    relations.addUnitSemester(20, 3);
+    return relations;
+  }
+
+  private static ByteBuffer write(final EntityRelations relations) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final DataOutputStream output = new DataOutputStream(bytes)) {
+      relations.write(output);
+    }
+    return ByteBuffer.wrap(bytes.toByteArray());
+  }
+
+  private static void assertUnchanged(final EntityRelations expected,
+                                      final EntityRelations actual) {
+    actual.changedSince(expected).forEach((entityType, ids) ->
+        Assert.assertEquals(entityType.toString(), Collections.emptySet(), ids));
+    expected.changedSince(actual).forEach((entityType, ids) ->
+        Assert.assertEquals(entityType.toString(), Collections.emptySet(), ids));
+  }
+
+  private static Set<Integer> ids(final Integer... ids) {
+    return new HashSet<>(Arrays.asList(ids));
+  }
+}
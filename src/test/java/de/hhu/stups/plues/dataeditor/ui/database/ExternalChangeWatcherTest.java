@@ -0,0 +1,73 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class ExternalChangeWatcherTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final Semaphore changes = new Semaphore(0);
+  private SQLiteDataSource dataSource;
+  private ExternalChangeWatcher watcher;
+  private Thread watching;
+
+  @Before
+  public void setUp() throws Exception {
+    final File dbFile = folder.newFile("test.sqlite3");
+    dataSource = new SQLiteDataSource();
+    dataSource.setUrl("jdbc:sqlite:" + dbFile.getAbsolutePath());
+    execute("CREATE TABLE courses (id INTEGER PRIMARY KEY, name TEXT)");
+    watcher = new ExternalChangeWatcher(dbFile, dataSource, Duration.ofMillis(100),
+        changes::release);
+    watching = new Thread(watcher);
+    watching.start();
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    watching.interrupt();
+    watching.join();
+    watcher.close();
+  }
+
+  @Test
+  public void testExternalCommit() throws Exception {
+    execute("INSERT INTO courses (name) VALUES ('Informatik')");
+    Assert.assertTrue(changes.tryAcquire(5, TimeUnit.SECONDS));
+    execute("UPDATE courses SET name = 'Mathematik'");
+    Assert.assertTrue(changes.tryAcquire(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testOwnWrite() throws Exception {
+    watcher.runOwnWrite(() -> {
+      execute("INSERT INTO courses (name) VALUES ('Informatik')");
+      return null;
+    });
+    Assert.assertFalse(changes.tryAcquire(1, TimeUnit.SECONDS));
+  }
+
+  private void execute(final String sql) {
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement()) {
+      statement.executeUpdate(sql);
+    } catch (final SQLException exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+}
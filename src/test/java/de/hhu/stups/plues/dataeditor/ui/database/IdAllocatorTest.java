@@ -0,0 +1,117 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdAllocatorTest {
+
+  private IdAllocator idAllocator;
+  private int maxId;
+  private int maxIdQueries;
+
+  /**
+   * Register a query for the courses that counts how often it is called.
+   */
+  @Before
+  public void setUp() {
+    idAllocator = new IdAllocator();
+    idAllocator.register(EntityType.COURSE, () -> {
+      maxIdQueries++;
+      return maxId;
+    });
+  }
+
+  @Test
+  public void testEmptyBlock() {
+    maxId = 41;
+    Assert.assertEquals(42, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(43, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(1, maxIdQueries);
+  }
+
+  @Test
+  public void testSeed() {
+    idAllocator.seed(EntityType.COURSE, 10);
+    Assert.assertEquals(11, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(12, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(0, maxIdQueries);
+  }
+
+  @Test
+  public void testSkip() {
+    idAllocator.seed(EntityType.COURSE, 10);
+    idAllocator.skip(EntityType.COURSE, 20);
+    Assert.assertEquals(21, idAllocator.nextId(EntityType.COURSE));
+    // a smaller id keeps the current block
+    idAllocator.skip(EntityType.COURSE, 5);
+    Assert.assertEquals(22, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(0, maxIdQueries);
+  }
+
+  @Test
+  public void testBlockRollover() {
+    idAllocator.seed(EntityType.COURSE, 0);
+    for (int id = 1; id <= 64; id++) {
+      Assert.assertEquals(id, idAllocator.nextId(EntityType.COURSE));
+    }
+    Assert.assertEquals(0, maxIdQueries);
+
+    // rows written by someone else in the meantime are skipped by the next block
+    maxId = 100;
+    Assert.assertEquals(101, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(1, maxIdQueries);
+    maxId = 200;
+    Assert.assertEquals(102, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(1, maxIdQueries);
+  }
+
+  @Test
+  public void testBlockRolloverKeepsLargerNextId() {
+    idAllocator.seed(EntityType.COURSE, 0);
+    for (int id = 1; id <= 64; id++) {
+      idAllocator.nextId(EntityType.COURSE);
+    }
+    maxId = 10;
+    Assert.assertEquals(65, idAllocator.nextId(EntityType.COURSE));
+  }
+
+  @Test
+  public void testInvalidate() {
+    idAllocator.seed(EntityType.COURSE, 10);
+    Assert.assertEquals(11, idAllocator.nextId(EntityType.COURSE));
+
+    maxId = 30;
+    idAllocator.invalidate();
+    Assert.assertEquals(31, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(32, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(1, maxIdQueries);
+
+    // the block is kept if nothing has been written by someone else
+    maxId = 32;
+    idAllocator.invalidate();
+    Assert.assertEquals(33, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(2, maxIdQueries);
+  }
+
+  @Test
+  public void testSkipAfterInvalidate() {
+    idAllocator.seed(EntityType.COURSE, 10);
+    idAllocator.invalidate();
+    idAllocator.skip(EntityType.COURSE, 5);
+    Assert.assertEquals(11, idAllocator.nextId(EntityType.COURSE));
+    Assert.assertEquals(0, maxIdQueries);
+  }
+
+  @Test
+  public void testIsFree() {
+    idAllocator.seed(EntityType.COURSE, 10);
+    final int id = idAllocator.nextId(EntityType.COURSE);
+    maxId = 10;
+    Assert.assertTrue(idAllocator.isFree(EntityType.COURSE, id));
+    // someone else has committed a row with the id in the meantime
+    maxId = 11;
+    Assert.assertFalse(idAllocator.isFree(EntityType.COURSE, id));
+  }
+}
@@ -0,0 +1,68 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class JoinSetSynchronizerTest {
+
+  private final List<Set<Integer>> inserts = new ArrayList<>();
+  private final List<Set<Integer>> deletes = new ArrayList<>();
+
+  @Test
+  public void testAddAndRemove() {
+    synchronize(Arrays.asList(1, 2, 3), Arrays.asList(2, 3, 4, 5));
+    Assert.assertEquals(Collections.singletonList(set(4, 5)), inserts);
+    Assert.assertEquals(Collections.singletonList(set(1)), deletes);
+  }
+
+  @Test
+  public void testUnchanged() {
+    synchronize(Arrays.asList(1, 2, 3), Arrays.asList(3, 1, 2));
+    Assert.assertTrue(inserts.isEmpty());
+    Assert.assertTrue(deletes.isEmpty());
+  }
+
+  @Test
+  public void testOnlyAdded() {
+    synchronize(Collections.emptyList(), Arrays.asList(1, 2));
+    Assert.assertEquals(Collections.singletonList(set(1, 2)), inserts);
+    Assert.assertTrue(deletes.isEmpty());
+  }
+
+  @Test
+  public void testOnlyRemoved() {
+    synchronize(Arrays.asList(1, 2), Collections.emptyList());
+    Assert.assertTrue(inserts.isEmpty());
+    Assert.assertEquals(Collections.singletonList(set(1, 2)), deletes);
+  }
+
+  @Test
+  public void testDuplicates() {
+    synchronize(Arrays.asList(1, 1, 2), Arrays.asList(2, 3, 3));
+    Assert.assertEquals(Collections.singletonList(set(3)), inserts);
+    Assert.assertEquals(Collections.singletonList(set(1)), deletes);
+  }
+
+  @Test
+  public void testDeleteBeforeInsert() {
+    final List<String> calls = new ArrayList<>();
+    JoinSetSynchronizer.synchronize(Collections.singletonList(1), Collections.singletonList(2),
+        ids -> calls.add("insert"), ids -> calls.add("delete"));
+    Assert.assertEquals(Arrays.asList("delete", "insert"), calls);
+  }
+
+  private void synchronize(final List<Integer> persistedIds, final List<Integer> currentIds) {
+    JoinSetSynchronizer.synchronize(persistedIds, currentIds, inserts::add, deletes::add);
+  }
+
+  private static Set<Integer> set(final Integer... ids) {
+    return new HashSet<>(Arrays.asList(ids));
+  }
+}
@@ -0,0 +1,156 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import de.hhu.stups.plues.dataeditor.ui.entities.Course;
+import de.hhu.stups.plues.dataeditor.ui.entities.CourseWrapper;
+import de.hhu.stups.plues.dataeditor.ui.entities.EntityType;
+import org.hibernate.usertype.SqliteTimeStamps;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class LoadStateTest {
+
+  private static final LocalDateTime WATERMARK =
+      LocalDateTime.of(2020, 6, 1, 12, 0, 30, 500_000_000);
+
+  @Test
+  public void testIdsOfSnapshot() {
+    final LoadState state = stateOf(createSnapshot(WATERMARK, 1, 2, 3));
+    Assert.assertEquals(ids(1, 2, 3), state.getIds(EntityType.COURSE));
+    Assert.assertEquals(ids(), state.getIds(EntityType.LEVEL));
+  }
+
+  @Test
+  public void testWithoutWatermark() {
+    final LoadState state = stateOf(createSnapshot(null, 1));
+    Assert.assertEquals("updated_at IS NOT NULL",
+        state.changedRows(currentIds(1)).get("courses"));
+  }
+
+  @Test
+  public void testIdRanges() {
+    final LoadState state = stateOf(createSnapshot(null, 1, 2));
+    final String condition = state.changedRows(currentIds(1, 2, 4, 5, 6, 8, 10, 11))
+        .get("courses");
+    Assert.assertEquals("updated_at IS NOT NULL OR id BETWEEN 4 AND 6 OR id = 8"
+        + " OR id BETWEEN 10 AND 11", condition);
+    Assert.assertEquals("updated_at IS NOT NULL",
+        state.changedRows(currentIds(1, 2)).get("levels"));
+  }
+
+  @Test
+  public void testChangedRows() throws Exception {
+    final LoadState state = stateOf(createSnapshot(WATERMARK, 1, 2, 3, 4));
+    final String condition = state.changedRows(currentIds(1, 2, 3, 4, 5)).get("courses");
+    try (final Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+      try (final Statement statement = connection.createStatement()) {
+        statement.execute("CREATE TABLE courses (id INTEGER PRIMARY KEY, updated_at)");
+      }
+      try (final PreparedStatement insert =
+               connection.prepareStatement("INSERT INTO courses VALUES (?, ?)")) {
+        // the text is stored in UTC, the milliseconds are stored since the epoch
+        insertRow(insert, 1, toText(WATERMARK.minusHours(1)));
+        insertRow(insert, 2, toText(WATERMARK.withNano(0)));
+        insertRow(insert, 3, toMillis(WATERMARK.plusSeconds(1)));
+        insertRow(insert, 4, toMillis(WATERMARK.minusDays(1)));
+        insertRow(insert, 5, toText(WATERMARK.minusDays(1)));
+        insertRow(insert, 6, toMillis(WATERMARK.withNano(0)));
+      }
+      final Set<Integer> selected = new HashSet<>();
+      try (final Statement statement = connection.createStatement();
+           final ResultSet resultSet =
+               statement.executeQuery("SELECT id FROM courses WHERE " + condition)) {
+        while (resultSet.next()) {
+          selected.add(resultSet.getInt(1));
+        }
+      }
+      Assert.assertEquals(ids(2, 3, 5, 6), selected);
+    }
+  }
+
+  @Test
+  public void testAdvance() {
+    final LoadState state = stateOf(createSnapshot(WATERMARK, 1));
+    // an older change keeps the watermark, the new id is known afterwards
+    final LoadState older = state.advance(createSnapshot(WATERMARK.minusHours(1), 2),
+        currentIds(1, 2), TableFingerprints.none());
+    Assert.assertEquals(ids(1, 2), older.getIds(EntityType.COURSE));
+    Assert.assertEquals(state.changedRows(currentIds(1)), older.changedRows(currentIds(1, 2)));
+
+    final LoadState newer = state.advance(createSnapshot(WATERMARK.plusHours(1), 2),
+        currentIds(1, 2), TableFingerprints.none());
+    Assert.assertEquals(stateOf(createSnapshot(WATERMARK.plusHours(1), 1, 2))
+        .changedRows(currentIds(1, 2)), newer.changedRows(currentIds(1, 2)));
+  }
+
+  @Test
+  public void testAdvanceWithoutWatermark() {
+    final LoadState state = stateOf(createSnapshot(null, 1));
+    final LoadState advanced = state.advance(createSnapshot(WATERMARK, 1), currentIds(1),
+        TableFingerprints.none());
+    Assert.assertEquals(stateOf(createSnapshot(WATERMARK, 1)).changedRows(currentIds(1)),
+        advanced.changedRows(currentIds(1)));
+  }
+
+  private static LoadState stateOf(final EntitySnapshot snapshot) {
+    return LoadState.of(snapshot, TableFingerprints.none());
+  }
+
+  private static void insertRow(final PreparedStatement insert, final int id, final Object value)
+      throws Exception {
+    insert.setInt(1, id);
+    insert.setObject(2, value);
+    insert.executeUpdate();
+  }
+
+  private static String toText(final LocalDateTime dateTime) {
+    return SqliteTimeStamps.format(SqliteTimeStamps.localToUtc(dateTime));
+  }
+
+  private static long toMillis(final LocalDateTime dateTime) {
+    return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Create a snapshot of courses with the given ids, the last one updated at the given time and
+   * the others an hour before.
+   */
+  private static EntitySnapshot createSnapshot(final LocalDateTime updatedAt,
+                                               final int... courseIds) {
+    final ObservableIntMap<CourseWrapper> courses = new ObservableIntMap<>();
+    for (int i = 0; i < courseIds.length; i++) {
+      final Course course = new Course();
+      course.setId(courseIds[i]);
+      if (updatedAt != null) {
+        course.setUpdatedAt(i == courseIds.length - 1 ? updatedAt : updatedAt.minusHours(1));
+      }
+      courses.put(courseIds[i], new CourseWrapper(course));
+    }
+    return new EntitySnapshot(courses, new ObservableIntMap<>(), new ObservableIntMap<>(),
+        new ObservableIntMap<>(), new ObservableIntMap<>(), new ObservableIntMap<>(),
+        new ObservableIntMap<>(), new EntityRelations());
+  }
+
+  private static Map<EntityType, Set<Integer>> currentIds(final Integer... courseIds) {
+    final Map<EntityType, Set<Integer>> currentIds = new EnumMap<>(EntityType.class);
+    LoadState.TABLES.keySet().forEach(entityType -> currentIds.put(entityType, ids()));
+    currentIds.put(EntityType.COURSE, ids(courseIds));
+    return currentIds;
+  }
+
+  private static Set<Integer> ids(final Integer... ids) {
+    return new HashSet<>(Arrays.asList(ids));
+  }
+}
@@ -0,0 +1,232 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class ObservableIntMapTest {
+
+  @Test
+  public void testPutGetRemove() {
+    final ObservableIntMap<String> map = new ObservableIntMap<>();
+    Assert.assertNull(map.put(1, "a"));
+    Assert.assertEquals("a", map.put(1, "b"));
+    Assert.assertEquals("b", map.get(1));
+    Assert.assertEquals("b", map.get((Object) 1));
+    Assert.assertNull(map.get("1"));
+    Assert.assertTrue(map.containsKey(1));
+    Assert.assertEquals(1, map.size());
+    Assert.assertEquals("b", map.remove(1));
+    Assert.assertNull(map.remove(1));
+    Assert.assertFalse(map.containsKey(1));
+    Assert.assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void testTombstoneReuse() throws Exception {
+    final ObservableIntMap<String> map = new ObservableIntMap<>();
+    map.put(1, "a");
+    map.remove(1);
+    Assert.assertEquals(1, getField(map, "tombstones"));
+    map.put(1, "b");
+    Assert.assertEquals(0, getField(map, "tombstones"));
+    Assert.assertEquals("b", map.get(1));
+
+    final int capacity = getCapacity(map);
+    for (int i = 0; i < 1000; i++) {
+      map.put(2, "c");
+      map.remove(2);
+    }
+    Assert.assertEquals(capacity, getCapacity(map));
+    Assert.assertEquals(Collections.singletonMap(1, "b"), map);
+  }
+
+  @Test
+  public void testRehash() throws Exception {
+    final ObservableIntMap<String> map = new ObservableIntMap<>();
+    final int capacity = getCapacity(map);
+    for (int key = 0; key < 1000; key++) {
+      map.put(key, String.valueOf(key * 2));
+    }
+    Assert.assertTrue(getCapacity(map) > capacity);
+    Assert.assertEquals(1000, map.size());
+    for (int key = 0; key < 1000; key++) {
+      Assert.assertEquals(String.valueOf(key * 2), map.get(key));
+    }
+    Assert.assertEquals(1000, map.keyStream().distinct().count());
+  }
+
+  @Test
+  public void testRehashDropsTombstones() throws Exception {
+    final ObservableIntMap<String> map = new ObservableIntMap<>();
+    for (int key = 0; key < 10; key++) {
+      map.put(key, String.valueOf(key));
+    }
+    for (int key = 0; key < 8; key++) {
+      map.remove(key);
+    }
+    Assert.assertEquals(8, getField(map, "tombstones"));
+    // the tombstones count towards the load factor and are dropped by the rehash
+    for (int key = 100; key < 110; key++) {
+      map.put(key, String.valueOf(key));
+    }
+    Assert.assertTrue(getField(map, "tombstones") < 8);
+    Assert.assertEquals(12, map.size());
+    Assert.assertEquals("9", map.get(9));
+    Assert.assertEquals("105", map.get(105));
+  }
+
+  @Test
+  public void testMatchesHashMap() {
+    final ObservableIntMap<String> map = new ObservableIntMap<>();
+    final Map<Integer, String> expected = new HashMap<>();
+    final Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      final int key = random.nextInt(200) - 100;
+      if (random.nextInt(3) == 0) {
+        Assert.assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        final String value = String.valueOf(random.nextInt(10));
+        Assert.assertEquals(expected.put(key, value), map.put(key, value));
+      }
+    }
+    Assert.assertEquals(expected, map);
+    Assert.assertEquals(expected.keySet(),
+        map.keyStream().boxed().collect(Collectors.toSet()));
+  }
+
+  @Test
+  public void testIteratorRemove() {
+    final ObservableIntMap<String> map = new ObservableIntMap<>();
+    for (int key = 0; key < 100; key++) {
+      map.put(key, String.valueOf(key));
+    }
+    final Iterator<String> iterator = map.values().iterator();
+    int visited = 0;
+    while (iterator.hasNext()) {
+      final int value = Integer.parseInt(iterator.next());
+      visited++;
+      if (value % 2 == 0) {
+        iterator.remove();
+      }
+    }
+    Assert.assertEquals(100, visited);
+    Assert.assertEquals(50, map.size());
+    map.keyStream().forEach(key -> Assert.assertEquals(1, key % 2));
+  }
+
+  @Test
+  public void testIteratorRemoveTwice() {
+    final ObservableIntMap<String> map = new ObservableIntMap<>();
+    map.put(1, "a");
+    final Iterator<Map.Entry<Integer, String>> iterator = map.entrySet().iterator();
+    iterator.next();
+    iterator.remove();
+    try {
+      iterator.remove();
+      Assert.fail();
+    } catch (final IllegalStateException expected) {
+      Assert.assertTrue(map.isEmpty());
+    }
+  }
+
+  @Test(expected = ConcurrentModificationException.class)
+  public void testConcurrentModification() {
+    final ObservableIntMap<String> map = new ObservableIntMap<>();
+    map.put(1, "a");
+    map.put(2, "b");
+    final Iterator<String> iterator = map.values().iterator();
+    iterator.next();
+    map.put(3, "c");
+    iterator.next();
+  }
+
+  @Test
+  public void testChangesMatchObservableHashMap() {
+    assertSameChanges(map -> {
+      map.put(1, "a");
+      map.put(2, "b");
+      map.put(1, "c");
+      // an equal value is not reported
+      map.put(2, "b");
+      map.remove(1);
+      map.remove(3);
+      map.entrySet().iterator().next().setValue("d");
+      map.putAll(Collections.singletonMap(4, "e"));
+    });
+  }
+
+  @Test
+  public void testClearChangesMatchObservableHashMap() {
+    final List<String> expected = recordChanges(FXCollections.observableHashMap(),
+        ObservableIntMapTest::fillAndClear);
+    final List<String> actual = recordChanges(new ObservableIntMap<>(),
+        ObservableIntMapTest::fillAndClear);
+    // the order of the removals depends on the layout of the maps
+    Collections.sort(expected);
+    Collections.sort(actual);
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testInvalidationListener() {
+    final ObservableIntMap<String> map = new ObservableIntMap<>();
+    final int[] invalidations = new int[1];
+    map.addListener((InvalidationListener) observable -> invalidations[0]++);
+    map.put(1, "a");
+    map.put(1, "a");
+    map.put(1, "b");
+    map.remove(1);
+    Assert.assertEquals(3, invalidations[0]);
+  }
+
+  private static void fillAndClear(final Map<Integer, String> map) {
+    for (int key = 0; key < 20; key++) {
+      map.put(key, String.valueOf(key));
+    }
+    map.clear();
+  }
+
+  private static void assertSameChanges(final Consumer<Map<Integer, String>> operations) {
+    Assert.assertEquals(recordChanges(FXCollections.observableHashMap(), operations),
+        recordChanges(new ObservableIntMap<>(), operations));
+  }
+
+  private static List<String> recordChanges(final ObservableMap<Integer, String> map,
+                                            final Consumer<Map<Integer, String>> operations) {
+    final List<String> changes = new ArrayList<>();
+    map.addListener((MapChangeListener<Integer, String>) change -> changes.add(
+        change.getKey() + ": " + change.wasRemoved() + " " + change.getValueRemoved() + ", "
+            + change.wasAdded() + " " + change.getValueAdded()));
+    operations.accept(map);
+    return changes;
+  }
+
+  private static int getCapacity(final ObservableIntMap<?> map) throws Exception {
+    final Field keys = ObservableIntMap.class.getDeclaredField("keys");
+    keys.setAccessible(true);
+    return ((int[]) keys.get(map)).length;
+  }
+
+  private static int getField(final ObservableIntMap<?> map, final String name)
+      throws Exception {
+    final Field field = ObservableIntMap.class.getDeclaredField(name);
+    field.setAccessible(true);
+    return field.getInt(map);
+  }
+}
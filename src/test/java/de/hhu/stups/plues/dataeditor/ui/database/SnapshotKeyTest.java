@@ -0,0 +1,75 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class SnapshotKeyTest {
+
+  private File dbFile;
+  private SQLiteDataSource dataSource;
+
+  /**
+   * Create a database with a rollback journal.
+   */
+  @Before
+  public void setUp() throws Exception {
+    dbFile = File.createTempFile("plues-snapshot-key-", ".sqlite3");
+    dataSource = new SQLiteDataSource();
+    dataSource.setUrl("jdbc:sqlite:" + dbFile.getAbsolutePath());
+    execute("CREATE TABLE courses (id INTEGER PRIMARY KEY, name TEXT)");
+    execute("INSERT INTO courses VALUES (1, 'a')");
+  }
+
+  @After
+  public void tearDown() {
+    dbFile.delete();
+  }
+
+  @Test
+  public void testUnchanged() {
+    Assert.assertEquals(SnapshotKey.of(dbFile, dataSource), SnapshotKey.of(dbFile, dataSource));
+  }
+
+  @Test
+  public void testCommitKeepingSizeAndModificationTime() throws Exception {
+    final SnapshotKey key = SnapshotKey.of(dbFile, dataSource);
+    final long size = dbFile.length();
+    final long lastModified = dbFile.lastModified();
+    execute("UPDATE courses SET name = 'b'");
+    // the commit falls into the resolution of the modification time
+    Assert.assertTrue(dbFile.setLastModified(lastModified));
+    Assert.assertEquals(size, dbFile.length());
+    Assert.assertNotEquals(key, SnapshotKey.of(dbFile, dataSource));
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    final SnapshotKey key = SnapshotKey.of(dbFile, dataSource);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final DataOutputStream output = new DataOutputStream(bytes)) {
+      key.write(output);
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+    Assert.assertEquals(key, SnapshotKey.read(buffer));
+    Assert.assertFalse(buffer.hasRemaining());
+  }
+
+  private void execute(final String sql) throws SQLException {
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+}
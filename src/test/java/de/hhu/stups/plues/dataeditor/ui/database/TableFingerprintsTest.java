@@ -0,0 +1,100 @@
+package de.hhu.stups.plues.dataeditor.ui.database;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TableFingerprintsTest {
+
+  private File dbFile;
+  private SQLiteDataSource dataSource;
+
+  /**
+   * Create a database containing every table with its checksum columns.
+   */
+  @Before
+  public void setUp() throws Exception {
+    dbFile = File.createTempFile("plues-fingerprints-", ".sqlite3");
+    dataSource = new SQLiteDataSource();
+    dataSource.setUrl("jdbc:sqlite:" + dbFile.getAbsolutePath());
+    for (final Map.Entry<String, List<String>> table : TableFingerprints.TABLES.entrySet()) {
+      final List<String> columns = table.getValue();
+      execute("CREATE TABLE " + table.getKey() + " (" + String.join(", ", columns)
+          + (columns.contains("id") ? ", PRIMARY KEY (id))" : ")"));
+    }
+    execute("INSERT INTO courses VALUES (1)", "INSERT INTO courses VALUES (2)",
+        "INSERT INTO minors VALUES (1, 2)",
+        "INSERT INTO unit_abstract_unit VALUES (10, 20)",
+        "INSERT INTO unit_abstract_unit VALUES (11, 21)");
+  }
+
+  @After
+  public void tearDown() {
+    dbFile.delete();
+  }
+
+  @Test
+  public void testUnchanged() {
+    final TableFingerprints fingerprints = TableFingerprints.read(dataSource);
+    Assert.assertEquals(Collections.emptySet(),
+        TableFingerprints.read(dataSource).changedSince(fingerprints));
+  }
+
+  @Test
+  public void testNone() {
+    Assert.assertEquals(TableFingerprints.TABLES.keySet(),
+        TableFingerprints.read(dataSource).changedSince(TableFingerprints.none()));
+  }
+
+  @Test
+  public void testInsertAndDelete() throws Exception {
+    final TableFingerprints fingerprints = TableFingerprints.read(dataSource);
+    execute("INSERT INTO courses VALUES (3)", "DELETE FROM minors");
+    Assert.assertEquals(set("courses", "minors"),
+        TableFingerprints.read(dataSource).changedSince(fingerprints));
+  }
+
+  @Test
+  public void testReplacedRow() throws Exception {
+    final TableFingerprints fingerprints = TableFingerprints.read(dataSource);
+    // the rowid of the deleted last row is reused by the insert, the number of rows is unchanged
+    execute("DELETE FROM unit_abstract_unit WHERE unit_id = 11",
+        "INSERT INTO unit_abstract_unit VALUES (11, 22)");
+    Assert.assertEquals(set("unit_abstract_unit"),
+        TableFingerprints.read(dataSource).changedSince(fingerprints));
+  }
+
+  @Test
+  public void testSwappedValues() throws Exception {
+    final TableFingerprints fingerprints = TableFingerprints.read(dataSource);
+    execute("UPDATE unit_abstract_unit SET abstract_unit_id = 41 - abstract_unit_id");
+    Assert.assertEquals(set("unit_abstract_unit"),
+        TableFingerprints.read(dataSource).changedSince(fingerprints));
+  }
+
+  private void execute(final String... statements) throws SQLException {
+    try (final Connection connection = dataSource.getConnection();
+         final Statement statement = connection.createStatement()) {
+      for (final String sql : statements) {
+        statement.execute(sql);
+      }
+    }
+  }
+
+  private static Set<String> set(final String... tables) {
+    return new HashSet<>(Arrays.asList(tables));
+  }
+}
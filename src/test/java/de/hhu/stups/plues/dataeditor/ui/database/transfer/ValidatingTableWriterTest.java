@@ -0,0 +1,72 @@
+package de.hhu.stups.plues.dataeditor.ui.database.transfer;
+
+import de.hhu.stups.plues.dataeditor.exceptions.DataImportException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+
+public class ValidatingTableWriterTest {
+
+  private Connection connection;
+  private Map<String, TableSchema> schemas;
+
+  @Before
+  public void setUp() throws Exception {
+    connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    try (final Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE courses (id INTEGER PRIMARY KEY, name TEXT)");
+      statement.execute("INSERT INTO courses VALUES (5, 'a'), (9, 'b'), (100, 'c')");
+    }
+    schemas = TableSchema.load(connection);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    connection.close();
+  }
+
+  @Test
+  public void testNewIds() throws Exception {
+    final ValidatingTableWriter validator = validate("1", "6", null, "101", "50");
+    validator.checkIds(connection);
+    Assert.assertEquals(5, validator.getRows());
+    Assert.assertEquals(Long.valueOf(101), validator.getMaxIds().get("courses"));
+  }
+
+  @Test
+  public void testStoredId() throws Exception {
+    assertRejected(validate("1", "9", "200"), "A row with id 9 is already stored in table courses");
+  }
+
+  @Test
+  public void testDuplicateId() throws Exception {
+    assertRejected(validate("4", "7", "4"), "Duplicate id 4 in table courses");
+  }
+
+  private ValidatingTableWriter validate(final String... ids) {
+    final ValidatingTableWriter validator = new ValidatingTableWriter(schemas);
+    validator.startTable("courses", Arrays.asList("id", "name"));
+    for (final String id : ids) {
+      validator.writeRow(new Object[] {id, "x"});
+    }
+    validator.endTable();
+    return validator;
+  }
+
+  private void assertRejected(final ValidatingTableWriter validator, final String message)
+      throws Exception {
+    try {
+      validator.checkIds(connection);
+      Assert.fail();
+    } catch (final DataImportException expected) {
+      Assert.assertEquals(message, expected.getMessage());
+    }
+  }
+}
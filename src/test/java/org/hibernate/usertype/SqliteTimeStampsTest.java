@@ -0,0 +1,172 @@
+package org.hibernate.usertype;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+public class SqliteTimeStampsTest {
+
+  @Test
+  public void testParse() {
+    Assert.assertEquals(LocalDateTime.of(2016, 4, 27, 15, 40, 18),
+        SqliteTimeStamps.parse("2016-04-27 15:40:18"));
+    Assert.assertEquals(LocalDateTime.of(1, 1, 1, 0, 0, 0),
+        SqliteTimeStamps.parse("0001-01-01 00:00:00"));
+    Assert.assertEquals(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+        SqliteTimeStamps.parse("9999-12-31 23:59:59"));
+    Assert.assertEquals(LocalDateTime.of(2016, 4, 27, 15, 40, 18),
+        SqliteTimeStamps.parse(new StringBuilder("2016-04-27 15:40:18")));
+  }
+
+  @Test
+  public void testParseFraction() {
+    Assert.assertEquals(LocalDateTime.of(2016, 4, 27, 15, 40, 18, 500_000_000),
+        SqliteTimeStamps.parse("2016-04-27 15:40:18.5"));
+    Assert.assertEquals(LocalDateTime.of(2016, 4, 27, 15, 40, 18, 123_000_000),
+        SqliteTimeStamps.parse("2016-04-27 15:40:18.123"));
+    Assert.assertEquals(LocalDateTime.of(2016, 4, 27, 15, 40, 18, 123_456_789),
+        SqliteTimeStamps.parse("2016-04-27 15:40:18.123456789"));
+    Assert.assertEquals(LocalDateTime.of(2016, 4, 27, 15, 40, 18, 1),
+        SqliteTimeStamps.parse("2016-04-27 15:40:18.000000001"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 15:40:18."));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 15:40:18.1234567890"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 15:40:18.12a"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 15:40:18,123"));
+  }
+
+  @Test
+  public void testParseHour24() {
+    // former versions of the editor wrote midnight as the hour 24 of the same day
+    Assert.assertEquals(LocalDateTime.of(2016, 4, 27, 0, 0, 0),
+        SqliteTimeStamps.parse("2016-04-27 24:00:00"));
+    Assert.assertEquals(LocalDateTime.of(2016, 4, 27, 0, 30, 15),
+        SqliteTimeStamps.parse("2016-04-27 24:30:15"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 25:00:00"));
+  }
+
+  @Test
+  public void testParseLeapDays() {
+    Assert.assertEquals(LocalDateTime.of(2016, 2, 29, 12, 0, 0),
+        SqliteTimeStamps.parse("2016-02-29 12:00:00"));
+    Assert.assertEquals(LocalDateTime.of(2000, 2, 29, 12, 0, 0),
+        SqliteTimeStamps.parse("2000-02-29 12:00:00"));
+    Assert.assertNull(SqliteTimeStamps.parse("2017-02-29 12:00:00"));
+    Assert.assertNull(SqliteTimeStamps.parse("1900-02-29 12:00:00"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-02-30 12:00:00"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-31 12:00:00"));
+    Assert.assertEquals(LocalDateTime.of(2016, 3, 31, 12, 0, 0),
+        SqliteTimeStamps.parse("2016-03-31 12:00:00"));
+  }
+
+  @Test
+  public void testParseInvalidLayouts() {
+    Assert.assertNull(SqliteTimeStamps.parse(null));
+    Assert.assertNull(SqliteTimeStamps.parse(""));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27T15:40:18"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016/04/27 15:40:18"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 15.40.18"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-4-27 15:40:18 "));
+    Assert.assertNull(SqliteTimeStamps.parse(" 2016-04-27 15:40:18"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 15:40:18Z"));
+    Assert.assertNull(SqliteTimeStamps.parse("20a6-04-27 15:40:18"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-00-27 15:40:18"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-13-27 15:40:18"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-00 15:40:18"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 15:60:18"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 15:40:60"));
+    Assert.assertNull(SqliteTimeStamps.parse("2016-04-27 -5:40:18"));
+    Assert.assertNull(SqliteTimeStamps.parse("1461771618000"));
+  }
+
+  @Test
+  public void testFormat() {
+    Assert.assertEquals("2016-04-27 15:40:18",
+        SqliteTimeStamps.format(LocalDateTime.of(2016, 4, 27, 15, 40, 18)));
+    Assert.assertEquals("0001-02-03 04:05:06",
+        SqliteTimeStamps.format(LocalDateTime.of(1, 2, 3, 4, 5, 6)));
+    // the fraction is dropped
+    Assert.assertEquals("2016-04-27 15:40:18",
+        SqliteTimeStamps.format(LocalDateTime.of(2016, 4, 27, 15, 40, 18, 999_999_999)));
+    Assert.assertEquals("+10000-01-01 00:00:00",
+        SqliteTimeStamps.format(LocalDateTime.of(10000, 1, 1, 0, 0, 0)));
+  }
+
+  @Test
+  public void testFormatRoundTrip() {
+    LocalDateTime dateTime = LocalDateTime.of(1999, 12, 31, 0, 0, 0);
+    for (int step = 0; step < 1000; step++) {
+      Assert.assertEquals(dateTime, SqliteTimeStamps.parse(SqliteTimeStamps.format(dateTime)));
+      dateTime = dateTime.plusHours(7).plusMinutes(13).plusSeconds(17);
+    }
+  }
+
+  @Test
+  public void testParseToLocal() {
+    final LocalDateTime utc = LocalDateTime.of(2016, 4, 27, 15, 40, 18);
+    final LocalDateTime local = utc.atOffset(ZoneOffset.UTC)
+        .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    Assert.assertEquals(local, SqliteTimeStamps.parseToLocal("2016-04-27 15:40:18"));
+    final long epochMilli = utc.toInstant(ZoneOffset.UTC).toEpochMilli() + 250;
+    Assert.assertEquals(local.plusNanos(250_000_000),
+        SqliteTimeStamps.parseToLocal(String.valueOf(epochMilli)));
+    Assert.assertNull(SqliteTimeStamps.parseToLocal(null));
+    Assert.assertNull(SqliteTimeStamps.parseToLocal(""));
+    Assert.assertNull(SqliteTimeStamps.parseToLocal("-1461771618000"));
+    Assert.assertNull(SqliteTimeStamps.parseToLocal("1461771618000.5"));
+    Assert.assertNull(SqliteTimeStamps.parseToLocal("1234567890123456789"));
+    Assert.assertNull(SqliteTimeStamps.parseToLocal("yesterday"));
+  }
+
+  /**
+   * Compare the conversions to {@link java.time.ZonedDateTime} around the transitions of the
+   * default time zone, including the local time stamps in their gaps and overlaps. Nothing but
+   * the steady state is checked if the default zone has a fixed offset.
+   */
+  @Test
+  public void testTransitionsOfDefaultZone() {
+    final ZoneId zone = ZoneId.systemDefault();
+    final ZoneRules rules = zone.getRules();
+    Instant instant = Instant.parse("2015-01-01T00:00:00Z");
+    final Instant end = Instant.parse("2021-01-01T00:00:00Z");
+    assertConversions(zone, LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    ZoneOffsetTransition transition = rules.nextTransition(instant);
+    while (transition != null && transition.getInstant().isBefore(end)) {
+      final LocalDateTime utc = LocalDateTime.ofInstant(transition.getInstant(), ZoneOffset.UTC);
+      for (int minutes = -150; minutes <= 150; minutes += 15) {
+        assertConversions(zone, utc.plusMinutes(minutes));
+        assertConversions(zone, transition.getDateTimeBefore().plusMinutes(minutes));
+      }
+      instant = transition.getInstant();
+      transition = rules.nextTransition(instant);
+    }
+  }
+
+  @Test
+  public void testConversionsFarApart() {
+    final ZoneId zone = ZoneId.systemDefault();
+    // jump between distant periods so that the cached offset has to be replaced
+    assertConversions(zone, LocalDateTime.of(1970, 1, 1, 0, 0, 0));
+    assertConversions(zone, LocalDateTime.of(2016, 7, 1, 12, 0, 0));
+    assertConversions(zone, LocalDateTime.of(1985, 1, 1, 12, 0, 0));
+    assertConversions(zone, LocalDateTime.of(2016, 12, 1, 12, 0, 0, 123_000_000));
+  }
+
+  private static void assertConversions(final ZoneId zone, final LocalDateTime dateTime) {
+    final LocalDateTime expectedLocal = dateTime.atOffset(ZoneOffset.UTC)
+        .atZoneSameInstant(zone).toLocalDateTime();
+    Assert.assertEquals(expectedLocal, SqliteTimeStamps.utcToLocal(dateTime));
+    final long epochMilli = dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    Assert.assertEquals(expectedLocal, SqliteTimeStamps.epochMilliToLocal(epochMilli));
+    // a local time stamp in a gap is moved forward, in an overlap the earlier offset is used
+    final LocalDateTime expectedUtc = dateTime.atZone(zone)
+        .withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    Assert.assertEquals(expectedUtc, SqliteTimeStamps.localToUtc(dateTime));
+  }
+}